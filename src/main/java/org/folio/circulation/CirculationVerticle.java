@@ -5,12 +5,15 @@ import java.lang.invoke.MethodHandles;
 import org.folio.circulation.resources.CheckInByBarcodeResource;
 import org.folio.circulation.resources.CheckOutByBarcodeResource;
 import org.folio.circulation.resources.CirculationRulesResource;
+import org.folio.circulation.resources.ConfigurationCacheResource;
 import org.folio.circulation.resources.EndPatronActionSessionResource;
 import org.folio.circulation.resources.LoanAnonymizationResource;
 import org.folio.circulation.resources.DueDateNotRealTimeScheduledNoticeProcessingResource;
 import org.folio.circulation.resources.LoanCirculationRulesEngineResource;
 import org.folio.circulation.resources.LoanCollectionResource;
+import org.folio.circulation.resources.MetricsResource;
 import org.folio.circulation.resources.NoticeCirculationRulesEngineResource;
+import org.folio.circulation.resources.OverdueLoansResource;
 import org.folio.circulation.resources.OverrideCheckOutStrategy;
 import org.folio.circulation.resources.OverrideRenewalStrategy;
 import org.folio.circulation.resources.RegularCheckOutStrategy;
@@ -25,14 +28,15 @@ import org.folio.circulation.resources.RequestQueueResource;
 import org.folio.circulation.resources.DueDateScheduledNoticeProcessingResource;
 import org.folio.circulation.resources.RequestScheduledNoticeProcessingResource;
 import org.folio.circulation.resources.ScheduledAnonymizationProcessingResource;
+import org.folio.circulation.support.http.client.HttpClientConfiguration;
 import org.folio.circulation.support.logging.Logging;
+import org.folio.circulation.support.metrics.RouteMetrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import io.vertx.core.AbstractVerticle;
 import io.vertx.core.Future;
 import io.vertx.core.http.HttpClient;
-import io.vertx.core.http.HttpClientOptions;
 import io.vertx.core.http.HttpServer;
 import io.vertx.ext.web.Router;
 
@@ -49,11 +53,16 @@ public class CirculationVerticle extends AbstractVerticle {
 
     Router router = Router.router(vertx);
 
-    // bump up the connection pool size from the default value of 5
-    HttpClient client = vertx.createHttpClient(new HttpClientOptions().setMaxPoolSize(100));
+    final HttpClientConfiguration httpClientConfiguration
+      = HttpClientConfiguration.from(config());
+
+    HttpClient client = vertx.createHttpClient(
+      httpClientConfiguration.toHttpClientOptions());
 
     this.server = vertx.createHttpServer();
 
+    RouteMetrics.register(router);
+
     new CheckOutByBarcodeResource("/circulation/check-out-by-barcode",
       client, new RegularCheckOutStrategy()).register(router);
     new CheckOutByBarcodeResource("/circulation/override-check-out-by-barcode",
@@ -67,6 +76,7 @@ public class CirculationVerticle extends AbstractVerticle {
     new RenewByBarcodeResource("/circulation/override-renewal-by-barcode",
       new OverrideRenewalStrategy(), client).register(router);
 
+    new OverdueLoansResource(client).register(router);
     new LoanCollectionResource(client).register(router);
     new RequestCollectionResource(client).register(router);
     new RequestQueueResource(client).register(router);
@@ -101,6 +111,9 @@ public class CirculationVerticle extends AbstractVerticle {
 
     new EndPatronActionSessionResource(client).register(router);
 
+    new MetricsResource(client).register(router);
+    new ConfigurationCacheResource(client).register(router);
+
     server.requestHandler(router::accept)
       .listen(config().getInteger("port"), result -> {
         if (result.succeeded()) {
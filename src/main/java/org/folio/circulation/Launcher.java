@@ -4,8 +4,13 @@ import io.vertx.core.json.JsonObject;
 import io.vertx.core.logging.Logger;
 import org.folio.circulation.support.VertxAssistant;
 import org.folio.circulation.support.logging.Logging;
+import org.folio.circulation.support.metrics.EventLoopLagMonitor;
 
+import java.io.IOException;
 import java.lang.invoke.MethodHandles;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
@@ -18,6 +23,7 @@ public class Launcher {
   private final VertxAssistant vertxAssistant;
   private final Logger log;
   private String moduleDeploymentId;
+  private String eventLoopLagMonitorDeploymentId;
 
   public Launcher(VertxAssistant vertxAssistant) {
     Logging.initialiseFormat();
@@ -37,7 +43,37 @@ public class Launcher {
 
     Integer port = Integer.getInteger("port", 9801);
 
-    launcher.start(port).get(10, TimeUnit.SECONDS);
+    final JsonObject configuration = readConfiguration(System.getProperty("config"));
+
+    final Integer instances = Integer.getInteger("instances");
+
+    if (instances != null) {
+      write(configuration, "instances", instances);
+    }
+
+    launcher.start(port, configuration).get(10, TimeUnit.SECONDS);
+  }
+
+  /**
+   * Read additional verticle configuration (e.g. HTTP client options)
+   * from a JSON file, if one is provided
+   *
+   * @param path of the JSON configuration file, may be null for none
+   * @return configuration from the file, or empty configuration
+   */
+  private static JsonObject readConfiguration(String path) {
+    if (path == null) {
+      return new JsonObject();
+    }
+
+    try {
+      return new JsonObject(new String(Files.readAllBytes(Paths.get(path)),
+        StandardCharsets.UTF_8));
+    }
+    catch (IOException e) {
+      throw new IllegalArgumentException(
+        String.format("Cannot read configuration from %s", path), e);
+    }
   }
 
   private void stop() {
@@ -49,10 +85,22 @@ public class Launcher {
   }
 
   public CompletableFuture<Void> undeploy() {
-    return vertxAssistant.undeployVerticle(moduleDeploymentId);
+    // buffered records and queued notices are written before the
+    // HTTP clients of the instances are closed
+    final CompletableFuture<Void> monitorUndeployed = ModuleComponents.close()
+      .thenCompose(v -> eventLoopLagMonitorDeploymentId == null
+        ? CompletableFuture.completedFuture(null)
+        : vertxAssistant.undeployVerticle(eventLoopLagMonitorDeploymentId));
+
+    return monitorUndeployed
+      .thenCompose(v -> vertxAssistant.undeployVerticle(moduleDeploymentId));
   }
 
   public CompletableFuture<Void> start(Integer port) {
+    return start(port, new JsonObject());
+  }
+
+  public CompletableFuture<Void> start(Integer port, JsonObject configuration) {
 
     if(port == null) {
       throw new IllegalArgumentException("port should not be null");
@@ -62,14 +110,42 @@ public class Launcher {
 
     log.info("Server Starting");
 
-    JsonObject config = new JsonObject();
+    JsonObject config = configuration.copy();
     write(config, "port", port);
 
-    CompletableFuture<String> deployed =
-      vertxAssistant.deployVerticle(CirculationVerticle.class, config);
+    // All instances share the same HTTP server port. Instances are deployed as
+    // workers, so connections are spread across the event loops, while handlers
+    // (which evaluate the circulation rules) run on the worker pool
+    final int instances = config.getInteger("instances",
+      Runtime.getRuntime().availableProcessors());
+
+    vertxAssistant.createUsingVertx(vertx -> {
+      ModuleComponents.configure(vertx, config);
+      return null;
+    });
+
+    log.info("Deploying {} instance(s)", instances);
+
+    CompletableFuture<String> deployed = deployEventLoopLagMonitor(config)
+      .thenCompose(v -> vertxAssistant.deployVerticle(
+        CirculationVerticle.class, config, instances));
 
     return deployed
       .thenApply(result -> moduleDeploymentId = result)
       .thenAccept(result -> log.info("Server Started"));
   }
+
+  /**
+   * The monitor is deployed on the event loops, rather than as a worker,
+   * before the module, so that each instance is given a different event loop
+   */
+  private CompletableFuture<Void> deployEventLoopLagMonitor(JsonObject config) {
+    if (!EventLoopLagMonitor.isEnabled(config)) {
+      return CompletableFuture.completedFuture(null);
+    }
+
+    return vertxAssistant.deployVerticle(EventLoopLagMonitor.class, config,
+      EventLoopLagMonitor.instances(), false)
+      .thenAccept(result -> eventLoopLagMonitorDeploymentId = result);
+  }
 }
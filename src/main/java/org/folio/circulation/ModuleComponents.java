@@ -0,0 +1,78 @@
+package org.folio.circulation;
+
+import static org.folio.circulation.domain.notice.PatronNoticeDispatcher.getPatronNoticeDispatcher;
+import static org.folio.circulation.domain.notice.session.PatronSessionRecordWriter.getPatronSessionRecordWriter;
+
+import java.lang.invoke.MethodHandles;
+import java.util.concurrent.CompletableFuture;
+
+import org.folio.circulation.domain.OpenLoanIndex;
+import org.folio.circulation.domain.notice.PatronNoticeDispatcher;
+import org.folio.circulation.domain.notice.schedule.AdaptiveNoticeBatching;
+import org.folio.circulation.domain.notice.session.PatronSessionRecordWriter;
+import org.folio.circulation.resources.AbstractCirculationRulesEngineResource;
+import org.folio.circulation.rules.CompiledRulesStore;
+import org.folio.circulation.rules.DroolsCompiler;
+import org.folio.circulation.support.MultipleRecordFetcher;
+import org.folio.circulation.support.RecordFetchBatcher;
+import org.folio.circulation.support.StaleOnErrorCache;
+import org.folio.circulation.support.TenantConfigurationCache;
+import org.folio.circulation.support.http.client.HttpClientConfiguration;
+import org.folio.circulation.support.http.client.OkapiHttpClient;
+import org.folio.circulation.support.http.client.RequestTrace;
+import org.folio.circulation.support.http.client.StorageCircuitBreakers;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Caches, limits and background work shared by every instance of the
+ * circulation verticle, each held by its own class
+ *
+ * These are configured once by the {@link Launcher}, from the module
+ * configuration, before any instance is deployed, and closed before the
+ * instances are undeployed, so that buffered records and queued notices
+ * are written using the instances' HTTP clients
+ */
+class ModuleComponents {
+  private static final Logger log = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+  private ModuleComponents() { }
+
+  static synchronized void configure(Vertx vertx, JsonObject configuration) {
+    OkapiHttpClient.configure(HttpClientConfiguration.from(configuration));
+    RequestTrace.configure(configuration);
+    StorageCircuitBreakers.configure(configuration);
+    StaleOnErrorCache.configure(configuration);
+    TenantConfigurationCache.configure(configuration);
+    AdaptiveNoticeBatching.configure(configuration);
+    OpenLoanIndex.configure(configuration);
+    DroolsCompiler.configure(configuration);
+    CompiledRulesStore.configure(configuration);
+    RecordFetchBatcher.configure(vertx, configuration);
+    MultipleRecordFetcher.configure(configuration);
+    PatronSessionRecordWriter.configure(vertx, configuration);
+    PatronNoticeDispatcher.configure(vertx, configuration);
+    AbstractCirculationRulesEngineResource.warmUp();
+  }
+
+  /**
+   * Writes buffered session records and sends queued notices
+   *
+   * @return once the records have been written and the notices sent
+   */
+  static CompletableFuture<Void> close() {
+    return getPatronSessionRecordWriter().close()
+      .thenCompose(notUsed -> getPatronNoticeDispatcher().close())
+      .handle((notUsed, throwable) -> {
+        if (throwable != null) {
+          log.error("Could not write buffered session records or send queued notices",
+            throwable);
+        }
+
+        return null;
+      });
+  }
+}
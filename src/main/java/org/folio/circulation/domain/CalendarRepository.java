@@ -1,6 +1,7 @@
 package org.folio.circulation.domain;
 
 import static org.folio.circulation.domain.OpeningDay.createClosedDay;
+import static org.folio.circulation.support.StaleOnErrorCache.getStaleOnErrorCache;
 import static org.folio.circulation.support.ValidationErrorFailure.failedValidation;
 
 import java.util.Collections;
@@ -11,6 +12,7 @@ import org.folio.circulation.support.Clients;
 import org.folio.circulation.support.CollectionResourceClient;
 import org.folio.circulation.support.FetchSingleRecord;
 import org.folio.circulation.support.Result;
+import org.folio.circulation.support.StaleReferenceData;
 import org.folio.circulation.support.http.server.ValidationError;
 import org.joda.time.LocalDate;
 
@@ -25,22 +27,24 @@ public class CalendarRepository {
   private static final String PATH_PARAM_WITH_QUERY = "%s/calculateopening?requestedDate=%s";
 
   private final CollectionResourceClient calendarClient;
+  private final StaleReferenceData staleReferenceData;
 
   public CalendarRepository(Clients clients) {
     this.calendarClient = clients.calendarStorageClient();
+    this.staleReferenceData = clients.staleReferenceData();
   }
 
-
   public CompletableFuture<Result<AdjacentOpeningDays>> lookupOpeningDays(LocalDate requestedDate, String servicePointId) {
     String path = String.format(PATH_PARAM_WITH_QUERY, servicePointId, requestedDate);
 
     //TODO: Validation error should have parameters
-    return FetchSingleRecord.<AdjacentOpeningDays>forRecord(RECORD_NAME)
-      .using(calendarClient)
-      .mapTo(this::createOpeningDays)
-      .whenNotFound(failedValidation(
-        new ValidationError("Calendar open periods are not found", Collections.emptyMap())))
-      .fetch(path);
+    return getStaleOnErrorCache().fetch("calendar", path, calendarClient,
+      client -> FetchSingleRecord.<AdjacentOpeningDays>forRecord(RECORD_NAME)
+        .using(client)
+        .mapTo(this::createOpeningDays)
+        .whenNotFound(failedValidation(
+          new ValidationError("Calendar open periods are not found", Collections.emptyMap())))
+        .fetch(path), staleReferenceData);
   }
 
   private AdjacentOpeningDays createOpeningDays(JsonObject jsonObject) {
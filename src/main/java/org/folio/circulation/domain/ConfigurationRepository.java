@@ -2,6 +2,8 @@ package org.folio.circulation.domain;
 
 import static org.folio.circulation.domain.MultipleRecords.from;
 import static org.folio.circulation.support.CqlQuery.exactMatch;
+import static org.folio.circulation.support.StaleOnErrorCache.getStaleOnErrorCache;
+import static org.folio.circulation.support.TenantConfigurationCache.getTenantConfigurationCache;
 
 import io.vertx.core.json.JsonObject;
 import java.util.Collection;
@@ -13,6 +15,7 @@ import org.folio.circulation.support.Clients;
 import org.folio.circulation.support.CollectionResourceClient;
 import org.folio.circulation.support.CqlQuery;
 import org.folio.circulation.support.Result;
+import org.folio.circulation.support.StaleReferenceData;
 import org.joda.time.DateTimeZone;
 
 public class ConfigurationRepository {
@@ -24,14 +27,19 @@ public class ConfigurationRepository {
   private static final int DEFAULT_PAGE_LIMIT = 1;
 
   private final CollectionResourceClient configurationClient;
+  private final StaleReferenceData staleReferenceData;
 
   public ConfigurationRepository(Clients clients) {
     configurationClient = clients.configurationStorageClient();
+    staleReferenceData = clients.staleReferenceData();
   }
 
   public CompletableFuture<Result<Integer>> lookupSchedulerNoticesProcessingLimit() {
     Result<CqlQuery> cqlQueryResult = defineModuleNameAndConfigNameFilter("NOTIFICATION_SCHEDULER", "noticesLimit");
-    return lookupConfigurations(cqlQueryResult, applySearchSchedulerNoticesLimit());
+
+    return getTenantConfigurationCache().get("noticesLimit", configurationClient,
+      client -> lookupConfigurations(client, cqlQueryResult,
+        applySearchSchedulerNoticesLimit()));
   }
 
   /**
@@ -39,11 +47,11 @@ public class ConfigurationRepository {
    *
    */
   public CompletableFuture<Result<LoanAnonymizationConfiguration>> loanHistoryConfiguration() {
-    return defineModuleNameAndConfigNameFilter("LOAN_HISTORY", "loan_history")
-      .after(query -> configurationClient.getMany(query, DEFAULT_PAGE_LIMIT))
-      .thenApply(result -> result.next(response -> from(response, Configuration::new, CONFIGS_KEY)))
-      .thenApply(r -> r.next(r1 -> r.map(MultipleRecords::getRecords)))
-      .thenApply(r -> r.map(this::getFirstConfiguration));
+    Result<CqlQuery> cqlQueryResult = defineModuleNameAndConfigNameFilter("LOAN_HISTORY", "loan_history");
+
+    return getTenantConfigurationCache().get("loanHistory", configurationClient,
+      client -> lookupConfigurations(client, cqlQueryResult,
+        configurations -> getFirstConfiguration(configurations.getRecords())));
   }
 
   private LoanAnonymizationConfiguration getFirstConfiguration(Collection<Configuration> configurations) {
@@ -58,14 +66,18 @@ public class ConfigurationRepository {
   public CompletableFuture<Result<DateTimeZone>> findTimeZoneConfiguration() {
     Result<CqlQuery> cqlQueryResult = defineModuleNameAndConfigNameFilter("ORG", "localeSettings");
 
-    return lookupConfigurations(cqlQueryResult, applySearchDateTimeZone());
+    return getStaleOnErrorCache().fetch("timeZone", "localeSettings",
+      configurationClient, client -> getTenantConfigurationCache().get("timeZone",
+        client, cacheClient -> lookupConfigurations(cacheClient, cqlQueryResult,
+          applySearchDateTimeZone())), staleReferenceData);
   }
 
-  private <T> CompletableFuture<Result<T>> lookupConfigurations(Result<CqlQuery> cqlQueryResult,
+  private <T> CompletableFuture<Result<T>> lookupConfigurations(CollectionResourceClient client,
+                                                                Result<CqlQuery> cqlQueryResult,
                                                                 Function<MultipleRecords<Configuration>, T> searchStrategy) {
 
     return cqlQueryResult
-      .after(query -> configurationClient.getMany(query, DEFAULT_PAGE_LIMIT))
+      .after(query -> client.getMany(query, DEFAULT_PAGE_LIMIT))
       .thenApply(result -> result.next(response -> from(response, Configuration::new, CONFIGS_KEY)))
       .thenApply(result -> result.map(searchStrategy));
   }
@@ -28,6 +28,7 @@ import java.util.UUID;
 import org.apache.commons.lang3.StringUtils;
 import org.folio.circulation.domain.policy.LoanPolicy;
 import org.folio.circulation.domain.representations.LoanProperties;
+import org.folio.circulation.support.DateTimeProperty;
 import org.folio.circulation.support.Result;
 import org.joda.time.DateTime;
 import org.joda.time.DateTimeZone;
@@ -52,6 +53,9 @@ public class Loan implements ItemRelatedRecord, UserRelatedRecord {
 
   private final LoanPolicy loanPolicy;
 
+  private final DateTimeProperty loanDate;
+  private final DateTimeProperty dueDate;
+
   private Loan(JsonObject representation, Item item, User user, User proxy,
                ServicePoint checkinServicePoint, ServicePoint checkoutServicePoint,
                DateTime originalDueDate, LoanPolicy loanPolicy, Collection<Account> accounts) {
@@ -59,6 +63,8 @@ public class Loan implements ItemRelatedRecord, UserRelatedRecord {
     requireNonNull(loanPolicy, "loanPolicy cannot be null");
 
     this.representation = representation;
+    this.loanDate = new DateTimeProperty(representation, "loanDate");
+    this.dueDate = new DateTimeProperty(representation, DUE_DATE);
     this.item = item;
     this.user = user;
     this.proxy = proxy;
@@ -211,7 +217,7 @@ public class Loan implements ItemRelatedRecord, UserRelatedRecord {
   }
 
   public DateTime getLoanDate() {
-    return getDateTimeProperty(representation, "loanDate");
+    return loanDate.get();
   }
 
   @Override
@@ -358,7 +364,7 @@ public class Loan implements ItemRelatedRecord, UserRelatedRecord {
   }
 
   public DateTime getDueDate() {
-    return getDateTimeProperty(representation, DUE_DATE);
+    return dueDate.get();
   }
 
   private static void defaultStatusAndAction(JsonObject loan) {
@@ -3,6 +3,7 @@ package org.folio.circulation.domain;
 import static java.lang.String.format;
 import static java.util.Objects.nonNull;
 import static java.util.concurrent.CompletableFuture.completedFuture;
+import static org.folio.circulation.domain.OpenLoanIndex.getOpenLoanIndex;
 import static org.folio.circulation.domain.representations.LoanProperties.PATRON_GROUP_AT_CHECKOUT;
 import static org.folio.circulation.domain.representations.LoanProperties.PATRON_GROUP_ID_AT_CHECKOUT;
 import static org.folio.circulation.support.CqlQuery.exactMatch;
@@ -20,7 +21,6 @@ import static org.folio.circulation.support.results.CommonFailures.failedDueToSe
 import java.lang.invoke.MethodHandles;
 import java.util.Collection;
 import java.util.List;
-import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
@@ -32,6 +32,7 @@ import org.folio.circulation.support.Clients;
 import org.folio.circulation.support.CollectionResourceClient;
 import org.folio.circulation.support.CqlQuery;
 import org.folio.circulation.support.FetchSingleRecord;
+import org.folio.circulation.support.Includes;
 import org.folio.circulation.support.ItemRepository;
 import org.folio.circulation.support.MultipleRecordFetcher;
 import org.folio.circulation.support.RecordNotFoundFailure;
@@ -46,15 +47,19 @@ import org.slf4j.LoggerFactory;
 import io.vertx.core.json.JsonObject;
 
 public class LoanRepository {
+  public static final String ITEM = "item";
+
   private final CollectionResourceClient loansStorageClient;
   private final ItemRepository itemRepository;
   private final UserRepository userRepository;
+  private final String tenantId;
   private static final Logger log = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
 
   public LoanRepository(Clients clients) {
     loansStorageClient = clients.loansStorage();
     itemRepository = new ItemRepository(clients, true, true, true);
     userRepository = new UserRepository(clients);
+    tenantId = clients.tenantId();
   }
 
   public CompletableFuture<Result<LoanAndRelatedRecords>> createLoan(
@@ -70,6 +75,7 @@ public class LoanRepository {
 
     return loansStorageClient.post(storageLoan)
       .thenApply(interpreter::apply)
+      .thenApply(mapResult(this::indexLoan))
       .thenApply(mapResult(loanAndRelatedRecords::withLoan));
   }
 
@@ -89,7 +95,14 @@ public class LoanRepository {
 
     return loansStorageClient.put(loan.getId(), storageLoan)
       .thenApply(noContentRecordInterpreter(loan)::apply)
-      .thenComposeAsync(r -> r.after(this::refreshLoanRepresentation));
+      .thenComposeAsync(r -> r.after(this::refreshLoanRepresentation))
+      .thenApply(mapResult(this::indexLoan));
+  }
+
+  private Loan indexLoan(Loan loan) {
+    getOpenLoanIndex().loanChanged(tenantId, loan);
+
+    return loan;
   }
 
   /**
@@ -111,7 +124,23 @@ public class LoanRepository {
    * failure if more than one open loan for the item found
    */
   public CompletableFuture<Result<Loan>> findOpenLoanForItem(Item item) {
-    return findOpenLoans(item.getItemId())
+    return findOpenLoanForItemId(item.getItemId())
+      .thenApply(loanResult -> loanResult.next(loan -> loan == null
+        ? succeeded(null)
+        : Result.of(() -> loan.withItem(item))));
+  }
+
+  /**
+   * Finds the open loan without the item, e.g. when the item is being
+   * fetched at the same time
+   *
+   * @param itemId the ID of the item to fetch the open loan for
+   * @return  success with loan if one found,
+   * success with null if the no open loan is found,
+   * failure if more than one open loan for the item found
+   */
+  public CompletableFuture<Result<Loan>> findOpenLoanForItemId(String itemId) {
+    return findOpenLoans(itemId)
       .thenApply(loansResult -> loansResult.next(loans -> {
         //TODO: Consider introducing an unknown loan class, instead of null
         if (loans.getTotalRecords() == 0) {
@@ -121,11 +150,11 @@ public class LoanRepository {
           final Optional<Loan> firstLoan = loans.getRecords().stream().findFirst();
 
           return firstLoan
-            .map(loan -> Result.of(() -> loan.withItem(item)))
+            .map(Result::succeeded)
             .orElse(Result.of(() -> null));
         } else {
           return failedDueToServerError(format(
-            "More than one open loan for item %s", item.getItemId()));
+            "More than one open loan for item %s", itemId));
         }
       }));
   }
@@ -181,10 +210,28 @@ public class LoanRepository {
   }
 
   public CompletableFuture<Result<MultipleRecords<Loan>>> findBy(String query) {
+    return findBy(query, Includes.all());
+  }
+
+  /**
+   * Find loans and their items, when included
+   *
+   * @param query raw query string to pass on to storage
+   * @param includes whether to fetch the item (and its location
+   * and material type) for each loan
+   * @return loans with items, when included
+   */
+  public CompletableFuture<Result<MultipleRecords<Loan>>> findBy(
+    String query, Includes includes) {
+
     //TODO: Should fetch users for all loans
+    final ItemRepository includedItemRepository = itemRepository.including(includes);
+
     return loansStorageClient.getManyWithRawQueryStringParameters(query)
       .thenApply(this::mapResponseToLoans)
-      .thenComposeAsync(loans -> itemRepository.fetchItemsFor(loans, Loan::withItem));
+      .thenComposeAsync(loans -> loans.after(includes.whenIncluded(ITEM,
+        records -> includedItemRepository.fetchItemsFor(succeeded(records),
+          Loan::withItem))));
   }
 
   public CompletableFuture<Result<MultipleRecords<Loan>>> findByIds(Collection<String> loanIds) {
@@ -319,18 +366,7 @@ public class LoanRepository {
     MultipleRecords<Request> requests,
     MultipleRecords<Loan> loans) {
 
-    return of(() ->
-      requests.mapRecords(request -> matchLoansToRequest(request, loans)));
+    return of(() -> requests.combineRecords(loans, Loan::getItemId,
+      Request::getItemId, Request::withLoan));
   }
-
-  private Request matchLoansToRequest(
-    Request request,
-    MultipleRecords<Loan> loans) {
-
-    final Map<String, Loan> loanMap = loans.toMap(Loan::getItemId);
-
-    return request
-      .withLoan(loanMap.getOrDefault(request.getItemId(), null));
-  }
-
 }
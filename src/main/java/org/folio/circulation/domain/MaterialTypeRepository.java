@@ -5,6 +5,7 @@ import static java.util.function.Function.identity;
 import static org.folio.circulation.support.JsonKeys.byId;
 import static org.folio.circulation.support.Result.succeeded;
 import static org.folio.circulation.support.ResultBinding.mapResult;
+import static org.folio.circulation.support.StaleOnErrorCache.getStaleOnErrorCache;
 
 import java.util.Collection;
 import java.util.List;
@@ -18,14 +19,17 @@ import org.folio.circulation.support.CollectionResourceClient;
 import org.folio.circulation.support.MultipleRecordFetcher;
 import org.folio.circulation.support.Result;
 import org.folio.circulation.support.SingleRecordFetcher;
+import org.folio.circulation.support.StaleReferenceData;
 
 import io.vertx.core.json.JsonObject;
 
 public class MaterialTypeRepository {
   private final CollectionResourceClient materialTypesStorageClient;
+  private final StaleReferenceData staleReferenceData;
 
   public MaterialTypeRepository(Clients clients) {
     materialTypesStorageClient = clients.materialTypesStorage();
+    staleReferenceData = clients.staleReferenceData();
   }
 
   public CompletableFuture<Result<JsonObject>> getFor(Item item) {
@@ -35,9 +39,10 @@ public class MaterialTypeRepository {
       return Result.ofAsync(() -> null);
     }
 
-    return SingleRecordFetcher.json(materialTypesStorageClient, "material types",
-      response -> succeeded(null))
-      .fetch(materialTypeId);
+    return getStaleOnErrorCache().fetch("materialType", materialTypeId,
+      materialTypesStorageClient, client -> SingleRecordFetcher.json(client,
+        "material types", response -> succeeded(null))
+        .fetch(materialTypeId), staleReferenceData);
   }
 
   public CompletableFuture<Result<Map<String, JsonObject>>> getMaterialTypes(
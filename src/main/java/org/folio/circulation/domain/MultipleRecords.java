@@ -1,15 +1,16 @@
 package org.folio.circulation.domain;
 
-import static java.util.function.Function.identity;
 import static java.util.stream.Stream.concat;
 import static org.folio.circulation.support.JsonArrayHelper.mapToList;
 import static org.folio.circulation.support.Result.succeeded;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.function.BiFunction;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -63,10 +64,53 @@ public class MultipleRecords<T> {
       .collect(Collectors.toList());
   }
 
+  /**
+   * Index the records by a key, records without a key are not included
+   * and the first record is kept when more than one has the same key
+   *
+   * @param keyMapper function to get the key for a record
+   * @return records indexed by key
+   */
   public Map<String, T> toMap(Function<T, String> keyMapper) {
-    return getRecords().stream()
-      .collect(Collectors.toMap(keyMapper, identity(),
-        (record1, record2) -> record1));
+    final Map<String, T> map = new HashMap<>();
+
+    for (T record : getRecords()) {
+      final String key = keyMapper.apply(record);
+
+      if (key != null) {
+        map.putIfAbsent(key, record);
+      }
+    }
+
+    return map;
+  }
+
+  /**
+   * Combines each record with the matching record from other records,
+   * the other records are indexed once, rather than searched for each record
+   *
+   * @param matchingRecords records to combine with these records
+   * @param matchingKeyMapper function to get the key for a matching record
+   * @param keyMapper function to get the key to match for a record
+   * @param combiner function to combine a record with the matching record,
+   * which is null when there is no matching record
+   * @param <R> Type of the matching records
+   * @return new multiple records collection with combined records
+   * and same total record count
+   */
+  public <R> MultipleRecords<T> combineRecords(
+    MultipleRecords<R> matchingRecords,
+    Function<R, String> matchingKeyMapper,
+    Function<T, String> keyMapper,
+    BiFunction<T, R, T> combiner) {
+
+    final Map<String, R> index = matchingRecords.toMap(matchingKeyMapper);
+
+    return mapRecords(record -> {
+      final String key = keyMapper.apply(record);
+
+      return combiner.apply(record, key == null ? null : index.get(key));
+    });
   }
 
   /**
@@ -0,0 +1,420 @@
+package org.folio.circulation.domain;
+
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static org.folio.circulation.support.CqlQuery.exactMatch;
+import static org.folio.circulation.support.CqlQuery.greaterThan;
+import static org.folio.circulation.support.Result.failed;
+import static org.folio.circulation.support.Result.succeeded;
+import static org.folio.circulation.support.ResultBinding.mapResult;
+import static org.folio.circulation.support.metrics.MetricsRegistry.getMetricsRegistry;
+import static org.folio.circulation.support.results.CommonFailures.failedDueToServerError;
+
+import java.lang.invoke.MethodHandles;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import org.folio.circulation.support.CollectionResourceClient;
+import org.folio.circulation.support.CqlQuery;
+import org.folio.circulation.support.CqlSortBy;
+import org.folio.circulation.support.Result;
+import org.folio.circulation.support.ValidationErrorFailure;
+import org.joda.time.DateTime;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Index of the open loans of each tenant, ordered by due date, used to find
+ * overdue (or soon to be due) loans without querying loan storage
+ *
+ * The index for a tenant is built from loan storage when it is first used
+ * (there is no tenant to build it for when the module starts), changed as
+ * loans are created, changed or deleted via this module, and rebuilt in the
+ * background once it is older than the rebuild interval (to include changes
+ * made to loans by other instances of the module or directly in storage)
+ *
+ * Only the ID and due date of each loan is kept. The interval is configured
+ * using the openLoanIndex property of the verticle configuration, e.g.
+ *
+ * <pre>
+ * "openLoanIndex" : {
+ *   "rebuildIntervalSeconds" : 300,
+ *   "pageSize" : 1000
+ * }
+ * </pre>
+ */
+public class OpenLoanIndex {
+  private static final Logger log = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+  private static final long DEFAULT_REBUILD_INTERVAL_SECONDS = 300;
+  private static final int DEFAULT_PAGE_SIZE = 1000;
+
+  private static volatile OpenLoanIndex instance = new OpenLoanIndex(
+    DEFAULT_REBUILD_INTERVAL_SECONDS, DEFAULT_PAGE_SIZE, System::nanoTime);
+
+  private final long rebuildIntervalNanoseconds;
+  private final int pageSize;
+  private final LongSupplier clock;
+  private final Map<String, TenantLoans> tenants = new ConcurrentHashMap<>();
+
+  OpenLoanIndex(long rebuildIntervalSeconds, int pageSize, LongSupplier clock) {
+    this.rebuildIntervalNanoseconds = TimeUnit.SECONDS.toNanos(rebuildIntervalSeconds);
+    this.pageSize = pageSize;
+    this.clock = clock;
+  }
+
+  public static OpenLoanIndex getOpenLoanIndex() {
+    return instance;
+  }
+
+  public static void configure(JsonObject verticleConfiguration) {
+    final JsonObject configuration = verticleConfiguration
+      .getJsonObject("openLoanIndex", new JsonObject());
+
+    instance = new OpenLoanIndex(
+      configuration.getLong("rebuildIntervalSeconds", DEFAULT_REBUILD_INTERVAL_SECONDS),
+      configuration.getInteger("pageSize", DEFAULT_PAGE_SIZE),
+      System::nanoTime);
+  }
+
+  /**
+   * Record a loan which has been created or changed, only when the index
+   * for the tenant has been built
+   */
+  public void loanChanged(String tenantId, Loan loan) {
+    if (loan == null) {
+      return;
+    }
+
+    final TenantLoans loans = tenants.get(tenantId);
+
+    if (loans != null) {
+      loans.changed(loan.getId(), loan.isOpen() ? loan.getDueDate() : null);
+    }
+  }
+
+  public void loanRemoved(String tenantId, String loanId) {
+    final TenantLoans loans = tenants.get(tenantId);
+
+    if (loans != null) {
+      loans.changed(loanId, null);
+    }
+  }
+
+  /**
+   * Discards the index for a tenant, e.g. when all loans are deleted,
+   * it is built again when next used
+   */
+  public void invalidate(String tenantId) {
+    tenants.remove(tenantId);
+  }
+
+  /**
+   * Find the IDs of open loans due before a date, in order of due date
+   * (and ID, for loans due at the same time)
+   *
+   * @param tenantId tenant to find loans for
+   * @param loansStorageClient client to build the index with, when needed
+   * @param dueBefore loans due before this date are found
+   * @param cursor continue after the loan identified by the cursor
+   * (from a previous page) or null for the first page
+   * @param limit maximum number of loan IDs to find
+   * @return page of loan IDs, the number of loans due before the date and a
+   * cursor for the next page (when there are more loans)
+   */
+  public CompletableFuture<Result<Page>> findDueBefore(String tenantId,
+    CollectionResourceClient loansStorageClient, DateTime dueBefore,
+    String cursor, int limit) {
+
+    if (limit < 1) {
+      return completedFuture(ValidationErrorFailure.failedValidation(
+        "limit must be at least 1", "limit", Integer.toString(limit)));
+    }
+
+    final Result<IndexEntry> after = parseCursor(cursor);
+
+    if (after.failed()) {
+      return completedFuture(failed(after.cause()));
+    }
+
+    return tenants.computeIfAbsent(tenantId, TenantLoans::new)
+      .ready(loansStorageClient)
+      .thenApply(mapResult(loans -> loans.page(dueBefore, after.value(), limit)));
+  }
+
+  private static Result<IndexEntry> parseCursor(String cursor) {
+    if (cursor == null) {
+      return succeeded(null);
+    }
+
+    final int separator = cursor.indexOf(':');
+
+    try {
+      if (separator > 0) {
+        return succeeded(new IndexEntry(
+          Long.parseLong(cursor.substring(0, separator)),
+          cursor.substring(separator + 1)));
+      }
+    }
+    catch (NumberFormatException e) {
+      // reported as a validation failure below
+    }
+
+    return ValidationErrorFailure.failedValidation(
+      "Cursor is not valid", "cursor", cursor);
+  }
+
+  public static class Page {
+    private final List<String> loanIds;
+    private final int totalRecords;
+    private final String nextCursor;
+
+    private Page(List<String> loanIds, int totalRecords, String nextCursor) {
+      this.loanIds = loanIds;
+      this.totalRecords = totalRecords;
+      this.nextCursor = nextCursor;
+    }
+
+    public List<String> getLoanIds() {
+      return loanIds;
+    }
+
+    public int getTotalRecords() {
+      return totalRecords;
+    }
+
+    public String getNextCursor() {
+      return nextCursor;
+    }
+  }
+
+  private static class IndexEntry implements Comparable<IndexEntry> {
+    private final long dueDate;
+    private final String loanId;
+
+    private IndexEntry(long dueDate, String loanId) {
+      this.dueDate = dueDate;
+      this.loanId = loanId;
+    }
+
+    private String toCursor() {
+      return dueDate + ":" + loanId;
+    }
+
+    @Override
+    public int compareTo(IndexEntry other) {
+      final int byDueDate = Long.compare(dueDate, other.dueDate);
+
+      return byDueDate != 0 ? byDueDate : loanId.compareTo(other.loanId);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+      return other instanceof IndexEntry && compareTo((IndexEntry) other) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+      return loanId.hashCode();
+    }
+  }
+
+  private class TenantLoans {
+    private final String tenantId;
+    private final NavigableSet<IndexEntry> byDueDate = new ConcurrentSkipListSet<>();
+    private final Map<String, IndexEntry> byId = new ConcurrentHashMap<>();
+
+    // guarded by this
+    private boolean built;
+    private long builtAt;
+    private CompletableFuture<Result<Void>> building;
+    private Set<String> changedDuringBuild;
+
+    private TenantLoans(String tenantId) {
+      this.tenantId = tenantId;
+
+      getMetricsRegistry().computedGauge("circulation_open_loan_index_loans",
+        "Open loans in the index for a tenant", byId::size, "tenant", tenantId);
+    }
+
+    /**
+     * Builds the index when it has not been built, waiting for it to be
+     * built, or starts rebuilding it in the background when it is too old
+     */
+    private CompletableFuture<Result<TenantLoans>> ready(
+      CollectionResourceClient loansStorageClient) {
+
+      final CompletableFuture<Result<Void>> build;
+      final boolean start;
+      final boolean wait;
+
+      synchronized (this) {
+        if (built && clock.getAsLong() - builtAt < rebuildIntervalNanoseconds) {
+          return completedFuture(succeeded(this));
+        }
+
+        start = building == null;
+
+        if (start) {
+          building = new CompletableFuture<>();
+          changedDuringBuild = new HashSet<>();
+        }
+
+        build = building;
+        wait = !built;
+      }
+
+      if (start) {
+        rebuild(loansStorageClient, build);
+      }
+
+      return wait
+        ? build.thenApply(mapResult(notUsed -> this))
+        : completedFuture(succeeded(this));
+    }
+
+    private void rebuild(CollectionResourceClient loansStorageClient,
+      CompletableFuture<Result<Void>> build) {
+
+      final long startTime = System.nanoTime();
+      final Set<String> seen = new HashSet<>();
+
+      loansStorageClient.reportingFailures(
+        client -> fetchPages(client, null, seen))
+        .whenComplete((result, error) -> {
+          final Result<Void> outcome = error == null
+            ? result
+            : failedDueToServerError(error);
+
+          finished(outcome.succeeded(), seen);
+
+          getMetricsRegistry().histogram("circulation_open_loan_index_build_duration_seconds",
+            "Time taken to build the index of open loans for a tenant", "tenant", tenantId)
+            .recordSince(startTime);
+
+          build.complete(outcome);
+        });
+    }
+
+    /**
+     * Pages are fetched after the ID of the last loan of the previous page,
+     * rather than by offset, so that a loan closed during the build does not
+     * move a loan which is still open onto a page which has already been
+     * fetched
+     */
+    private CompletableFuture<Result<Void>> fetchPages(
+      CollectionResourceClient client, String afterId, Set<String> seen) {
+
+      final Result<CqlQuery> openLoans = exactMatch("status.name", "Open");
+
+      final Result<CqlQuery> query = afterId == null
+        ? openLoans
+        : openLoans.combine(greaterThan("id", afterId), CqlQuery::and);
+
+      return query.map(q -> q.sortBy(CqlSortBy.ascending("id")))
+        .after(q -> client.getMany(q, pageSize))
+        .thenApply(r -> r.next(response ->
+          MultipleRecords.from(response, Loan::from, "loans")))
+        .thenCompose(r -> r.after(loans -> {
+          final List<Loan> fetchedLoans = new ArrayList<>(loans.getRecords());
+
+          fetched(fetchedLoans, seen);
+
+          return fetchedLoans.size() < pageSize
+            ? completedFuture(succeeded(null))
+            : fetchPages(client,
+                fetchedLoans.get(fetchedLoans.size() - 1).getId(), seen);
+        }));
+    }
+
+    private synchronized void changed(String loanId, DateTime dueDate) {
+      put(loanId, dueDate);
+
+      if (changedDuringBuild != null) {
+        changedDuringBuild.add(loanId);
+      }
+    }
+
+    /**
+     * Loans changed via this module since the build started are not
+     * replaced, as the page they were fetched in may be older than the change
+     */
+    private synchronized void fetched(Collection<Loan> loans, Set<String> seen) {
+      for (Loan loan : loans) {
+        seen.add(loan.getId());
+
+        if (!changedDuringBuild.contains(loan.getId())) {
+          put(loan.getId(), loan.isOpen() ? loan.getDueDate() : null);
+        }
+      }
+    }
+
+    private synchronized void finished(boolean succeeded, Set<String> seen) {
+      if (succeeded) {
+        // loans no longer open in storage, and not changed via this module
+        for (String loanId : new ArrayList<>(byId.keySet())) {
+          if (!seen.contains(loanId) && !changedDuringBuild.contains(loanId)) {
+            put(loanId, null);
+          }
+        }
+
+        built = true;
+        builtAt = clock.getAsLong();
+      }
+      else {
+        log.warn("Could not build index of open loans for tenant {}", tenantId);
+      }
+
+      building = null;
+      changedDuringBuild = null;
+    }
+
+    private void put(String loanId, DateTime dueDate) {
+      final IndexEntry previous = dueDate == null
+        ? byId.remove(loanId)
+        : byId.put(loanId, new IndexEntry(dueDate.getMillis(), loanId));
+
+      if (previous != null) {
+        byDueDate.remove(previous);
+      }
+
+      if (dueDate != null) {
+        byDueDate.add(byId.get(loanId));
+      }
+    }
+
+    private synchronized Page page(DateTime dueBefore, IndexEntry after, int limit) {
+      final NavigableSet<IndexEntry> dueBeforeDate = byDueDate.headSet(
+        new IndexEntry(dueBefore.getMillis(), ""), false);
+
+      final NavigableSet<IndexEntry> remaining = after == null
+        ? dueBeforeDate
+        : dueBeforeDate.tailSet(after, false);
+
+      final List<String> loanIds = new ArrayList<>();
+      IndexEntry last = null;
+
+      for (IndexEntry entry : remaining) {
+        if (loanIds.size() >= limit) {
+          return new Page(loanIds, dueBeforeDate.size(), last.toCursor());
+        }
+
+        loanIds.add(entry.loanId);
+        last = entry;
+      }
+
+      return new Page(loanIds, dueBeforeDate.size(), null);
+    }
+  }
+}
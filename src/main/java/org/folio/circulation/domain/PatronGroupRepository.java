@@ -41,7 +41,8 @@ public class PatronGroupRepository {
 
       return fetcher.findByIds(groupsToFetch)
         .thenApply(multiplePatronGroupsResult -> multiplePatronGroupsResult.next(
-          patronGroups -> of(() -> matchGroupsToUsers(request, patronGroups))));
+          patronGroups -> of(() -> matchGroupsToUsers(request,
+            patronGroups.toMap(PatronGroup::getId)))));
     });
   }
 
@@ -79,9 +80,7 @@ public class PatronGroupRepository {
 
   private Request matchGroupsToUsers(
     Request request,
-    MultipleRecords<PatronGroup> patronGroups) {
-
-    final Map<String, PatronGroup> groupMap = patronGroups.toMap(PatronGroup::getId);
+    Map<String, PatronGroup> groupMap) {
 
     return request
       .withRequester(addGroupToUser(request.getRequester(), groupMap))
@@ -92,8 +91,11 @@ public class PatronGroupRepository {
     MultipleRecords<Request> requests,
     MultipleRecords<PatronGroup> patronGroups) {
 
-    return of(() ->
-      requests.mapRecords(request -> matchGroupsToUsers(request, patronGroups)));
+    return of(() -> {
+      final Map<String, PatronGroup> groupMap = patronGroups.toMap(PatronGroup::getId);
+
+      return requests.mapRecords(request -> matchGroupsToUsers(request, groupMap));
+    });
   }
 
   private User addGroupToUser(User user, Map<String, PatronGroup> groupMap) {
@@ -19,7 +19,6 @@ import static org.folio.circulation.domain.representations.RequestProperties.REQ
 import static org.folio.circulation.domain.representations.RequestProperties.REQUEST_EXPIRATION_DATE;
 import static org.folio.circulation.domain.representations.RequestProperties.REQUEST_TYPE;
 import static org.folio.circulation.domain.representations.RequestProperties.STATUS;
-import static org.folio.circulation.support.JsonPropertyFetcher.getDateTimeProperty;
 import static org.folio.circulation.support.JsonPropertyFetcher.getIntegerProperty;
 import static org.folio.circulation.support.JsonPropertyFetcher.getProperty;
 import static org.folio.circulation.support.JsonPropertyWriter.write;
@@ -27,6 +26,7 @@ import static org.folio.circulation.support.JsonPropertyWriter.write;
 import java.util.Objects;
 
 import org.apache.commons.lang3.StringUtils;
+import org.folio.circulation.support.DateTimeProperty;
 import org.joda.time.DateTime;
 
 import io.vertx.core.json.JsonObject;
@@ -41,6 +41,10 @@ public class Request implements ItemRelatedRecord, UserRelatedRecord {
   private final Loan loan;
   private final ServicePoint pickupServicePoint;
 
+  private final DateTimeProperty requestDate;
+  private final DateTimeProperty holdShelfExpirationDate;
+  private final DateTimeProperty requestExpirationDate;
+
   private boolean changedPosition = false;
   private Integer previousPosition;
 
@@ -62,6 +66,12 @@ public class Request implements ItemRelatedRecord, UserRelatedRecord {
     this.addressType = addressType;
     this.loan = loan;
     this.pickupServicePoint = pickupServicePoint;
+
+    this.requestDate = new DateTimeProperty(requestRepresentation, REQUEST_DATE);
+    this.holdShelfExpirationDate = new DateTimeProperty(requestRepresentation,
+      HOLD_SHELF_EXPIRATION_DATE);
+    this.requestExpirationDate = new DateTimeProperty(requestRepresentation,
+      REQUEST_EXPIRATION_DATE);
   }
 
   public static Request from(JsonObject representation) {
@@ -337,15 +347,15 @@ public class Request implements ItemRelatedRecord, UserRelatedRecord {
   }
 
   public DateTime getRequestDate() {
-    return getDateTimeProperty(requestRepresentation, REQUEST_DATE);
+    return requestDate.get();
   }
 
   public DateTime getHoldShelfExpirationDate() {
-    return getDateTimeProperty(requestRepresentation, HOLD_SHELF_EXPIRATION_DATE);
+    return holdShelfExpirationDate.get();
   }
 
   public DateTime getRequestExpirationDate() {
-    return getDateTimeProperty(requestRepresentation, REQUEST_EXPIRATION_DATE);
+    return requestExpirationDate.get();
   }
 
   public String getCancellationAdditionalInformation() {
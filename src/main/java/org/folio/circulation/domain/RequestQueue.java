@@ -4,11 +4,17 @@ import static org.folio.circulation.domain.ItemStatus.AVAILABLE;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Comparator;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 public class RequestQueue {
+  // requests that are "Open - In transit" or "Open - Awaiting pickup" first,
+  // then by request date ascending
+  private static final Comparator<Request> PRIORITY_ORDER =
+    Comparator.comparing(Request::isNotDisplaceable, Comparator.reverseOrder())
+      .thenComparing(Request::getRequestDate);
 
   private Collection<Request> requests;
 
@@ -64,10 +70,7 @@ public class RequestQueue {
 
   private void orderRequests() {
     requests = requests.stream()
-      // order by date descending
-      .sorted((req1, req2) -> req1.getRequestDate().compareTo(req2.getRequestDate()))
-      // order by (request status = "Open - In transit" or "Open - Awaiting pickup") first
-      .sorted((req1, req2) -> Boolean.compare(req2.isNotDisplaceable(), req1.isNotDisplaceable()))
+      .sorted(PRIORITY_ORDER)
       .collect(Collectors.toList());
     final AtomicInteger position = new AtomicInteger(1);
     requests.forEach(req -> req.changePosition(position.getAndIncrement()));
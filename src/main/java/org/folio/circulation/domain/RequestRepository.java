@@ -1,6 +1,8 @@
 package org.folio.circulation.domain;
 
+import static java.util.Arrays.asList;
 import static java.util.Objects.isNull;
+import static java.util.concurrent.CompletableFuture.completedFuture;
 import static org.folio.circulation.support.Result.failed;
 import static org.folio.circulation.support.Result.of;
 import static org.folio.circulation.support.Result.ofAsync;
@@ -10,6 +12,7 @@ import static org.folio.circulation.support.http.ResponseMapping.forwardOnFailur
 import static org.folio.circulation.support.http.ResponseMapping.mapUsingJson;
 
 import java.util.Collection;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 
 import org.folio.circulation.storage.RequestBatch;
@@ -17,7 +20,9 @@ import org.folio.circulation.support.Clients;
 import org.folio.circulation.support.CollectionResourceClient;
 import org.folio.circulation.support.CqlQuery;
 import org.folio.circulation.support.FetchSingleRecord;
+import org.folio.circulation.support.Includes;
 import org.folio.circulation.support.ItemRepository;
+import org.folio.circulation.support.MultipleRecordFetcher;
 import org.folio.circulation.support.RecordNotFoundFailure;
 import org.folio.circulation.support.Result;
 import org.folio.circulation.support.SingleRecordFetcher;
@@ -27,6 +32,11 @@ import org.folio.circulation.support.http.client.ResponseInterpreter;
 import io.vertx.core.json.JsonObject;
 
 public class RequestRepository {
+  public static final String ITEM = "item";
+  public static final String LOAN = "loan";
+  public static final String PICKUP_SERVICE_POINT = "pickupServicePoint";
+  public static final String REQUESTER = "requester";
+
   private final CollectionResourceClient requestsStorageClient;
   private final CollectionResourceClient requestsBatchStorageClient;
   private final CollectionResourceClient cancellationReasonStorageClient;
@@ -73,13 +83,104 @@ public class RequestRepository {
   }
 
   public CompletableFuture<Result<MultipleRecords<Request>>> findBy(String query) {
+    return findBy(query, Includes.all());
+  }
+
+  /**
+   * Find requests and the related records to include, related records
+   * which are independent of each other are fetched at the same time
+   *
+   * @param query raw query string to pass on to storage
+   * @param includes which related records to fetch (item, and its location,
+   * loan, pickupServicePoint and requester, which includes the proxy and
+   * patron groups)
+   * @return requests with related records
+   */
+  public CompletableFuture<Result<MultipleRecords<Request>>> findBy(
+    String query, Includes includes) {
+
     return requestsStorageClient.getManyWithRawQueryStringParameters(query)
       .thenApply(this::mapResponseToRequests)
-      .thenComposeAsync(result -> itemRepository.fetchItemsFor(result, Request::withItem))
-      .thenComposeAsync(result -> result.after(loanRepository::findOpenLoansFor))
-      .thenComposeAsync(result -> result.after(servicePointRepository::findServicePointsForRequests))
-      .thenComposeAsync(result -> result.after(userRepository::findUsersForRequests))
-      .thenComposeAsync(result -> result.after(patronGroupRepository::findPatronGroupsForRequestsUsers));
+      .thenCompose(result -> result.after(requests ->
+        fetchRelatedRecords(requests, includes)));
+  }
+
+  /**
+   * Find requests by ID and the related records to include, e.g. for
+   * processing a batch of scheduled notices, IDs of requests which
+   * no longer exist are ignored
+   *
+   * @param ids IDs of the requests to find
+   * @param includes which related records to fetch
+   * @return requests with related records
+   */
+  public CompletableFuture<Result<MultipleRecords<Request>>> findByIds(
+    Collection<String> ids, Includes includes) {
+
+    return new MultipleRecordFetcher<>(requestsStorageClient, "requests", Request::from)
+      .findByIds(ids)
+      .thenCompose(result -> result.after(requests ->
+        fetchRelatedRecords(requests, includes)));
+  }
+
+  private CompletableFuture<Result<MultipleRecords<Request>>> fetchRelatedRecords(
+    MultipleRecords<Request> requests, Includes includes) {
+
+    final CompletableFuture<Result<MultipleRecords<Request>>> withItems =
+      includes.includes(ITEM)
+        ? itemRepository.including(includes)
+            .fetchItemsFor(succeeded(requests), Request::withItem)
+        : completedFuture(succeeded(requests));
+
+    final CompletableFuture<Result<MultipleRecords<Request>>> withLoans =
+      includes.includes(LOAN)
+        ? loanRepository.findOpenLoansFor(requests)
+        : completedFuture(succeeded(requests));
+
+    final CompletableFuture<Result<MultipleRecords<Request>>> withServicePoints =
+      includes.includes(PICKUP_SERVICE_POINT)
+        ? servicePointRepository.findServicePointsForRequests(requests)
+        : completedFuture(succeeded(requests));
+
+    // patron groups depend upon the users being fetched first
+    final CompletableFuture<Result<MultipleRecords<Request>>> withUsers =
+      includes.includes(REQUESTER)
+        ? userRepository.findUsersForRequests(requests)
+            .thenCompose(result -> result.after(
+              patronGroupRepository::findPatronGroupsForRequestsUsers))
+        : completedFuture(succeeded(requests));
+
+    return CompletableFuture.allOf(withItems, withLoans, withServicePoints, withUsers)
+      .thenApply(notUsed -> Result.combineAll(asList(withItems.join(),
+        withLoans.join(), withServicePoints.join(), withUsers.join()))
+        .map(related -> combineRelatedRecords(requests, includes,
+          related.get(0), related.get(1), related.get(2), related.get(3))));
+  }
+
+  private static MultipleRecords<Request> combineRelatedRecords(
+    MultipleRecords<Request> requests, Includes includes,
+    MultipleRecords<Request> withItems, MultipleRecords<Request> withLoans,
+    MultipleRecords<Request> withServicePoints, MultipleRecords<Request> withUsers) {
+
+    final Map<String, Request> items = withItems.toMap(Request::getId);
+    final Map<String, Request> loans = withLoans.toMap(Request::getId);
+    final Map<String, Request> servicePoints = withServicePoints.toMap(Request::getId);
+    final Map<String, Request> users = withUsers.toMap(Request::getId);
+
+    return requests.mapRecords(request -> {
+      final String id = request.getId();
+
+      // the item is included before the loan, so the loan does not include the item
+      Request combined = includes.includes(ITEM)
+        ? request.withItem(items.get(id).getItem())
+        : request;
+
+      return combined
+        .withLoan(loans.get(id).getLoan())
+        .withPickupServicePoint(servicePoints.get(id).getPickupServicePoint())
+        .withRequester(users.get(id).getRequester())
+        .withProxy(users.get(id).getProxy());
+    });
   }
 
   //TODO: try to consolidate this further with above
@@ -122,13 +223,34 @@ public class RequestRepository {
 
   public CompletableFuture<Result<Request>> getById(String id) {
     return fetchRequest(id)
-      .thenComposeAsync(result -> result.combineAfter(itemRepository::fetchFor,
-        Request::withItem))
-      .thenComposeAsync(this::fetchRequester)
-      .thenComposeAsync(this::fetchProxy)
-      .thenComposeAsync(this::fetchLoan)
-      .thenComposeAsync(this::fetchPickupServicePoint)
-      .thenComposeAsync(this::fetchPatronGroups);
+      .thenCompose(result -> result.after(this::fetchRelatedRecords));
+  }
+
+  private CompletableFuture<Result<Request>> fetchRelatedRecords(Request request) {
+    final CompletableFuture<Result<Item>> item = itemRepository.fetchFor(request);
+
+    // the request does not yet have the item, so the loan is found by item ID
+    final CompletableFuture<Result<Loan>> loan
+      = loanRepository.findOpenLoanForItemId(request.getItemId());
+
+    final CompletableFuture<Result<ServicePoint>> pickupServicePoint
+      = getServicePoint(request.getPickupServicePointId());
+
+    // patron groups depend upon the requester and proxy being fetched first
+    final CompletableFuture<Result<Request>> withUsers = getUser(request.getUserId())
+      .thenCombine(getUser(request.getProxyUserId()),
+        (requester, proxy) -> Result.combine(requester, proxy,
+          (fetchedRequester, fetchedProxy) -> request
+            .withRequester(fetchedRequester)
+            .withProxy(fetchedProxy)))
+      .thenCompose(this::fetchPatronGroups);
+
+    return CompletableFuture.allOf(item, loan, pickupServicePoint, withUsers)
+      .thenApply(notUsed -> withUsers.join()
+        .combine(item.join(), Request::withItem)
+        .combine(loan.join(), (withItem, openLoan) -> withItem.withLoan(
+          openLoan == null ? null : openLoan.withItem(withItem.getItem())))
+        .combine(pickupServicePoint.join(), Request::withPickupServicePoint));
   }
 
   private CompletableFuture<Result<Request>> fetchRequest(String id) {
@@ -213,27 +335,6 @@ public class RequestRepository {
       .thenApply(interpreter::apply);
   }
 
-  //TODO: Check if need to request requester
-  private CompletableFuture<Result<Request>> fetchRequester(Result<Request> result) {
-    return result.combineAfter(request ->
-      getUser(request.getUserId()), Request::withRequester);
-  }
-
-  //TODO: Check if need to request proxy
-  private CompletableFuture<Result<Request>> fetchProxy(Result<Request> result) {
-    return result.combineAfter(request ->
-      getUser(request.getProxyUserId()), Request::withProxy);
-  }
-
-  private CompletableFuture<Result<Request>> fetchLoan(Result<Request> result) {
-    return result.combineAfter(loanRepository::findOpenLoanForRequest, Request::withLoan);
-  }
-
-  private CompletableFuture<Result<Request>> fetchPickupServicePoint(Result<Request> result) {
-    return result.combineAfter(request -> getServicePoint(request.getPickupServicePointId()),
-        Request::withPickupServicePoint);
-  }
-
   private CompletableFuture<Result<Request>> fetchPatronGroups(Result<Request> result) {
     return patronGroupRepository.findPatronGroupsForSingleRequestUsers(result);
   }
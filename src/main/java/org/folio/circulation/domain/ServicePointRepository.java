@@ -5,9 +5,9 @@ import static org.folio.circulation.support.Result.ofAsync;
 import static org.folio.circulation.support.Result.succeeded;
 
 import java.lang.invoke.MethodHandles;
-import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
@@ -102,23 +102,25 @@ public class ServicePointRepository {
     return fetcher.findByIds(servicePointsToFetch)
       .thenApply(multipleServicePointsResult -> multipleServicePointsResult.next(
           multipleServicePoints -> {
-            List<Loan> newLoanList = new ArrayList<>();
-            Collection<ServicePoint> spCollection = multipleServicePoints.getRecords();
-            for(Loan loan : loans) {
+            final Map<String, ServicePoint> servicePoints
+              = multipleServicePoints.toMap(ServicePoint::getId);
+
+            return succeeded(multipleLoans.mapRecords(loan -> {
               Loan newLoan = loan;
-              for(ServicePoint servicePoint : spCollection) {
-                if(loan.getCheckInServicePointId() != null &&
-                    loan.getCheckInServicePointId().equals(servicePoint.getId())) {
-                  newLoan = newLoan.withCheckinServicePoint(servicePoint);
-                }
-                if(loan.getCheckoutServicePointId() != null &&
-                    loan.getCheckoutServicePointId().equals(servicePoint.getId())) {
-                  newLoan = newLoan.withCheckoutServicePoint(servicePoint);
-                }
+
+              if(loan.getCheckInServicePointId() != null &&
+                  servicePoints.containsKey(loan.getCheckInServicePointId())) {
+                newLoan = newLoan.withCheckinServicePoint(
+                  servicePoints.get(loan.getCheckInServicePointId()));
               }
-              newLoanList.add(newLoan);
-            }
-            return succeeded(new MultipleRecords<>(newLoanList, multipleLoans.getTotalRecords()));
+              if(loan.getCheckoutServicePointId() != null &&
+                  servicePoints.containsKey(loan.getCheckoutServicePointId())) {
+                newLoan = newLoan.withCheckoutServicePoint(
+                  servicePoints.get(loan.getCheckoutServicePointId()));
+              }
+
+              return newLoan;
+            }));
           }));
   }
   
@@ -143,29 +145,23 @@ public class ServicePointRepository {
     return fetcher.findByIds(servicePointsToFetch)
         .thenApply(multipleServicePointsResult -> multipleServicePointsResult.next(
           multipleServicePoints -> {
-            List<Request> newRequestList = new ArrayList<>();
-            Collection<ServicePoint> spCollection = multipleServicePoints.getRecords();
-            for(Request request : requests) {
-              Request newRequest = null;
-              boolean foundSP = false; //Have we found a matching service point for the request?
-              for(ServicePoint servicePoint : spCollection) { 
-                if(request.getPickupServicePointId() != null &&
-                    request.getPickupServicePointId().equals(servicePoint.getId())) {                
-                  newRequest = request.withPickupServicePoint(servicePoint);
-                  foundSP = true;
-                  break;
-                }
-              }
-              if(!foundSP) {
+            final Map<String, ServicePoint> servicePoints
+              = multipleServicePoints.toMap(ServicePoint::getId);
+
+            return succeeded(multipleRequests.mapRecords(request -> {
+              final String pickupServicePointId = request.getPickupServicePointId();
+
+              if(pickupServicePointId == null
+                || !servicePoints.containsKey(pickupServicePointId)) {
                 log.info("No service point (out of {}) found for request {} (pickupServicePointId {})",
-                    spCollection.size(), request.getId(), request.getPickupServicePointId());
-                newRequest = request;
+                  servicePoints.size(), request.getId(), pickupServicePointId);
+
+                return request;
               }
-              newRequestList.add(newRequest);
-            }
 
-            return succeeded(
-              new MultipleRecords<>(newRequestList, multipleRequests.getTotalRecords()));
+              return request.withPickupServicePoint(
+                servicePoints.get(pickupServicePointId));
+            }));
           }));
   }
 
@@ -168,9 +168,12 @@ public class UserRepository {
 
     return fetcher.findByIds(usersToFetch)
       .thenApply(multipleUsersResult -> multipleUsersResult.next(
-        multipleUsers -> of(() ->
-          multipleRequests.mapRecords(request ->
-            matchUsersToRequests(request, multipleUsers)))));
+        multipleUsers -> of(() -> {
+          final Map<String, User> userMap = multipleUsers.toMap(User::getId);
+
+          return multipleRequests.mapRecords(request ->
+            matchUsersToRequests(request, userMap));
+        })));
   }
 
   private ArrayList<String> getUsersFromRequest(Request request) {
@@ -189,9 +192,7 @@ public class UserRepository {
 
   private Request matchUsersToRequests(
     Request request,
-    MultipleRecords<User> users) {
-
-    final Map<String, User> userMap = users.toMap(User::getId);
+    Map<String, User> userMap) {
 
     return request
       .withRequester(userMap.getOrDefault(request.getUserId(), null))
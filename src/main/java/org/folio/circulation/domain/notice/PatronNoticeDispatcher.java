@@ -0,0 +1,342 @@
+package org.folio.circulation.domain.notice;
+
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static org.folio.circulation.support.Result.succeeded;
+import static org.folio.circulation.support.metrics.MetricsRegistry.getMetricsRegistry;
+import static org.folio.circulation.support.results.CommonFailures.failedDueToServerError;
+
+import java.lang.invoke.MethodHandles;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+import org.folio.circulation.support.Result;
+import org.folio.circulation.support.StorageUnavailableFailure;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Sends patron notices triggered during check out, check in, renewal and
+ * changes to requests in the background, rather than alongside the
+ * request that triggered them
+ *
+ * Notices are queued and sent with a limited number in progress at the
+ * same time. A notice that cannot be sent because mod-patron-notice is
+ * unavailable (no response or a server error response) is queued again after
+ * a delay (which doubles with each attempt), up to a limit. Notices refused
+ * by mod-patron-notice (e.g. because the template does not exist) are not
+ * tried again, as they would be refused again. When the queue is full,
+ * a notice is sent alongside the request which triggered it, as it would
+ * be without the queue. When the module is stopped, the queued notices
+ * (including those waiting to be tried again) are sent
+ *
+ * Unless enabled in the patronNoticeDispatch property, the request which
+ * triggers a notice waits for it to be sent, e.g.
+ *
+ * <pre>
+ * "patronNoticeDispatch" : {
+ *   "enabled" : true,
+ *   "capacity" : 1000,
+ *   "maximumInFlight" : 5,
+ *   "maximumAttempts" : 3,
+ *   "initialBackoffMilliseconds" : 1000
+ * }
+ * </pre>
+ */
+public class PatronNoticeDispatcher {
+  private static final Logger log = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+  private static final int DEFAULT_CAPACITY = 1000;
+  private static final int DEFAULT_MAXIMUM_IN_FLIGHT = 5;
+  private static final int DEFAULT_MAXIMUM_ATTEMPTS = 3;
+  private static final long DEFAULT_INITIAL_BACKOFF_MILLISECONDS = 1000;
+
+  private static final PatronNoticeDispatcher DISABLED = new PatronNoticeDispatcher(
+    false, DEFAULT_CAPACITY, DEFAULT_MAXIMUM_IN_FLIGHT, DEFAULT_MAXIMUM_ATTEMPTS,
+    DEFAULT_INITIAL_BACKOFF_MILLISECONDS, (delay, task) -> task.run(), System::nanoTime);
+
+  private static volatile PatronNoticeDispatcher instance = DISABLED;
+
+  private final boolean enabled;
+  private final int capacity;
+  private final int maximumInFlight;
+  private final int maximumAttempts;
+  private final long initialBackoffMilliseconds;
+  private final Scheduler scheduler;
+  private final LongSupplier clock;
+
+  private final Object lock = new Object();
+  private final Deque<QueuedNotice> queue = new ArrayDeque<>();
+  private final Set<QueuedNotice> waitingToRetry = new HashSet<>();
+  private int inFlight;
+  private CompletableFuture<Result<Void>> closed;
+
+  PatronNoticeDispatcher(boolean enabled, int capacity, int maximumInFlight,
+    int maximumAttempts, long initialBackoffMilliseconds, Scheduler scheduler,
+    LongSupplier clock) {
+
+    this.enabled = enabled;
+    this.capacity = capacity;
+    this.maximumInFlight = Math.max(1, maximumInFlight);
+    this.maximumAttempts = Math.max(1, maximumAttempts);
+    this.initialBackoffMilliseconds = initialBackoffMilliseconds;
+    this.scheduler = scheduler;
+    this.clock = clock;
+
+    if (enabled) {
+      registerMetrics();
+    }
+  }
+
+  public static PatronNoticeDispatcher getPatronNoticeDispatcher() {
+    return instance;
+  }
+
+  public static synchronized void configure(Vertx vertx,
+    JsonObject verticleConfiguration) {
+
+    final JsonObject configuration = verticleConfiguration
+      .getJsonObject("patronNoticeDispatch", new JsonObject());
+
+    final PatronNoticeDispatcher previous = instance;
+
+    if (!configuration.getBoolean("enabled", false)) {
+      instance = DISABLED;
+    }
+    else {
+      instance = new PatronNoticeDispatcher(true,
+        configuration.getInteger("capacity", DEFAULT_CAPACITY),
+        configuration.getInteger("maximumInFlight", DEFAULT_MAXIMUM_IN_FLIGHT),
+        configuration.getInteger("maximumAttempts", DEFAULT_MAXIMUM_ATTEMPTS),
+        configuration.getLong("initialBackoffMilliseconds", DEFAULT_INITIAL_BACKOFF_MILLISECONDS),
+        (delay, task) -> vertx.setTimer(delay, notUsed -> task.run()),
+        System::nanoTime);
+
+      log.info("Sending patron notices in the background, queueing up to {}",
+        instance.capacity);
+    }
+
+    // notices queued by a previous configuration are not lost
+    previous.close();
+  }
+
+  /**
+   * @param tenantId tenant the notice is for
+   * @param send sends the notice, used for each attempt
+   * @return success once the notice has been queued, or, when not queued,
+   * the outcome of sending it
+   */
+  public CompletableFuture<Result<Void>> dispatch(String tenantId,
+    Supplier<CompletableFuture<Result<Void>>> send) {
+
+    if (!enabled) {
+      return send.get();
+    }
+
+    final boolean queued;
+
+    synchronized (lock) {
+      queued = closed == null && queue.size() + waitingToRetry.size() < capacity;
+
+      if (queued) {
+        queue.addLast(new QueuedNotice(tenantId, send, 1, clock.getAsLong()));
+      }
+    }
+
+    if (!queued) {
+      recordOutcome(tenantId, "overflowed");
+
+      return send.get();
+    }
+
+    sendQueued();
+
+    return completedFuture(succeeded(null));
+  }
+
+  /**
+   * Stops queueing notices and sends those already queued, including
+   * those waiting to be tried again, without further attempts
+   *
+   * @return success once the queued notices have been sent (or have failed)
+   */
+  public CompletableFuture<Result<Void>> close() {
+    synchronized (lock) {
+      if (closed == null) {
+        closed = new CompletableFuture<>();
+      }
+
+      queue.addAll(waitingToRetry);
+      waitingToRetry.clear();
+    }
+
+    sendQueued();
+
+    return closed;
+  }
+
+  private void sendQueued() {
+    while (true) {
+      final QueuedNotice notice;
+      final boolean idleWhilstClosing;
+
+      synchronized (lock) {
+        if (inFlight >= maximumInFlight || queue.isEmpty()) {
+          idleWhilstClosing = closed != null && inFlight == 0 && queue.isEmpty();
+          notice = null;
+        }
+        else {
+          idleWhilstClosing = false;
+          notice = queue.pollFirst();
+          inFlight++;
+        }
+      }
+
+      if (notice == null) {
+        if (idleWhilstClosing) {
+          closed.complete(succeeded(null));
+        }
+
+        return;
+      }
+
+      send(notice);
+    }
+  }
+
+  private void send(QueuedNotice notice) {
+    getMetricsRegistry().histogram("circulation_patron_notice_queue_wait_seconds",
+      "Time patron notices waited in the queue before being sent",
+      "tenant", notice.tenantId)
+      .recordNanoseconds(clock.getAsLong() - notice.queuedAt);
+
+    CompletableFuture<Result<Void>> sending;
+
+    try {
+      sending = notice.send.get();
+    }
+    catch (Exception e) {
+      sending = completedFuture(failedDueToServerError(e));
+    }
+
+    sending.whenComplete((result, throwable) -> {
+      final boolean sent = throwable == null && result.succeeded();
+
+      final boolean mayBeSentLater = throwable == null && result.failed()
+        && result.cause() instanceof StorageUnavailableFailure;
+
+      synchronized (lock) {
+        inFlight--;
+      }
+
+      if (sent) {
+        recordOutcome(notice.tenantId, "sent");
+      }
+      else if (!mayBeSentLater || !retry(notice)) {
+        log.error("Could not send patron notice for tenant {} after {} attempts",
+          notice.tenantId, notice.attempts);
+
+        recordOutcome(notice.tenantId, "failed");
+      }
+
+      sendQueued();
+    });
+  }
+
+  private boolean retry(QueuedNotice notice) {
+    final QueuedNotice nextAttempt = notice.nextAttempt(clock.getAsLong());
+
+    synchronized (lock) {
+      if (closed != null || notice.attempts >= maximumAttempts) {
+        return false;
+      }
+
+      waitingToRetry.add(nextAttempt);
+    }
+
+    recordOutcome(notice.tenantId, "retried");
+
+    scheduler.schedule(backoffMilliseconds(notice.attempts), () -> {
+      synchronized (lock) {
+        // already queued again when closed
+        if (!waitingToRetry.remove(nextAttempt)) {
+          return;
+        }
+
+        queue.addLast(nextAttempt.queuedAgain(clock.getAsLong()));
+      }
+
+      sendQueued();
+    });
+
+    return true;
+  }
+
+  private long backoffMilliseconds(int attempts) {
+    return initialBackoffMilliseconds << Math.min(attempts - 1, 10);
+  }
+
+  private void registerMetrics() {
+    getMetricsRegistry().computedGauge("circulation_patron_notice_queue_depth",
+      "Patron notices queued to be sent, including those waiting to be tried again",
+      () -> {
+        synchronized (lock) {
+          return queue.size() + waitingToRetry.size();
+        }
+      });
+
+    getMetricsRegistry().computedGauge("circulation_patron_notice_queue_oldest_age_seconds",
+      "Time the oldest patron notice in the queue has been waiting",
+      () -> {
+        synchronized (lock) {
+          final QueuedNotice oldest = queue.peekFirst();
+
+          return oldest == null ? 0
+            : TimeUnit.NANOSECONDS.toSeconds(clock.getAsLong() - oldest.queuedAt);
+        }
+      });
+  }
+
+  private static void recordOutcome(String tenantId, String outcome) {
+    getMetricsRegistry().counter("circulation_patron_notices_dispatched_total",
+      "Patron notices triggered during requests, by outcome",
+      "tenant", tenantId, "outcome", outcome)
+      .increment();
+  }
+
+  interface Scheduler {
+    void schedule(long delayMilliseconds, Runnable task);
+  }
+
+  private static class QueuedNotice {
+    private final String tenantId;
+    private final Supplier<CompletableFuture<Result<Void>>> send;
+    private final int attempts;
+    private final long queuedAt;
+
+    private QueuedNotice(String tenantId,
+      Supplier<CompletableFuture<Result<Void>>> send, int attempts, long queuedAt) {
+
+      this.tenantId = tenantId;
+      this.send = send;
+      this.attempts = attempts;
+      this.queuedAt = queuedAt;
+    }
+
+    private QueuedNotice nextAttempt(long now) {
+      return new QueuedNotice(tenantId, send, attempts + 1, now);
+    }
+
+    private QueuedNotice queuedAgain(long now) {
+      return new QueuedNotice(tenantId, send, attempts, now);
+    }
+  }
+}
@@ -2,6 +2,7 @@ package org.folio.circulation.domain.notice;
 
 import static java.util.concurrent.CompletableFuture.completedFuture;
 import static java.util.stream.Collectors.groupingBy;
+import static org.folio.circulation.domain.notice.PatronNoticeDispatcher.getPatronNoticeDispatcher;
 import static org.folio.circulation.support.AsyncCoordinationUtil.allOf;
 import static org.folio.circulation.support.Result.succeeded;
 import static org.folio.circulation.support.ResultBinding.mapResult;
@@ -35,15 +36,25 @@ public class PatronNoticeService {
 
   private PatronNoticePolicyRepository noticePolicyRepository;
   private CollectionResourceClient patronNoticeClient;
+  private CollectionResourceClient backgroundPatronNoticeClient;
+  private String tenantId;
 
   public PatronNoticeService(PatronNoticePolicyRepository noticePolicyRepository, Clients clients) {
     this.noticePolicyRepository = noticePolicyRepository;
     this.patronNoticeClient = clients.patronNoticeClient();
+    this.backgroundPatronNoticeClient = clients.forBackgroundWork().patronNoticeClient();
+    this.tenantId = clients.tenantId();
   }
 
+  /**
+   * Accepts an event triggered during a request (e.g. a check out), the
+   * notice for which may be sent in the background
+   * (see {@link PatronNoticeDispatcher})
+   */
   public CompletableFuture<Result<Void>> acceptNoticeEvent(PatronNoticeEvent event) {
-    return acceptMultipleNoticeEvent(Collections.singletonList(event),
-      contexts -> contexts.stream().findFirst().orElse(new JsonObject()));
+    return acceptNoticeEvents(Collections.singletonList(event),
+      contexts -> contexts.stream().findFirst().orElse(new JsonObject()),
+      this::dispatchNotice);
   }
 
   public CompletableFuture<Result<Void>> acceptScheduledNoticeEvent(
@@ -63,9 +74,18 @@ public class PatronNoticeService {
     Collection<PatronNoticeEvent> events,
     Function<Collection<JsonObject>, JsonObject> contextCombiner) {
 
+    return acceptNoticeEvents(events, contextCombiner, this::sendNotice);
+  }
+
+  private CompletableFuture<Result<Void>> acceptNoticeEvents(
+    Collection<PatronNoticeEvent> events,
+    Function<Collection<JsonObject>, JsonObject> contextCombiner,
+    Function<PatronNotice, CompletableFuture<Result<Void>>> noticeSender) {
+
     return allOf(events, this::loadNoticePolicyId)
       .thenApply(mapResult(this::groupEvents))
-      .thenCompose(r -> r.after(eventGroups -> handleGroupedEvents(eventGroups, contextCombiner)));
+      .thenCompose(r -> r.after(eventGroups ->
+        handleGroupedEvents(eventGroups, contextCombiner, noticeSender)));
   }
 
   private CompletableFuture<Result<Pair<PatronNoticeEvent, String>>> loadNoticePolicyId(PatronNoticeEvent event) {
@@ -83,15 +103,18 @@ public class PatronNoticeService {
 
   private CompletableFuture<Result<Void>> handleGroupedEvents(
     Map<NoticeEventGroupDefinition, List<PatronNoticeEvent>> eventGroups,
-    Function<Collection<JsonObject>, JsonObject> contextCombiner) {
+    Function<Collection<JsonObject>, JsonObject> contextCombiner,
+    Function<PatronNotice, CompletableFuture<Result<Void>>> noticeSender) {
 
-    return allOf(eventGroups.entrySet(), e -> handleGroupedEvent(e, contextCombiner))
+    return allOf(eventGroups.entrySet(),
+      e -> handleGroupedEvent(e, contextCombiner, noticeSender))
       .thenApply(mapResult(v -> null));
   }
 
   private CompletableFuture<Result<Void>> handleGroupedEvent(
     Map.Entry<NoticeEventGroupDefinition, List<PatronNoticeEvent>> groupedEvent,
-    Function<Collection<JsonObject>, JsonObject> contextCombiner) {
+    Function<Collection<JsonObject>, JsonObject> contextCombiner,
+    Function<PatronNotice, CompletableFuture<Result<Void>>> noticeSender) {
 
     NoticeEventGroupDefinition eventGroupDefinition = groupedEvent.getKey();
     List<PatronNoticeEvent> events = groupedEvent.getValue();
@@ -104,11 +127,13 @@ public class PatronNoticeService {
 
     return noticePolicyRepository.lookupPolicy(eventGroupDefinition.noticePolicyId)
       .thenCompose(r -> r.after(policy ->
-        applyNoticePolicy(policy, eventGroupDefinition, combinedContext)));
+        applyNoticePolicy(policy, eventGroupDefinition, combinedContext, noticeSender)));
   }
 
   private CompletableFuture<Result<Void>> applyNoticePolicy(
-    PatronNoticePolicy policy, NoticeEventGroupDefinition eventGroupDefinition, JsonObject noticeContext) {
+    PatronNoticePolicy policy, NoticeEventGroupDefinition eventGroupDefinition,
+    JsonObject noticeContext,
+    Function<PatronNotice, CompletableFuture<Result<Void>>> noticeSender) {
 
     Optional<NoticeConfiguration> matchingNoticeConfiguration =
       policy.lookupNoticeConfiguration(eventGroupDefinition.eventType);
@@ -118,11 +143,12 @@ public class PatronNoticeService {
     }
 
     return sendPatronNotice(matchingNoticeConfiguration.get(),
-      eventGroupDefinition.recipientId, noticeContext);
+      eventGroupDefinition.recipientId, noticeContext, noticeSender);
   }
 
   private CompletableFuture<Result<Void>> sendPatronNotice(
-    NoticeConfiguration noticeConfiguration, String recipientId, JsonObject context) {
+    NoticeConfiguration noticeConfiguration, String recipientId, JsonObject context,
+    Function<PatronNotice, CompletableFuture<Result<Void>>> noticeSender) {
 
     PatronNotice patronNotice = new PatronNotice();
     patronNotice.setRecipientId(recipientId);
@@ -131,7 +157,19 @@ public class PatronNoticeService {
     patronNotice.setOutputFormat(noticeConfiguration.getNoticeFormat().getOutputFormat());
     patronNotice.setContext(context);
 
-    return sendNotice(patronNotice);
+    return noticeSender.apply(patronNotice);
+  }
+
+  private CompletableFuture<Result<Void>> dispatchNotice(PatronNotice patronNotice) {
+    JsonObject body = JsonObject.mapFrom(patronNotice);
+    ResponseInterpreter<Void> responseInterpreter =
+      mapToRecordInterpreter(null, 200, 201);
+
+    // the notice may be sent after the request has finished, so is not part
+    // of its trace and failures are reported rather than responded with
+    return getPatronNoticeDispatcher().dispatch(tenantId, () ->
+      backgroundPatronNoticeClient.reportingFailures(client -> client.post(body)
+        .thenApply(responseInterpreter::apply)));
   }
 
   private CompletableFuture<Result<Void>> sendNotice(PatronNotice patronNotice) {
@@ -0,0 +1,198 @@
+package org.folio.circulation.domain.notice.schedule;
+
+import static org.folio.circulation.support.metrics.MetricsRegistry.getMetricsRegistry;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.joda.time.DateTime;
+
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Sizes the batches of scheduled notices processed during each run of a
+ * processor (e.g. due date notices) for each tenant, based upon how long
+ * previous batches took, and continues processing further batches during a
+ * run whilst there are more notices due, within a time budget
+ *
+ * The limit configured for the tenant (or the default) is used as the
+ * initial batch size, afterwards the size is moved towards the number of
+ * notices which can be processed in the target duration, within the
+ * configured bounds. The size only grows when the previous batch was full
+ *
+ * Unless enabled in the adaptiveNoticeBatching property, each run processes
+ * a single batch of the tenant's configured limit, e.g.
+ *
+ * <pre>
+ * "adaptiveNoticeBatching" : {
+ *   "enabled" : true,
+ *   "minimumBatchSize" : 10,
+ *   "maximumBatchSize" : 1000,
+ *   "targetBatchMilliseconds" : 2000,
+ *   "timeBudgetMilliseconds" : 20000
+ * }
+ * </pre>
+ */
+public class AdaptiveNoticeBatching {
+  private static final int DEFAULT_MINIMUM_BATCH_SIZE = 10;
+  private static final int DEFAULT_MAXIMUM_BATCH_SIZE = 1000;
+  private static final long DEFAULT_TARGET_BATCH_MILLISECONDS = 2000;
+  private static final long DEFAULT_TIME_BUDGET_MILLISECONDS = 20000;
+
+  private static final AdaptiveNoticeBatching DISABLED = new AdaptiveNoticeBatching(
+    false, DEFAULT_MINIMUM_BATCH_SIZE, DEFAULT_MAXIMUM_BATCH_SIZE,
+    DEFAULT_TARGET_BATCH_MILLISECONDS, DEFAULT_TIME_BUDGET_MILLISECONDS);
+
+  private static volatile AdaptiveNoticeBatching instance = DISABLED;
+
+  private final boolean enabled;
+  private final int minimumBatchSize;
+  private final int maximumBatchSize;
+  private final long targetBatchNanoseconds;
+  private final long timeBudgetNanoseconds;
+  private final Map<String, Integer> batchSizes = new ConcurrentHashMap<>();
+
+  AdaptiveNoticeBatching(boolean enabled, int minimumBatchSize,
+    int maximumBatchSize, long targetBatchMilliseconds,
+    long timeBudgetMilliseconds) {
+
+    this.enabled = enabled;
+    this.minimumBatchSize = minimumBatchSize;
+    this.maximumBatchSize = Math.max(minimumBatchSize, maximumBatchSize);
+    this.targetBatchNanoseconds = TimeUnit.MILLISECONDS.toNanos(targetBatchMilliseconds);
+    this.timeBudgetNanoseconds = TimeUnit.MILLISECONDS.toNanos(timeBudgetMilliseconds);
+  }
+
+  public static AdaptiveNoticeBatching getAdaptiveNoticeBatching() {
+    return instance;
+  }
+
+  public static void configure(JsonObject verticleConfiguration) {
+    final JsonObject configuration = verticleConfiguration
+      .getJsonObject("adaptiveNoticeBatching", new JsonObject());
+
+    if (!configuration.getBoolean("enabled", false)) {
+      instance = DISABLED;
+      return;
+    }
+
+    instance = new AdaptiveNoticeBatching(true,
+      configuration.getInteger("minimumBatchSize", DEFAULT_MINIMUM_BATCH_SIZE),
+      configuration.getInteger("maximumBatchSize", DEFAULT_MAXIMUM_BATCH_SIZE),
+      configuration.getLong("targetBatchMilliseconds", DEFAULT_TARGET_BATCH_MILLISECONDS),
+      configuration.getLong("timeBudgetMilliseconds", DEFAULT_TIME_BUDGET_MILLISECONDS));
+  }
+
+  /**
+   * @param tenantId tenant the notices are processed for
+   * @param processor processor of the notices, e.g. the path of the resource
+   * @param configuredLimit limit configured for the tenant
+   * @return number of notices to process in the next batch
+   */
+  public int batchSize(String tenantId, String processor, int configuredLimit) {
+    if (!enabled) {
+      return configuredLimit;
+    }
+
+    return batchSizes.getOrDefault(key(tenantId, processor),
+      withinBounds(configuredLimit));
+  }
+
+  /**
+   * Records how long a batch took, adapting the size of the next batch
+   *
+   * @param tenantId tenant the notices were processed for
+   * @param processor processor of the notices
+   * @param batchSize number of notices asked for
+   * @param processed number of notices fetched and processed
+   * @param durationNanoseconds time taken to fetch and process the batch
+   */
+  public void batchProcessed(String tenantId, String processor, int batchSize,
+    int processed, long durationNanoseconds) {
+
+    getMetricsRegistry().histogram("circulation_scheduled_notice_batch_duration_seconds",
+      "Time taken to fetch and process a batch of scheduled notices",
+      "tenant", tenantId, "processor", processor)
+      .recordNanoseconds(durationNanoseconds);
+
+    if (!enabled || processed == 0) {
+      return;
+    }
+
+    final long perNotice = Math.max(1, durationNanoseconds / processed);
+    final long sustainable = targetBatchNanoseconds / perNotice;
+
+    // move half way towards the sustainable size, to smooth out variation
+    long nextSize = (batchSize + sustainable) / 2;
+
+    if (processed < batchSize) {
+      nextSize = Math.min(nextSize, batchSize);
+    }
+
+    final int adapted = withinBounds(nextSize);
+
+    batchSizes.put(key(tenantId, processor), adapted);
+
+    getMetricsRegistry().gauge("circulation_scheduled_notice_batch_size",
+      "Number of scheduled notices to process in the next batch",
+      "tenant", tenantId, "processor", processor)
+      .set(adapted);
+  }
+
+  /**
+   * Records the notices which were due but not fetched in the last batch,
+   * and the age of the oldest notice fetched, as an indication of how far
+   * behind processing is
+   *
+   * @param tenantId tenant the notices were processed for
+   * @param processor processor of the notices
+   * @param notices notices fetched in the last batch
+   * @param remaining number of due notices not fetched
+   */
+  public void recordBacklog(String tenantId, String processor,
+    Iterable<ScheduledNotice> notices, int remaining) {
+
+    getMetricsRegistry().gauge("circulation_scheduled_notice_backlog",
+      "Scheduled notices due but not fetched in the last batch",
+      "tenant", tenantId, "processor", processor)
+      .set(Math.max(0, remaining));
+
+    long oldestAgeMilliseconds = 0;
+
+    if (remaining > 0) {
+      final long now = DateTime.now().getMillis();
+
+      for (ScheduledNotice notice : notices) {
+        if (notice.getNextRunTime() != null) {
+          oldestAgeMilliseconds = Math.max(oldestAgeMilliseconds,
+            now - notice.getNextRunTime().getMillis());
+        }
+      }
+    }
+
+    getMetricsRegistry().gauge("circulation_scheduled_notice_backlog_age_seconds",
+      "Age of the oldest scheduled notice in the last batch, when more were due",
+      "tenant", tenantId, "processor", processor)
+      .set(TimeUnit.MILLISECONDS.toSeconds(oldestAgeMilliseconds));
+  }
+
+  /**
+   * @param startTime System.nanoTime() when the run started
+   * @param remaining number of due notices not yet fetched
+   * @return whether another batch should be processed during this run
+   */
+  public boolean shouldContinue(long startTime, int remaining) {
+    return enabled
+      && remaining > 0
+      && System.nanoTime() - startTime < timeBudgetNanoseconds;
+  }
+
+  private int withinBounds(long size) {
+    return (int) Math.max(minimumBatchSize, Math.min(maximumBatchSize, size));
+  }
+
+  private static String key(String tenantId, String processor) {
+    return tenantId + " " + processor;
+  }
+}
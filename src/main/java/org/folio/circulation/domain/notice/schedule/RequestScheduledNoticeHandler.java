@@ -2,10 +2,15 @@ package org.folio.circulation.domain.notice.schedule;
 
 import static java.util.concurrent.CompletableFuture.completedFuture;
 import static org.folio.circulation.domain.notice.NoticeTiming.UPON_AT;
+import static org.folio.circulation.support.AsyncCoordinationUtil.allOf;
+import static org.folio.circulation.support.Result.failed;
 import static org.folio.circulation.support.Result.succeeded;
 
 import java.util.Collection;
+import java.util.Objects;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
 
 import org.folio.circulation.domain.Request;
 import org.folio.circulation.domain.RequestAndRelatedRecords;
@@ -14,6 +19,9 @@ import org.folio.circulation.domain.notice.NoticeTiming;
 import org.folio.circulation.domain.notice.PatronNoticeService;
 import org.folio.circulation.domain.notice.TemplateContextUtil;
 import org.folio.circulation.support.Clients;
+import org.folio.circulation.support.Includes;
+import org.folio.circulation.support.ItemRepository;
+import org.folio.circulation.support.RecordNotFoundFailure;
 import org.folio.circulation.support.Result;
 import org.joda.time.DateTime;
 import org.joda.time.DateTimeZone;
@@ -29,6 +37,18 @@ public class RequestScheduledNoticeHandler {
       ScheduledNoticesRepository.using(clients));
   }
 
+  /**
+   * The related records used by the request notice templates, the loan is
+   * only used for recalls. Including the requester also fetches the proxy
+   * and the patron groups of both, which the templates do not use
+   */
+  private static final Includes NOTICE_INCLUDES = Includes.only(
+    RequestRepository.ITEM, ItemRepository.LOCATION, ItemRepository.MATERIAL_TYPE,
+    RequestRepository.LOAN, RequestRepository.PICKUP_SERVICE_POINT,
+    RequestRepository.REQUESTER);
+
+  private static final int MAXIMUM_NOTICES_IN_FLIGHT = 10;
+
   private RequestRepository requestRepository;
   private PatronNoticeService patronNoticeService;
   private ScheduledNoticesRepository scheduledNoticesRepository;
@@ -42,18 +62,33 @@ public class RequestScheduledNoticeHandler {
     this.scheduledNoticesRepository = scheduledNoticesRepository;
   }
 
+  /**
+   * Sends the notices, the requests for all of the notices are fetched
+   * together, with only the related records used by the notice templates
+   */
   public CompletableFuture<Result<Collection<ScheduledNotice>>> handleNotices(Collection<ScheduledNotice> scheduledNotices) {
-    CompletableFuture<Result<ScheduledNotice>> future = completedFuture(succeeded(null));
-    for (ScheduledNotice scheduledNotice : scheduledNotices) {
-      future = future.thenCompose(r -> r.after(v -> handleRequestNotice(scheduledNotice)));
-    }
-    return future.thenApply(r -> r.map(v -> scheduledNotices));
+    final Set<String> requestIds = scheduledNotices.stream()
+      .map(ScheduledNotice::getRequestId)
+      .filter(Objects::nonNull)
+      .collect(Collectors.toSet());
+
+    return requestRepository.findByIds(requestIds, NOTICE_INCLUDES)
+      .thenApply(r -> r.map(requests -> requests.toMap(Request::getId)))
+      .thenCompose(r -> r.after(requests -> allOf(scheduledNotices,
+        notice -> handleRequestNotice(notice, requests.get(notice.getRequestId())),
+        MAXIMUM_NOTICES_IN_FLIGHT)))
+      .thenApply(r -> r.map(v -> scheduledNotices));
   }
 
-  private CompletableFuture<Result<ScheduledNotice>> handleRequestNotice(ScheduledNotice notice) {
-    return requestRepository.getById(notice.getRequestId())
-      .thenApply(r -> r.map(RequestAndRelatedRecords::new))
-      .thenCompose(r -> r.after(records -> sendNotice(records, notice)))
+  private CompletableFuture<Result<ScheduledNotice>> handleRequestNotice(
+    ScheduledNotice notice, Request request) {
+
+    if (request == null) {
+      return completedFuture(failed(
+        new RecordNotFoundFailure("request", notice.getRequestId())));
+    }
+
+    return sendNotice(new RequestAndRelatedRecords(request), notice)
       .thenCompose(r -> r.after(records -> updateNotice(records, notice)));
   }
 
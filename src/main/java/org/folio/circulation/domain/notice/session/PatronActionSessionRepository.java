@@ -1,18 +1,27 @@
 package org.folio.circulation.domain.notice.session;
 
+import static java.util.concurrent.CompletableFuture.completedFuture;
 import static java.util.function.Function.identity;
+import static org.folio.circulation.support.AsyncCoordinationUtil.allOf;
 import static org.folio.circulation.support.CqlQuery.exactMatch;
 import static org.folio.circulation.support.JsonPropertyFetcher.getProperty;
 import static org.folio.circulation.support.JsonPropertyFetcher.getUUIDProperty;
 import static org.folio.circulation.support.JsonPropertyWriter.write;
+import static org.folio.circulation.support.MultipleRecordFetcher.batchQueries;
+import static org.folio.circulation.support.Result.failed;
 import static org.folio.circulation.support.Result.of;
+import static org.folio.circulation.support.Result.succeeded;
 import static org.folio.circulation.support.ResultBinding.mapResult;
 import static org.folio.circulation.support.http.ResponseMapping.flatMapUsingJson;
 import static org.folio.circulation.support.http.ResponseMapping.forwardOnFailure;
 import static org.folio.circulation.support.results.CommonFailures.failedDueToServerError;
 
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
@@ -29,6 +38,7 @@ import org.folio.circulation.domain.policy.LoanPolicyRepository;
 import org.folio.circulation.support.Clients;
 import org.folio.circulation.support.CollectionResourceClient;
 import org.folio.circulation.support.CqlQuery;
+import org.folio.circulation.support.ForwardOnFailure;
 import org.folio.circulation.support.Result;
 import org.folio.circulation.support.http.client.ResponseInterpreter;
 
@@ -41,6 +51,9 @@ public class PatronActionSessionRepository {
   private static final String LOAN_ID = "loanId";
   private static final String ACTION_TYPE = "actionType";
 
+  private static final Set<Integer> DELETE_BY_QUERY_NOT_SUPPORTED
+    = new HashSet<>(Arrays.asList(400, 404, 405, 501));
+
   private final CollectionResourceClient patronActionSessionsStorageClient;
   private final LoanRepository loanRepository;
   private final LoanPolicyRepository loanPolicyRepository;
@@ -77,19 +90,70 @@ public class PatronActionSessionRepository {
       = new ResponseInterpreter<PatronSessionRecord>()
       .flatMapOn(201, flatMapUsingJson(this::mapFromJson));
 
-    return patronActionSessionsStorageClient.post(representation)
-      .thenApply(responseInterpreter::apply);
+    // failures are reported, as records may be created after the request has finished
+    return patronActionSessionsStorageClient.reportingFailures(client ->
+      client.post(representation)
+        .thenApply(responseInterpreter::apply));
+  }
+
+  /**
+   * Deletes the records for a patron's session, using as few requests as
+   * the length of the query allows (usually only one)
+   *
+   * When storage does not support deleting patron action sessions by query,
+   * the records are deleted individually
+   *
+   * @param patronId patron the session is for
+   * @param actionType type of action the session is for
+   * @param records records to delete
+   * @return success when all of the records have been deleted
+   */
+  public CompletableFuture<Result<Void>> deleteAll(String patronId,
+    PatronActionType actionType, Collection<PatronSessionRecord> records) {
+
+    if (records.isEmpty()) {
+      return completedFuture(succeeded(null));
+    }
+
+    final List<String> ids = records.stream()
+      .map(PatronSessionRecord::getId)
+      .map(UUID::toString)
+      .collect(Collectors.toList());
+
+    final ResponseInterpreter<Boolean> interpreter = new ResponseInterpreter<Boolean>()
+      .on(204, of(() -> true))
+      .otherwise(response -> DELETE_BY_QUERY_NOT_SUPPORTED.contains(response.getStatusCode())
+        ? succeeded(false)
+        : failed(new ForwardOnFailure(response)));
+
+    return allOf(batchQueries(ids, ID, sessionQuery(patronId, actionType)),
+      query -> query.after(patronActionSessionsStorageClient::deleteMany)
+        .thenApply(r -> r.next(interpreter::apply)))
+      .thenCompose(r -> r.after(deleted -> deleted.contains(false)
+        ? allOf(records, this::delete).thenApply(mapResult(notUsed -> null))
+        : completedFuture(succeeded(null))));
   }
 
-  public CompletableFuture<Result<Void>> delete(PatronSessionRecord record) {
+  private CompletableFuture<Result<Void>> delete(PatronSessionRecord record) {
+    // the record may already have been deleted by a query
     final ResponseInterpreter<Void> interpreter = new ResponseInterpreter<Void>()
       .on(204, of(() -> null))
+      .on(404, of(() -> null))
       .otherwise(forwardOnFailure());
 
     return patronActionSessionsStorageClient.delete(record.getId().toString())
       .thenApply(interpreter::apply);
   }
 
+  private static Result<CqlQuery> sessionQuery(String patronId,
+    PatronActionType actionType) {
+
+    final Result<CqlQuery> patronIdQuery = exactMatch(PATRON_ID, patronId);
+    final Result<CqlQuery> actionTypeQuery = exactMatch(ACTION_TYPE, actionType.getRepresentation());
+
+    return patronIdQuery.combine(actionTypeQuery, CqlQuery::and);
+  }
+
   private JsonObject mapToJson(PatronSessionRecord patronSessionRecord) {
     JsonObject json = new JsonObject();
     write(json, ID, patronSessionRecord.getId());
@@ -115,10 +179,7 @@ public class PatronActionSessionRepository {
   public CompletableFuture<Result<MultipleRecords<PatronSessionRecord>>> findPatronActionSessions(
     String patronId, PatronActionType actionType, int limit) {
 
-    final Result<CqlQuery> patronIdQuery = exactMatch(PATRON_ID, patronId);
-    final Result<CqlQuery> actionTypeQuery = exactMatch(ACTION_TYPE, actionType.getRepresentation());
-
-    return patronIdQuery.combine(actionTypeQuery, CqlQuery::and)
+    return sessionQuery(patronId, actionType)
       .after(query -> findBy(query, limit))
       .thenCompose(r -> r.combineAfter(
         () -> userRepository.getUser(patronId), this::setUserForLoans));
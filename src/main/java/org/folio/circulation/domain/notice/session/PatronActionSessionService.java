@@ -3,7 +3,7 @@ package org.folio.circulation.domain.notice.session;
 import static java.util.concurrent.CompletableFuture.completedFuture;
 import static org.folio.circulation.domain.notice.TemplateContextUtil.createLoanNoticeContextWithoutUser;
 import static org.folio.circulation.domain.notice.TemplateContextUtil.createUserContext;
-import static org.folio.circulation.support.AsyncCoordinationUtil.allOf;
+import static org.folio.circulation.domain.notice.session.PatronSessionRecordWriter.getPatronSessionRecordWriter;
 import static org.folio.circulation.support.Result.succeeded;
 import static org.folio.circulation.support.ResultBinding.mapResult;
 
@@ -12,6 +12,7 @@ import java.util.EnumMap;
 import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 import org.folio.circulation.domain.LoanAndRelatedRecords;
@@ -40,18 +41,28 @@ public class PatronActionSessionService {
 
   private final PatronActionSessionRepository patronActionSessionRepository;
   private final PatronNoticeService patronNoticeService;
+  private final Supplier<PatronActionSessionRepository> backgroundRepository;
+  private final String tenantId;
 
   public static PatronActionSessionService using(Clients clients) {
+    final Clients backgroundClients = clients.forBackgroundWork();
+
     return new PatronActionSessionService(
       PatronActionSessionRepository.using(clients),
-      PatronNoticeService.using(clients));
+      PatronNoticeService.using(clients),
+      () -> PatronActionSessionRepository.using(backgroundClients),
+      clients.tenantId());
   }
 
   public PatronActionSessionService(
     PatronActionSessionRepository patronActionSessionRepository,
-    PatronNoticeService patronNoticeService) {
+    PatronNoticeService patronNoticeService,
+    Supplier<PatronActionSessionRepository> backgroundRepository,
+    String tenantId) {
     this.patronActionSessionRepository = patronActionSessionRepository;
     this.patronNoticeService = patronNoticeService;
+    this.backgroundRepository = backgroundRepository;
+    this.tenantId = tenantId;
   }
 
   public CompletableFuture<Result<LoanAndRelatedRecords>> saveCheckOutSessionRecord(LoanAndRelatedRecords records) {
@@ -62,15 +73,20 @@ public class PatronActionSessionService {
       new PatronSessionRecord(UUID.randomUUID(),
         patronId, loanId, PatronActionType.CHECK_OUT);
 
-    return patronActionSessionRepository.create(patronSessionRecord)
+    return getPatronSessionRecordWriter()
+      .write(tenantId, patronSessionRecord, patronActionSessionRepository,
+        backgroundRepository)
       .thenApply(mapResult(v -> records));
   }
 
   public CompletableFuture<Result<Void>> endSession(String patronId, PatronActionType actionType) {
-    return patronActionSessionRepository.findPatronActionSessions(patronId, actionType, DEFAULT_SESSION_SIZE_LIMIT)
+    // records may still be waiting to be written in the background
+    return getPatronSessionRecordWriter().flush(tenantId)
+      .thenCompose(r -> r.after(v -> patronActionSessionRepository
+        .findPatronActionSessions(patronId, actionType, DEFAULT_SESSION_SIZE_LIMIT)))
       .thenCompose(r -> r.after(this::sendNotices))
-      .thenCompose(r -> r.after(records ->
-        allOf(records.getRecords(), patronActionSessionRepository::delete)))
+      .thenCompose(r -> r.after(records -> patronActionSessionRepository
+        .deleteAll(patronId, actionType, records.getRecords())))
       .thenApply(mapResult(v -> null));
   }
 
@@ -78,7 +94,7 @@ public class PatronActionSessionService {
     MultipleRecords<PatronSessionRecord> records) {
 
     if (records.isEmpty()) {
-      return completedFuture(succeeded(null));
+      return completedFuture(succeeded(records));
     }
     List<PatronSessionRecord> sessionRecords = new ArrayList<>(records.getRecords());
 
@@ -0,0 +1,276 @@
+package org.folio.circulation.domain.notice.session;
+
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static org.folio.circulation.support.AsyncCoordinationUtil.allOf;
+import static org.folio.circulation.support.Result.succeeded;
+import static org.folio.circulation.support.ResultBinding.mapResult;
+import static org.folio.circulation.support.metrics.MetricsRegistry.getMetricsRegistry;
+import static org.folio.circulation.support.results.CommonFailures.failedDueToServerError;
+
+import java.lang.invoke.MethodHandles;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import org.folio.circulation.support.Result;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Writes patron action session records (e.g. for each check out) in the
+ * background, rather than during the request that creates them
+ *
+ * Records are buffered for each tenant and written once enough have been
+ * buffered to fill a batch, periodically, before a tenant's session is
+ * ended and when the module is stopped. Storage has no means of creating
+ * many records in one request, so a batch is written using a bounded
+ * number of concurrent requests. A record that fails to be written is
+ * tried again during the next flush, up to a limit
+ *
+ * Records are written using clients detached from the request which
+ * created them (see {@link org.folio.circulation.support.Clients#forBackgroundWork}),
+ * the most recent of which is kept for each tenant
+ *
+ * Unless enabled in the patronActionSessionWriting property, the request
+ * which creates a record (e.g. a check out) waits for it to be written, e.g.
+ *
+ * <pre>
+ * "patronActionSessionWriting" : {
+ *   "enabled" : true,
+ *   "flushIntervalMilliseconds" : 1000,
+ *   "batchSize" : 20
+ * }
+ * </pre>
+ */
+public class PatronSessionRecordWriter {
+  private static final Logger log = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+  private static final long DEFAULT_FLUSH_INTERVAL_MILLISECONDS = 1000;
+  private static final int DEFAULT_BATCH_SIZE = 20;
+  private static final int MAXIMUM_ATTEMPTS = 3;
+
+  private static final PatronSessionRecordWriter DISABLED = new PatronSessionRecordWriter(
+    false, null, DEFAULT_FLUSH_INTERVAL_MILLISECONDS, DEFAULT_BATCH_SIZE);
+
+  private static volatile PatronSessionRecordWriter instance = DISABLED;
+
+  private final boolean enabled;
+  private final Vertx vertx;
+  private final int batchSize;
+  private final Long timerId;
+  private final Map<String, TenantRecords> tenants = new ConcurrentHashMap<>();
+
+  PatronSessionRecordWriter(boolean enabled, Vertx vertx,
+    long flushIntervalMilliseconds, int batchSize) {
+
+    this.enabled = enabled;
+    this.vertx = vertx;
+    this.batchSize = Math.max(1, batchSize);
+
+    this.timerId = enabled && vertx != null
+      ? vertx.setPeriodic(flushIntervalMilliseconds, notUsed -> flushAll())
+      : null;
+
+    if (enabled) {
+      getMetricsRegistry().computedGauge("circulation_patron_session_records_buffered",
+        "Patron action session records waiting to be written to storage",
+        this::buffered);
+    }
+  }
+
+  public static PatronSessionRecordWriter getPatronSessionRecordWriter() {
+    return instance;
+  }
+
+  public static synchronized void configure(Vertx vertx,
+    JsonObject verticleConfiguration) {
+
+    final JsonObject configuration = verticleConfiguration
+      .getJsonObject("patronActionSessionWriting", new JsonObject());
+
+    final PatronSessionRecordWriter previous = instance;
+
+    if (!configuration.getBoolean("enabled", false)) {
+      instance = DISABLED;
+    }
+    else {
+      instance = new PatronSessionRecordWriter(true, vertx,
+        configuration.getLong("flushIntervalMilliseconds", DEFAULT_FLUSH_INTERVAL_MILLISECONDS),
+        configuration.getInteger("batchSize", DEFAULT_BATCH_SIZE));
+
+      log.info("Writing patron action session records in batches of {}",
+        instance.batchSize);
+    }
+
+    // records buffered by a previous configuration are not lost
+    previous.close();
+  }
+
+  /**
+   * @param tenantId tenant the record is for
+   * @param record record to write
+   * @param requestRepository repository used when writing the record during
+   * the request
+   * @param backgroundRepository creates a repository for writing the record
+   * in the background, after the request has finished
+   * @return success once the record has been written, or, when writing in
+   * the background, once it has been buffered
+   */
+  public CompletableFuture<Result<Void>> write(String tenantId,
+    PatronSessionRecord record, PatronActionSessionRepository requestRepository,
+    Supplier<PatronActionSessionRepository> backgroundRepository) {
+
+    if (!enabled) {
+      return requestRepository.create(record)
+        .thenApply(mapResult(notUsed -> null));
+    }
+
+    final TenantRecords tenantRecords = tenants.computeIfAbsent(tenantId,
+      notUsed -> new TenantRecords());
+
+    final PatronActionSessionRepository repository = backgroundRepository.get();
+    final boolean full;
+
+    synchronized (tenantRecords) {
+      tenantRecords.repository = repository;
+      tenantRecords.buffered.add(new BufferedRecord(record, 1));
+      full = tenantRecords.buffered.size() >= batchSize;
+    }
+
+    if (full) {
+      flush(tenantId);
+    }
+
+    return completedFuture(succeeded(null));
+  }
+
+  /**
+   * Writes the records buffered for a tenant, once any write already
+   * in progress for that tenant has finished
+   *
+   * @param tenantId tenant to write the records for
+   * @return success once the records buffered for the tenant have been
+   * written (or buffered again to be tried later)
+   */
+  public CompletableFuture<Result<Void>> flush(String tenantId) {
+    final TenantRecords tenantRecords = tenants.get(tenantId);
+
+    if (tenantRecords == null) {
+      return completedFuture(succeeded(null));
+    }
+
+    synchronized (tenantRecords) {
+      tenantRecords.flushing = tenantRecords.flushing
+        .thenCompose(notUsed -> writeBuffered(tenantId, tenantRecords))
+        .exceptionally(e -> failedDueToServerError(e));
+
+      return tenantRecords.flushing;
+    }
+  }
+
+  public CompletableFuture<Result<Void>> flushAll() {
+    return allOf(new ArrayList<>(tenants.keySet()), this::flush)
+      .thenApply(mapResult(notUsed -> null));
+  }
+
+  /**
+   * Stops writing periodically and writes all of the buffered records
+   */
+  public CompletableFuture<Result<Void>> close() {
+    if (timerId != null) {
+      vertx.cancelTimer(timerId);
+    }
+
+    return flushAll();
+  }
+
+  private CompletableFuture<Result<Void>> writeBuffered(String tenantId,
+    TenantRecords tenantRecords) {
+
+    final List<BufferedRecord> records;
+    final PatronActionSessionRepository repository;
+
+    synchronized (tenantRecords) {
+      records = new ArrayList<>(tenantRecords.buffered);
+      repository = tenantRecords.repository;
+      tenantRecords.buffered.clear();
+    }
+
+    if (records.isEmpty()) {
+      return completedFuture(succeeded(null));
+    }
+
+    return allOf(records,
+      record -> writeRecord(tenantId, tenantRecords, repository, record), batchSize)
+      .thenApply(mapResult(notUsed -> null));
+  }
+
+  private CompletableFuture<Result<Void>> writeRecord(String tenantId,
+    TenantRecords tenantRecords, PatronActionSessionRepository repository,
+    BufferedRecord record) {
+
+    return repository.create(record.record)
+      .handle((result, throwable) -> {
+        if (throwable == null && result.succeeded()) {
+          recordOutcome(tenantId, "written");
+        }
+        else if (record.attempts < MAXIMUM_ATTEMPTS) {
+          synchronized (tenantRecords) {
+            tenantRecords.buffered.add(new BufferedRecord(record.record,
+              record.attempts + 1));
+          }
+
+          recordOutcome(tenantId, "retried");
+        }
+        else {
+          log.error("Could not write patron action session record {} for tenant {} after {} attempts",
+            record.record.getId(), tenantId, record.attempts);
+
+          recordOutcome(tenantId, "dropped");
+        }
+
+        return succeeded(null);
+      });
+  }
+
+  private int buffered() {
+    int buffered = 0;
+
+    for (TenantRecords tenantRecords : tenants.values()) {
+      synchronized (tenantRecords) {
+        buffered += tenantRecords.buffered.size();
+      }
+    }
+
+    return buffered;
+  }
+
+  private static void recordOutcome(String tenantId, String outcome) {
+    getMetricsRegistry().counter("circulation_patron_session_records_written_total",
+      "Patron action session records written in the background",
+      "tenant", tenantId, "outcome", outcome)
+      .increment();
+  }
+
+  private static class TenantRecords {
+    private final List<BufferedRecord> buffered = new ArrayList<>();
+    private PatronActionSessionRepository repository;
+    private CompletableFuture<Result<Void>> flushing = completedFuture(succeeded(null));
+  }
+
+  private static class BufferedRecord {
+    private final PatronSessionRecord record;
+    private final int attempts;
+
+    private BufferedRecord(PatronSessionRecord record, int attempts) {
+      this.record = record;
+      this.attempts = attempts;
+    }
+  }
+}
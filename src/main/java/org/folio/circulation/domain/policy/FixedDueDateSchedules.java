@@ -5,8 +5,8 @@ import static org.folio.circulation.support.ValidationErrorFailure.failedValidat
 
 import java.util.List;
 import java.util.Optional;
-import java.util.function.Predicate;
 import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 import org.folio.circulation.support.JsonArrayHelper;
 import org.folio.circulation.support.Result;
@@ -15,12 +15,15 @@ import org.joda.time.DateTime;
 import io.vertx.core.json.JsonObject;
 
 public class FixedDueDateSchedules {
-  private final List<JsonObject> schedules;
+  private final List<Schedule> schedules;
   private final String id;
 
   FixedDueDateSchedules(String id, List<JsonObject> schedules) {
     this.id = id;
-    this.schedules = schedules;
+    // dates are parsed once, rather than for every schedule during each lookup
+    this.schedules = schedules.stream()
+      .map(Schedule::from)
+      .collect(Collectors.toList());
   }
 
   static FixedDueDateSchedules from(JsonObject representation) {
@@ -34,29 +37,16 @@ public class FixedDueDateSchedules {
 
   public Optional<DateTime> findDueDateFor(DateTime date) {
     return findScheduleFor(date)
-      .map(this::getDueDate);
+      .map(Schedule::getDueDate);
   }
 
-  private Optional<JsonObject> findScheduleFor(DateTime date) {
+  private Optional<Schedule> findScheduleFor(DateTime date) {
     return schedules
       .stream()
-      .filter(isWithin(date))
+      .filter(schedule -> schedule.isWithin(date))
       .findFirst();
   }
 
-  private Predicate<? super JsonObject> isWithin(DateTime date) {
-    return schedule -> {
-      DateTime from = DateTime.parse(schedule.getString("from"));
-      DateTime to = DateTime.parse(schedule.getString("to"));
-
-      return date.isAfter(from) && date.isBefore(to);
-    };
-  }
-
-  private DateTime getDueDate(JsonObject schedule) {
-    return DateTime.parse(schedule.getString("due"));
-  }
-
   public boolean isEmpty() {
     return schedules.isEmpty();
   }
@@ -81,4 +71,31 @@ public class FixedDueDateSchedules {
   public String getId() {
     return id;
   }
+
+  private static class Schedule {
+    private final DateTime from;
+    private final DateTime to;
+    private final DateTime dueDate;
+
+    private Schedule(DateTime from, DateTime to, DateTime dueDate) {
+      this.from = from;
+      this.to = to;
+      this.dueDate = dueDate;
+    }
+
+    static Schedule from(JsonObject representation) {
+      return new Schedule(
+        DateTime.parse(representation.getString("from")),
+        DateTime.parse(representation.getString("to")),
+        DateTime.parse(representation.getString("due")));
+    }
+
+    boolean isWithin(DateTime date) {
+      return date.isAfter(from) && date.isBefore(to);
+    }
+
+    DateTime getDueDate() {
+      return dueDate;
+    }
+  }
 }
@@ -13,6 +13,8 @@ public class LoanProperties {
   public static final String SYSTEM_RETURN_DATE = "systemReturnDate";
   public static final String CHECKIN_SERVICE_POINT_ID = "checkinServicePointId";
   public static final String CHECKOUT_SERVICE_POINT_ID = "checkoutServicePointId";
+  public static final String CHECKIN_SERVICE_POINT = "checkinServicePoint";
+  public static final String CHECKOUT_SERVICE_POINT = "checkoutServicePoint";
   public static final String ACTION_COMMENT = "actionComment";
   public static final String BORROWER = "borrower";
   public static final String LOAN_POLICY = "loanPolicy";
@@ -1,18 +1,21 @@
 package org.folio.circulation.resources;
 
+import static org.folio.circulation.rules.CompiledRulesStore.getCompiledRulesStore;
+import static org.folio.circulation.rules.DroolsCompiler.getDroolsCompiler;
 import static org.folio.circulation.support.Result.failed;
 import static org.folio.circulation.support.Result.succeeded;
 import static org.folio.circulation.support.http.server.ServerErrorResponse.internalError;
 
 import java.lang.invoke.MethodHandles;
-import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.apache.commons.lang3.exception.ExceptionUtils;
 import org.folio.circulation.domain.Location;
+import org.folio.circulation.rules.CompiledRulesStore.SavedRules;
 import org.folio.circulation.rules.Drools;
-import org.folio.circulation.rules.Text2Drools;
 import org.folio.circulation.support.Clients;
 import org.folio.circulation.support.CollectionResourceClient;
 import org.folio.circulation.support.FetchSingleRecord;
@@ -25,6 +28,7 @@ import org.folio.circulation.support.http.server.WebContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import io.vertx.core.Context;
 import io.vertx.core.Handler;
 import io.vertx.core.MultiMap;
 import io.vertx.core.http.HttpClient;
@@ -50,21 +54,27 @@ public abstract class AbstractCirculationRulesEngineResource extends Resource {
   private final String applyAllPath;
 
   /** after this time the rules get loaded before executing the circulation rules engine */
-  private static long maxAgeInMilliseconds = 5000;
+  private static volatile long maxAgeInMilliseconds = 5000;
   /** after this time the circulation rules engine is executed first for a fast reply
    * and then the circulation rules get reloaded */
-  private static long triggerAgeInMilliseconds = 4000;
+  private static volatile long triggerAgeInMilliseconds = 4000;
 
-  private class Rules {
-    String rulesAsText = "";
-    String rulesAsDrools = "";
-    Drools drools;
+  /** shared by all verticle instances, so fields may be read and written by different threads */
+  private static class Rules {
+    final String tenantId;
+    volatile String rulesAsText = "";
+    volatile Drools drools;
     /** System.currentTimeMillis() of the last load/reload of the rules from the storage */
-    long reloadTimestamp;
-    boolean reloadInitiated = false;
+    volatile long reloadTimestamp;
+    final AtomicBoolean reloadInitiated = new AtomicBoolean(false);
+
+    Rules(String tenantId) {
+      this.tenantId = tenantId;
+    }
   }
   /** rules and Drools for each tenantId */
-  private static Map<String,Rules> rulesMap = new HashMap<>();
+  private static final Map<String,Rules> rulesMap = new ConcurrentHashMap<>();
+  private static final AtomicBoolean warmUpStarted = new AtomicBoolean(false);
 
   /**
    * Set the cache time.
@@ -98,6 +108,52 @@ public abstract class AbstractCirculationRulesEngineResource extends Resource {
     rules.reloadTimestamp = 0;
   }
 
+  /**
+   * Load the compiled rules of all tenants saved on disk, one after another
+   * in the background, so that the first requests after a restart do not need to
+   * compile the rules. The loaded rules are validated against the rules in storage
+   * when first used, as storage cannot be queried without a request for the tenant.
+   * Only the first call loads the rules.
+   * @return when all saved rules have been loaded
+   */
+  public static CompletableFuture<Void> warmUp() {
+    if (!warmUpStarted.compareAndSet(false, true)) {
+      return CompletableFuture.completedFuture(null);
+    }
+
+    return getCompiledRulesStore().loadAll().thenCompose(allSavedRules -> {
+      CompletableFuture<Void> loaded = CompletableFuture.completedFuture(null);
+
+      for (SavedRules savedRules : allSavedRules) {
+        loaded = loaded.thenCompose(notUsed -> warmUp(savedRules));
+      }
+
+      return loaded.thenRun(() -> log.info("Loaded compiled circulation rules for {} tenants",
+        allSavedRules.size()));
+    });
+  }
+
+  private static CompletableFuture<Void> warmUp(SavedRules savedRules) {
+    return getDroolsCompiler()
+      .load(savedRules.getRulesAsText(), savedRules.getCompiledRules())
+      .handle((drools, throwable) -> {
+        if (throwable != null) {
+          log.warn("Could not load circulation rules for tenant {}",
+            savedRules.getTenantId(), throwable);
+          return null;
+        }
+
+        final Rules rules = rulesMap.computeIfAbsent(savedRules.getTenantId(), Rules::new);
+
+        // the reload timestamp is not set, so the rules are checked before first use
+        if (rules.drools == null) {
+          rules.drools = drools;
+          rules.rulesAsText = savedRules.getRulesAsText();
+        }
+        return null;
+      });
+  }
+
   /**
    * Create a circulation rules engine that listens at applyPath and applyAllPath.
    * @param applyPath  URL path for circulation rules triggering that returns the first match
@@ -138,7 +194,7 @@ public abstract class AbstractCirculationRulesEngineResource extends Resource {
    * @return whether reload is needed
    */
   private boolean reloadNeeded(Rules rules) {
-    if (rules.reloadInitiated) {
+    if (rules.reloadInitiated.get()) {
       return false;
     }
     return rules.reloadTimestamp + triggerAgeInMilliseconds < System.currentTimeMillis();
@@ -146,6 +202,9 @@ public abstract class AbstractCirculationRulesEngineResource extends Resource {
 
   /**
    * Load the circulation rules from the storage module.
+   * Changed rules are compiled on the rules compilation pool, the previously
+   * compiled rules continue to be used until the compilation succeeds.
+   * Once compiled, processing continues on the context of the request.
    * @param rules - where to store the rules and reload information
    * @param routingContext - where to report any error
    * @param done - invoked after success
@@ -166,8 +225,6 @@ public abstract class AbstractCirculationRulesEngineResource extends Resource {
           return;
         }
 
-        rules.reloadTimestamp = System.currentTimeMillis();
-        rules.reloadInitiated = false;
         JsonObject circulationRules = new JsonObject(response.getBody());
         if (log.isDebugEnabled()) {
           log.debug("circulationRules = {}", circulationRules.encodePrettily());
@@ -177,14 +234,31 @@ public abstract class AbstractCirculationRulesEngineResource extends Resource {
           throw new NullPointerException("rulesAsText");
         }
         if (rules.rulesAsText.equals(rulesAsText)) {
+          rules.reloadTimestamp = System.currentTimeMillis();
+          rules.reloadInitiated.set(false);
           done.handle(null);
           return;
         }
-        rules.rulesAsText = rulesAsText;
-        rules.rulesAsDrools = Text2Drools.convert(rulesAsText);
-        log.debug("rulesAsDrools = {}", rules.rulesAsDrools);
-        rules.drools = new Drools(rules.rulesAsDrools);
-        done.handle(null);
+        final Context context = routingContext.vertx().getOrCreateContext();
+
+        compile(rules, rulesAsText).whenComplete((drools, throwable) ->
+          context.runOnContext(v -> {
+            rules.reloadInitiated.set(false);
+
+            if (throwable == null) {
+              done.handle(null);
+            }
+            else if (rules.drools != null) {
+              log.error("reloadRules: continuing to use previous rules", throwable);
+              done.handle(null);
+            }
+            else {
+              log.error("reloadRules", throwable);
+              if (!routingContext.response().ended()) {
+                internalError(routingContext.response(), ExceptionUtils.getStackTrace(throwable));
+              }
+            }
+          }));
       }
       catch (Exception e) {
         log.error("reloadRules", e);
@@ -196,6 +270,28 @@ public abstract class AbstractCirculationRulesEngineResource extends Resource {
     });
   }
 
+  /**
+   * Compile the rules, or wait for an existing compilation of the same rules.
+   * The rules are only replaced once compiled successfully.
+   * @param rules - where to store the compiled rules
+   * @param rulesAsText - the changed circulation rules
+   * @return the compiled rules
+   */
+  private static CompletableFuture<Drools> compile(Rules rules, String rulesAsText) {
+    return getDroolsCompiler().compile(rulesAsText).whenComplete((drools, throwable) -> {
+      if (throwable == null) {
+        rules.drools = drools;
+        rules.rulesAsText = rulesAsText;
+        rules.reloadTimestamp = System.currentTimeMillis();
+        getCompiledRulesStore().save(rules.tenantId, rulesAsText, drools);
+      }
+      else if (rules.drools != null) {
+        // keep using the previous rules rather than compiling for every request
+        rules.reloadTimestamp = System.currentTimeMillis();
+      }
+    });
+  }
+
   /**
    * Return a Drools for the tenantId of the routingContext. On error send the
    * error message via the routingContext's response.
@@ -208,20 +304,15 @@ public abstract class AbstractCirculationRulesEngineResource extends Resource {
       Rules rules = rulesMap.get(tenantId);
       if (isCurrent(rules)) {
         droolsHandler.handle(rules.drools);
-        if (reloadNeeded(rules)) {
-          rules.reloadInitiated = true;
+        if (reloadNeeded(rules) && rules.reloadInitiated.compareAndSet(false, true)) {
           reloadRules(rules, routingContext, done -> {});
         }
         return;
       }
 
-      if (rules == null) {
-        rules = new Rules();
-        rulesMap.put(tenantId, rules);
-      }
-      Rules finalRules = rules;
+      Rules finalRules = rulesMap.computeIfAbsent(tenantId, Rules::new);
 
-      reloadRules(rules, routingContext, done -> {
+      reloadRules(finalRules, routingContext, done -> {
         try {
           droolsHandler.handle(finalRules.drools);
         } catch (Exception e) {
@@ -320,15 +411,17 @@ public abstract class AbstractCirculationRulesEngineResource extends Resource {
       return;
     }
 
-    try {
-      String droolsFile = Text2Drools.convert(circulationRules);
-      Drools drools = new Drools(droolsFile);
-      applyAll(routingContext, drools);
-    }
-    catch (Exception e) {
-      log.error("applyAll", e);
-      internalError(routingContext.response(), ExceptionUtils.getStackTrace(e));
-    }
+    final Context context = routingContext.vertx().getOrCreateContext();
+
+    getDroolsCompiler().compile(circulationRules).whenComplete((drools, throwable) ->
+      context.runOnContext(v -> {
+        if (throwable != null) {
+          log.error("applyAll", throwable);
+          internalError(routingContext.response(), ExceptionUtils.getStackTrace(throwable));
+          return;
+        }
+        applyAll(routingContext, drools);
+      }));
   }
 
   private boolean invalidApplyParameters(HttpServerRequest request) {
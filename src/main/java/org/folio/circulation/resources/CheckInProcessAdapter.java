@@ -183,14 +183,14 @@ class CheckInProcessAdapter {
   private void sendAvailableNotice(CheckInProcessRecords records, Request firstRequest) {
     servicePointRepository.getServicePointForRequest(firstRequest)
       .thenApply(r -> r.map(firstRequest::withPickupServicePoint))
-      .thenCombine(userRepository.getUserByBarcode(firstRequest.getRequesterBarcode()),
+      .thenCombine(userRepository.getUser(firstRequest),
         (requestResult, userResult) -> Result.combine(requestResult, userResult,
           (request, user) -> sendAvailableNotice(request, user, records)));
   }
 
   private Result<CheckInProcessRecords> sendAvailableNotice(Request request, User user, CheckInProcessRecords records) {
     Item item = records.getItem();
-    if (item.isAwaitingPickup() && item.hasChanged()) {
+    if (user != null && item.isAwaitingPickup() && item.hasChanged()) {
       PatronNoticeEvent noticeEvent = new PatronNoticeEventBuilder()
         .withItem(item)
         .withUser(user)
@@ -167,6 +167,7 @@ public class CheckOutByBarcodeResource extends Resource {
       .thenApply(r -> r.next(scheduledNoticeService::scheduleNoticesForLoanDueDate))
       .thenApply(r -> r.map(LoanAndRelatedRecords::getLoan))
       .thenApply(r -> r.map(loanRepresentation::extendedLoan))
+      .thenApply(r -> r.map(clients.staleReferenceData()::addTo))
       .thenApply(this::createdLoanFrom)
       .thenAccept(result -> result.writeTo(routingContext.response()));
   }
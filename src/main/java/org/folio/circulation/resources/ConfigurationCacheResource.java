@@ -0,0 +1,33 @@
+package org.folio.circulation.resources;
+
+import static org.folio.circulation.support.TenantConfigurationCache.getTenantConfigurationCache;
+
+import org.folio.circulation.support.NoContentResult;
+import org.folio.circulation.support.http.server.WebContext;
+
+import io.vertx.core.http.HttpClient;
+import io.vertx.ext.web.Router;
+import io.vertx.ext.web.RoutingContext;
+
+/**
+ * Discards the configuration kept for the requesting tenant, e.g. after
+ * changing the tenant's time zone
+ */
+public class ConfigurationCacheResource extends Resource {
+  public ConfigurationCacheResource(HttpClient client) {
+    super(client);
+  }
+
+  @Override
+  public void register(Router router) {
+    router.delete("/admin/configuration-cache").handler(this::invalidate);
+  }
+
+  private void invalidate(RoutingContext routingContext) {
+    final WebContext context = new WebContext(routingContext);
+
+    getTenantConfigurationCache().invalidate(context.getTenantId());
+
+    new NoContentResult().writeTo(routingContext.response());
+  }
+}
@@ -1,7 +1,15 @@
 package org.folio.circulation.resources;
 
+import static java.util.Arrays.asList;
 import static java.util.concurrent.CompletableFuture.completedFuture;
+import static org.folio.circulation.domain.OpenLoanIndex.getOpenLoanIndex;
+import static org.folio.circulation.domain.representations.LoanProperties.BORROWER;
+import static org.folio.circulation.domain.representations.LoanProperties.CHECKIN_SERVICE_POINT;
+import static org.folio.circulation.domain.representations.LoanProperties.CHECKOUT_SERVICE_POINT;
+import static org.folio.circulation.domain.representations.LoanProperties.FEESANDFINES;
 import static org.folio.circulation.domain.representations.LoanProperties.ITEM_ID;
+import static org.folio.circulation.domain.representations.LoanProperties.LOAN_POLICY;
+import static org.folio.circulation.domain.representations.LoanProperties.PATRON_GROUP_AT_CHECKOUT;
 import static org.folio.circulation.support.Result.of;
 import static org.folio.circulation.support.Result.succeeded;
 import static org.folio.circulation.support.ValidationErrorFailure.failedValidation;
@@ -34,6 +42,7 @@ import org.folio.circulation.domain.validation.RequestedByAnotherPatronValidator
 import org.folio.circulation.domain.validation.ServicePointLoanLocationValidator;
 import org.folio.circulation.support.Clients;
 import org.folio.circulation.support.CreatedJsonResponseResult;
+import org.folio.circulation.support.Includes;
 import org.folio.circulation.support.ItemRepository;
 import org.folio.circulation.support.NoContentResult;
 import org.folio.circulation.support.OkJsonResponseResult;
@@ -204,6 +213,13 @@ public class LoanCollectionResource extends CollectionResource {
     String id = routingContext.request().getParam("id");
 
     clients.loansStorage().delete(id)
+      .thenApply(response -> {
+        if (response.getStatusCode() == 204) {
+          getOpenLoanIndex().loanRemoved(clients.tenantId(), id);
+        }
+
+        return response;
+      })
       .thenApply(NoContentResult::from)
       .thenAccept(r -> r.writeTo(routingContext.response()));
   }
@@ -220,17 +236,25 @@ public class LoanCollectionResource extends CollectionResource {
     final AccountRepository accountRepository = new AccountRepository(clients);
     final PatronGroupRepository patronGroupRepository = new PatronGroupRepository(clients);
 
-    loanRepository.findBy(routingContext.request().query())
+    final Includes includes = context.getIncludes();
+
+    loanRepository.findBy(context.getQueryWithoutIncludes(), includes)
       .thenCompose(multiLoanRecordsResult ->
-        multiLoanRecordsResult.after(accountRepository::findAccountsForLoans))
+        multiLoanRecordsResult.after(includes.whenIncluded(FEESANDFINES,
+          accountRepository::findAccountsForLoans)))
       .thenCompose(multiLoanRecordsResult ->
-        multiLoanRecordsResult.after(servicePointRepository::findServicePointsForLoans))
+        multiLoanRecordsResult.after(includes.whenAnyIncluded(
+          asList(CHECKIN_SERVICE_POINT, CHECKOUT_SERVICE_POINT),
+          servicePointRepository::findServicePointsForLoans)))
       .thenCompose(multiLoanRecordsResult ->
-        multiLoanRecordsResult.after(userRepository::findUsersForLoans))
+        multiLoanRecordsResult.after(includes.whenIncluded(BORROWER,
+          userRepository::findUsersForLoans)))
       .thenCompose(multiLoanRecordsResult ->
-        multiLoanRecordsResult.after(loanPolicyRepository::findLoanPoliciesForLoans))
+        multiLoanRecordsResult.after(includes.whenIncluded(LOAN_POLICY,
+          loanPolicyRepository::findLoanPoliciesForLoans)))
       .thenCompose(multiLoanRecordsResult ->
-        multiLoanRecordsResult.after(patronGroupRepository::findPatronGroupsByIds))
+        multiLoanRecordsResult.after(includes.whenIncluded(PATRON_GROUP_AT_CHECKOUT,
+          patronGroupRepository::findPatronGroupsByIds)))
       .thenApply(multipleLoanRecordsResult -> multipleLoanRecordsResult.map(loans ->
         loans.asJson(loanRepresentation::extendedLoan, "loans")))
       .thenApply(OkJsonResponseResult::from)
@@ -242,6 +266,11 @@ public class LoanCollectionResource extends CollectionResource {
     Clients clients = Clients.create(context, client);
 
     clients.loansStorage().delete()
+      .thenApply(response -> {
+        getOpenLoanIndex().invalidate(clients.tenantId());
+
+        return response;
+      })
       .thenApply(NoContentResult::from)
       .thenAccept(r -> r.writeTo(routingContext.response()));
   }
@@ -0,0 +1,30 @@
+package org.folio.circulation.resources;
+
+import static org.folio.circulation.support.metrics.MetricsRegistry.getMetricsRegistry;
+
+import io.vertx.core.http.HttpClient;
+import io.vertx.ext.web.Router;
+import io.vertx.ext.web.RoutingContext;
+
+/**
+ * Exposes the metrics collected by the module in the Prometheus text format
+ */
+public class MetricsResource extends Resource {
+  private static final String PROMETHEUS_CONTENT_TYPE = "text/plain; version=0.0.4";
+
+  public MetricsResource(HttpClient client) {
+    super(client);
+  }
+
+  @Override
+  public void register(Router router) {
+    router.get("/admin/metrics").handler(this::getMetrics);
+  }
+
+  private void getMetrics(RoutingContext routingContext) {
+    routingContext.response()
+      .setStatusCode(200)
+      .putHeader("content-type", PROMETHEUS_CONTENT_TYPE)
+      .end(getMetricsRegistry().toPrometheusText());
+  }
+}
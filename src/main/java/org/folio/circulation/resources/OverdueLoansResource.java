@@ -0,0 +1,180 @@
+package org.folio.circulation.resources;
+
+import static org.folio.circulation.domain.OpenLoanIndex.getOpenLoanIndex;
+import static org.folio.circulation.support.Result.succeeded;
+import static org.folio.circulation.support.ValidationErrorFailure.failedValidation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.folio.circulation.domain.Loan;
+import org.folio.circulation.domain.LoanRepository;
+import org.folio.circulation.domain.LoanRepresentation;
+import org.folio.circulation.domain.OpenLoanIndex;
+import org.folio.circulation.support.Clients;
+import org.folio.circulation.support.OkJsonResponseResult;
+import org.folio.circulation.support.Result;
+import org.folio.circulation.support.http.server.WebContext;
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+
+import io.vertx.core.http.HttpClient;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.web.Router;
+import io.vertx.ext.web.RoutingContext;
+
+/**
+ * Open loans due before a date (by default, now), in order of due date,
+ * found using the {@link OpenLoanIndex} and paged using a cursor
+ *
+ * Must be registered before the loans collection, so that overdue
+ * is not taken to be the ID of a loan
+ */
+public class OverdueLoansResource extends Resource {
+  private static final int DEFAULT_LIMIT = 100;
+  private static final int MAXIMUM_LIMIT = 1000;
+
+  public OverdueLoansResource(HttpClient client) {
+    super(client);
+  }
+
+  @Override
+  public void register(Router router) {
+    router.get("/circulation/loans/overdue").handler(this::getMany);
+  }
+
+  private void getMany(RoutingContext routingContext) {
+    final WebContext context = new WebContext(routingContext);
+    final Clients clients = Clients.create(context, client);
+
+    final LoanRepository loanRepository = new LoanRepository(clients);
+    final LoanRepresentation loanRepresentation = new LoanRepresentation();
+
+    final String cursor = context.getStringParameter("cursor", null);
+
+    final Result<Integer> limit = parseLimit(context.getStringParameter("limit", null));
+
+    parseDueBefore(context.getStringParameter("dueBefore", null))
+      .combine(limit, OverdueLoansQuery::new)
+      .after(query -> getOpenLoanIndex().findDueBefore(clients.tenantId(),
+        clients.loansStorage(), query.dueBefore, cursor, query.limit)
+        .thenCompose(r -> r.after(page -> fetchLoans(clients, loanRepository,
+          page, query.dueBefore))))
+      .thenApply(r -> r.map(loans -> toJson(loans, loanRepresentation)))
+      .thenApply(OkJsonResponseResult::from)
+      .thenAccept(result -> result.writeTo(routingContext.response()));
+  }
+
+  private Result<Integer> parseLimit(String limit) {
+    if (limit == null) {
+      return succeeded(DEFAULT_LIMIT);
+    }
+
+    try {
+      final int parsedLimit = Integer.parseInt(limit);
+
+      if (parsedLimit >= 1 && parsedLimit <= MAXIMUM_LIMIT) {
+        return succeeded(parsedLimit);
+      }
+    }
+    catch (NumberFormatException e) {
+      // reported as a validation failure below
+    }
+
+    return failedValidation(String.format(
+      "limit must be a whole number between 1 and %s", MAXIMUM_LIMIT),
+      "limit", limit);
+  }
+
+  private Result<DateTime> parseDueBefore(String dueBefore) {
+    if (dueBefore == null) {
+      return succeeded(DateTime.now(DateTimeZone.UTC));
+    }
+
+    try {
+      return succeeded(DateTime.parse(dueBefore));
+    }
+    catch (IllegalArgumentException e) {
+      return failedValidation("dueBefore is not a valid date and time",
+        "dueBefore", dueBefore);
+    }
+  }
+
+  /**
+   * Fetches the loans found in the index from storage, correcting the index
+   * for loans which have been closed, changed or deleted elsewhere
+   */
+  private CompletableFuture<Result<OverdueLoans>> fetchLoans(Clients clients,
+    LoanRepository loanRepository, OpenLoanIndex.Page page, DateTime dueBefore) {
+
+    return loanRepository.findByIds(page.getLoanIds())
+      .thenApply(r -> r.map(loans -> {
+        final Map<String, Loan> loansById = loans.getRecords().stream()
+          .collect(Collectors.toMap(Loan::getId, Function.identity()));
+
+        final List<Loan> overdueLoans = new ArrayList<>();
+
+        for (String loanId : page.getLoanIds()) {
+          final Loan loan = loansById.get(loanId);
+
+          if (loan == null) {
+            getOpenLoanIndex().loanRemoved(clients.tenantId(), loanId);
+          }
+          else if (!loan.isOpen() || loan.getDueDate() == null
+            || !loan.getDueDate().isBefore(dueBefore)) {
+
+            getOpenLoanIndex().loanChanged(clients.tenantId(), loan);
+          }
+          else {
+            overdueLoans.add(loan);
+          }
+        }
+
+        return new OverdueLoans(overdueLoans, page);
+      }));
+  }
+
+  private JsonObject toJson(OverdueLoans loans,
+    LoanRepresentation loanRepresentation) {
+
+    final JsonArray loansJson = new JsonArray();
+
+    loans.loans.forEach(loan -> loansJson.add(
+      loanRepresentation.extendedLoan(loan)));
+
+    final JsonObject json = new JsonObject()
+      .put("loans", loansJson)
+      .put("totalRecords", loans.page.getTotalRecords());
+
+    if (loans.page.getNextCursor() != null) {
+      json.put("nextCursor", loans.page.getNextCursor());
+    }
+
+    return json;
+  }
+
+  private static class OverdueLoansQuery {
+    private final DateTime dueBefore;
+    private final int limit;
+
+    private OverdueLoansQuery(DateTime dueBefore, int limit) {
+      this.dueBefore = dueBefore;
+      this.limit = limit;
+    }
+  }
+
+  private static class OverdueLoans {
+    private final List<Loan> loans;
+    private final OpenLoanIndex.Page page;
+
+    private OverdueLoans(List<Loan> loans, OpenLoanIndex.Page page) {
+      this.loans = loans;
+      this.page = page;
+    }
+  }
+}
@@ -77,6 +77,7 @@ public abstract class RenewalResource extends Resource {
       .thenApply(r -> r.next(scheduledNoticeService::rescheduleDueDateNotices))
       .thenApply(r -> r.next(loanNoticeSender::sendRenewalPatronNotice))
       .thenApply(r -> r.map(loanRepresentation::extendedLoan))
+      .thenApply(r -> r.map(clients.staleReferenceData()::addTo))
       .thenApply(LoanResponse::from)
       .thenAccept(result -> result.writeTo(routingContext.response()));
   }
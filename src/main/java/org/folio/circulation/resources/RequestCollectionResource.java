@@ -200,7 +200,8 @@ public class RequestCollectionResource extends CollectionResource {
     final RequestRepository requestRepository = RequestRepository.using(clients);
     final RequestRepresentation requestRepresentation = new RequestRepresentation();
 
-    requestRepository.findBy(routingContext.request().query())
+    requestRepository.findBy(context.getQueryWithoutIncludes(),
+      context.getIncludes())
       .thenApply(r -> r.map(requests ->
         requests.asJson(requestRepresentation::extendedRepresentation, "requests")))
       .thenApply(OkJsonResponseResult::from)
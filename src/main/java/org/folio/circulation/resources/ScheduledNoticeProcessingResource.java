@@ -1,11 +1,15 @@
 package org.folio.circulation.resources;
 
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static org.folio.circulation.domain.notice.schedule.AdaptiveNoticeBatching.getAdaptiveNoticeBatching;
 import static org.folio.circulation.support.Result.failed;
+import static org.folio.circulation.support.Result.succeeded;
 
 import java.util.concurrent.CompletableFuture;
 
 import org.folio.circulation.domain.ConfigurationRepository;
 import org.folio.circulation.domain.MultipleRecords;
+import org.folio.circulation.domain.notice.schedule.AdaptiveNoticeBatching;
 import org.folio.circulation.domain.notice.schedule.ScheduledNotice;
 import org.folio.circulation.domain.notice.schedule.ScheduledNoticesRepository;
 import org.folio.circulation.support.Clients;
@@ -45,13 +49,47 @@ public abstract class ScheduledNoticeProcessingResource extends Resource {
     final ConfigurationRepository configurationRepository =
       new ConfigurationRepository(clients);
 
+    final long startTime = System.nanoTime();
+
     configurationRepository.lookupSchedulerNoticesProcessingLimit()
-      .thenCompose(r -> r.after(limit -> findNoticesToSend(scheduledNoticesRepository, limit)))
-      .thenCompose(r -> r.after(notices -> handleNotices(clients, notices)))
+      .thenCompose(r -> r.after(limit -> processBatches(clients,
+        scheduledNoticesRepository, context.getTenantId(), limit, startTime)))
       .thenApply(this::createWritableResult)
       .thenAccept(result -> result.writeTo(routingContext.response()));
   }
 
+  /**
+   * Processes a batch of notices, followed by further batches whilst more
+   * notices are due and adaptive batching allows (otherwise a single batch
+   * of the configured limit is processed)
+   */
+  private CompletableFuture<Result<Void>> processBatches(Clients clients,
+    ScheduledNoticesRepository scheduledNoticesRepository, String tenantId,
+    int configuredLimit, long startTime) {
+
+    final AdaptiveNoticeBatching batching = getAdaptiveNoticeBatching();
+    final int batchSize = batching.batchSize(tenantId, rootPath, configuredLimit);
+    final long batchStartTime = System.nanoTime();
+
+    return findNoticesToSend(scheduledNoticesRepository, batchSize)
+      .thenCompose(r -> r.after(notices -> handleNotices(clients, notices)))
+      .thenCompose(r -> r.after(notices -> {
+        final int processed = notices.getRecords().size();
+        final int remaining = notices.getTotalRecords() == null
+          ? 0 : notices.getTotalRecords() - processed;
+
+        batching.batchProcessed(tenantId, rootPath, batchSize, processed,
+          System.nanoTime() - batchStartTime);
+
+        batching.recordBacklog(tenantId, rootPath, notices.getRecords(), remaining);
+
+        return batching.shouldContinue(startTime, remaining)
+          ? processBatches(clients, scheduledNoticesRepository, tenantId,
+              configuredLimit, startTime)
+          : completedFuture(succeeded(null));
+      }));
+  }
+
   protected abstract CompletableFuture<Result<MultipleRecords<ScheduledNotice>>> findNoticesToSend(
     ScheduledNoticesRepository scheduledNoticesRepository, int limit);
 
@@ -0,0 +1,225 @@
+package org.folio.circulation.rules;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Keeps the compiled circulation rules of each tenant on disk, so that they
+ * do not need to be compiled again after the module is restarted
+ *
+ * Only used when a directory is provided in the rulesCompilation property
+ * of the verticle configuration, e.g.
+ *
+ * <pre>
+ * "rulesCompilation" : { "directory" : "/var/lib/mod-circulation/rules" }
+ * </pre>
+ *
+ * Each tenant's rules are kept in a file named after the tenant, with the rules,
+ * a hash of the rules and the compiled rules. Files are read and written on a
+ * single background thread
+ */
+public class CompiledRulesStore {
+  private static final Logger log = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+  private static final Pattern VALID_TENANT_ID = Pattern.compile("[A-Za-z0-9_-]+");
+  private static final String EXTENSION = ".rules.json";
+
+  private static volatile CompiledRulesStore instance = new CompiledRulesStore(null);
+
+  private final Path directory;
+  private final ExecutorService executor;
+  /** hash of the rules last saved for each tenant, to avoid saving the same rules again */
+  private final Map<String, String> savedHashes = new ConcurrentHashMap<>();
+
+  private CompiledRulesStore(Path directory) {
+    this.directory = directory;
+
+    executor = directory == null
+      ? null
+      : Executors.newSingleThreadExecutor(runnable -> {
+          final Thread thread = new Thread(runnable, "circulation-rules-store");
+
+          thread.setDaemon(true);
+
+          return thread;
+        });
+  }
+
+  public static CompiledRulesStore getCompiledRulesStore() {
+    return instance;
+  }
+
+  /**
+   * Replaces the store if the configured directory differs from the current store
+   *
+   * @param verticleConfiguration configuration of the verticle
+   */
+  public static synchronized void configure(JsonObject verticleConfiguration) {
+    final String configuredDirectory = verticleConfiguration
+      .getJsonObject("rulesCompilation", new JsonObject())
+      .getString("directory");
+
+    final Path directory = configuredDirectory == null
+      ? null
+      : Paths.get(configuredDirectory);
+
+    if (directory == null ? instance.directory == null : directory.equals(instance.directory)) {
+      return;
+    }
+
+    final CompiledRulesStore previous = instance;
+
+    instance = new CompiledRulesStore(directory);
+
+    if (previous.executor != null) {
+      previous.executor.shutdown();
+    }
+  }
+
+  public boolean isEnabled() {
+    return directory != null;
+  }
+
+  /**
+   * Saves the compiled rules of a tenant in the background, replacing
+   * any rules previously saved for the tenant
+   *
+   * @param tenantId tenant the rules belong to
+   * @param rulesAsText circulation rules
+   * @param drools the compiled rules
+   */
+  public void save(String tenantId, String rulesAsText, Drools drools) {
+    if (!isEnabled() || !VALID_TENANT_ID.matcher(tenantId).matches()) {
+      return;
+    }
+
+    final String hash = DroolsCompiler.hash(rulesAsText);
+
+    if (hash.equals(savedHashes.put(tenantId, hash))) {
+      return;
+    }
+
+    executor.execute(() -> {
+      final JsonObject representation = new JsonObject()
+        .put("tenantId", tenantId)
+        .put("hash", hash)
+        .put("rulesAsText", rulesAsText)
+        .put("compiledRules", Base64.getEncoder().encodeToString(drools.getCompiledRules()));
+
+      try {
+        Files.createDirectories(directory);
+
+        final Path file = directory.resolve(tenantId + EXTENSION);
+        final Path temporaryFile = directory.resolve(tenantId + EXTENSION + ".tmp");
+
+        Files.write(temporaryFile, representation.encode().getBytes(UTF_8));
+        Files.move(temporaryFile, file, REPLACE_EXISTING, ATOMIC_MOVE);
+      }
+      catch (IOException | RuntimeException e) {
+        savedHashes.remove(tenantId, hash);
+
+        log.warn("Could not save compiled circulation rules for tenant {}", tenantId, e);
+      }
+    });
+  }
+
+  /**
+   * Reads the compiled rules of all tenants in the background, files
+   * that cannot be read or do not match their hash are ignored
+   *
+   * @return compiled rules of each tenant
+   */
+  public CompletableFuture<List<SavedRules>> loadAll() {
+    if (!isEnabled()) {
+      return CompletableFuture.completedFuture(new ArrayList<>());
+    }
+
+    return CompletableFuture.supplyAsync(this::readAll, executor);
+  }
+
+  private List<SavedRules> readAll() {
+    final List<SavedRules> allRules = new ArrayList<>();
+
+    if (!Files.isDirectory(directory)) {
+      return allRules;
+    }
+
+    try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + EXTENSION)) {
+      for (Path file : files) {
+        try {
+          final JsonObject representation = new JsonObject(
+            new String(Files.readAllBytes(file), UTF_8));
+
+          final SavedRules rules = new SavedRules(
+            representation.getString("tenantId"),
+            representation.getString("rulesAsText"),
+            Base64.getDecoder().decode(representation.getString("compiledRules")));
+
+          if (!DroolsCompiler.hash(rules.getRulesAsText())
+            .equals(representation.getString("hash"))) {
+
+            log.warn("Ignoring compiled circulation rules in {}, rules do not match hash", file);
+            continue;
+          }
+
+          savedHashes.put(rules.getTenantId(), representation.getString("hash"));
+          allRules.add(rules);
+        }
+        catch (IOException | RuntimeException e) {
+          log.warn("Ignoring compiled circulation rules in {}", file, e);
+        }
+      }
+    }
+    catch (IOException e) {
+      log.warn("Could not read compiled circulation rules from {}", directory, e);
+    }
+
+    return allRules;
+  }
+
+  public static class SavedRules {
+    private final String tenantId;
+    private final String rulesAsText;
+    private final byte[] compiledRules;
+
+    SavedRules(String tenantId, String rulesAsText, byte[] compiledRules) {
+      this.tenantId = tenantId;
+      this.rulesAsText = rulesAsText;
+      this.compiledRules = compiledRules;
+    }
+
+    public String getTenantId() {
+      return tenantId;
+    }
+
+    public String getRulesAsText() {
+      return rulesAsText;
+    }
+
+    public byte[] getCompiledRules() {
+      return compiledRules;
+    }
+  }
+}
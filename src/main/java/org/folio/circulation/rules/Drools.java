@@ -5,11 +5,14 @@ import static org.folio.circulation.resources.AbstractCirculationRulesEngineReso
 import static org.folio.circulation.resources.AbstractCirculationRulesEngineResource.PATRON_TYPE_ID_NAME;
 import static org.folio.circulation.resources.AbstractCirculationRulesEngineResource.LOCATION_ID_NAME;
 import static org.folio.circulation.support.JsonPropertyWriter.write;
+import static org.folio.circulation.support.metrics.MetricsRegistry.getMetricsRegistry;
 
+import org.drools.compiler.kie.builder.impl.InternalKieModule;
 import org.folio.circulation.domain.Location;
 import org.kie.api.KieServices;
 import org.kie.api.builder.KieBuilder;
 import org.kie.api.builder.KieFileSystem;
+import org.kie.api.builder.KieModule;
 import org.kie.api.builder.Message.Level;
 import org.kie.api.runtime.KieContainer;
 import org.kie.api.runtime.KieSession;
@@ -20,13 +23,17 @@ import io.vertx.core.json.JsonObject;
 
 /**
  * Holds a Drools kieSession to calculate a loan policy.
+ * Each evaluation uses its own session and match, so instances can be shared between threads.
  */
 public class Drools {
   // https://docs.jboss.org/drools/release/6.2.0.CR1/drools-docs/html/ch19.html
   // http://www.deepakgaikwad.net/index.php/2016/05/16/drools-tutorial-beginners.html
 
-  private Match match = new Match();
-  private KieContainer kieContainer;
+  private final KieContainer kieContainer;
+  /** the built module, only serialized when the compiled rules are needed */
+  private final InternalKieModule kieModule;
+  /** the built kjar, including the compiled rules, so that it can be loaded without building */
+  private byte[] compiledRules;
 
   /**
    * Create the Drools kieSession based on a String containing a drools file.
@@ -36,22 +43,61 @@ public class Drools {
     KieServices kieServices = KieServices.Factory.get();
     KieFileSystem kfs = kieServices.newKieFileSystem();
     kfs.write("src/main/resources/circulationrules/circulation-rules.drl", drools);
-    KieBuilder kieBuilder = kieServices.newKieBuilder(kfs);
-    kieBuilder.buildAll();
-    if (kieBuilder.getResults().hasMessages(Level.ERROR)) {
-      throw new IllegalArgumentException("Drools build errors:\n" + kieBuilder.getResults().toString());
+    // Builds share the default release of the global repository, concurrent
+    // builds (e.g. from different verticle instances) could use each other's rules
+    synchronized (Drools.class) {
+      KieBuilder kieBuilder = kieServices.newKieBuilder(kfs);
+      kieBuilder.buildAll();
+      if (kieBuilder.getResults().hasMessages(Level.ERROR)) {
+        throw new IllegalArgumentException("Drools build errors:\n" + kieBuilder.getResults().toString());
+      }
+      kieModule = (InternalKieModule) kieBuilder.getKieModule();
+      kieContainer = kieServices.newKieContainer(kieServices.getRepository().getDefaultReleaseId());
     }
-    kieContainer = kieServices.newKieContainer(kieServices.getRepository().getDefaultReleaseId());
+    // the knowledge base is otherwise built when the first session is created
+    kieContainer.getKieBase();
   }
 
-  private KieSession createSession(MultiMap params, Location location) {
+  private Drools(byte[] compiledRules) {
+    KieServices kieServices = KieServices.Factory.get();
+    synchronized (Drools.class) {
+      KieModule loadedModule = kieServices.getRepository().addKieModule(
+        kieServices.getResources().newByteArrayResource(compiledRules));
+      kieContainer = kieServices.newKieContainer(loadedModule.getReleaseId());
+    }
+    kieContainer.getKieBase();
+    this.kieModule = null;
+    this.compiledRules = compiledRules;
+  }
+
+  /**
+   * Create the Drools kieSession from rules previously built by this module.
+   * @param compiledRules the kjar from {@link #getCompiledRules()}
+   * @return the Drools
+   */
+  public static Drools fromCompiledRules(byte[] compiledRules) {
+    return new Drools(compiledRules);
+  }
+
+  /**
+   * The built kjar, which includes the compiled rules.
+   * Serialized when first needed, e.g. when saved by the {@link CompiledRulesStore}.
+   * @return the kjar
+   */
+  public synchronized byte[] getCompiledRules() {
+    if (compiledRules == null) {
+      compiledRules = kieModule.getBytes();
+    }
+    return compiledRules;
+  }
+
+  private KieSession createSession(MultiMap params, Location location, Match match) {
     String itemTypeId = params.get(ITEM_TYPE_ID_NAME);
     String loanTypeId = params.get(LOAN_TYPE_ID_NAME);
     String patronGroupId = params.get(PATRON_TYPE_ID_NAME);
     String locationId = params.get(LOCATION_ID_NAME);
 
     KieSession kieSession = kieContainer.newKieSession();
-    match.loanPolicyId = null;
     kieSession.setGlobal("match", match);
     kieSession.insert(new ItemType(itemTypeId));
     kieSession.insert(new LoanType(loanTypeId));
@@ -70,9 +116,13 @@ public class Drools {
    * @return the name of the loan policy
    */
   public String loanPolicy(MultiMap params, Location location) {
-    KieSession kieSession = createSession(params, location);
+    final long startTime = System.nanoTime();
+    Match match = new Match();
+    KieSession kieSession = createSession(params, location, match);
     kieSession.fireAllRules();
     kieSession.dispose();
+    recordEvaluation("loan", "first", startTime);
+
     return match.loanPolicyId;
   }
 
@@ -84,7 +134,9 @@ public class Drools {
    * @return matches, each match has a loanPolicyId and a circulationRuleLine field
    */
   public JsonArray loanPolicies(MultiMap params, Location location) {
-    KieSession kieSession = createSession(params, location);
+    final long startTime = System.nanoTime();
+    Match match = new Match();
+    KieSession kieSession = createSession(params, location, match);
 
     JsonArray array = new JsonArray();
 
@@ -92,12 +144,14 @@ public class Drools {
       JsonObject json = new JsonObject();
 
       write(json, "loanPolicyId", match.loanPolicyId);
-      writeLineMatch(json);
+      writeLineMatch(json, match);
 
       array.add(json);
     }
 
     kieSession.dispose();
+    recordEvaluation("loan", "all", startTime);
+
     return array;
   }
 
@@ -108,9 +162,13 @@ public class Drools {
    * @return the name of the request policy
    */
   public String requestPolicy(MultiMap params, Location location) {
-    KieSession kieSession = createSession(params, location);
+    final long startTime = System.nanoTime();
+    Match match = new Match();
+    KieSession kieSession = createSession(params, location, match);
     kieSession.fireAllRules();
     kieSession.dispose();
+    recordEvaluation("request", "first", startTime);
+
     return match.requestPolicyId;
   }
 
@@ -122,7 +180,9 @@ public class Drools {
    * @return matches, each match has a requestPolicyId and a circulationRuleLine field
    */
   public JsonArray requestPolicies(MultiMap params, Location location) {
-    KieSession kieSession = createSession(params, location);
+    final long startTime = System.nanoTime();
+    Match match = new Match();
+    KieSession kieSession = createSession(params, location, match);
 
     JsonArray array = new JsonArray();
 
@@ -130,13 +190,15 @@ public class Drools {
       JsonObject json = new JsonObject();
 
       write(json, "requestPolicyId", match.requestPolicyId);
-      writeLineMatch(json);
+      writeLineMatch(json, match);
 
       array.add(json);
     }
 
     kieSession.dispose();
 
+    recordEvaluation("request", "all", startTime);
+
     return array;
   }
 
@@ -147,9 +209,13 @@ public class Drools {
    * @return the name of the notice policy
    */
   public String noticePolicy(MultiMap params, Location location) {
-    KieSession kieSession = createSession(params, location);
+    final long startTime = System.nanoTime();
+    Match match = new Match();
+    KieSession kieSession = createSession(params, location, match);
     kieSession.fireAllRules();
     kieSession.dispose();
+    recordEvaluation("notice", "first", startTime);
+
     return match.noticePolicyId;
   }
 
@@ -161,7 +227,9 @@ public class Drools {
    * @return matches, each match has a noticePolicyId and a circulationRuleLine field
    */
   public JsonArray noticePolicies(MultiMap params, Location location) {
-    KieSession kieSession = createSession(params, location);
+    final long startTime = System.nanoTime();
+    Match match = new Match();
+    KieSession kieSession = createSession(params, location, match);
 
     JsonArray array = new JsonArray();
 
@@ -169,13 +237,15 @@ public class Drools {
       JsonObject json = new JsonObject();
 
       json.put("noticePolicyId", match.noticePolicyId);
-      writeLineMatch(json);
+      writeLineMatch(json, match);
 
       array.add(json);
     }
 
     kieSession.dispose();
 
+    recordEvaluation("notice", "all", startTime);
+
     return array;
   }
 
@@ -186,9 +256,13 @@ public class Drools {
    * @return the name of the overdue fine policy
    */
   public String overduePolicy(MultiMap params, Location location) {
-    KieSession kieSession = createSession(params, location);
+    final long startTime = System.nanoTime();
+    Match match = new Match();
+    KieSession kieSession = createSession(params, location, match);
     kieSession.fireAllRules();
     kieSession.dispose();
+    recordEvaluation("overdue", "first", startTime);
+
     return match.overduePolicyId;
   }
 
@@ -200,7 +274,9 @@ public class Drools {
    * @return matches, each match has a overduePolicyId and a circulationRuleLine field
    */
   public JsonArray overduePolicies(MultiMap params, Location location) {
-    KieSession kieSession = createSession(params, location);
+    final long startTime = System.nanoTime();
+    Match match = new Match();
+    KieSession kieSession = createSession(params, location, match);
 
     JsonArray array = new JsonArray();
 
@@ -208,16 +284,27 @@ public class Drools {
       JsonObject json = new JsonObject();
 
       write(json, "overduePolicyId", match.overduePolicyId);
-      writeLineMatch(json);
+      writeLineMatch(json, match);
 
       array.add(json);
     }
 
     kieSession.dispose();
+    recordEvaluation("overdue", "all", startTime);
+
     return array;
   }
 
-  private void writeLineMatch(JsonObject json) {
+  private static void recordEvaluation(String policyType, String matches,
+    long startTime) {
+
+    getMetricsRegistry().histogram("circulation_rules_evaluation_duration_seconds",
+      "Time taken to apply the circulation rules to find policies",
+      "policy", policyType, "matches", matches)
+      .recordSince(startTime);
+  }
+
+  private void writeLineMatch(JsonObject json, Match match) {
     write(json, "circulationRuleLine", match.lineNumber);
   }
 
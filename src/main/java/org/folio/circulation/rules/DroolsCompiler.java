@@ -0,0 +1,278 @@
+package org.folio.circulation.rules;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.folio.circulation.support.metrics.MetricsRegistry.getMetricsRegistry;
+
+import java.lang.invoke.MethodHandles;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.folio.circulation.support.metrics.MetricsRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Converts circulation rules to Drools and compiles them on a small,
+ * dedicated pool of threads, so that compiling large rules does not
+ * block the threads handling requests
+ *
+ * The pool is shared by all verticle instances and is configured using the
+ * rulesCompilation property of the verticle configuration, e.g.
+ *
+ * <pre>
+ * "rulesCompilation" : { "threads" : 1, "queueSize" : 20, "cacheSize" : 20 }
+ * </pre>
+ *
+ * Compiled rules are kept in a small least recently used cache, keyed by
+ * a hash of the rules, which is shared by all tenants and by rules provided
+ * in requests, so that the same rules are only compiled once
+ *
+ * Compilations that cannot be queued fail with a RejectedExecutionException
+ */
+public class DroolsCompiler {
+  private static final Logger log = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+  private static final int DEFAULT_THREADS = 1;
+  private static final int DEFAULT_QUEUE_SIZE = 20;
+  private static final int DEFAULT_CACHE_SIZE = 20;
+
+  private static volatile DroolsCompiler instance
+    = new DroolsCompiler(DEFAULT_THREADS, DEFAULT_QUEUE_SIZE, DEFAULT_CACHE_SIZE);
+
+  private final int threads;
+  private final int queueSize;
+  private final int cacheSize;
+  private final ThreadPoolExecutor executor;
+  /** compiled (or being compiled) rules by hash, in least recently used order */
+  private final Map<String, CompletableFuture<Drools>> cache;
+
+  private DroolsCompiler(int threads, int queueSize, int cacheSize) {
+    this.threads = threads;
+    this.queueSize = queueSize;
+    this.cacheSize = cacheSize;
+
+    cache = new LinkedHashMap<String, CompletableFuture<Drools>>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, CompletableFuture<Drools>> eldest) {
+        return size() > cacheSize;
+      }
+    };
+
+    final AtomicInteger threadCount = new AtomicInteger();
+
+    executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+      new ArrayBlockingQueue<>(queueSize), runnable -> {
+        final Thread thread = new Thread(runnable,
+          "circulation-rules-compiler-" + threadCount.incrementAndGet());
+
+        thread.setDaemon(true);
+
+        return thread;
+      });
+
+    registerMetrics(executor, cache);
+  }
+
+  public static DroolsCompiler getDroolsCompiler() {
+    return instance;
+  }
+
+  /**
+   * Replaces the compilation pool if the configuration differs from the current
+   * pool, compilations already queued are completed by the previous pool
+   *
+   * @param verticleConfiguration configuration of the verticle
+   */
+  public static synchronized void configure(JsonObject verticleConfiguration) {
+    final JsonObject configuration = verticleConfiguration
+      .getJsonObject("rulesCompilation", new JsonObject());
+
+    final int threads = configuration.getInteger("threads", DEFAULT_THREADS);
+    final int queueSize = configuration.getInteger("queueSize", DEFAULT_QUEUE_SIZE);
+    final int cacheSize = configuration.getInteger("cacheSize", DEFAULT_CACHE_SIZE);
+
+    if (instance.threads == threads && instance.queueSize == queueSize
+      && instance.cacheSize == cacheSize) {
+      return;
+    }
+
+    final DroolsCompiler previous = instance;
+
+    instance = new DroolsCompiler(threads, queueSize, cacheSize);
+
+    previous.executor.shutdown();
+  }
+
+  /**
+   * Converts and compiles the circulation rules, unless the same rules
+   * have already been compiled or are being compiled
+   *
+   * @param rulesAsText circulation rules
+   * @return compiled rules, or failure if the rules are invalid
+   * or the compilation could not be queued
+   */
+  public CompletableFuture<Drools> compile(String rulesAsText) {
+    return compileOrLoad(rulesAsText, null);
+  }
+
+  /**
+   * Loads previously compiled circulation rules, unless the same rules
+   * have already been compiled or are being compiled. The rules are compiled
+   * again if the compiled rules cannot be loaded (e.g. they were compiled by
+   * a different version of Drools)
+   *
+   * @param rulesAsText circulation rules
+   * @param compiledRules the rules compiled by {@link Drools}
+   * @return compiled rules, or failure if the rules are invalid
+   * or the load could not be queued
+   */
+  public CompletableFuture<Drools> load(String rulesAsText, byte[] compiledRules) {
+    return compileOrLoad(rulesAsText, compiledRules);
+  }
+
+  private CompletableFuture<Drools> compileOrLoad(String rulesAsText,
+    byte[] compiledRules) {
+
+    final String hash = hash(rulesAsText);
+    final CompletableFuture<Drools> compiled;
+
+    synchronized (cache) {
+      final CompletableFuture<Drools> existing = cache.get(hash);
+
+      if (existing != null) {
+        getMetricsRegistry().counter("circulation_rules_compilation_cache_hits_total",
+          "Circulation rules already compiled or being compiled")
+          .increment();
+
+        return existing;
+      }
+
+      compiled = new CompletableFuture<>();
+      cache.put(hash, compiled);
+    }
+
+    getMetricsRegistry().counter("circulation_rules_compilation_cache_misses_total",
+      "Circulation rules that needed to be compiled")
+      .increment();
+
+    // failed compilations are not kept, so that they can be retried
+    compiled.whenComplete((drools, throwable) -> {
+      if (throwable != null) {
+        synchronized (cache) {
+          cache.remove(hash, compiled);
+        }
+      }
+    });
+
+    submit(rulesAsText, compiledRules, compiled);
+
+    return compiled;
+  }
+
+  private void submit(String rulesAsText, byte[] compiledRules,
+    CompletableFuture<Drools> compiled) {
+
+    try {
+      executor.execute(() -> {
+        final long start = System.nanoTime();
+
+        try {
+          compiled.complete(compiledRules == null
+            ? convertAndCompile(rulesAsText)
+            : loadOrCompile(rulesAsText, compiledRules));
+
+          getMetricsRegistry().histogram("circulation_rules_compilation_duration_seconds",
+            "Time taken to convert and compile circulation rules")
+            .recordSince(start);
+        }
+        catch (Exception e) {
+          getMetricsRegistry().counter("circulation_rules_compilation_failures_total",
+            "Circulation rules that could not be converted or compiled")
+            .increment();
+
+          compiled.completeExceptionally(e);
+        }
+      });
+    }
+    catch (RejectedExecutionException e) {
+      log.warn("Circulation rules compilation rejected, {} compilations queued",
+        executor.getQueue().size());
+
+      getMetricsRegistry().counter("circulation_rules_compilation_rejections_total",
+        "Circulation rules compilations rejected because the queue is full")
+        .increment();
+
+      compiled.completeExceptionally(e);
+    }
+  }
+
+  private static Drools convertAndCompile(String rulesAsText) {
+    final String rulesAsDrools = Text2Drools.convert(rulesAsText);
+
+    log.debug("rulesAsDrools = {}", rulesAsDrools);
+
+    return new Drools(rulesAsDrools);
+  }
+
+  private static Drools loadOrCompile(String rulesAsText, byte[] compiledRules) {
+    try {
+      return Drools.fromCompiledRules(compiledRules);
+    }
+    catch (Exception e) {
+      log.warn("Could not load compiled circulation rules, compiling them instead", e);
+
+      return convertAndCompile(rulesAsText);
+    }
+  }
+
+  static String hash(String rulesAsText) {
+    try {
+      final byte[] digest = MessageDigest.getInstance("SHA-256")
+        .digest(rulesAsText.getBytes(UTF_8));
+
+      final StringBuilder hash = new StringBuilder();
+
+      for (byte b : digest) {
+        hash.append(String.format("%02x", b));
+      }
+
+      return hash.toString();
+    }
+    catch (NoSuchAlgorithmException e) {
+      // every Java platform is required to support SHA-256
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static void registerMetrics(ThreadPoolExecutor executor,
+    Map<String, CompletableFuture<Drools>> cache) {
+
+    final MetricsRegistry registry = getMetricsRegistry();
+
+    registry.computedGauge("circulation_rules_compilation_queue_depth",
+      "Circulation rules compilations waiting for a thread",
+      () -> executor.getQueue().size());
+
+    registry.computedGauge("circulation_rules_compilations_in_progress",
+      "Circulation rules compilations currently running",
+      executor::getActiveCount);
+
+    registry.computedGauge("circulation_rules_compilation_cache_size",
+      "Compiled circulation rules kept in the cache",
+      () -> {
+        synchronized (cache) {
+          return cache.size();
+        }
+      });
+  }
+}
@@ -1,6 +1,8 @@
 package org.folio.circulation.support;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.function.Function;
@@ -27,4 +29,62 @@ public class AsyncCoordinationUtil {
       .thenApply(v -> futures.stream().map(CompletableFuture::join).collect(Collectors.toList()))
       .thenApply(Result::combineAll);
   }
+
+  /**
+   * Applies {@code asyncAction} to all the elements in {@code collection},
+   * with no more than {@code maximumInFlight} actions in progress at the same
+   * time, and combines results to list (in the order of the collection)
+   */
+  public static <T, R> CompletableFuture<Result<List<R>>> allOf(
+    Collection<T> collection,
+    Function<T, CompletableFuture<Result<R>>> asyncAction,
+    int maximumInFlight) {
+
+    final List<CompletableFuture<Result<R>>> futures = new ArrayList<>(collection.size());
+
+    collection.forEach(element -> futures.add(new CompletableFuture<>()));
+
+    final Iterator<T> elements = collection.iterator();
+    final Iterator<CompletableFuture<Result<R>>> results = futures.iterator();
+
+    for (int started = 0; started < Math.max(1, maximumInFlight); started++) {
+      applyNext(elements, results, asyncAction);
+    }
+
+    return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]))
+      .thenApply(v -> futures.stream().map(CompletableFuture::join).collect(Collectors.toList()))
+      .thenApply(Result::combineAll);
+  }
+
+  /**
+   * Applies the action to the next element, and once that completes, to the
+   * element after that, so that each call keeps one action in progress
+   */
+  private static <T, R> void applyNext(Iterator<T> elements,
+    Iterator<CompletableFuture<Result<R>>> results,
+    Function<T, CompletableFuture<Result<R>>> asyncAction) {
+
+    final T element;
+    final CompletableFuture<Result<R>> result;
+
+    synchronized (elements) {
+      if (!elements.hasNext()) {
+        return;
+      }
+
+      element = elements.next();
+      result = results.next();
+    }
+
+    asyncAction.apply(element).whenComplete((r, throwable) -> {
+      if (throwable != null) {
+        result.completeExceptionally(throwable);
+      }
+      else {
+        result.complete(r);
+      }
+
+      applyNext(elements, results, asyncAction);
+    });
+  }
 }
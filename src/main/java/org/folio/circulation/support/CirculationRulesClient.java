@@ -1,11 +1,9 @@
 package org.folio.circulation.support;
 
 import java.lang.invoke.MethodHandles;
-import java.net.MalformedURLException;
 import java.net.URL;
 
 import org.folio.circulation.support.http.client.OkapiHttpClient;
-import org.folio.circulation.support.http.server.WebContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -17,11 +15,9 @@ public class CirculationRulesClient {
   private final OkapiHttpClient client;
   private final URL root;
 
-  CirculationRulesClient(OkapiHttpClient client, WebContext context, String policyPath)
-    throws MalformedURLException {
-
+  CirculationRulesClient(OkapiHttpClient client, URL root) {
     this.client = client;
-    root = context.getOkapiBasedUrl(policyPath);
+    this.root = root;
   }
 
   public void applyRules(
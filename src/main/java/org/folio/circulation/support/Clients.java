@@ -1,501 +1,220 @@
 package org.folio.circulation.support;
 
-import java.net.MalformedURLException;
+import java.lang.invoke.MethodHandles;
 
 import org.folio.circulation.support.http.client.OkapiHttpClient;
+import org.folio.circulation.support.http.client.OkapiUrls;
 import org.folio.circulation.support.http.server.WebContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import io.vertx.core.http.HttpClient;
 
+/**
+ * Clients for the storage interfaces used during a single request
+ *
+ * Storage URLs are parsed once per Okapi location and shared between requests,
+ * only the clients for the interfaces actually used by a request are created
+ *
+ * Records which are not changed during a request (e.g. users, service points
+ * and reference data) and items (which are only changed via this module)
+ * are only fetched once during the request
+ */
 public class Clients {
-  private final CollectionResourceClient requestsStorageClient;
-  private final CollectionResourceClient requestsBatchStorageClient;
-  private final CollectionResourceClient cancellationReasonStorageClient;
-  private final CollectionResourceClient itemsStorageClient;
-  private final CollectionResourceClient holdingsStorageClient;
-  private final CollectionResourceClient instancesStorageClient;
-  private final CollectionResourceClient usersStorageClient;
-  private final CollectionResourceClient addressTypesStorageClient;
-  private final CollectionResourceClient loansStorageClient;
-  private final CollectionResourceClient locationsStorageClient;
-  private final CollectionResourceClient institutionsStorageClient;
-  private final CollectionResourceClient campusesStorageClient;
-  private final CollectionResourceClient librariesStorageClient;
-  private final CollectionResourceClient materialTypesStorageClient;
-  private final CollectionResourceClient loanTypesStorageClient;
-  private final CollectionResourceClient proxiesForClient;
-  private final CollectionResourceClient loanPoliciesStorageClient;
-  private final CollectionResourceClient fixedDueDateSchedulesStorageClient;
-  private final CirculationRulesClient circulationLoanRulesClient;
-  private final CirculationRulesClient circulationRequestRulesClient;
-  private final CirculationRulesClient circulationNoticeRulesClient;
-  private final CollectionResourceClient circulationRulesStorageClient;
-  private final CollectionResourceClient requestPoliciesStorageClient;
-  private final CollectionResourceClient servicePointsStorageClient;
-  private final CollectionResourceClient calendarStorageClient;
-  private final CollectionResourceClient patronGroupsStorageClient;
-  private final CollectionResourceClient patronNoticePolicesStorageClient;
-  private final CollectionResourceClient patronNoticeClient;
-  private final CollectionResourceClient configurationStorageClient;
-  private final CollectionResourceClient scheduledNoticesStorageClient;
-  private final CollectionResourceClient accountsStorageClient;
-  private final CollectionResourceClient feeFineActionsStorageClient;
-  private final CollectionResourceClient anonymizeStorageLoansClient;
-  private final CollectionResourceClient patronActionSessionsStorageClient;
+  private static final Logger log = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+  private final OkapiHttpClient client;
+  private final OkapiUrls okapiUrls;
+  private final IdentityMap identityMap;
+  private final StaleReferenceData staleReferenceData = new StaleReferenceData();
 
   public static Clients create(WebContext context, HttpClient httpClient) {
-    return new Clients(context.createHttpClient(httpClient), context);
-  }
-
-  private Clients(OkapiHttpClient client, WebContext context) {
-    try {
-      requestsStorageClient = createRequestsStorageClient(client, context);
-      requestsBatchStorageClient = createRequestsBatchStorageClient(client, context);
-      cancellationReasonStorageClient = createCancellationReasonStorageClient(client, context);
-      itemsStorageClient = createItemsStorageClient(client, context);
-      holdingsStorageClient = createHoldingsStorageClient(client, context);
-      instancesStorageClient = createInstanceStorageClient(client, context);
-      usersStorageClient = createUsersStorageClient(client, context);
-      addressTypesStorageClient = createAddressTypesStorageClient(client, context);
-      loansStorageClient = createLoansStorageClient(client, context);
-      locationsStorageClient = createLocationsStorageClient(client, context);
-      anonymizeStorageLoansClient = createAnonymizeStorageLoansClient(client, context);
-      institutionsStorageClient = createInstitutionsStorageClient(client, context);
-      campusesStorageClient = createCampusesStorageClient(client, context);
-      librariesStorageClient = createLibrariesStorageClient(client, context);
-      materialTypesStorageClient = createMaterialTypesStorageClient(client, context);
-      loanTypesStorageClient = createLoanTypesStorageClient(client, context);
-      proxiesForClient = createProxyUsersStorageClient(client, context);
-      circulationLoanRulesClient = createCirculationLoanRulesClient(client, context);
-      circulationRequestRulesClient = createCirculationRequestRulesClient(client, context);
-      circulationNoticeRulesClient = createCirculationNoticeRulesClient(client, context);
-      circulationRulesStorageClient = createCirculationRulesStorageClient(client, context);
-      loanPoliciesStorageClient = createLoanPoliciesStorageClient(client, context);
-      requestPoliciesStorageClient = createRequestPoliciesStorageClient(client, context);
-      fixedDueDateSchedulesStorageClient = createFixedDueDateSchedulesStorageClient(client, context);
-      servicePointsStorageClient = createServicePointsStorageClient(client, context);
-      patronGroupsStorageClient = createPatronGroupsStorageClient(client, context);
-      calendarStorageClient = createCalendarStorageClient(client, context);
-      patronNoticePolicesStorageClient = createPatronNoticePolicesStorageClient(client, context);
-      patronNoticeClient = createPatronNoticeClient(client, context);
-      configurationStorageClient = createConfigurationStorageClient(client, context);
-      scheduledNoticesStorageClient = createScheduledNoticesStorageClient(client, context);
-      accountsStorageClient = createAccountsStorageClient(client,context);
-      feeFineActionsStorageClient = createFeeFineActionsStorageClient(client,context);
-      patronActionSessionsStorageClient = createPatronActionSessionsStorageClient(client,context);
-    }
-    catch(MalformedURLException e) {
-      throw new InvalidOkapiLocationException(context.getOkapiLocation(), e);
-    }
+    return new Clients(context.createHttpClient(httpClient), context.getOkapiUrls(),
+      context.getIdentityMap());
+  }
+
+  public static Clients create(OkapiHttpClient client, OkapiUrls okapiUrls) {
+    return new Clients(client, okapiUrls, null);
+  }
+
+  private Clients(OkapiHttpClient client, OkapiUrls okapiUrls,
+    IdentityMap identityMap) {
+
+    this.client = client;
+    this.okapiUrls = okapiUrls;
+    this.identityMap = identityMap;
+  }
+
+  /**
+   * Clients for the same tenant, for requests made after the incoming
+   * request has finished. These do not share the records fetched during
+   * the request, are not part of its trace and do not respond to the
+   * request when a request to storage fails (failures should be reported
+   * using {@link CollectionResourceClient#reportingFailures})
+   */
+  public Clients forBackgroundWork() {
+    return new Clients(client.detached(exception ->
+      log.error("Request to storage made in the background failed", exception)),
+      okapiUrls, null);
+  }
+
+  /**
+   * @return reference data for which a previously fetched value was used
+   * during this request, because it could not be fetched
+   */
+  public StaleReferenceData staleReferenceData() {
+    return staleReferenceData;
+  }
+
+  public String tenantId() {
+    return client.getTenantId();
   }
 
   public CollectionResourceClient requestsStorage() {
-    return requestsStorageClient;
+    return collectionClient("/request-storage/requests");
   }
 
   public CollectionResourceClient requestsBatchStorage() {
-    return requestsBatchStorageClient;
+    return collectionClient("/request-storage-batch/requests");
   }
 
   public CollectionResourceClient cancellationReasonStorage() {
-    return cancellationReasonStorageClient;
+    return collectionClient("/cancellation-reason-storage/cancellation-reasons");
   }
 
-  public CollectionResourceClient requestPoliciesStorage() { return requestPoliciesStorageClient; }
+  public CollectionResourceClient requestPoliciesStorage() {
+    return identityMappedClient("/request-policy-storage/request-policies");
+  }
 
   public CollectionResourceClient itemsStorage() {
-    return itemsStorageClient;
+    return identityMappedClient("/item-storage/items");
   }
 
   public CollectionResourceClient holdingsStorage() {
-    return holdingsStorageClient;
+    return identityMappedClient("/holdings-storage/holdings");
   }
 
   public CollectionResourceClient instancesStorage() {
-    return instancesStorageClient;
+    return identityMappedClient("/instance-storage/instances");
   }
 
   public CollectionResourceClient usersStorage() {
-    return usersStorageClient;
+    return identityMappedClient("/users");
   }
 
   public CollectionResourceClient addressTypesStorage() {
-    return addressTypesStorageClient;
+    return identityMappedClient("/addresstypes");
   }
 
   public CollectionResourceClient loansStorage() {
-    return loansStorageClient;
+    return collectionClient("/loan-storage/loans");
   }
 
   public CollectionResourceClient anonymizeStorageLoansClient() {
-    return anonymizeStorageLoansClient;
+    return collectionClient("/anonymize-storage-loans");
   }
 
   public CollectionResourceClient locationsStorage() {
-    return locationsStorageClient;
+    return identityMappedClient("/locations");
   }
 
   public CollectionResourceClient institutionsStorage() {
-    return institutionsStorageClient;
+    return identityMappedClient("/location-units/institutions");
   }
 
   public CollectionResourceClient campusesStorage() {
-    return campusesStorageClient;
+    return identityMappedClient("/location-units/campuses");
   }
 
   public CollectionResourceClient librariesStorage() {
-    return librariesStorageClient;
+    return identityMappedClient("/location-units/libraries");
   }
 
   public CollectionResourceClient materialTypesStorage() {
-    return materialTypesStorageClient;
+    return identityMappedClient("/material-types");
   }
 
   public CollectionResourceClient loanTypesStorage() {
-    return loanTypesStorageClient;
+    return identityMappedClient("/loan-types");
   }
 
   public CollectionResourceClient loanPoliciesStorage() {
-    return loanPoliciesStorageClient;
+    return identityMappedClient("/loan-policy-storage/loan-policies");
   }
 
   public CollectionResourceClient fixedDueDateSchedules() {
-    return fixedDueDateSchedulesStorageClient;
+    return identityMappedClient("/fixed-due-date-schedule-storage/fixed-due-date-schedules");
   }
 
   public CollectionResourceClient servicePointsStorage() {
-    return servicePointsStorageClient;
+    return identityMappedClient("/service-points");
   }
 
   public CollectionResourceClient patronGroupsStorage() {
-    return patronGroupsStorageClient;
+    return identityMappedClient("/groups");
   }
 
   public CollectionResourceClient calendarStorageClient() {
-    return calendarStorageClient;
+    return collectionClient("/calendar/periods");
   }
 
   public CollectionResourceClient configurationStorageClient() {
-    return configurationStorageClient;
+    return collectionClient("/configurations/entries");
   }
 
   public CollectionResourceClient userProxies() {
-    return proxiesForClient;
+    return collectionClient("/proxiesfor");
   }
 
   public CirculationRulesClient circulationLoanRules() {
-    return circulationLoanRulesClient;
+    return rulesClient("/circulation/rules/loan-policy");
   }
 
-  public CirculationRulesClient circulationRequestRules(){
-    return circulationRequestRulesClient;
+  public CirculationRulesClient circulationRequestRules() {
+    return rulesClient("/circulation/rules/request-policy");
   }
 
-  public CirculationRulesClient circulationNoticeRules(){
-    return circulationNoticeRulesClient;
+  public CirculationRulesClient circulationNoticeRules() {
+    return rulesClient("/circulation/rules/notice-policy");
   }
 
   public CollectionResourceClient circulationRulesStorage() {
-    return circulationRulesStorageClient;
+    return collectionClient("/circulation-rules-storage");
   }
 
   public CollectionResourceClient patronNoticePolicesStorageClient() {
-    return patronNoticePolicesStorageClient;
+    return identityMappedClient("/patron-notice-policy-storage/patron-notice-policies");
   }
 
   public CollectionResourceClient patronNoticeClient() {
-    return patronNoticeClient;
+    return collectionClient("/patron-notice");
   }
 
   public CollectionResourceClient scheduledNoticesStorageClient() {
-    return scheduledNoticesStorageClient;
+    return collectionClient("/scheduled-notice-storage/scheduled-notices");
   }
 
   public CollectionResourceClient accountsStorageClient() {
-    return accountsStorageClient;
+    return collectionClient("/accounts");
   }
 
   public CollectionResourceClient feeFineActionsStorageClient() {
-    return feeFineActionsStorageClient;
+    return collectionClient("/feefineactions");
   }
 
   public CollectionResourceClient patronActionSessionsStorageClient() {
-    return patronActionSessionsStorageClient;
-  }
-
-  private static CollectionResourceClient getCollectionResourceClient(
-    OkapiHttpClient client,
-    WebContext context,
-    String path)
-    throws MalformedURLException {
-
-    return new CollectionResourceClient(client, context.getOkapiBasedUrl(path));
-  }
-
-  private static CirculationRulesClient createCirculationLoanRulesClient(
-    OkapiHttpClient client,
-    WebContext context)
-    throws MalformedURLException {
-
-    return new CirculationRulesClient(client, context, "/circulation/rules/loan-policy");
-  }
-
-  private static CirculationRulesClient createCirculationRequestRulesClient(
-    OkapiHttpClient client,
-    WebContext context)
-    throws MalformedURLException {
-
-    return new CirculationRulesClient(client, context, "/circulation/rules/request-policy");
-  }
-
-  private static CirculationRulesClient createCirculationNoticeRulesClient(
-    OkapiHttpClient client,
-    WebContext context)
-    throws MalformedURLException {
-
-    return new CirculationRulesClient(client, context, "/circulation/rules/notice-policy");
-  }
-
-  private static CollectionResourceClient createRequestsStorageClient(
-    OkapiHttpClient client,
-    WebContext context)
-    throws MalformedURLException {
-
-    return getCollectionResourceClient(client, context, "/request-storage/requests");
-  }
-
-  private static CollectionResourceClient createRequestsBatchStorageClient(
-    OkapiHttpClient client, WebContext context) throws MalformedURLException {
-
-    return getCollectionResourceClient(client, context, "/request-storage-batch/requests");
-  }
-
-  private static CollectionResourceClient createCancellationReasonStorageClient(
-    OkapiHttpClient client,
-    WebContext context)
-    throws MalformedURLException {
-
-    return getCollectionResourceClient(client, context, "/cancellation-reason-storage/cancellation-reasons");
-  }
-
-  private static CollectionResourceClient createItemsStorageClient(
-    OkapiHttpClient client,
-    WebContext context)
-    throws MalformedURLException {
-
-    return getCollectionResourceClient(client, context, "/item-storage/items");
-  }
-
-  private static CollectionResourceClient createHoldingsStorageClient(
-    OkapiHttpClient client,
-    WebContext context)
-    throws MalformedURLException {
-
-    return new CollectionResourceClient(
-      client, context.getOkapiBasedUrl("/holdings-storage/holdings"));
-  }
-
-  private static CollectionResourceClient createInstanceStorageClient(
-    OkapiHttpClient client,
-    WebContext context)
-    throws MalformedURLException {
-
-    return new CollectionResourceClient(
-      client, context.getOkapiBasedUrl("/instance-storage/instances"));
-  }
-
-  private static CollectionResourceClient createUsersStorageClient(
-    OkapiHttpClient client,
-    WebContext context)
-    throws MalformedURLException {
-
-    return getCollectionResourceClient(client, context, "/users");
-  }
-
-  private static CollectionResourceClient createAddressTypesStorageClient(
-    OkapiHttpClient client,
-    WebContext context)
-    throws MalformedURLException {
-    return getCollectionResourceClient(client, context, "/addresstypes");
-  }
-
-  private static CollectionResourceClient createLoansStorageClient(
-    OkapiHttpClient client,
-    WebContext context)
-    throws MalformedURLException {
-
-    return getCollectionResourceClient(client, context, "/loan-storage/loans");
+    return collectionClient("/patron-action-session-storage/patron-action-sessions");
   }
 
-  private static CollectionResourceClient createAnonymizeStorageLoansClient(
-    OkapiHttpClient client,
-    WebContext context)
-    throws MalformedURLException {
-
-    return getCollectionResourceClient(client, context, "/anonymize-storage-loans");
-  }
-
-  private static CollectionResourceClient createLocationsStorageClient(
-    OkapiHttpClient client,
-    WebContext context)
-    throws MalformedURLException {
-
-    return getCollectionResourceClient(client, context, "/locations");
-  }
-
-  private static CollectionResourceClient createInstitutionsStorageClient(
-    OkapiHttpClient client,
-    WebContext context)
-    throws MalformedURLException {
-
-    return getCollectionResourceClient(client, context, "/location-units/institutions");
-  }
-
-  private static CollectionResourceClient createCampusesStorageClient(
-    OkapiHttpClient client,
-    WebContext context)
-    throws MalformedURLException {
-
-    return getCollectionResourceClient(client, context, "/location-units/campuses");
-  }
-
-  private static CollectionResourceClient createLibrariesStorageClient(
-    OkapiHttpClient client,
-    WebContext context)
-    throws MalformedURLException {
-
-    return getCollectionResourceClient(client, context, "/location-units/libraries");
-  }
-
-  private CollectionResourceClient createProxyUsersStorageClient(
-    OkapiHttpClient client,
-    WebContext context)
-    throws MalformedURLException {
-
-    return getCollectionResourceClient(client, context, "/proxiesfor");
-  }
-
-  private CollectionResourceClient createMaterialTypesStorageClient(
-    OkapiHttpClient client,
-    WebContext context)
-    throws MalformedURLException {
-
-    return getCollectionResourceClient(client, context, "/material-types");
-  }
-
-  private CollectionResourceClient createLoanTypesStorageClient(
-    OkapiHttpClient client,
-    WebContext context)
-    throws MalformedURLException {
-
-    return getCollectionResourceClient(client, context, "/loan-types");
-  }
-
-  private CollectionResourceClient createLoanPoliciesStorageClient(
-    OkapiHttpClient client,
-    WebContext context)
-    throws MalformedURLException {
-
-    return getCollectionResourceClient(client, context,
-      "/loan-policy-storage/loan-policies");
-  }
-
-  private CollectionResourceClient createRequestPoliciesStorageClient(
-    OkapiHttpClient client,
-    WebContext context)
-    throws MalformedURLException {
-
-    return getCollectionResourceClient(client, context,
-      "/request-policy-storage/request-policies");
-  }
-
-  private CollectionResourceClient createFixedDueDateSchedulesStorageClient(
-    OkapiHttpClient client,
-    WebContext context)
-    throws MalformedURLException {
-
-    return getCollectionResourceClient(client, context,
-      "/fixed-due-date-schedule-storage/fixed-due-date-schedules");
-  }
-
-
-  private CollectionResourceClient createCirculationRulesStorageClient(
-    OkapiHttpClient client,
-    WebContext context)
-    throws MalformedURLException {
-
-    return getCollectionResourceClient(client, context,
-      "/circulation-rules-storage");
-  }
-
-  private CollectionResourceClient createServicePointsStorageClient(
-      OkapiHttpClient client,
-      WebContext context)
-      throws MalformedURLException {
-    return getCollectionResourceClient(client, context, "/service-points");
-  }
-
-  private CollectionResourceClient createPatronGroupsStorageClient(
-      OkapiHttpClient client,
-      WebContext context)
-      throws MalformedURLException {
-    return getCollectionResourceClient(client, context, "/groups");
-  }
-
-  private CollectionResourceClient createCalendarStorageClient(
-    OkapiHttpClient client,
-    WebContext context)
-    throws MalformedURLException {
-    return getCollectionResourceClient(client, context, "/calendar/periods");
-  }
-
-  private CollectionResourceClient createPatronNoticePolicesStorageClient(
-    OkapiHttpClient client,
-    WebContext context)
-    throws MalformedURLException {
-    return getCollectionResourceClient(client, context,
-      "/patron-notice-policy-storage/patron-notice-policies");
-  }
-
-  private CollectionResourceClient createPatronNoticeClient(
-    OkapiHttpClient client,
-    WebContext context)
-    throws MalformedURLException {
-    return getCollectionResourceClient(client, context, "/patron-notice");
-  }
-
-
-  private CollectionResourceClient createConfigurationStorageClient(
-    OkapiHttpClient client,
-    WebContext context)
-    throws MalformedURLException {
-    return getCollectionResourceClient(client, context, "/configurations/entries");
-  }
-
-  private CollectionResourceClient createScheduledNoticesStorageClient(
-    OkapiHttpClient client,
-    WebContext context)
-    throws MalformedURLException {
-    return getCollectionResourceClient(client, context, "/scheduled-notice-storage/scheduled-notices");
-  }
-  private CollectionResourceClient createAccountsStorageClient(
-    OkapiHttpClient client,
-    WebContext context)
-    throws MalformedURLException {
-    return getCollectionResourceClient(client, context, "/accounts");
+  private CollectionResourceClient collectionClient(String path) {
+    return new CollectionResourceClient(client, okapiUrls.forPath(path));
   }
 
-  private CollectionResourceClient createFeeFineActionsStorageClient(
-      OkapiHttpClient client,
-      WebContext context)
-      throws MalformedURLException {
-    return getCollectionResourceClient(client, context, "/feefineactions");
+  private CollectionResourceClient identityMappedClient(String path) {
+    return new CollectionResourceClient(client, okapiUrls.forPath(path), identityMap);
   }
 
-  private CollectionResourceClient createPatronActionSessionsStorageClient(
-    OkapiHttpClient client,
-    WebContext context)
-    throws MalformedURLException {
-    return getCollectionResourceClient(client, context, "/patron-action-session-storage/patron-action-sessions");
+  private CirculationRulesClient rulesClient(String path) {
+    return new CirculationRulesClient(client, okapiUrls.forPath(path));
   }
 }
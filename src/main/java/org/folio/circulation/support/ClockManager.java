@@ -11,7 +11,8 @@ import org.joda.time.DateTimeZone;
 public class ClockManager {
   private static final ClockManager INSTANCE = new ClockManager();
 
-  private Clock clock = Clock.systemUTC();
+  // Shared by all verticle instances, so may be read from different threads
+  private volatile Clock clock = Clock.systemUTC();
 
   private ClockManager() {
     super();
@@ -1,9 +1,17 @@
 package org.folio.circulation.support;
 
+import static java.util.function.Function.identity;
+import static org.folio.circulation.support.CqlQuery.exactMatchAny;
+import static org.folio.circulation.support.RecordFetchBatcher.getRecordFetchBatcher;
+
 import java.lang.invoke.MethodHandles;
 import java.net.URL;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.function.Consumer;
+import java.util.function.Function;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.exception.ExceptionUtils;
@@ -20,20 +28,43 @@ import io.vertx.core.json.JsonObject;
 public class CollectionResourceClient {
   private static final Logger log = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
 
+  private static final int MAXIMUM_PAGE_LIMIT_TO_INCLUDE = 10;
+
   private final OkapiHttpClient client;
   private final URL collectionRoot;
+  private final IdentityMap identityMap;
 
   public CollectionResourceClient(
     OkapiHttpClient client,
     URL collectionRoot) {
 
+    this(client, collectionRoot, null);
+  }
+
+  /**
+   * Create a client which only fetches each record once
+   *
+   * @param client client used to make requests
+   * @param collectionRoot URL of the collection
+   * @param identityMap records already fetched, may be null to always fetch records
+   */
+  public CollectionResourceClient(
+    OkapiHttpClient client,
+    URL collectionRoot,
+    IdentityMap identityMap) {
+
     this.client = client;
     this.collectionRoot = collectionRoot;
+    this.identityMap = identityMap;
   }
 
   public CompletableFuture<Response> post(
     JsonObject resourceRepresentation) {
 
+    if (identityMap != null && resourceRepresentation.getValue("id") instanceof String) {
+      identityMap.forget(path(), resourceRepresentation.getString("id"));
+    }
+
     CompletableFuture<Response> future = new CompletableFuture<>();
 
     client.post(collectionRoot,
@@ -46,6 +77,8 @@ public class CollectionResourceClient {
   public CompletableFuture<Response> put(
     JsonObject resourceRepresentation) {
 
+    forgetAll();
+
     final CompletableFuture<Response> future = new CompletableFuture<>();
 
     client.put(collectionRoot,
@@ -59,6 +92,8 @@ public class CollectionResourceClient {
     String id,
     JsonObject resourceRepresentation) {
 
+    forget(id);
+
     CompletableFuture<Response> future = new CompletableFuture<>();
 
     client.put(individualRecordUrl(id),
@@ -78,6 +113,83 @@ public class CollectionResourceClient {
   }
 
   public CompletableFuture<Response> get(String id) {
+    if (identityMap != null) {
+      return identityMap.fetch(path(), id, () -> fetch(id));
+    }
+
+    return fetch(id);
+  }
+
+  /**
+   * Records with the IDs which have already been fetched (or are being fetched)
+   * using this client, these do not need to be fetched again
+   *
+   * @param ids IDs of the records
+   * @return response for each record which has already been fetched
+   */
+  public Map<String, CompletableFuture<Response>> alreadyFetched(Collection<String> ids) {
+    final Map<String, CompletableFuture<Response>> fetched = new HashMap<>();
+
+    if (identityMap != null) {
+      ids.forEach(id -> identityMap.find(path(), id)
+        .ifPresent(response -> fetched.put(id, response)));
+    }
+
+    return fetched;
+  }
+
+  private CompletableFuture<Response> fetch(String id) {
+    final RecordFetchBatcher batcher = getRecordFetchBatcher();
+
+    if (batcher.batches(path(), id)) {
+      return batcher.fetch(client.getTenantId() + " " + collectionRoot, id,
+        this::fetchBatch, () -> fetchIndividually(id));
+    }
+
+    return fetchIndividually(id);
+  }
+
+  /**
+   * Fetch a batch of records on behalf of more than one incoming request,
+   * so failures are reported to the batch rather than to this request
+   */
+  private CompletableFuture<Result<Response>> fetchBatch(Collection<String> ids) {
+    return new CollectionResourceClient(client, collectionRoot)
+      .reportingFailures(batchClient -> exactMatchAny("id", ids)
+        .after(query -> batchClient.getMany(query, ids.size())));
+  }
+
+  /**
+   * Make requests using a client which reports failures to make a request
+   * (e.g. timeouts) as a failed result, rather than by responding to the
+   * incoming request, e.g. so that a different value can be used instead
+   *
+   * The client does not share the records already fetched during this
+   * request, as a request which fails is never completed
+   *
+   * @param action requests to make using the client
+   * @param <T> type of the result
+   * @return the result of the action, or a failure to make a request
+   */
+  public <T> CompletableFuture<Result<T>> reportingFailures(
+    Function<CollectionResourceClient, CompletableFuture<Result<T>>> action) {
+
+    final CompletableFuture<Result<T>> failed = new CompletableFuture<>();
+
+    final CollectionResourceClient failureReportingClient = new CollectionResourceClient(
+      client.withExceptionHandler(exception ->
+        failed.complete(Result.failed(new StorageUnavailableFailure(exception)))),
+      collectionRoot);
+
+    return action.apply(failureReportingClient)
+      .applyToEither(failed, identity());
+  }
+
+  String getTenantId() {
+    return client.getTenantId();
+  }
+
+  private CompletableFuture<Response> fetchIndividually(String id) {
     final CompletableFuture<Response> future = new CompletableFuture<>();
 
     final String url = individualRecordUrl(id);
@@ -88,6 +200,8 @@ public class CollectionResourceClient {
   }
 
   public CompletableFuture<Response> delete(String id) {
+    forget(id);
+
     final CompletableFuture<Response> future = new CompletableFuture<>();
 
     client.delete(individualRecordUrl(id),
@@ -97,6 +211,8 @@ public class CollectionResourceClient {
   }
 
   public CompletableFuture<Response> delete() {
+    forgetAll();
+
     final CompletableFuture<Response> future = new CompletableFuture<>();
 
     client.delete(collectionRoot, responseConversationHandler(future::complete));
@@ -105,6 +221,8 @@ public class CollectionResourceClient {
   }
 
   public CompletableFuture<Result<Response>> deleteMany(CqlQuery cqlQuery) {
+    forgetAll();
+
     return cqlQuery.encode().after(encodedQuery -> {
       final CompletableFuture<Response> future = new CompletableFuture<>();
 
@@ -149,7 +267,8 @@ public class CollectionResourceClient {
 
         client.get(url, responseConversationHandler(future::complete));
 
-        return future.thenApply(Result::succeeded);
+        return future.thenApply(response -> include(response, pageLimit))
+          .thenApply(Result::succeeded);
       });
   }
 
@@ -163,10 +282,41 @@ public class CollectionResourceClient {
 
       client.get(url, responseConversationHandler(future::complete));
 
-      return future.thenApply(Result::succeeded);
+      return future.thenApply(response -> include(response, pageLimit))
+        .thenApply(Result::succeeded);
     });
   }
 
+  /**
+   * Only small pages of records are included, e.g. when finding a record
+   * by barcode, to avoid decoding large pages of records twice
+   */
+  private Response include(Response response, Integer pageLimit) {
+    if (identityMap != null && pageLimit != null
+      && pageLimit <= MAXIMUM_PAGE_LIMIT_TO_INCLUDE) {
+
+      identityMap.include(path(), response);
+    }
+
+    return response;
+  }
+
+  private void forget(String id) {
+    if (identityMap != null) {
+      identityMap.forget(path(), id);
+    }
+  }
+
+  private void forgetAll() {
+    if (identityMap != null) {
+      identityMap.forgetAll(path());
+    }
+  }
+
+  private String path() {
+    return collectionRoot.getPath();
+  }
+
   private static boolean isProvided(String query) {
     return StringUtils.isNotBlank(query);
   }
@@ -91,4 +91,9 @@ public class CqlQuery {
   String asText() {
     return sortBy.applyTo(query);
   }
+
+  @Override
+  public String toString() {
+    return asText();
+  }
 }
@@ -0,0 +1,60 @@
+package org.folio.circulation.support;
+
+import org.joda.time.DateTime;
+
+import io.vertx.core.json.JsonObject;
+
+/**
+ * A date time property of a representation, which is only parsed again
+ * when the value of the property changes, e.g. so that sorting requests
+ * by request date does not parse the dates for every comparison
+ *
+ * The representation remains the source of the value, so that changes
+ * made directly to the representation are still reflected
+ */
+public class DateTimeProperty {
+  private final JsonObject representation;
+  private final String propertyName;
+  private volatile ParsedValue parsed = ParsedValue.NONE;
+
+  public DateTimeProperty(JsonObject representation, String propertyName) {
+    this.representation = representation;
+    this.propertyName = propertyName;
+  }
+
+  public DateTime get() {
+    if (representation == null) {
+      return null;
+    }
+
+    final String value = representation.getString(propertyName);
+
+    if (value == null) {
+      return null;
+    }
+
+    final ParsedValue current = parsed;
+
+    if (value.equals(current.value)) {
+      return current.dateTime;
+    }
+
+    final ParsedValue updated = new ParsedValue(value, DateTime.parse(value));
+
+    parsed = updated;
+
+    return updated.dateTime;
+  }
+
+  private static class ParsedValue {
+    private static final ParsedValue NONE = new ParsedValue(null, null);
+
+    private final String value;
+    private final DateTime dateTime;
+
+    private ParsedValue(String value, DateTime dateTime) {
+      this.value = value;
+      this.dateTime = dateTime;
+    }
+  }
+}
@@ -0,0 +1,150 @@
+package org.folio.circulation.support;
+
+import static java.util.stream.Collectors.toMap;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import org.folio.circulation.support.http.client.Response;
+
+import io.vertx.core.json.DecodeException;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Records fetched from storage during a single request to the module, so that
+ * each record is only fetched once, even when it is needed by different parts
+ * of the process (e.g. the service point the item is checked in at, which may
+ * also be the pickup service point for the first request in the queue)
+ *
+ * Records are identified by the storage path they are fetched from and their ID.
+ * Records are forgotten when they are changed via a client using the map,
+ * so only records which are not changed via other interfaces should be included
+ */
+public class IdentityMap {
+  private final Map<String, CompletableFuture<Response>> records = new ConcurrentHashMap<>();
+  private final Map<String, LongAdder> deduplicatedFetches = new ConcurrentHashMap<>();
+
+  /**
+   * Provides the record if it has already been fetched (or is being fetched),
+   * otherwise fetches it
+   *
+   * @param path storage path the record is fetched from
+   * @param id ID of the record
+   * @param fetcher fetches the record when it has not been fetched yet
+   * @return response for the record
+   */
+  CompletableFuture<Response> fetch(String path, String id,
+    Supplier<CompletableFuture<Response>> fetcher) {
+
+    final String key = key(path, id);
+    final CompletableFuture<Response> fetched = new CompletableFuture<>();
+    final CompletableFuture<Response> existing = records.putIfAbsent(key, fetched);
+
+    if (existing != null) {
+      deduplicated(path);
+      return existing;
+    }
+
+    fetcher.get().whenComplete((response, throwable) -> {
+      // only successfully fetched records are kept, so that failures are retried
+      if (throwable != null || response.getStatusCode() != 200) {
+        records.remove(key, fetched);
+      }
+
+      if (throwable != null) {
+        fetched.completeExceptionally(throwable);
+      }
+      else {
+        fetched.complete(response);
+      }
+    });
+
+    return fetched;
+  }
+
+  /**
+   * Provides the record if it has already been fetched (or is being fetched)
+   *
+   * @param path storage path the record is fetched from
+   * @param id ID of the record
+   * @return response for the record, or empty if it has not been fetched
+   */
+  Optional<CompletableFuture<Response>> find(String path, String id) {
+    final CompletableFuture<Response> existing = records.get(key(path, id));
+
+    if (existing != null) {
+      deduplicated(path);
+    }
+
+    return Optional.ofNullable(existing);
+  }
+
+  /**
+   * Includes the records from a response for multiple records,
+   * e.g. the items found when searching by barcode
+   *
+   * @param path storage path the records were fetched from
+   * @param response response containing an array of records
+   */
+  void include(String path, Response response) {
+    if (response == null || response.getStatusCode() != 200 || !response.hasBody()) {
+      return;
+    }
+
+    final JsonObject representation;
+
+    try {
+      representation = response.getJson();
+    }
+    catch (DecodeException e) {
+      return;
+    }
+
+    representation.fieldNames().stream()
+      .map(representation::getValue)
+      .filter(JsonArray.class::isInstance)
+      .map(JsonArray.class::cast)
+      .flatMap(JsonArray::stream)
+      .filter(JsonObject.class::isInstance)
+      .map(JsonObject.class::cast)
+      .filter(record -> record.getValue("id") instanceof String)
+      .forEach(record -> records.put(key(path, record.getString("id")),
+        CompletableFuture.completedFuture(new Response(200, record.encode(),
+          response.getContentType()))));
+  }
+
+  void forget(String path, String id) {
+    records.remove(key(path, id));
+  }
+
+  void forgetAll(String path) {
+    final String prefix = key(path, "");
+
+    records.keySet().removeIf(key -> key.startsWith(prefix));
+  }
+
+  /**
+   * Number of fetches avoided by using records already fetched
+   *
+   * @return count of fetches avoided for each storage path
+   */
+  public Map<String, Long> getDeduplicatedFetches() {
+    return deduplicatedFetches.entrySet().stream()
+      .collect(toMap(Map.Entry::getKey, entry -> entry.getValue().sum(),
+        (first, second) -> first, TreeMap::new));
+  }
+
+  private void deduplicated(String path) {
+    deduplicatedFetches.computeIfAbsent(path, notUsed -> new LongAdder()).increment();
+  }
+
+  private static String key(String path, String id) {
+    return path + "/" + id;
+  }
+}
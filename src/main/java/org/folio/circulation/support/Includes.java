@@ -0,0 +1,119 @@
+package org.folio.circulation.support;
+
+import static java.util.Arrays.stream;
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static org.folio.circulation.support.Result.succeeded;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Which related records should be fetched and included in the representations
+ * of records, based upon the include (or fields) query parameter,
+ * e.g. include=item,requester
+ *
+ * When the parameter is not provided, all related records are included
+ */
+public class Includes {
+  public static final String PARAMETER_NAME = "include";
+  public static final String FIELDS_PARAMETER_NAME = "fields";
+
+  private static final Includes ALL = new Includes(null);
+
+  /** names of the related records to include, or null to include all */
+  private final Set<String> included;
+
+  private Includes(Set<String> included) {
+    this.included = included;
+  }
+
+  public static Includes all() {
+    return ALL;
+  }
+
+  public static Includes only(String... names) {
+    return new Includes(Collections.unmodifiableSet(stream(names)
+      .collect(Collectors.toSet())));
+  }
+
+  /**
+   * Interpret the value of the include query parameter
+   *
+   * @param parameterValue comma separated names of related records, may be null
+   * @return the related records to include, all when the parameter is not provided
+   */
+  public static Includes fromParameter(String parameterValue) {
+    if (parameterValue == null) {
+      return all();
+    }
+
+    return new Includes(Collections.unmodifiableSet(
+      stream(parameterValue.split(","))
+        .map(String::trim)
+        .filter(StringUtils::isNotBlank)
+        .collect(Collectors.toSet())));
+  }
+
+  public boolean includes(String name) {
+    return included == null || included.contains(name);
+  }
+
+  public boolean includesAny(Collection<String> names) {
+    return names.stream().anyMatch(this::includes);
+  }
+
+  public boolean includesAll() {
+    return included == null;
+  }
+
+  /**
+   * Only fetch related records when they are included
+   *
+   * @param name name of the related records
+   * @param fetcher function to fetch the related records
+   * @param <T> type of the records to fetch related records for
+   * @return the fetcher when included, otherwise a function which
+   * leaves the records unchanged
+   */
+  public <T> Function<T, CompletableFuture<Result<T>>> whenIncluded(
+    String name, Function<T, CompletableFuture<Result<T>>> fetcher) {
+
+    return whenAnyIncluded(Collections.singletonList(name), fetcher);
+  }
+
+  public <T> Function<T, CompletableFuture<Result<T>>> whenAnyIncluded(
+    Collection<String> names, Function<T, CompletableFuture<Result<T>>> fetcher) {
+
+    return includesAny(names)
+      ? fetcher
+      : records -> completedFuture(succeeded(records));
+  }
+
+  /**
+   * Removes the include (and fields) parameter from a raw query string, so
+   * that the remaining parameters can be passed on to a storage module
+   *
+   * @param rawQueryString raw query string from a client request, may be null
+   * @return the query string without the include parameter
+   */
+  public static String removeParameter(String rawQueryString) {
+    if (rawQueryString == null) {
+      return null;
+    }
+
+    return stream(rawQueryString.split("&"))
+      .filter(parameter -> !isParameter(parameter, PARAMETER_NAME)
+        && !isParameter(parameter, FIELDS_PARAMETER_NAME))
+      .collect(Collectors.joining("&"));
+  }
+
+  private static boolean isParameter(String parameter, String name) {
+    return parameter.equals(name) || parameter.startsWith(name + "=");
+  }
+}
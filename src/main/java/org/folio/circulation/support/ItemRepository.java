@@ -6,17 +6,17 @@ import static java.util.function.Function.identity;
 import static org.folio.circulation.support.Result.ofAsync;
 import static org.folio.circulation.support.Result.succeeded;
 import static org.folio.circulation.support.ResultBinding.mapResult;
+import static org.folio.circulation.support.StaleOnErrorCache.getStaleOnErrorCache;
 
 import java.lang.invoke.MethodHandles;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
-import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.function.BiFunction;
 import java.util.stream.Collectors;
 
-import org.apache.commons.lang3.StringUtils;
 import org.folio.circulation.domain.Item;
 import org.folio.circulation.domain.ItemRelatedRecord;
 import org.folio.circulation.domain.Location;
@@ -42,12 +42,16 @@ public class ItemRepository {
   private final LocationRepository locationRepository;
   private final MaterialTypeRepository materialTypeRepository;
   private final ServicePointRepository servicePointRepository;
+  private final StaleReferenceData staleReferenceData;
   private final boolean fetchLocation;
   private final boolean fetchMaterialType;
   private final boolean fetchLoanType;
 
   private static final String ITEMS_COLLECTION_PROPERTY_NAME = "items";
 
+  public static final String LOCATION = "location";
+  public static final String MATERIAL_TYPE = "materialType";
+
   public ItemRepository(
     Clients clients,
     boolean fetchLocation,
@@ -61,6 +65,7 @@ public class ItemRepository {
       LocationRepository.using(clients),
       new MaterialTypeRepository(clients),
       new ServicePointRepository(clients),
+      clients.staleReferenceData(),
       fetchLocation, fetchMaterialType, fetchLoanType);
   }
 
@@ -72,6 +77,7 @@ public class ItemRepository {
     LocationRepository locationRepository,
     MaterialTypeRepository materialTypeRepository,
     ServicePointRepository servicePointRepository,
+    StaleReferenceData staleReferenceData,
     boolean fetchLocation,
     boolean fetchMaterialType,
     boolean fetchLoanType) {
@@ -83,11 +89,32 @@ public class ItemRepository {
     this.locationRepository = locationRepository;
     this.materialTypeRepository = materialTypeRepository;
     this.servicePointRepository = servicePointRepository;
+    this.staleReferenceData = staleReferenceData;
     this.fetchLocation = fetchLocation;
     this.fetchMaterialType = fetchMaterialType;
     this.fetchLoanType = fetchLoanType;
   }
 
+  /**
+   * Repository which only fetches the location and material type
+   * of items when they are included (and would otherwise be fetched)
+   *
+   * @param includes related records to include
+   * @return repository fetching only the included records
+   */
+  public ItemRepository including(Includes includes) {
+    if (includes.includesAll()) {
+      return this;
+    }
+
+    return new ItemRepository(itemsClient, holdingsClient, instancesClient,
+      loanTypesClient, locationRepository, materialTypeRepository,
+      servicePointRepository, staleReferenceData,
+      fetchLocation && includes.includes(LOCATION),
+      fetchMaterialType && includes.includes(MATERIAL_TYPE),
+      fetchLoanType);
+  }
+
   public CompletableFuture<Result<Item>> fetchFor(ItemRelatedRecord record) {
     return fetchById(record.getItemId());
   }
@@ -130,9 +157,12 @@ public class ItemRepository {
     if (item.getItem() == null) {
       return completedFuture(succeeded(null));
     }
-    return SingleRecordFetcher.json(loanTypesClient, "loan types",
-      response -> succeeded(null))
-      .fetch(item.determineLoanTypeForItem());
+    final String loanTypeId = item.determineLoanTypeForItem();
+
+    return getStaleOnErrorCache().fetch("loanType", loanTypeId, loanTypesClient,
+      client -> SingleRecordFetcher.json(client, "loan types",
+        response -> succeeded(null))
+        .fetch(loanTypeId), staleReferenceData);
   }
 
   public CompletableFuture<Result<Item>> fetchByBarcode(String barcode) {
@@ -191,10 +221,14 @@ public class ItemRepository {
         = new MultipleRecordFetcher<>(instancesClient, "instances", identity());
 
       return fetcher.findByIds(instanceIds)
-        .thenApply(r -> r.map(instances -> items.stream()
-          .map(item -> item.withInstance(
-            findById(item.getInstanceId(), instances.getRecords()).orElse(null)))
-          .collect(Collectors.toList())));
+        .thenApply(r -> r.map(instances -> {
+          final Map<String, JsonObject> instancesById = indexById(instances);
+
+          return items.stream()
+            .map(item -> item.withInstance(
+              findById(item.getInstanceId(), instancesById)))
+            .collect(Collectors.toList());
+        }));
     });
   }
 
@@ -212,20 +246,28 @@ public class ItemRepository {
         = new MultipleRecordFetcher<>(holdingsClient, "holdingsRecords", identity());
 
       return fetcher.findByIds(holdingsIds)
-        .thenApply(r -> r.map(holdings -> items.stream()
-          .map(item -> item.withHoldingsRecord(
-            findById(item.getHoldingsRecordId(), holdings.getRecords()).orElse(null)))
-          .collect(Collectors.toList())));
+        .thenApply(r -> r.map(holdings -> {
+          final Map<String, JsonObject> holdingsById = indexById(holdings);
+
+          return items.stream()
+            .map(item -> item.withHoldingsRecord(
+              findById(item.getHoldingsRecordId(), holdingsById)))
+            .collect(Collectors.toList());
+        }));
     });
   }
 
-  private static Optional<JsonObject> findById(
+  private static Map<String, JsonObject> indexById(
+    MultipleRecords<JsonObject> records) {
+
+    return records.toMap(record -> record.getString("id"));
+  }
+
+  private static JsonObject findById(
     String id,
-    Collection<JsonObject> collection) {
+    Map<String, JsonObject> recordsById) {
 
-    return collection.stream()
-      .filter(item -> item.getString("id").equals(id))
-      .findFirst();
+    return id == null ? null : recordsById.get(id);
   }
 
   private CompletableFuture<Result<Collection<Item>>> fetchItems(
@@ -337,12 +379,11 @@ public class ItemRepository {
     Collection<Item> items,
     BiFunction<T, Item, T> includeItemMap) {
 
-    return records.getRecords().stream()
-      .map(r -> includeItemMap.apply(r,
-        items.stream()
-          .filter(item -> StringUtils.equals(item.getItemId(), r.getItemId()))
-          .findFirst().orElse(Item.from(null))))
-      .collect(Collectors.toList());
+    return records.combineRecords(new MultipleRecords<>(items, items.size()),
+      Item::getItemId, ItemRelatedRecord::getItemId,
+      (record, item) -> includeItemMap.apply(record,
+        item == null ? Item.from(null) : item))
+      .getRecords();
   }
 
   private CompletableFuture<Result<Item>> fetchItemRelatedRecords(
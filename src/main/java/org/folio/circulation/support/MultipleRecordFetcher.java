@@ -1,14 +1,19 @@
 package org.folio.circulation.support;
 
 import static java.util.concurrent.CompletableFuture.completedFuture;
-import static org.apache.commons.collections4.ListUtils.partition;
-import static org.folio.circulation.domain.MultipleRecords.empty;
+import static org.folio.circulation.support.AsyncCoordinationUtil.allOf;
 import static org.folio.circulation.support.CqlQuery.exactMatchAny;
 import static org.folio.circulation.support.Result.of;
+import static org.folio.circulation.support.Result.succeeded;
+import static org.folio.circulation.support.metrics.MetricsRegistry.getMetricsRegistry;
 
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.function.Function;
 import java.util.stream.Collectors;
@@ -18,8 +23,39 @@ import org.folio.circulation.support.http.client.Response;
 
 import io.vertx.core.json.JsonObject;
 
+/**
+ * Fetches records by a collection of values for an index (usually IDs),
+ * by splitting the values into batches of queries
+ *
+ * Batches are limited by the number of values and by the length of the
+ * encoded query, only a limited number of queries for a fetch are made at
+ * the same time, and queries using an index other than ID are paged through
+ *
+ * These limits are configured using the multipleRecordFetching property of
+ * the verticle configuration, e.g.
+ *
+ * <pre>
+ * "multipleRecordFetching" : {
+ *   "batchSize" : 50,
+ *   "maximumQueryLength" : 4000,
+ *   "maximumQueriesInFlight" : 5,
+ *   "pageLimit" : 1000
+ * }
+ * </pre>
+ */
 public class MultipleRecordFetcher<T> {
-  private static final int MAX_BATCH_SIZE = 50;
+  private static final int DEFAULT_BATCH_SIZE = 50;
+  private static final int DEFAULT_MAXIMUM_QUERY_LENGTH = 4000;
+  private static final int DEFAULT_MAXIMUM_QUERIES_IN_FLIGHT = 5;
+  private static final int DEFAULT_PAGE_LIMIT = 1000;
+
+  private static final String ID_INDEX_NAME = "id";
+
+  private static volatile int batchSize = DEFAULT_BATCH_SIZE;
+  private static volatile int maximumQueryLength = DEFAULT_MAXIMUM_QUERY_LENGTH;
+  private static volatile int maximumQueriesInFlight = DEFAULT_MAXIMUM_QUERIES_IN_FLIGHT;
+  private static volatile int pageLimit = DEFAULT_PAGE_LIMIT;
+
   private final CollectionResourceClient client;
   private final String recordsPropertyName;
   private final Function<JsonObject, T> recordMapper;
@@ -34,9 +70,50 @@ public class MultipleRecordFetcher<T> {
     this.recordMapper = recordMapper;
   }
 
+  public static void configure(JsonObject verticleConfiguration) {
+    final JsonObject configuration = verticleConfiguration
+      .getJsonObject("multipleRecordFetching", new JsonObject());
+
+    batchSize = configuration.getInteger("batchSize", DEFAULT_BATCH_SIZE);
+    maximumQueryLength = configuration.getInteger("maximumQueryLength",
+      DEFAULT_MAXIMUM_QUERY_LENGTH);
+    maximumQueriesInFlight = configuration.getInteger("maximumQueriesInFlight",
+      DEFAULT_MAXIMUM_QUERIES_IN_FLIGHT);
+    pageLimit = configuration.getInteger("pageLimit", DEFAULT_PAGE_LIMIT);
+  }
+
+  /**
+   * Find records by ID, records already fetched by the client
+   * during this request are not fetched again
+   *
+   * @param ids IDs of the records to find
+   * @return the records found
+   */
   public CompletableFuture<Result<MultipleRecords<T>>> findByIds(
       Collection<String> ids) {
-    return findByIndexName(ids, "id");
+
+    final Map<String, CompletableFuture<Response>> alreadyFetched
+      = client.alreadyFetched(ids);
+
+    if (alreadyFetched.isEmpty()) {
+      return findByIndexName(ids, ID_INDEX_NAME);
+    }
+
+    final List<String> idsToFetch = ids.stream()
+      .filter(id -> !alreadyFetched.containsKey(id))
+      .collect(Collectors.toList());
+
+    final Collection<CompletableFuture<Response>> fetched = alreadyFetched.values();
+
+    return CompletableFuture.allOf(fetched.toArray(new CompletableFuture[0]))
+      .thenApply(notUsed -> fetched.stream()
+        .map(CompletableFuture::join)
+        .filter(response -> response.getStatusCode() == 200)
+        .map(response -> recordMapper.apply(response.getJson()))
+        .collect(Collectors.toList()))
+      .thenCombine(findByIndexName(idsToFetch, ID_INDEX_NAME),
+        (records, result) -> result.map(found -> new MultipleRecords<>(records,
+          records.size()).combine(found)));
   }
 
   public CompletableFuture<Result<MultipleRecords<T>>> findByIndexName(
@@ -44,7 +121,8 @@ public class MultipleRecordFetcher<T> {
     if (ids.isEmpty()) {
       return completedFuture(of(MultipleRecords::empty));
     }
-    return findByBatchQueries(buildBatchQueriesByIndexName(ids, indexName));
+    return findByBatchQueries(buildBatchQueriesByIndexName(ids, indexName, 0),
+      indexName);
   }
 
   public CompletableFuture<Result<MultipleRecords<T>>> findByIndexNameAndQuery(
@@ -52,36 +130,111 @@ public class MultipleRecordFetcher<T> {
     if (ids.isEmpty()) {
       return completedFuture(of(MultipleRecords::empty));
     }
-    return findByBatchQueriesAndQuery(buildBatchQueriesByIndexName(ids, indexName), andQuery);
-  }
 
-  private CompletableFuture<Result<MultipleRecords<T>>> findByBatchQueriesAndQuery(
-      List<Result<CqlQuery>> queries, Result<CqlQuery> andQuery) {
-    return findByBatchQueries(queries.stream().map(query ->
-      andQuery.combine(query, CqlQuery::and))
-      .collect(Collectors.toList()));
+    return findByBatchQueries(batchQueries(ids, indexName, andQuery), indexName);
   }
 
-  private List<Result<CqlQuery>> buildBatchQueriesByIndexName(
-      Collection<String> ids, String indexName) {
+  /**
+   * Queries for records with any of the values for an index (and matching
+   * another query), split into batches in the same way as when fetching,
+   * e.g. for deleting many records by ID
+   */
+  public static List<Result<CqlQuery>> batchQueries(Collection<String> values,
+      String indexName, Result<CqlQuery> andQuery) {
 
-    return partition(new ArrayList<>(ids), MAX_BATCH_SIZE)
-      .stream()
-      .map(partitionedIds -> exactMatchAny(indexName, partitionedIds))
+    final int andQueryLength = andQuery.map(CqlQuery::asText)
+      .map(MultipleRecordFetcher::encodedLength)
+      .orElse(0);
+
+    return buildBatchQueriesByIndexName(values, indexName, andQueryLength).stream()
+      .map(query -> andQuery.combine(query, CqlQuery::and))
       .collect(Collectors.toList());
   }
 
+  /**
+   * Splits the values into batches, each batch is limited by the number of
+   * values and by the length of the encoded query, so that the URL for
+   * the query does not become too long
+   */
+  private static List<Result<CqlQuery>> buildBatchQueriesByIndexName(
+      Collection<String> values, String indexName, int additionalQueryLength) {
+
+    final List<Result<CqlQuery>> queries = new ArrayList<>();
+    final int baseLength = encodedLength(indexName + "==()") + additionalQueryLength;
+
+    List<String> batch = new ArrayList<>();
+    int batchLength = baseLength;
+
+    for (String value : values) {
+      final int valueLength = encodedLength(" or \"" + value + "\"");
+
+      if (!batch.isEmpty() && (batch.size() >= batchSize
+        || batchLength + valueLength > maximumQueryLength)) {
+
+        queries.add(exactMatchAny(indexName, batch));
+        batch = new ArrayList<>();
+        batchLength = baseLength;
+      }
+
+      batch.add(value);
+      batchLength += valueLength;
+    }
+
+    if (!batch.isEmpty()) {
+      queries.add(exactMatchAny(indexName, batch));
+    }
+
+    return queries;
+  }
+
   private CompletableFuture<Result<MultipleRecords<T>>> findByBatchQueries(
-      List<Result<CqlQuery>> queries) {
-    // NOTE: query limit is max value to ensure all records are returned
-    List<CompletableFuture<Result<MultipleRecords<T>>>> results = queries.stream()
-        .map(query -> findByQuery(query, Integer.MAX_VALUE))
-        .collect(Collectors.toList());
-
-    return CompletableFuture.allOf(results.toArray(new CompletableFuture[0]))
-      .thenApply(notUsed -> results.stream()
-        .map(CompletableFuture::join)
-        .collect(Collectors.collectingAndThen(Collectors.toList(), this::aggregate)));
+      List<Result<CqlQuery>> queries, String indexName) {
+
+    final long startTime = System.nanoTime();
+
+    // IDs are unique, so a query by ID can only match one record per value
+    final Function<Result<CqlQuery>, CompletableFuture<Result<MultipleRecords<T>>>> find
+      = ID_INDEX_NAME.equals(indexName)
+        ? query -> findByQuery(query, batchSize)
+        : this::findAllPages;
+
+    // only a limited number of queries are made at the same time
+    return allOf(queries, find, maximumQueriesInFlight)
+      .thenApply(result -> result.map(this::aggregate))
+      .whenComplete((result, throwable) -> recordFetch(startTime, queries.size(),
+        result));
+  }
+
+  /**
+   * Fetches pages of records until a page is not full,
+   * as an index other than ID may match more than one record per value
+   *
+   * Pages are sorted by ID, so that records are neither skipped nor repeated
+   * because storage returned them in a different order for each page
+   */
+  private CompletableFuture<Result<MultipleRecords<T>>> findAllPages(
+    Result<CqlQuery> query) {
+
+    return findAllPages(query.map(sortedQuery -> sortedQuery.sortBy(
+      CqlSortBy.ascending(ID_INDEX_NAME))), 0, new ArrayList<>());
+  }
+
+  private CompletableFuture<Result<MultipleRecords<T>>> findAllPages(
+    Result<CqlQuery> queryResult, int offset, List<T> found) {
+
+    final int limit = pageLimit;
+
+    return queryResult.after(query -> client.getMany(query, limit, offset))
+      .thenApply(result -> result.next(this::mapToRecords))
+      .thenCompose(result -> result.after(page -> {
+        found.addAll(page.getRecords());
+
+        if (page.getRecords().size() < limit) {
+          return completedFuture(succeeded(new MultipleRecords<>(found, found.size())));
+        }
+
+        return findAllPages(queryResult, offset + limit, found);
+      }));
   }
 
   public CompletableFuture<Result<MultipleRecords<T>>> findByQuery(
@@ -99,8 +252,49 @@ public class MultipleRecordFetcher<T> {
     return MultipleRecords.from(response, recordMapper, recordsPropertyName);
   }
 
-  private Result<MultipleRecords<T>> aggregate(List<Result<MultipleRecords<T>>> results) {
-    return Result.combineAll(results)
-      .map(records -> records.stream().reduce(empty(), MultipleRecords::combine));
+  /**
+   * Combines the records from each batch into a single collection,
+   * without copying the records found so far for each batch
+   */
+  private MultipleRecords<T> aggregate(List<MultipleRecords<T>> batches) {
+    final List<T> records = new ArrayList<>();
+    int totalRecords = 0;
+
+    for (MultipleRecords<T> batch : batches) {
+      records.addAll(batch.getRecords());
+      totalRecords += batch.getTotalRecords() == null ? 0 : batch.getTotalRecords();
+    }
+
+    return new MultipleRecords<>(records, totalRecords);
+  }
+
+  private void recordFetch(long startTime, int numberOfQueries,
+    Result<MultipleRecords<T>> result) {
+
+    getMetricsRegistry().histogram("circulation_multiple_record_fetch_duration_seconds",
+      "Time to fetch records by a collection of values, including all batches",
+      "records", recordsPropertyName)
+      .recordSince(startTime);
+
+    getMetricsRegistry().counter("circulation_multiple_record_fetch_queries_total",
+      "Queries made to fetch records by a collection of values",
+      "records", recordsPropertyName)
+      .add(numberOfQueries);
+
+    if (result != null && result.succeeded()) {
+      getMetricsRegistry().counter("circulation_multiple_record_fetch_records_total",
+        "Records fetched by a collection of values",
+        "records", recordsPropertyName)
+        .add(result.value().getRecords().size());
+    }
+  }
+
+  private static int encodedLength(String text) {
+    try {
+      return URLEncoder.encode(text, StandardCharsets.UTF_8.name()).length();
+    }
+    catch (UnsupportedEncodingException e) {
+      return text.length() * 3;
+    }
   }
 }
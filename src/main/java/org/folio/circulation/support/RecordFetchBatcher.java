@@ -0,0 +1,347 @@
+package org.folio.circulation.support;
+
+import static org.folio.circulation.support.metrics.MetricsRegistry.getMetricsRegistry;
+
+import java.lang.invoke.MethodHandles;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+import org.folio.circulation.support.http.client.Response;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.json.DecodeException;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Combines fetches of individual records from the same collection for the
+ * same tenant, made at around the same time (usually by different requests
+ * to the module), into a single query for all of those records,
+ * e.g. id==("a" or "b"), and shares the response for a record that is
+ * already being fetched
+ *
+ * The query for a batch is made using the client of the first fetch in the
+ * batch, so only collections of reference data and policies, which every
+ * user of circulation can read, are ever batched (see {@link #BATCHABLE_PATHS}),
+ * whichever collections are configured. When the query for a batch fails,
+ * each fetch is made again individually, using its own client, so that
+ * one request's failure is not shared with the others in the batch
+ *
+ * Each fetch is made individually unless batching is enabled for some of
+ * those collections using the fetchBatching property, e.g.
+ *
+ * <pre>
+ * "fetchBatching" : {
+ *   "enabled" : true,
+ *   "windowMilliseconds" : 2,
+ *   "maximumBatchSize" : 50,
+ *   "paths" : [ "/service-points", "/groups" ]
+ * }
+ * </pre>
+ */
+public class RecordFetchBatcher {
+  private static final Logger log = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+  private static final int DEFAULT_WINDOW_MILLISECONDS = 2;
+  private static final int DEFAULT_MAXIMUM_BATCH_SIZE = 50;
+
+  private static final Pattern UUID_PATTERN = Pattern.compile(
+    "^[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}$");
+
+  /**
+   * Collections of reference data and policies, which every user of
+   * circulation can read
+   */
+  static final Set<String> BATCHABLE_PATHS = Collections.unmodifiableSet(
+    new HashSet<>(Arrays.asList(
+      "/service-points",
+      "/groups",
+      "/addresstypes",
+      "/locations",
+      "/location-units/institutions",
+      "/location-units/campuses",
+      "/location-units/libraries",
+      "/material-types",
+      "/loan-types",
+      "/cancellation-reason-storage/cancellation-reasons",
+      "/loan-policy-storage/loan-policies",
+      "/request-policy-storage/request-policies",
+      "/patron-notice-policy-storage/patron-notice-policies",
+      "/fixed-due-date-schedule-storage/fixed-due-date-schedules")));
+
+  private static final RecordFetchBatcher DISABLED = new RecordFetchBatcher(
+    null, DEFAULT_WINDOW_MILLISECONDS, DEFAULT_MAXIMUM_BATCH_SIZE,
+    Collections.emptySet());
+
+  private static volatile RecordFetchBatcher instance = DISABLED;
+
+  private final Vertx vertx;
+  private final int windowMilliseconds;
+  private final int maximumBatchSize;
+  private final Set<String> paths;
+  /** batches waiting to be sent, by tenant and collection */
+  private final Map<String, Batch> waiting = new HashMap<>();
+  /**
+   * the response from a batch for records waiting to be sent or being sent,
+   * by tenant and collection and then ID
+   */
+  private final Map<String, Map<String, CompletableFuture<Response>>> inFlight
+    = new HashMap<>();
+
+  RecordFetchBatcher(Vertx vertx, int windowMilliseconds,
+    int maximumBatchSize, Set<String> paths) {
+
+    final Set<String> batchablePaths = new HashSet<>(paths);
+
+    batchablePaths.retainAll(BATCHABLE_PATHS);
+
+    this.vertx = vertx;
+    this.windowMilliseconds = windowMilliseconds;
+    this.maximumBatchSize = maximumBatchSize;
+    this.paths = Collections.unmodifiableSet(batchablePaths);
+  }
+
+  public static RecordFetchBatcher getRecordFetchBatcher() {
+    return instance;
+  }
+
+  public static synchronized void configure(Vertx vertx,
+    JsonObject verticleConfiguration) {
+
+    final JsonObject configuration = verticleConfiguration
+      .getJsonObject("fetchBatching", new JsonObject());
+
+    if (!configuration.getBoolean("enabled", false)) {
+      instance = DISABLED;
+      return;
+    }
+
+    final Set<String> paths = new HashSet<>();
+
+    configuration.getJsonArray("paths", new JsonArray())
+      .forEach(path -> paths.add(path.toString()));
+
+    instance = new RecordFetchBatcher(vertx,
+      configuration.getInteger("windowMilliseconds", DEFAULT_WINDOW_MILLISECONDS),
+      configuration.getInteger("maximumBatchSize", DEFAULT_MAXIMUM_BATCH_SIZE),
+      paths);
+
+    paths.removeAll(instance.paths);
+
+    if (!paths.isEmpty()) {
+      log.warn("Fetches of records from {} are not batched, as not every user can read them",
+        paths);
+    }
+
+    log.info("Batching fetches of records from {} within {} ms",
+      instance.paths, instance.windowMilliseconds);
+  }
+
+  /**
+   * Only records identified by a UUID from the configured collections
+   * (which every user can read) are batched, other IDs cannot be safely
+   * included in a query
+   */
+  public boolean batches(String path, String id) {
+    return vertx != null && paths.contains(path)
+      && id != null && UUID_PATTERN.matcher(id).matches();
+  }
+
+  /**
+   * Fetch a record as part of a batch
+   *
+   * @param key identifies the tenant and collection the record is fetched from
+   * @param id ID of the record
+   * @param fetchMany fetches the records for the IDs in a batch
+   * @param fetchOne fetches the record individually, when fetching the batch fails
+   * @return response for the individual record, 404 when it is not found
+   */
+  public CompletableFuture<Response> fetch(String key, String id,
+    Function<Collection<String>, CompletableFuture<Result<Response>>> fetchMany,
+    Supplier<CompletableFuture<Response>> fetchOne) {
+
+    final CompletableFuture<Response> fromBatch;
+    final boolean shared;
+    Batch full = null;
+
+    synchronized (this) {
+      final Map<String, CompletableFuture<Response>> fetching
+        = inFlight.computeIfAbsent(key, notUsed -> new HashMap<>());
+
+      final CompletableFuture<Response> existing = fetching.get(id);
+
+      shared = existing != null;
+
+      if (shared) {
+        fromBatch = existing;
+      }
+      else {
+        fromBatch = new CompletableFuture<>();
+        fetching.put(id, fromBatch);
+
+        final Batch batch = waiting.computeIfAbsent(key,
+          notUsed -> startBatch(key, fetchMany));
+
+        batch.fetches.put(id, fromBatch);
+
+        if (batch.fetches.size() >= maximumBatchSize) {
+          waiting.remove(key);
+          full = batch;
+        }
+      }
+    }
+
+    if (shared) {
+      getMetricsRegistry().counter("circulation_storage_fetches_coalesced_total",
+        "Fetches of records which shared a fetch already in progress")
+        .increment();
+    }
+    else {
+      fromBatch.whenComplete((response, throwable) -> finished(key, id, fromBatch));
+    }
+
+    if (full != null) {
+      send(full);
+    }
+
+    // no response from the batch means it failed, so the record is fetched
+    // using the client of this fetch, rather than sharing another's failure
+    return fromBatch.thenCompose(response -> response != null
+      ? CompletableFuture.completedFuture(response)
+      : fetchOne.get());
+  }
+
+  private Batch startBatch(String key,
+    Function<Collection<String>, CompletableFuture<Result<Response>>> fetchMany) {
+
+    final Batch batch = new Batch(fetchMany);
+
+    vertx.setTimer(windowMilliseconds, timerId -> {
+      final boolean stillWaiting;
+
+      synchronized (this) {
+        stillWaiting = waiting.remove(key, batch);
+      }
+
+      if (stillWaiting) {
+        send(batch);
+      }
+    });
+
+    return batch;
+  }
+
+  private synchronized void finished(String key, String id,
+    CompletableFuture<Response> future) {
+
+    final Map<String, CompletableFuture<Response>> fetching = inFlight.get(key);
+
+    if (fetching != null && fetching.remove(id, future) && fetching.isEmpty()) {
+      inFlight.remove(key);
+    }
+  }
+
+  private void send(Batch batch) {
+    getMetricsRegistry().counter("circulation_storage_fetch_batches_total",
+      "Batches of record fetches sent").increment();
+
+    getMetricsRegistry().counter("circulation_storage_fetches_batched_total",
+      "Fetches of records included in batches").add(batch.fetches.size());
+
+    if (batch.fetches.size() == 1) {
+      fetchIndividually(batch);
+      return;
+    }
+
+    final CompletableFuture<Result<Response>> fetched;
+
+    try {
+      fetched = batch.fetchMany.apply(new ArrayList<>(batch.fetches.keySet()));
+    }
+    catch (RuntimeException e) {
+      log.warn("Failed to fetch batch of {} records, fetching individually",
+        batch.fetches.size(), e);
+
+      fetchIndividually(batch);
+      return;
+    }
+
+    fetched.whenComplete((result, throwable) -> {
+      if (throwable != null || result.failed()
+        || result.value().getStatusCode() != 200) {
+
+        log.warn("Failed to fetch batch of {} records, fetching individually",
+          batch.fetches.size());
+
+        fetchIndividually(batch);
+      }
+      else {
+        distribute(batch, result.value());
+      }
+    });
+  }
+
+  private static void distribute(Batch batch, Response response) {
+    final Map<String, JsonObject> records = new HashMap<>();
+
+    try {
+      response.getJson().forEach(property -> {
+        if (property.getValue() instanceof JsonArray) {
+          ((JsonArray) property.getValue()).forEach(record -> {
+            if (record instanceof JsonObject
+              && ((JsonObject) record).getValue("id") instanceof String) {
+
+              records.put(((JsonObject) record).getString("id"), (JsonObject) record);
+            }
+          });
+        }
+      });
+    }
+    catch (DecodeException e) {
+      log.warn("Could not interpret batch of records, fetching individually", e);
+      fetchIndividually(batch);
+      return;
+    }
+
+    batch.fetches.forEach((id, fromBatch) -> {
+      final JsonObject record = records.get(id);
+
+      fromBatch.complete(record != null
+        ? new Response(200, record.encode(), "application/json")
+        : new Response(404, String.format("Record with ID %s not found", id),
+            "text/plain"));
+    });
+  }
+
+  /**
+   * Completes each fetch in the batch without a response, so that each
+   * record is fetched individually by every fetch waiting for it
+   */
+  private static void fetchIndividually(Batch batch) {
+    batch.fetches.values().forEach(fromBatch -> fromBatch.complete(null));
+  }
+
+  private static class Batch {
+    private final Function<Collection<String>, CompletableFuture<Result<Response>>> fetchMany;
+    private final Map<String, CompletableFuture<Response>> fetches = new LinkedHashMap<>();
+
+    private Batch(
+      Function<Collection<String>, CompletableFuture<Result<Response>>> fetchMany) {
+
+      this.fetchMany = fetchMany;
+    }
+  }
+}
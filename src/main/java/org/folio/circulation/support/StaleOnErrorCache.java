@@ -0,0 +1,190 @@
+package org.folio.circulation.support;
+
+import static org.folio.circulation.support.Result.succeeded;
+import static org.folio.circulation.support.metrics.MetricsRegistry.getMetricsRegistry;
+
+import java.lang.invoke.MethodHandles;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Keeps the last value successfully fetched for reference data which rarely
+ * changes (e.g. calendar opening days, the tenant's time zone, material and
+ * loan types), so that the value can be used when fetching it fails (because
+ * storage did not respond, timed out or responded with a server error)
+ *
+ * Values are kept per tenant (evicting the least recently used once the
+ * maximum number of entries is reached) and are only used up to a maximum staleness,
+ * when a stale value is used, it is recorded for the request, so that it
+ * can be indicated in the response
+ *
+ * Unless enabled in the staleOnError property, a failure to fetch reference
+ * data fails the request which needed it, e.g.
+ *
+ * <pre>
+ * "staleOnError" : {
+ *   "enabled" : true,
+ *   "maximumStalenessSeconds" : 3600,
+ *   "maximumEntries" : 10000
+ * }
+ * </pre>
+ */
+public class StaleOnErrorCache {
+  private static final Logger log = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+  private static final long DEFAULT_MAXIMUM_STALENESS_SECONDS = 3600;
+  private static final int DEFAULT_MAXIMUM_ENTRIES = 10000;
+
+  private static final StaleOnErrorCache DISABLED = new StaleOnErrorCache(
+    false, DEFAULT_MAXIMUM_STALENESS_SECONDS, DEFAULT_MAXIMUM_ENTRIES,
+    System::nanoTime);
+
+  private static volatile StaleOnErrorCache instance = DISABLED;
+
+  private final boolean enabled;
+  private final long maximumStalenessNanoseconds;
+  private final int maximumEntries;
+  private final LongSupplier clock;
+  /** least recently used first, so that the eldest is evicted when full */
+  private final Map<String, Entry> entries;
+
+  StaleOnErrorCache(boolean enabled, long maximumStalenessSeconds,
+    int maximumEntries, LongSupplier clock) {
+
+    this.enabled = enabled;
+    this.maximumStalenessNanoseconds = TimeUnit.SECONDS.toNanos(maximumStalenessSeconds);
+    this.maximumEntries = maximumEntries;
+    this.clock = clock;
+
+    this.entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+        return size() > StaleOnErrorCache.this.maximumEntries;
+      }
+    };
+  }
+
+  public static StaleOnErrorCache getStaleOnErrorCache() {
+    return instance;
+  }
+
+  public static void configure(JsonObject verticleConfiguration) {
+    final JsonObject configuration = verticleConfiguration
+      .getJsonObject("staleOnError", new JsonObject());
+
+    if (!configuration.getBoolean("enabled", false)) {
+      instance = DISABLED;
+      return;
+    }
+
+    instance = new StaleOnErrorCache(true,
+      configuration.getLong("maximumStalenessSeconds", DEFAULT_MAXIMUM_STALENESS_SECONDS),
+      configuration.getInteger("maximumEntries", DEFAULT_MAXIMUM_ENTRIES),
+      System::nanoTime);
+  }
+
+  /**
+   * Fetch reference data, using the last value fetched when fetching fails
+   *
+   * When disabled, the value is fetched using the client as usual (and
+   * failing to make the request fails the incoming request)
+   *
+   * @param name name of the reference data, e.g. calendar
+   * @param key identifies the value within the reference data,
+   * e.g. service point and date
+   * @param client client to fetch the value with
+   * @param fetcher fetches the value using the client provided
+   * @param staleReferenceData stale reference data used during the request
+   * @param <T> type of the value
+   * @return the value fetched, or the last value fetched when fetching failed
+   */
+  public <T> CompletableFuture<Result<T>> fetch(String name, String key,
+    CollectionResourceClient client,
+    Function<CollectionResourceClient, CompletableFuture<Result<T>>> fetcher,
+    StaleReferenceData staleReferenceData) {
+
+    if (!enabled) {
+      return fetcher.apply(client);
+    }
+
+    final String cacheKey = client.getTenantId() + " " + name + " " + key;
+
+    return client.reportingFailures(fetcher)
+      .thenApply(result -> {
+        if (result.succeeded()) {
+          remember(cacheKey, result.value());
+          return result;
+        }
+
+        if (!isUnavailable(result.cause())) {
+          return result;
+        }
+
+        final Entry entry;
+
+        synchronized (entries) {
+          entry = entries.get(cacheKey);
+        }
+
+        if (entry == null
+          || clock.getAsLong() - entry.fetchedAt > maximumStalenessNanoseconds) {
+
+          return result;
+        }
+
+        log.warn("Using stale {} ({}) as it could not be fetched", name, key);
+
+        getMetricsRegistry().counter("circulation_stale_reference_data_used_total",
+          "Previously fetched reference data used because it could not be fetched",
+          "name", name)
+          .increment();
+
+        staleReferenceData.record(name);
+
+        @SuppressWarnings("unchecked")
+        final T staleValue = (T) entry.value;
+
+        return succeeded(staleValue);
+      });
+  }
+
+  private void remember(String cacheKey, Object value) {
+    synchronized (entries) {
+      entries.put(cacheKey, new Entry(value, clock.getAsLong()));
+    }
+  }
+
+  /**
+   * Only failures to get a response (including requests rejected by a
+   * circuit breaker), or server error responses, suggest that storage is
+   * unavailable. Other failures (e.g. a record not being found, or an
+   * exception within this module) are reported
+   */
+  private static boolean isUnavailable(HttpFailure failure) {
+    if (failure instanceof StorageUnavailableFailure) {
+      return true;
+    }
+
+    return failure instanceof ForwardOnFailure
+      && ((ForwardOnFailure) failure).getFailureResponse().getStatusCode() >= 500;
+  }
+
+  private static class Entry {
+    private final Object value;
+    private final long fetchedAt;
+
+    private Entry(Object value, long fetchedAt) {
+      this.value = value;
+      this.fetchedAt = fetchedAt;
+    }
+  }
+}
@@ -0,0 +1,43 @@
+package org.folio.circulation.support;
+
+import java.util.ArrayList;
+import java.util.Set;
+import java.util.TreeSet;
+
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Reference data which could not be fetched during a request, and for which a
+ * previously fetched value was used instead (see {@link StaleOnErrorCache}),
+ * e.g. so that a check out can indicate that the due date may be based upon
+ * an out of date calendar
+ */
+public class StaleReferenceData {
+  private static final String PROPERTY_NAME = "staleReferenceData";
+
+  private final Set<String> names = new TreeSet<>();
+
+  public synchronized void record(String name) {
+    names.add(name);
+  }
+
+  public synchronized boolean isEmpty() {
+    return names.isEmpty();
+  }
+
+  /**
+   * Includes the names of the stale reference data in a representation
+   * (e.g. a loan), when any stale reference data was used
+   *
+   * @param representation representation to include the names in
+   * @return the representation
+   */
+  public synchronized JsonObject addTo(JsonObject representation) {
+    if (!names.isEmpty()) {
+      representation.put(PROPERTY_NAME, new JsonArray(new ArrayList<>(names)));
+    }
+
+    return representation;
+  }
+}
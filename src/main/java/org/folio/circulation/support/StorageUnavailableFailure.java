@@ -0,0 +1,43 @@
+package org.folio.circulation.support;
+
+import org.folio.circulation.support.http.client.StorageUnavailableException;
+import org.folio.circulation.support.http.server.ServerErrorResponse;
+
+import io.vertx.core.http.HttpServerResponse;
+
+/**
+ * Failure to get a response from another module (e.g. a timeout, a refused
+ * connection or a request rejected by a circuit breaker), or a server error
+ * response from it, rather than a failure within this module
+ *
+ * A request rejected by a circuit breaker is responded to with 503
+ * Service Unavailable, as it was never made and may succeed later
+ */
+public class StorageUnavailableFailure extends ServerErrorFailure {
+  private final boolean rejected;
+
+  public StorageUnavailableFailure(String reason) {
+    super(reason);
+    this.rejected = false;
+  }
+
+  public StorageUnavailableFailure(Throwable e) {
+    super(e);
+    this.rejected = e instanceof StorageUnavailableException;
+  }
+
+  @Override
+  public void writeTo(HttpServerResponse response) {
+    if (rejected) {
+      ServerErrorResponse.serviceUnavailable(response, getReason());
+    }
+    else {
+      super.writeTo(response);
+    }
+  }
+
+  @Override
+  public String toString() {
+    return String.format("Storage unavailable failure, reason: %s", getReason());
+  }
+}
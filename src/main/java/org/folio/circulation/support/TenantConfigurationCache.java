@@ -0,0 +1,172 @@
+package org.folio.circulation.support;
+
+import static org.folio.circulation.support.metrics.MetricsRegistry.getMetricsRegistry;
+import static org.folio.circulation.support.results.CommonFailures.failedDueToServerError;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Keeps tenant configuration (e.g. the time zone, the limit on scheduled
+ * notices processed and the loan history settings) for a period, so that it
+ * is not fetched from mod-configuration during every check out, renewal or
+ * run of a scheduled process
+ *
+ * Concurrent lookups of the same configuration share a single fetch, and
+ * failures are not kept. Changes made to the configuration take effect
+ * once the time to live has passed, or when the tenant's configuration is
+ * invalidated
+ *
+ * Unless enabled in the configurationCache property, the configuration is
+ * fetched every time it is needed, as it was before this cache, e.g.
+ *
+ * <pre>
+ * "configurationCache" : {
+ *   "enabled" : true,
+ *   "timeToLiveSeconds" : 60
+ * }
+ * </pre>
+ */
+public class TenantConfigurationCache {
+  private static final long DEFAULT_TIME_TO_LIVE_SECONDS = 60;
+
+  private static final TenantConfigurationCache DISABLED = new TenantConfigurationCache(
+    false, DEFAULT_TIME_TO_LIVE_SECONDS, System::nanoTime);
+
+  private static volatile TenantConfigurationCache instance = DISABLED;
+
+  private final boolean enabled;
+  private final long timeToLiveNanoseconds;
+  private final LongSupplier clock;
+  private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+  TenantConfigurationCache(boolean enabled, long timeToLiveSeconds,
+    LongSupplier clock) {
+
+    this.enabled = enabled;
+    this.timeToLiveNanoseconds = TimeUnit.SECONDS.toNanos(timeToLiveSeconds);
+    this.clock = clock;
+  }
+
+  public static TenantConfigurationCache getTenantConfigurationCache() {
+    return instance;
+  }
+
+  public static void configure(JsonObject verticleConfiguration) {
+    final JsonObject configuration = verticleConfiguration
+      .getJsonObject("configurationCache", new JsonObject());
+
+    if (!configuration.getBoolean("enabled", false)) {
+      instance = DISABLED;
+      return;
+    }
+
+    instance = new TenantConfigurationCache(true,
+      configuration.getLong("timeToLiveSeconds", DEFAULT_TIME_TO_LIVE_SECONDS),
+      System::nanoTime);
+  }
+
+  /**
+   * Get configuration for the client's tenant, only looking it up when it
+   * is not kept or has expired
+   *
+   * The lookup is made using a client which reports failures to make
+   * requests as failed results, as other requests may be waiting for it
+   *
+   * @param name name of the configuration, e.g. timeZone
+   * @param client client to look up the configuration with
+   * @param lookup looks up the configuration using the client provided
+   * @param <T> type of the configuration
+   * @return configuration kept or looked up
+   */
+  public <T> CompletableFuture<Result<T>> get(String name,
+    CollectionResourceClient client,
+    Function<CollectionResourceClient, CompletableFuture<Result<T>>> lookup) {
+
+    if (!enabled) {
+      return lookup.apply(client);
+    }
+
+    final String key = client.getTenantId() + " " + name;
+    final long now = clock.getAsLong();
+
+    final Entry existing = entries.get(key);
+
+    if (existing != null && now - existing.fetchedAt < timeToLiveNanoseconds) {
+      recordLookup(name, "hit");
+
+      return existing.value();
+    }
+
+    final Entry entry = new Entry(now);
+
+    final boolean replaced = existing == null
+      ? entries.putIfAbsent(key, entry) == null
+      : entries.replace(key, existing, entry);
+
+    if (!replaced) {
+      // another request started looking up the configuration first
+      return get(name, client, lookup);
+    }
+
+    recordLookup(name, "miss");
+
+    client.reportingFailures(lookup)
+      .whenComplete((result, error) -> {
+        final Result<Object> outcome = error == null
+          ? result.map(value -> (Object) value)
+          : failedDueToServerError(error);
+
+        if (outcome.failed()) {
+          entries.remove(key, entry);
+        }
+
+        entry.future.complete(outcome);
+      });
+
+    return entry.value();
+  }
+
+  /**
+   * Discards the configuration kept for a tenant, so that it is looked up
+   * again when next used
+   *
+   * @param tenantId tenant to discard configuration for
+   */
+  public void invalidate(String tenantId) {
+    final String prefix = tenantId + " ";
+
+    entries.keySet().removeIf(key -> key.startsWith(prefix));
+  }
+
+  public void invalidateAll() {
+    entries.clear();
+  }
+
+  private static void recordLookup(String name, String outcome) {
+    getMetricsRegistry().counter("circulation_configuration_cache_lookups_total",
+      "Lookups of tenant configuration, by whether it was kept",
+      "name", name, "result", outcome)
+      .increment();
+  }
+
+  private static class Entry {
+    private final long fetchedAt;
+    private final CompletableFuture<Result<Object>> future = new CompletableFuture<>();
+
+    private Entry(long fetchedAt) {
+      this.fetchedAt = fetchedAt;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> CompletableFuture<Result<T>> value() {
+      return future.thenApply(result -> (Result<T>) result);
+    }
+  }
+}
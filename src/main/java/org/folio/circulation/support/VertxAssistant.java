@@ -54,6 +54,23 @@ public class VertxAssistant {
     Class<T> verticleClass,
     JsonObject config) {
 
+    return deployVerticle(verticleClass, config, 1);
+  }
+
+  public <T> CompletableFuture<String> deployVerticle(
+    Class<T> verticleClass,
+    JsonObject config,
+    int instances) {
+
+    return deployVerticle(verticleClass, config, instances, true);
+  }
+
+  public <T> CompletableFuture<String> deployVerticle(
+    Class<T> verticleClass,
+    JsonObject config,
+    int instances,
+    boolean worker) {
+
     String verticleClass1 = verticleClass.getName();
 
     CompletableFuture<String> deployed = new CompletableFuture<>();
@@ -63,13 +80,15 @@ public class VertxAssistant {
     DeploymentOptions options = new DeploymentOptions();
 
     options.setConfig(config);
-    options.setWorker(true);
+    options.setWorker(worker);
+    options.setInstances(instances);
 
     vertx.deployVerticle(verticleClass1, options, result -> {
       if (result.succeeded()) {
         long elapsedTime = System.currentTimeMillis() - startTime;
 
-        log.info("{} deployed in {} milliseconds", verticleClass1, elapsedTime);
+        log.info("{} instance(s) of {} deployed in {} milliseconds",
+          instances, verticleClass1, elapsedTime);
 
         deployed.complete(result.result());
       } else {
@@ -0,0 +1,179 @@
+package org.folio.circulation.support.http.client;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+import io.vertx.core.http.HttpClientOptions;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.http.HttpVersion;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Options for the HTTP client used to make requests via Okapi,
+ * read from the httpClient property of the verticle configuration, e.g.
+ *
+ * <pre>
+ * "httpClient" : {
+ *   "maxPoolSize" : 100,
+ *   "keepAlive" : true,
+ *   "pipelining" : false,
+ *   "http2" : false,
+ *   "timeouts" : { "GET" : 10000, "POST" : 5000 },
+ *   "interfaceTimeouts" : { "/calendar" : 3000 }
+ * }
+ * </pre>
+ *
+ * Properties not provided fall back to the previous fixed behaviour
+ * (a pool of 100 connections and a 5 second timeout for POST), except that
+ * requests using other methods time out after 30 seconds, rather than
+ * waiting for a response forever
+ *
+ * A timeout for an interface (the first segment of the path) applies
+ * to requests using any method, instead of the timeout for the method
+ */
+public class HttpClientConfiguration {
+  private static final int DEFAULT_MAX_POOL_SIZE = 100;
+  private static final int DEFAULT_POST_TIMEOUT = 5000;
+  private static final int DEFAULT_TIMEOUT = 30000;
+  private static final HttpMethod[] METHODS_USED = {
+    HttpMethod.GET, HttpMethod.POST, HttpMethod.PUT, HttpMethod.DELETE };
+
+  private final int maxPoolSize;
+  private final int maxWaitQueueSize;
+  private final boolean keepAlive;
+  private final int keepAliveTimeout;
+  private final boolean pipelining;
+  private final int pipeliningLimit;
+  private final boolean http2;
+  private final boolean http2ClearTextUpgrade;
+  private final int http2MaxPoolSize;
+  private final int http2MultiplexingLimit;
+  private final int connectTimeout;
+  private final int idleTimeout;
+  private final Map<HttpMethod, Integer> timeouts;
+  private final Map<String, Integer> interfaceTimeouts;
+
+  private HttpClientConfiguration(JsonObject representation) {
+    final HttpClientOptions defaults = new HttpClientOptions();
+
+    maxPoolSize = representation.getInteger("maxPoolSize", DEFAULT_MAX_POOL_SIZE);
+    maxWaitQueueSize = representation.getInteger("maxWaitQueueSize",
+      defaults.getMaxWaitQueueSize());
+    keepAlive = representation.getBoolean("keepAlive", defaults.isKeepAlive());
+    keepAliveTimeout = representation.getInteger("keepAliveTimeout",
+      defaults.getKeepAliveTimeout());
+    pipelining = representation.getBoolean("pipelining", defaults.isPipelining());
+    pipeliningLimit = representation.getInteger("pipeliningLimit",
+      defaults.getPipeliningLimit());
+    http2 = representation.getBoolean("http2", false);
+    http2ClearTextUpgrade = representation.getBoolean("http2ClearTextUpgrade",
+      defaults.isHttp2ClearTextUpgrade());
+    http2MaxPoolSize = representation.getInteger("http2MaxPoolSize",
+      defaults.getHttp2MaxPoolSize());
+    http2MultiplexingLimit = representation.getInteger("http2MultiplexingLimit",
+      defaults.getHttp2MultiplexingLimit());
+    connectTimeout = representation.getInteger("connectTimeout",
+      defaults.getConnectTimeout());
+    idleTimeout = representation.getInteger("idleTimeout",
+      defaults.getIdleTimeout());
+
+    timeouts = readTimeouts(representation.getJsonObject("timeouts", new JsonObject()));
+    interfaceTimeouts = readInterfaceTimeouts(
+      representation.getJsonObject("interfaceTimeouts", new JsonObject()));
+  }
+
+  public static HttpClientConfiguration from(JsonObject verticleConfiguration) {
+    return new HttpClientConfiguration(verticleConfiguration
+      .getJsonObject("httpClient", new JsonObject()));
+  }
+
+  public static HttpClientConfiguration defaults() {
+    return from(new JsonObject());
+  }
+
+  public HttpClientOptions toHttpClientOptions() {
+    final HttpClientOptions options = new HttpClientOptions()
+      .setMaxPoolSize(maxPoolSize)
+      .setMaxWaitQueueSize(maxWaitQueueSize)
+      .setKeepAlive(keepAlive)
+      .setKeepAliveTimeout(keepAliveTimeout)
+      .setPipelining(pipelining)
+      .setPipeliningLimit(pipeliningLimit)
+      .setConnectTimeout(connectTimeout)
+      .setIdleTimeout(idleTimeout);
+
+    if (http2) {
+      options
+        .setProtocolVersion(HttpVersion.HTTP_2)
+        .setHttp2ClearTextUpgrade(http2ClearTextUpgrade)
+        .setHttp2MaxPoolSize(http2MaxPoolSize)
+        .setHttp2MultiplexingLimit(http2MultiplexingLimit);
+    }
+
+    return options;
+  }
+
+  public int getMaxPoolSize() {
+    return http2 ? http2MaxPoolSize : maxPoolSize;
+  }
+
+  /**
+   * Timeout (in milliseconds) for requests using the method, 0 means no timeout
+   *
+   * @param method HTTP method of the request
+   * @return timeout in milliseconds
+   */
+  public int getTimeout(HttpMethod method) {
+    return timeouts.getOrDefault(method, DEFAULT_TIMEOUT);
+  }
+
+  /**
+   * Timeout (in milliseconds) for requests to the interface, when configured,
+   * otherwise for requests using the method, 0 means no timeout
+   *
+   * @param method HTTP method of the request
+   * @param storageInterface first segment of the path, e.g. /calendar
+   * @return timeout in milliseconds
+   */
+  public int getTimeout(HttpMethod method, String storageInterface) {
+    return interfaceTimeouts.getOrDefault(storageInterface, getTimeout(method));
+  }
+
+  /**
+   * Whether every request made via Okapi eventually times out, i.e. no
+   * method or interface has been configured with 0 (no timeout)
+   *
+   * @return true when every request has a timeout
+   */
+  public boolean hasTimeoutForEveryRequest() {
+    for (HttpMethod method : METHODS_USED) {
+      if (getTimeout(method) <= 0) {
+        return false;
+      }
+    }
+
+    return interfaceTimeouts.values().stream().allMatch(timeout -> timeout > 0);
+  }
+
+  private static Map<String, Integer> readInterfaceTimeouts(JsonObject representation) {
+    final Map<String, Integer> timeouts = new HashMap<>();
+
+    representation.fieldNames().forEach(storageInterface ->
+      timeouts.put(storageInterface, representation.getInteger(storageInterface)));
+
+    return timeouts;
+  }
+
+  private static Map<HttpMethod, Integer> readTimeouts(JsonObject representation) {
+    final Map<HttpMethod, Integer> timeouts = new EnumMap<>(HttpMethod.class);
+
+    timeouts.put(HttpMethod.POST, DEFAULT_POST_TIMEOUT);
+
+    representation.fieldNames().forEach(method ->
+      timeouts.put(HttpMethod.valueOf(method.toUpperCase()),
+        representation.getInteger(method)));
+
+    return timeouts;
+  }
+}
@@ -1,5 +1,6 @@
 package org.folio.circulation.support.http.client;
 
+import static io.vertx.core.http.HttpHeaders.CONTENT_LENGTH;
 import static org.folio.circulation.support.http.OkapiHeader.OKAPI_URL;
 import static org.folio.circulation.support.http.OkapiHeader.REQUEST_ID;
 import static org.folio.circulation.support.http.OkapiHeader.TENANT;
@@ -16,9 +17,11 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import io.vertx.core.Handler;
+import io.vertx.core.buffer.Buffer;
 import io.vertx.core.http.HttpClient;
 import io.vertx.core.http.HttpClientRequest;
 import io.vertx.core.http.HttpClientResponse;
+import io.vertx.core.http.HttpMethod;
 import io.vertx.core.json.Json;
 
 public class OkapiHttpClient {
@@ -31,6 +34,10 @@ public class OkapiHttpClient {
   private final String userId;
   private final String requestId;
   private final Consumer<Throwable> exceptionHandler;
+  private final RequestTrace trace;
+
+  private static volatile HttpClientConfiguration configuration
+    = HttpClientConfiguration.defaults();
 
   public OkapiHttpClient(
     HttpClient httpClient,
@@ -41,6 +48,20 @@ public class OkapiHttpClient {
     String requestId,
     Consumer<Throwable> exceptionHandler) {
 
+    this(httpClient, okapiUrl, tenantId, token, userId, requestId,
+      exceptionHandler, RequestTrace.notTraced());
+  }
+
+  public OkapiHttpClient(
+    HttpClient httpClient,
+    URL okapiUrl,
+    String tenantId,
+    String token,
+    String userId,
+    String requestId,
+    Consumer<Throwable> exceptionHandler,
+    RequestTrace trace) {
+
     this.client = httpClient;
     this.okapiUrl = okapiUrl;
     this.tenantId = tenantId;
@@ -48,34 +69,66 @@ public class OkapiHttpClient {
     this.userId = userId;
     this.requestId = requestId;
     this.exceptionHandler = exceptionHandler;
+    this.trace = trace;
   }
 
-  public void post(
-    URL url,
-    Object body,
-    Handler<HttpClientResponse> responseHandler) {
+  /**
+   * Configure the options used by all clients, e.g. timeouts
+   *
+   * @param configuration HTTP client configuration from the verticle configuration
+   */
+  public static void configure(HttpClientConfiguration configuration) {
+    OkapiHttpClient.configuration = configuration;
 
-    HttpClientRequest request = client.postAbs(url.toString(), responseHandler);
+    StorageRequestMetrics.registerPoolSize(configuration.getMaxPoolSize());
+  }
 
-    addJsonContentTypeHeader(request);
+  public String getTenantId() {
+    return tenantId;
+  }
 
-    addStandardHeaders(request);
+  /**
+   * Client for the same tenant and user, which reports failures to
+   * make requests to a different handler, e.g. for requests made on
+   * behalf of more than one incoming request
+   *
+   * @param exceptionHandler handler for failures to make requests
+   * @return client using the exception handler
+   */
+  public OkapiHttpClient withExceptionHandler(Consumer<Throwable> exceptionHandler) {
+    return new OkapiHttpClient(client, okapiUrl, tenantId, token, userId,
+      requestId, exceptionHandler, trace);
+  }
 
-    request.setTimeout(5000);
+  /**
+   * Client for the same tenant and user, for requests made after the
+   * incoming request has finished (e.g. writing records in the background),
+   * which are not part of the incoming request's trace and which report
+   * failures to make requests to a different handler
+   *
+   * @param exceptionHandler handler for failures to make requests
+   * @return client detached from the incoming request
+   */
+  public OkapiHttpClient detached(Consumer<Throwable> exceptionHandler) {
+    return new OkapiHttpClient(client, okapiUrl, tenantId, token, userId,
+      requestId, exceptionHandler, RequestTrace.notTraced());
+  }
+
+  public void post(
+    URL url,
+    Object body,
+    Handler<HttpClientResponse> responseHandler) {
 
-    request.exceptionHandler(this.exceptionHandler::accept);
+    String encodedBody = null;
 
     if(body != null) {
       //TODO: Catch encoding exceptions here
-      String encodedBody = Json.encodePrettily(body);
+      encodedBody = Json.encodePrettily(body);
 
       log.info("POST {}, Request: {}", url, encodedBody);
-
-      request.end(encodedBody);
-    }
-    else {
-      request.end();
     }
+
+    send(HttpMethod.POST, url.toString(), encodedBody, true, responseHandler);
   }
 
   public void put(
@@ -91,20 +144,12 @@ public class OkapiHttpClient {
     Object body,
     Handler<HttpClientResponse> responseHandler) {
 
-    HttpClientRequest request = client.putAbs(url, responseHandler);
-
-    addJsonContentTypeHeader(request);
-
-    addStandardHeaders(request);
-
-    request.exceptionHandler(this.exceptionHandler::accept);
-
     //TODO: Catch encoding exceptions here
     String encodedBody = Json.encodePrettily(body);
 
     log.info("PUT {}, Request: {}", url, encodedBody);
 
-    request.end(encodedBody);
+    send(HttpMethod.PUT, url, encodedBody, true, responseHandler);
   }
 
   public void get(URL url, Handler<HttpClientResponse> responseHandler) {
@@ -124,15 +169,9 @@ public class OkapiHttpClient {
   }
 
   public void get(String url, Handler<HttpClientResponse> responseHandler) {
-    log.info("GET {}", url);
-
-    HttpClientRequest request = client.getAbs(url, responseHandler);
+    log.debug("GET {}", url);
 
-    addStandardHeaders(request);
-
-    request.exceptionHandler(exceptionHandler::accept);
-
-    request.end();
+    send(HttpMethod.GET, url, null, false, responseHandler);
   }
 
   public void delete(URL url, Handler<HttpClientResponse> responseHandler) {
@@ -141,14 +180,91 @@ public class OkapiHttpClient {
   }
 
   public void delete(String url, Handler<HttpClientResponse> responseHandler) {
+    send(HttpMethod.DELETE, url, null, false, responseHandler);
+  }
+
+  private void send(
+    HttpMethod method,
+    String url,
+    String encodedBody,
+    boolean jsonContent,
+    Handler<HttpClientResponse> responseHandler) {
+
+    final int timeout = configuration.getTimeout(method,
+      StorageCircuitBreakers.interfaceOf(url));
+
+    final StorageCircuitBreakers.Permit permit = StorageCircuitBreakers
+      .getStorageCircuitBreakers().acquire(tenantId, url, timeout);
+
+    if (permit.isRejected()) {
+      log.warn(permit.getRejection());
+      this.exceptionHandler.accept(new StorageUnavailableException(
+        permit.getRejection()));
+      return;
+    }
 
-    HttpClientRequest request = client.deleteAbs(url, responseHandler);
+    final StorageRequestMetrics metrics = StorageRequestMetrics.start(method, url,
+      tenantId);
 
-    addStandardHeaders(request);
+    final RequestTrace.Call tracedCall = trace.start(method, url);
 
-    request.exceptionHandler(this.exceptionHandler::accept);
+    final Handler<Throwable> failed = exception -> {
+      metrics.failed();
+      permit.failed();
 
-    request.end();
+      if (tracedCall != null) {
+        tracedCall.failed();
+      }
+
+      this.exceptionHandler.accept(exception);
+    };
+
+    try {
+      HttpClientRequest request = client.requestAbs(method, url, response -> {
+        metrics.responded();
+        permit.responded(response.statusCode());
+
+        if (tracedCall != null) {
+          tracedCall.responded(response.statusCode(),
+            response.getHeader(CONTENT_LENGTH));
+        }
+
+        responseHandler.handle(response);
+      });
+
+      if(jsonContent) {
+        addJsonContentTypeHeader(request);
+      }
+
+      addStandardHeaders(request);
+
+      if(timeout > 0) {
+        request.setTimeout(timeout);
+      }
+
+      request.exceptionHandler(failed);
+
+      final Buffer body = encodedBody != null ? Buffer.buffer(encodedBody) : null;
+
+      if(body != null) {
+        // Length is needed up front as the head is sent before the body
+        request.putHeader(CONTENT_LENGTH, Integer.toString(body.length()));
+      }
+
+      // Headers are only sent once a connection has been taken from the pool
+      request.sendHead(version -> metrics.connected());
+
+      if(body != null) {
+        request.end(body);
+      }
+      else {
+        request.end();
+      }
+    }
+    catch (RuntimeException e) {
+      // The permit is released, as the exception handler may never be called
+      failed.handle(e);
+    }
   }
 
   private void addStandardHeaders(HttpClientRequest request) {
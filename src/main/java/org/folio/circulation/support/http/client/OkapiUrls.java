@@ -0,0 +1,73 @@
+package org.folio.circulation.support.http.client;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.folio.circulation.support.InvalidOkapiLocationException;
+
+/**
+ * Parsed Okapi location and the storage interface URLs derived from it.
+ *
+ * Instances are shared between all requests that use the same Okapi location
+ * (the URLs do not depend upon the tenant, which is sent as a header),
+ * so that each storage URL is only parsed once rather than on every request
+ */
+public class OkapiUrls {
+  // Okapi location comes from a request header, protect against unbounded growth
+  private static final int MAXIMUM_CACHED_LOCATIONS = 100;
+
+  private static final Map<String, OkapiUrls> urlsByLocation = new ConcurrentHashMap<>();
+
+  private final String okapiLocation;
+  private final URL okapiUrl;
+  private final Map<String, URL> urlsByPath = new ConcurrentHashMap<>();
+
+  private OkapiUrls(String okapiLocation, URL okapiUrl) {
+    this.okapiLocation = okapiLocation;
+    this.okapiUrl = okapiUrl;
+  }
+
+  public static OkapiUrls forLocation(String okapiLocation) {
+    final OkapiUrls existing = urlsByLocation.get(okapiLocation);
+
+    if (existing != null) {
+      return existing;
+    }
+
+    if (urlsByLocation.size() >= MAXIMUM_CACHED_LOCATIONS) {
+      urlsByLocation.clear();
+    }
+
+    return urlsByLocation.computeIfAbsent(okapiLocation,
+      location -> new OkapiUrls(location, parse(location)));
+  }
+
+  public URL getOkapiUrl() {
+    return okapiUrl;
+  }
+
+  public URL forPath(String path) {
+    return urlsByPath.computeIfAbsent(path, this::createUrl);
+  }
+
+  private URL createUrl(String path) {
+    try {
+      return new URL(okapiUrl.getProtocol(), okapiUrl.getHost(),
+        okapiUrl.getPort(), path);
+    }
+    catch (MalformedURLException e) {
+      throw new InvalidOkapiLocationException(okapiLocation, e);
+    }
+  }
+
+  private static URL parse(String okapiLocation) {
+    try {
+      return new URL(okapiLocation);
+    }
+    catch (MalformedURLException e) {
+      throw new InvalidOkapiLocationException(okapiLocation, e);
+    }
+  }
+}
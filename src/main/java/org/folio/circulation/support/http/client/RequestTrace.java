@@ -0,0 +1,218 @@
+package org.folio.circulation.support.http.client;
+
+import java.lang.invoke.MethodHandles;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Compact trace of the requests made via Okapi on behalf of a single request
+ * to the module, e.g. the storage calls made during a check out, identified
+ * by the X-Okapi-Request-Id of the incoming request
+ *
+ * The trace is logged as a single line when the incoming request takes
+ * longer than the threshold configured using the
+ * slowRequestThresholdMilliseconds property of the verticle configuration
+ * (default 1000, 0 to disable)
+ */
+public class RequestTrace {
+  private static final Logger log = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+  private static final long DEFAULT_SLOW_REQUEST_THRESHOLD_MILLISECONDS = 1000;
+
+  private static final RequestTrace NOT_TRACED = new RequestTrace(null, null, null, null);
+
+  private static volatile long slowRequestThresholdMilliseconds
+    = DEFAULT_SLOW_REQUEST_THRESHOLD_MILLISECONDS;
+
+  private final String requestId;
+  private final String tenantId;
+  private final String method;
+  private final String path;
+  private final long startTime = System.nanoTime();
+  private final AtomicInteger inFlight = new AtomicInteger();
+  private final List<Call> calls = new ArrayList<>();
+
+  public RequestTrace(String requestId, String tenantId, String method,
+    String path) {
+
+    this.requestId = requestId;
+    this.tenantId = tenantId;
+    this.method = method;
+    this.path = path;
+  }
+
+  public static RequestTrace notTraced() {
+    return NOT_TRACED;
+  }
+
+  public static void configure(JsonObject verticleConfiguration) {
+    slowRequestThresholdMilliseconds = verticleConfiguration.getLong(
+      "slowRequestThresholdMilliseconds", DEFAULT_SLOW_REQUEST_THRESHOLD_MILLISECONDS);
+  }
+
+  Call start(HttpMethod callMethod, String url) {
+    if (this == NOT_TRACED) {
+      return null;
+    }
+
+    final Call call = new Call(callMethod.name(),
+      StorageRequestMetrics.normalizePath(pathOf(url)),
+      System.nanoTime() - startTime, inFlight.incrementAndGet());
+
+    synchronized (calls) {
+      calls.add(call);
+    }
+
+    return call;
+  }
+
+  /**
+   * Logs the trace when the incoming request took longer than the threshold
+   *
+   * @param statusCode status code of the response to the incoming request
+   */
+  public void finished(int statusCode) {
+    if (this == NOT_TRACED || slowRequestThresholdMilliseconds <= 0) {
+      return;
+    }
+
+    final long durationMilliseconds = elapsedMilliseconds(startTime);
+
+    if (durationMilliseconds >= slowRequestThresholdMilliseconds) {
+      log.warn("Slow request: {}", toJson(statusCode, durationMilliseconds).encode());
+    }
+  }
+
+  JsonObject toJson(int statusCode, long durationMilliseconds) {
+    final JsonArray callsJson = new JsonArray();
+
+    copyOfCalls().forEach(call -> callsJson.add(call.toJson()));
+
+    return new JsonObject()
+      .put("requestId", requestId)
+      .put("tenant", tenantId)
+      .put("method", method)
+      .put("path", path)
+      .put("status", statusCode)
+      .put("ms", durationMilliseconds)
+      .put("storageCalls", callsJson.size())
+      .put("calls", callsJson);
+  }
+
+  /**
+   * Describes the calls briefly, e.g. for a response header, each call is
+   * described as method, path, status, size, duration, when it started
+   * and how many calls were in progress, e.g.
+   * GET /item-storage/items/{id} 200 1510B 12ms @3ms x2
+   */
+  public String describe() {
+    return copyOfCalls().stream()
+      .map(Call::describe)
+      .collect(Collectors.joining("; "));
+  }
+
+  private List<Call> copyOfCalls() {
+    synchronized (calls) {
+      return new ArrayList<>(calls);
+    }
+  }
+
+  private static String pathOf(String url) {
+    final int schemeEnd = url.indexOf("://");
+
+    if (schemeEnd == -1) {
+      return url;
+    }
+
+    final int pathStart = url.indexOf('/', schemeEnd + 3);
+
+    return pathStart == -1 ? "/" : url.substring(pathStart);
+  }
+
+  private static long elapsedMilliseconds(long since) {
+    return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - since);
+  }
+
+  /**
+   * A single request made via Okapi, the duration is until the response
+   * headers are received, and the size is taken from the Content-Length
+   * header (when provided)
+   */
+  class Call {
+    private final String callMethod;
+    private final String callPath;
+    private final long startedAtNanoseconds;
+    private final int concurrentCalls;
+    private volatile String status = "pending";
+    private volatile long bytes = -1;
+    private volatile long durationMilliseconds = -1;
+    private final AtomicBoolean finished = new AtomicBoolean();
+
+    private Call(String callMethod, String callPath, long startedAtNanoseconds,
+      int concurrentCalls) {
+
+      this.callMethod = callMethod;
+      this.callPath = callPath;
+      this.startedAtNanoseconds = startedAtNanoseconds;
+      this.concurrentCalls = concurrentCalls;
+    }
+
+    void responded(int statusCode, String contentLength) {
+      try {
+        bytes = contentLength == null ? -1 : Long.parseLong(contentLength);
+      }
+      catch (NumberFormatException e) {
+        bytes = -1;
+      }
+
+      finish(Integer.toString(statusCode));
+    }
+
+    void failed() {
+      finish("failed");
+    }
+
+    private void finish(String finalStatus) {
+      if (!finished.compareAndSet(false, true)) {
+        return;
+      }
+
+      durationMilliseconds = elapsedMilliseconds(startTime + startedAtNanoseconds);
+      status = finalStatus;
+      inFlight.decrementAndGet();
+    }
+
+    private JsonObject toJson() {
+      final JsonObject json = new JsonObject()
+        .put("method", callMethod)
+        .put("path", callPath)
+        .put("status", status)
+        .put("startMs", TimeUnit.NANOSECONDS.toMillis(startedAtNanoseconds))
+        .put("ms", durationMilliseconds)
+        .put("concurrent", concurrentCalls);
+
+      if (bytes >= 0) {
+        json.put("bytes", bytes);
+      }
+
+      return json;
+    }
+
+    private String describe() {
+      return String.format("%s %s %s %sB %sms @%sms x%s", callMethod, callPath,
+        status, bytes >= 0 ? bytes : "?", durationMilliseconds,
+        TimeUnit.NANOSECONDS.toMillis(startedAtNanoseconds), concurrentCalls);
+    }
+  }
+}
@@ -8,6 +8,7 @@ import java.util.Map;
 import java.util.function.Function;
 
 import org.folio.circulation.support.Result;
+import org.folio.circulation.support.StorageUnavailableFailure;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -73,6 +74,11 @@ public class ResponseInterpreter<T> {
       "HTTP request to \"%s\" failed, status code: %s, response: \"%s\"",
       response.getFromUrl(), response.getStatusCode(), response.getBody());
 
+    // server errors from other modules suggest they are unavailable
+    if (response.getStatusCode() >= 500) {
+      return Result.failed(new StorageUnavailableFailure(diagnosticError));
+    }
+
     return failedDueToServerError(diagnosticError);
   }
 }
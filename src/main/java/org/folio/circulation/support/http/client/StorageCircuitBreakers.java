@@ -0,0 +1,339 @@
+package org.folio.circulation.support.http.client;
+
+import static java.lang.String.format;
+import static org.folio.circulation.support.metrics.MetricsRegistry.getMetricsRegistry;
+
+import java.lang.invoke.MethodHandles;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongSupplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Limits the requests made via Okapi to each interface (e.g. /users or
+ * /item-storage) for each tenant, so that one slow interface for one tenant
+ * cannot occupy the whole HTTP client pool
+ *
+ * Each tenant and interface has a bulkhead (a limit on the number of requests
+ * in progress at the same time) and a circuit breaker. The circuit opens after
+ * a number of consecutive failures (no response, including timeouts, or a
+ * 502, 503 or 504 response), requests fail fast while it is open, and after
+ * a period a single probe request is allowed (half open), which closes the
+ * circuit when it succeeds
+ *
+ * Breakers are only enabled when every request has a timeout (see
+ * {@link HttpClientConfiguration}), as a request which never receives a
+ * response would otherwise hold its place in the bulkhead forever. A probe
+ * still waiting once its timeout has passed is treated as having failed,
+ * so that the circuit cannot be left half open
+ *
+ * Unless enabled in the storageCircuitBreakers property, every request is
+ * made, however many are in progress and however many have failed, e.g.
+ *
+ * <pre>
+ * "storageCircuitBreakers" : {
+ *   "enabled" : true,
+ *   "maximumConcurrentRequests" : 50,
+ *   "failureThreshold" : 5,
+ *   "openMilliseconds" : 10000
+ * }
+ * </pre>
+ */
+public class StorageCircuitBreakers {
+  private static final Logger log = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+  private static final int DEFAULT_MAXIMUM_CONCURRENT_REQUESTS = 50;
+  private static final int DEFAULT_FAILURE_THRESHOLD = 5;
+  private static final long DEFAULT_OPEN_MILLISECONDS = 10000;
+
+  private static final StorageCircuitBreakers DISABLED = new StorageCircuitBreakers(
+    false, DEFAULT_MAXIMUM_CONCURRENT_REQUESTS, DEFAULT_FAILURE_THRESHOLD,
+    DEFAULT_OPEN_MILLISECONDS, System::nanoTime);
+
+  private static volatile StorageCircuitBreakers instance = DISABLED;
+
+  private final boolean enabled;
+  private final int maximumConcurrentRequests;
+  private final int failureThreshold;
+  private final long openNanoseconds;
+  private final LongSupplier clock;
+  private final Map<String, CircuitBreaker> breakers = new ConcurrentHashMap<>();
+
+  StorageCircuitBreakers(boolean enabled, int maximumConcurrentRequests,
+    int failureThreshold, long openMilliseconds, LongSupplier clock) {
+
+    this.enabled = enabled;
+    this.maximumConcurrentRequests = maximumConcurrentRequests;
+    this.failureThreshold = failureThreshold;
+    this.openNanoseconds = TimeUnit.MILLISECONDS.toNanos(openMilliseconds);
+    this.clock = clock;
+  }
+
+  static StorageCircuitBreakers getStorageCircuitBreakers() {
+    return instance;
+  }
+
+  public static void configure(JsonObject verticleConfiguration) {
+    final JsonObject configuration = verticleConfiguration
+      .getJsonObject("storageCircuitBreakers", new JsonObject());
+
+    if (!configuration.getBoolean("enabled", false)) {
+      instance = DISABLED;
+      return;
+    }
+
+    if (!HttpClientConfiguration.from(verticleConfiguration).hasTimeoutForEveryRequest()) {
+      log.error("Storage circuit breakers are not enabled, as not every request "
+        + "has a timeout (0 is configured in httpClient timeouts)");
+
+      instance = DISABLED;
+      return;
+    }
+
+    instance = new StorageCircuitBreakers(true,
+      configuration.getInteger("maximumConcurrentRequests",
+        DEFAULT_MAXIMUM_CONCURRENT_REQUESTS),
+      configuration.getInteger("failureThreshold", DEFAULT_FAILURE_THRESHOLD),
+      configuration.getLong("openMilliseconds", DEFAULT_OPEN_MILLISECONDS),
+      System::nanoTime);
+  }
+
+  /**
+   * Take a permit to make a request, the permit must be released once the
+   * request has finished
+   *
+   * @param tenantId tenant the request is made for
+   * @param url URL of the request
+   * @param timeoutMilliseconds timeout of the request
+   * @return permit, which may have been rejected
+   */
+  Permit acquire(String tenantId, String url, int timeoutMilliseconds) {
+    if (!enabled) {
+      return Permit.NOT_LIMITED;
+    }
+
+    final String storageInterface = interfaceOf(url);
+
+    final CircuitBreaker breaker = breakers.computeIfAbsent(
+      tenantId + " " + storageInterface,
+      notUsed -> new CircuitBreaker(tenantId, storageInterface));
+
+    return breaker.acquire(TimeUnit.MILLISECONDS.toNanos(timeoutMilliseconds));
+  }
+
+  /**
+   * The interface is the first segment of the path,
+   * e.g. /item-storage for /item-storage/items/{id}
+   */
+  static String interfaceOf(String url) {
+    final String path = StorageRequestMetrics.normalizePath(pathOf(url));
+
+    final int secondSegment = path.indexOf('/', 1);
+
+    return secondSegment == -1 ? path : path.substring(0, secondSegment);
+  }
+
+  private static String pathOf(String url) {
+    final int schemeEnd = url.indexOf("://");
+
+    if (schemeEnd == -1) {
+      return url;
+    }
+
+    final int pathStart = url.indexOf('/', schemeEnd + 3);
+
+    return pathStart == -1 ? "/" : url.substring(pathStart);
+  }
+
+  private static boolean isUnavailable(int statusCode) {
+    return statusCode == 502 || statusCode == 503 || statusCode == 504;
+  }
+
+  enum State {
+    CLOSED(0), HALF_OPEN(1), OPEN(2);
+
+    private final int value;
+
+    State(int value) {
+      this.value = value;
+    }
+  }
+
+  private class CircuitBreaker {
+    private final String tenantId;
+    private final String storageInterface;
+    private State state = State.CLOSED;
+    private int inFlight;
+    private int consecutiveFailures;
+    private long openedAt;
+    private Permit probe;
+    private long probeDeadline;
+
+    private CircuitBreaker(String tenantId, String storageInterface) {
+      this.tenantId = tenantId;
+      this.storageInterface = storageInterface;
+
+      getMetricsRegistry().computedGauge("circulation_storage_circuit_state",
+        "State of the circuit breaker for a storage interface (0 closed, 1 half open, 2 open)",
+        this::stateValue, "tenant", tenantId, "interface", storageInterface);
+
+      getMetricsRegistry().computedGauge("circulation_storage_bulkhead_in_flight",
+        "Requests in progress to a storage interface, limited by the bulkhead",
+        this::inFlightValue, "tenant", tenantId, "interface", storageInterface);
+    }
+
+    private Permit acquire(long timeoutNanoseconds) {
+      final String rejection;
+      final Permit permit;
+
+      synchronized (this) {
+        rejection = tryAcquire();
+        permit = rejection == null ? new Permit(this, null) : null;
+
+        if (permit != null && state == State.HALF_OPEN) {
+          probe = permit;
+          probeDeadline = clock.getAsLong() + timeoutNanoseconds;
+        }
+      }
+
+      if (rejection != null) {
+        getMetricsRegistry().counter("circulation_storage_requests_rejected_total",
+          "Requests to a storage interface which were not made",
+          "tenant", tenantId, "interface", storageInterface, "reason", rejection)
+          .increment();
+
+        return new Permit(null, format(
+          "Requests to %s for tenant %s are not being made (%s)",
+          storageInterface, tenantId, rejection.replace('_', ' ')));
+      }
+
+      return permit;
+    }
+
+    private String tryAcquire() {
+      if (state == State.OPEN) {
+        if (clock.getAsLong() - openedAt < openNanoseconds) {
+          return "circuit_open";
+        }
+
+        state = State.HALF_OPEN;
+      }
+
+      if (state == State.HALF_OPEN && probe != null) {
+        if (clock.getAsLong() - probeDeadline >= 0) {
+          abandonProbe();
+        }
+
+        return "circuit_open";
+      }
+
+      if (maximumConcurrentRequests > 0 && inFlight >= maximumConcurrentRequests) {
+        return "bulkhead_full";
+      }
+
+      inFlight++;
+
+      return null;
+    }
+
+    private synchronized void release(boolean succeeded) {
+      inFlight--;
+
+      if (succeeded) {
+        consecutiveFailures = 0;
+
+        if (state != State.CLOSED) {
+          log.info("Closing circuit for {} for tenant {}", storageInterface, tenantId);
+        }
+
+        state = State.CLOSED;
+        probe = null;
+        return;
+      }
+
+      consecutiveFailures++;
+
+      if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+        if (state != State.OPEN) {
+          log.warn("Opening circuit for {} for tenant {} after {} failures",
+            storageInterface, tenantId, consecutiveFailures);
+        }
+
+        state = State.OPEN;
+        openedAt = clock.getAsLong();
+        probe = null;
+      }
+    }
+
+    /**
+     * The probe has not received a response within its timeout, so is
+     * released as having failed (reopening the circuit), and releasing
+     * it again once it does finish has no effect
+     */
+    private void abandonProbe() {
+      log.warn("Probe for {} for tenant {} has not finished within its timeout",
+        storageInterface, tenantId);
+
+      if (probe.markReleased()) {
+        release(false);
+      }
+    }
+
+    private synchronized long stateValue() {
+      return state.value;
+    }
+
+    private synchronized long inFlightValue() {
+      return inFlight;
+    }
+  }
+
+  /**
+   * Permission to make a single request, released once, when the response
+   * is received or the request fails
+   */
+  static class Permit {
+    private static final Permit NOT_LIMITED = new Permit(null, null);
+
+    private final CircuitBreaker breaker;
+    private final String rejection;
+    private final AtomicBoolean released = new AtomicBoolean();
+
+    private Permit(CircuitBreaker breaker, String rejection) {
+      this.breaker = breaker;
+      this.rejection = rejection;
+    }
+
+    boolean isRejected() {
+      return rejection != null;
+    }
+
+    String getRejection() {
+      return rejection;
+    }
+
+    void responded(int statusCode) {
+      release(!isUnavailable(statusCode));
+    }
+
+    void failed() {
+      release(false);
+    }
+
+    private void release(boolean succeeded) {
+      if (breaker != null && markReleased()) {
+        breaker.release(succeeded);
+      }
+    }
+
+    private boolean markReleased() {
+      return released.compareAndSet(false, true);
+    }
+  }
+}
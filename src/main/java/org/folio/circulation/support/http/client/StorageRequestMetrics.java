@@ -0,0 +1,141 @@
+package org.folio.circulation.support.http.client;
+
+import static org.folio.circulation.support.metrics.KnownTenants.getKnownTenants;
+import static org.folio.circulation.support.metrics.MetricsRegistry.getMetricsRegistry;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+import org.folio.circulation.support.metrics.MetricsRegistry;
+
+import io.vertx.core.http.HttpMethod;
+
+/**
+ * Records connection pool occupancy, connection wait time and latency
+ * (per path and tenant) for a single request made via Okapi
+ */
+class StorageRequestMetrics {
+  private static final Pattern UUID_SEGMENT = Pattern.compile(
+    "/[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}(?=/|$)");
+
+  private final String method;
+  private final String path;
+  private final String tenant;
+  private final AtomicLong inFlight;
+  private final AtomicLong waitingForConnection;
+  private final String destination;
+  private final long startTime = System.nanoTime();
+  private final AtomicBoolean connected = new AtomicBoolean();
+  private final AtomicBoolean finished = new AtomicBoolean();
+
+  private StorageRequestMetrics(HttpMethod method, String url, String tenant) {
+    final MetricsRegistry registry = getMetricsRegistry();
+
+    this.method = method.name();
+    this.tenant = getKnownTenants().labelFor(tenant);
+
+    final URL parsedUrl = parse(url);
+
+    this.path = normalizePath(parsedUrl == null ? url : parsedUrl.getPath());
+    this.destination = parsedUrl == null
+      ? "unknown"
+      : parsedUrl.getHost() + ":" + parsedUrl.getPort();
+
+    inFlight = registry.gauge("circulation_http_client_requests_in_flight",
+      "Requests sent via Okapi that have not yet received a response",
+      "destination", destination);
+
+    waitingForConnection = registry.gauge(
+      "circulation_http_client_requests_waiting_for_connection",
+      "Requests waiting for a connection from the HTTP client pool",
+      "destination", destination);
+
+    inFlight.incrementAndGet();
+    waitingForConnection.incrementAndGet();
+  }
+
+  static StorageRequestMetrics start(HttpMethod method, String url,
+    String tenant) {
+
+    return new StorageRequestMetrics(method, url, tenant);
+  }
+
+  static void registerPoolSize(int maxPoolSize) {
+    getMetricsRegistry().computedGauge("circulation_http_client_max_pool_size",
+      "Maximum number of connections per destination in the HTTP client pool",
+      () -> maxPoolSize);
+  }
+
+  void connected() {
+    if (connected.compareAndSet(false, true)) {
+      waitingForConnection.decrementAndGet();
+
+      getMetricsRegistry().histogram("circulation_http_client_connection_wait_seconds",
+        "Time waiting for a connection from the HTTP client pool",
+        "destination", destination)
+        .recordSince(startTime);
+    }
+  }
+
+  void responded() {
+    if (finish()) {
+      getMetricsRegistry().histogram("circulation_storage_request_duration_seconds",
+        "Time until a response is received for requests made via Okapi",
+        "method", method, "path", path, "tenant", tenant)
+        .recordSince(startTime);
+    }
+  }
+
+  void failed() {
+    if (finish()) {
+      getMetricsRegistry().counter("circulation_storage_request_failures_total",
+        "Requests made via Okapi that failed without a response (including timeouts)",
+        "method", method, "path", path, "tenant", tenant)
+        .increment();
+    }
+  }
+
+  private boolean finish() {
+    if (!finished.compareAndSet(false, true)) {
+      return false;
+    }
+
+    if (connected.compareAndSet(false, true)) {
+      waitingForConnection.decrementAndGet();
+    }
+
+    inFlight.decrementAndGet();
+
+    return true;
+  }
+
+  /**
+   * Replaces record IDs in a path so that requests for different records
+   * of the same type are recorded together,
+   * e.g. /item-storage/items/{id} rather than one path per item
+   *
+   * @param path path of the request, without query string
+   * @return path with IDs replaced by {id}
+   */
+  static String normalizePath(String path) {
+    final int queryStart = path.indexOf('?');
+
+    final String withoutQuery = queryStart == -1
+      ? path
+      : path.substring(0, queryStart);
+
+    return UUID_SEGMENT.matcher(withoutQuery).replaceAll("/{id}");
+  }
+
+  private static URL parse(String url) {
+    try {
+      return new URL(url);
+    }
+    catch (MalformedURLException e) {
+      return null;
+    }
+  }
+}
@@ -0,0 +1,11 @@
+package org.folio.circulation.support.http.client;
+
+/**
+ * A request was not made via Okapi, because the circuit for the interface
+ * is open or too many requests to it are already in progress
+ */
+public class StorageUnavailableException extends RuntimeException {
+  public StorageUnavailableException(String message) {
+    super(message);
+  }
+}
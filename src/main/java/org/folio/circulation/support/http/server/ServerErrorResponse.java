@@ -7,7 +7,17 @@ public class ServerErrorResponse {
   private ServerErrorResponse() { }
 
   public static void internalError(HttpServerResponse response, String reason) {
-    response.setStatusCode(500);
+    serverError(response, 500, reason);
+  }
+
+  public static void serviceUnavailable(HttpServerResponse response, String reason) {
+    serverError(response, 503, reason);
+  }
+
+  private static void serverError(HttpServerResponse response, int statusCode,
+    String reason) {
+
+    response.setStatusCode(statusCode);
 
     response.putHeader("content-type", ContentType.TEXT_PLAIN.toString());
 
@@ -6,16 +6,27 @@ import static org.folio.circulation.support.http.OkapiHeader.TENANT;
 import static org.folio.circulation.support.http.OkapiHeader.TOKEN;
 import static org.folio.circulation.support.http.OkapiHeader.USER_ID;
 
-import java.net.MalformedURLException;
 import java.net.URL;
+import java.util.stream.Collectors;
 
-import org.folio.circulation.support.InvalidOkapiLocationException;
+import org.folio.circulation.support.IdentityMap;
+import org.folio.circulation.support.Includes;
 import org.folio.circulation.support.http.client.OkapiHttpClient;
+import org.folio.circulation.support.http.client.OkapiUrls;
+import org.folio.circulation.support.http.client.RequestTrace;
+import org.folio.circulation.support.http.client.StorageUnavailableException;
 
 import io.vertx.core.http.HttpClient;
+import io.vertx.core.http.HttpServerResponse;
 import io.vertx.ext.web.RoutingContext;
 
 public class WebContext {
+  private static final String IDENTITY_MAP_KEY = "identityMap";
+  private static final String REQUEST_TRACE_KEY = "requestTrace";
+  private static final String DEBUG_HEADER = "X-Circulation-Debug";
+  private static final String DEDUPLICATED_FETCHES_HEADER = "X-Circulation-Deduplicated-Fetches";
+  private static final String STORAGE_TRACE_HEADER = "X-Circulation-Storage-Trace";
+
   private final RoutingContext routingContext;
 
   public WebContext(RoutingContext routingContext) {
@@ -66,29 +77,135 @@ public class WebContext {
     return value != null ? value : defaultValue;
   }
 
-  public URL getOkapiBasedUrl(String path)
-    throws MalformedURLException {
+  /**
+   * Related records to include in the response, from the include parameter
+   * (or the fields parameter when include is not provided)
+   *
+   * @return the related records to include, all when neither is provided
+   */
+  public Includes getIncludes() {
+    return Includes.fromParameter(getStringParameter(Includes.PARAMETER_NAME,
+      getStringParameter(Includes.FIELDS_PARAMETER_NAME, null)));
+  }
 
-    URL currentRequestUrl = new URL(getOkapiLocation());
+  /**
+   * @return the raw query string of the request, without the include
+   * and fields parameters, so that it can be passed on to a storage module
+   */
+  public String getQueryWithoutIncludes() {
+    return Includes.removeParameter(routingContext.request().query());
+  }
 
-    return new URL(currentRequestUrl.getProtocol(), currentRequestUrl.getHost(),
-      currentRequestUrl.getPort(), path);
+  public URL getOkapiBasedUrl(String path) {
+    return getOkapiUrls().forPath(path);
   }
 
-  public OkapiHttpClient createHttpClient(HttpClient httpClient) {
-    URL okapiUrl;
+  public OkapiUrls getOkapiUrls() {
+    return OkapiUrls.forLocation(getOkapiLocation());
+  }
+
+  /**
+   * Records fetched during this request, shared by all clients for the request
+   *
+   * When the request includes the X-Circulation-Debug header, the number of
+   * fetches avoided is included in the X-Circulation-Deduplicated-Fetches
+   * header of the response
+   *
+   * @return the identity map for this request
+   */
+  public IdentityMap getIdentityMap() {
+    synchronized (routingContext) {
+      return getOrCreateIdentityMap();
+    }
+  }
+
+  private IdentityMap getOrCreateIdentityMap() {
+    IdentityMap identityMap = routingContext.get(IDENTITY_MAP_KEY);
+
+    if (identityMap == null) {
+      identityMap = new IdentityMap();
+
+      routingContext.put(IDENTITY_MAP_KEY, identityMap);
+
+      if (hasHeader(DEBUG_HEADER)) {
+        final IdentityMap finalIdentityMap = identityMap;
+
+        routingContext.addHeadersEndHandler(notUsed ->
+          routingContext.response().putHeader(DEDUPLICATED_FETCHES_HEADER,
+            describe(finalIdentityMap)));
+      }
+    }
+
+    return identityMap;
+  }
+
+  private static String describe(IdentityMap identityMap) {
+    return identityMap.getDeduplicatedFetches().entrySet().stream()
+      .map(entry -> entry.getKey() + "=" + entry.getValue())
+      .collect(Collectors.joining(", "));
+  }
 
-    try {
-      okapiUrl = new URL(getOkapiLocation());
+  /**
+   * Requests made via Okapi during this request, logged when this request is
+   * slow, see {@link RequestTrace}
+   *
+   * When the request includes the X-Circulation-Debug header, the trace is
+   * included in the X-Circulation-Storage-Trace header of the response
+   *
+   * @return the trace for this request
+   */
+  public RequestTrace getRequestTrace() {
+    synchronized (routingContext) {
+      return getOrCreateRequestTrace();
     }
-    catch(MalformedURLException e) {
-      throw new InvalidOkapiLocationException(getOkapiLocation(), e);
+  }
+
+  private RequestTrace getOrCreateRequestTrace() {
+    RequestTrace trace = routingContext.get(REQUEST_TRACE_KEY);
+
+    if (trace == null) {
+      trace = new RequestTrace(getRequestId(), getTenantId(),
+        routingContext.request().method().name(), routingContext.request().path());
+
+      routingContext.put(REQUEST_TRACE_KEY, trace);
+
+      final RequestTrace finalTrace = trace;
+
+      routingContext.addBodyEndHandler(notUsed ->
+        finalTrace.finished(routingContext.response().getStatusCode()));
+
+      if (hasHeader(DEBUG_HEADER)) {
+        routingContext.addHeadersEndHandler(notUsed ->
+          routingContext.response().putHeader(STORAGE_TRACE_HEADER,
+            finalTrace.describe()));
+      }
     }
 
+    return trace;
+  }
+
+  public OkapiHttpClient createHttpClient(HttpClient httpClient) {
     return new OkapiHttpClient(httpClient,
-      okapiUrl, getTenantId(), getOkapiToken(), getUserId(),
-      getRequestId(), exception -> ServerErrorResponse.internalError(routingContext.response(),
-        String.format("Failed to contact storage module: %s",
-          exception.toString())));
+      getOkapiUrls().getOkapiUrl(), getTenantId(), getOkapiToken(), getUserId(),
+      getRequestId(), this::failedToContactStorage, getRequestTrace());
+  }
+
+  private void failedToContactStorage(Throwable exception) {
+    final HttpServerResponse response = routingContext.response();
+
+    // a response may already have been written for an earlier failure
+    if (response.ended()) {
+      return;
+    }
+
+    final String reason = String.format("Failed to contact storage module: %s",
+      exception.toString());
+
+    if (exception instanceof StorageUnavailableException) {
+      ServerErrorResponse.serviceUnavailable(response, reason);
+    }
+    else {
+      ServerErrorResponse.internalError(response, reason);
+    }
   }
 }
@@ -0,0 +1,102 @@
+package org.folio.circulation.support.metrics;
+
+import static org.folio.circulation.support.metrics.MetricsRegistry.getMetricsRegistry;
+
+import java.lang.invoke.MethodHandles;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.vertx.core.AbstractVerticle;
+import io.vertx.core.VertxOptions;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Measures how late a periodic timer fires on an event loop, which indicates
+ * how long the handling of connections and responses waits because the event
+ * loop is busy (e.g. decoding large responses)
+ *
+ * The circulation verticle is deployed as a worker, so its own timers would
+ * measure the worker pool rather than the event loops. Instead, this verticle
+ * is deployed (not as a worker) once for each event loop, and each instance
+ * is labelled with the name of the event loop thread it runs on, which does
+ * not change for the life of the process
+ *
+ * The interval is configured using the eventLoopLagIntervalMilliseconds
+ * property of the verticle configuration, with 0 disabling the measurement
+ */
+public class EventLoopLagMonitor extends AbstractVerticle {
+  private static final Logger log = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+  private static final long DEFAULT_INTERVAL_MILLISECONDS = 1000;
+
+  private long intervalNanoseconds;
+  private AtomicLong latestLag;
+  private Histogram lag;
+  private long expectedTime;
+  private long timerId = -1;
+
+  public static boolean isEnabled(JsonObject verticleConfiguration) {
+    return intervalMilliseconds(verticleConfiguration) > 0;
+  }
+
+  /**
+   * @return the number of instances needed for every event loop to be measured
+   */
+  public static int instances() {
+    return VertxOptions.DEFAULT_EVENT_LOOP_POOL_SIZE;
+  }
+
+  @Override
+  public void start() {
+    final long intervalMilliseconds = intervalMilliseconds(config());
+
+    if (intervalMilliseconds <= 0) {
+      return;
+    }
+
+    if (!context.isEventLoopContext()) {
+      log.warn("Event loop lag is not measured, as not deployed on an event loop");
+      return;
+    }
+
+    final String eventLoop = Thread.currentThread().getName();
+
+    intervalNanoseconds = TimeUnit.MILLISECONDS.toNanos(intervalMilliseconds);
+
+    latestLag = getMetricsRegistry().gauge("circulation_event_loop_lag_milliseconds",
+      "Most recent delay of a periodic timer on an event loop",
+      "eventLoop", eventLoop);
+
+    lag = getMetricsRegistry().histogram("circulation_event_loop_lag_seconds",
+      "Delay of a periodic timer on an event loop", "eventLoop", eventLoop);
+
+    expectedTime = System.nanoTime() + intervalNanoseconds;
+    timerId = vertx.setPeriodic(intervalMilliseconds, id -> measure());
+  }
+
+  @Override
+  public void stop() {
+    if (timerId != -1) {
+      vertx.cancelTimer(timerId);
+      timerId = -1;
+    }
+  }
+
+  private void measure() {
+    final long now = System.nanoTime();
+    final long lagNanoseconds = Math.max(0, now - expectedTime);
+
+    lag.recordNanoseconds(lagNanoseconds);
+    latestLag.set(TimeUnit.NANOSECONDS.toMillis(lagNanoseconds));
+
+    expectedTime = now + intervalNanoseconds;
+  }
+
+  private static long intervalMilliseconds(JsonObject verticleConfiguration) {
+    return verticleConfiguration.getLong("eventLoopLagIntervalMilliseconds",
+      DEFAULT_INTERVAL_MILLISECONDS);
+  }
+}
@@ -0,0 +1,63 @@
+package org.folio.circulation.support.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histogram with fixed, cumulative buckets (in seconds),
+ * matching the Prometheus histogram representation
+ */
+public class Histogram {
+  static final double[] DEFAULT_BUCKETS = {
+    0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10 };
+
+  private final double[] upperBounds;
+  private final LongAdder[] bucketCounts;
+  private final LongAdder count = new LongAdder();
+  private final LongAdder sumInMicroseconds = new LongAdder();
+
+  Histogram() {
+    this(DEFAULT_BUCKETS);
+  }
+
+  Histogram(double[] upperBounds) {
+    this.upperBounds = upperBounds.clone();
+    this.bucketCounts = new LongAdder[upperBounds.length];
+
+    for (int index = 0; index < upperBounds.length; index++) {
+      bucketCounts[index] = new LongAdder();
+    }
+  }
+
+  public void recordNanoseconds(long durationInNanoseconds) {
+    final double seconds = durationInNanoseconds / 1_000_000_000d;
+
+    for (int index = 0; index < upperBounds.length; index++) {
+      if (seconds <= upperBounds[index]) {
+        bucketCounts[index].increment();
+      }
+    }
+
+    count.increment();
+    sumInMicroseconds.add(durationInNanoseconds / 1_000);
+  }
+
+  public void recordSince(long startNanoseconds) {
+    recordNanoseconds(System.nanoTime() - startNanoseconds);
+  }
+
+  double[] getUpperBounds() {
+    return upperBounds.clone();
+  }
+
+  long getBucketCount(int index) {
+    return bucketCounts[index].sum();
+  }
+
+  public long getCount() {
+    return count.sum();
+  }
+
+  public double getSumInSeconds() {
+    return sumInMicroseconds.sum() / 1_000_000d;
+  }
+}
@@ -0,0 +1,77 @@
+package org.folio.circulation.support.metrics;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Tenants which can be used as the value of a metric label, any other
+ * tenant is labelled as unknown, so that requests with made up tenants
+ * cannot each create new metrics
+ *
+ * This module is not told which tenants are enabled for it, so a tenant
+ * becomes known once a request to the module for it has succeeded, as
+ * requests for tenants which are not enabled are refused by Okapi or fail
+ * in storage. Only a limited number of tenants become known, as requests
+ * made directly to the module are not checked by Okapi
+ */
+public class KnownTenants {
+  private static final String UNKNOWN_TENANT = "unknown";
+  private static final int MAXIMUM_TENANTS = 100;
+  private static final Pattern VALID_TENANT_ID = Pattern.compile("[A-Za-z0-9_-]+");
+
+  private static final KnownTenants instance = new KnownTenants(MAXIMUM_TENANTS);
+
+  private final int maximumTenants;
+  private final Set<String> tenants = ConcurrentHashMap.newKeySet();
+
+  KnownTenants(int maximumTenants) {
+    this.maximumTenants = maximumTenants;
+  }
+
+  public static KnownTenants getKnownTenants() {
+    return instance;
+  }
+
+  /**
+   * @param tenantId tenant of a request, may be null
+   * @return the tenant when known, otherwise unknown
+   */
+  public String labelFor(String tenantId) {
+    return tenantId != null && tenants.contains(tenantId)
+      ? tenantId
+      : UNKNOWN_TENANT;
+  }
+
+  /**
+   * Label for the tenant of a request to the module, which becomes known
+   * when the request succeeded
+   *
+   * @param tenantId tenant of the request, may be null
+   * @param statusCode status code of the response to the request
+   * @return the tenant when known, otherwise unknown
+   */
+  String labelFor(String tenantId, int statusCode) {
+    if (tenantId == null || !VALID_TENANT_ID.matcher(tenantId).matches()) {
+      return UNKNOWN_TENANT;
+    }
+
+    if (tenants.contains(tenantId)) {
+      return tenantId;
+    }
+
+    if (statusCode < 200 || statusCode >= 300) {
+      return UNKNOWN_TENANT;
+    }
+
+    synchronized (tenants) {
+      if (tenants.size() >= maximumTenants) {
+        return UNKNOWN_TENANT;
+      }
+
+      tenants.add(tenantId);
+    }
+
+    return tenantId;
+  }
+}
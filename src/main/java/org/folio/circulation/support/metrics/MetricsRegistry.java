@@ -0,0 +1,201 @@
+package org.folio.circulation.support.metrics;
+
+import static java.lang.String.format;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Process wide registry of the metrics collected by the module,
+ * shared by all verticle instances and rendered in the Prometheus text format
+ *
+ * Metrics are identified by name and pairs of label names and values, e.g.
+ * histogram("circulation_storage_request_duration_seconds", "...", "method", "GET")
+ */
+public class MetricsRegistry {
+  private static final MetricsRegistry INSTANCE = new MetricsRegistry();
+
+  private enum Type {
+    COUNTER("counter"), GAUGE("gauge"), HISTOGRAM("histogram");
+
+    private final String value;
+
+    Type(String value) {
+      this.value = value;
+    }
+  }
+
+  private static class Family {
+    private final String name;
+    private final String help;
+    private final Type type;
+    private final Map<String, Object> metricsByLabels = new ConcurrentSkipListMap<>();
+
+    private Family(String name, String help, Type type) {
+      this.name = name;
+      this.help = help;
+      this.type = type;
+    }
+  }
+
+  private final Map<String, Family> families = new ConcurrentSkipListMap<>();
+
+  private MetricsRegistry() {
+    super();
+  }
+
+  public static MetricsRegistry getMetricsRegistry() {
+    return INSTANCE;
+  }
+
+  public Histogram histogram(String name, String help, String... labels) {
+    return (Histogram) register(name, help, Type.HISTOGRAM, labels,
+      notUsed -> new Histogram());
+  }
+
+  public LongAdder counter(String name, String help, String... labels) {
+    return (LongAdder) register(name, help, Type.COUNTER, labels,
+      notUsed -> new LongAdder());
+  }
+
+  public AtomicLong gauge(String name, String help, String... labels) {
+    return (AtomicLong) register(name, help, Type.GAUGE, labels,
+      notUsed -> new AtomicLong());
+  }
+
+  /**
+   * Registers a gauge whose value is computed when the metrics are rendered,
+   * replacing any gauge previously registered with the same name and labels
+   */
+  public void computedGauge(String name, String help, LongSupplier value,
+    String... labels) {
+
+    family(name, help, Type.GAUGE).metricsByLabels.put(labelsText(labels), value);
+  }
+
+  public String toPrometheusText() {
+    final StringBuilder output = new StringBuilder();
+
+    families.values().forEach(family -> {
+      output.append("# HELP ").append(family.name).append(' ')
+        .append(family.help).append('\n');
+      output.append("# TYPE ").append(family.name).append(' ')
+        .append(family.type.value).append('\n');
+
+      family.metricsByLabels.forEach((labels, metric) ->
+        write(output, family.name, labels, metric));
+    });
+
+    return output.toString();
+  }
+
+  /**
+   * Removes all registered metrics, intended for tests only
+   */
+  public void clear() {
+    families.clear();
+  }
+
+  private Object register(String name, String help, Type type, String[] labels,
+    Function<String, Object> creator) {
+
+    return family(name, help, type).metricsByLabels
+      .computeIfAbsent(labelsText(labels), creator);
+  }
+
+  private Family family(String name, String help, Type type) {
+    final Family family = families.computeIfAbsent(name,
+      notUsed -> new Family(name, help, type));
+
+    if (family.type != type) {
+      throw new IllegalArgumentException(format(
+        "Metric %s is already registered as a %s", name, family.type.value));
+    }
+
+    return family;
+  }
+
+  private static void write(StringBuilder output, String name, String labels,
+    Object metric) {
+
+    if (metric instanceof Histogram) {
+      final Histogram histogram = (Histogram) metric;
+      final double[] upperBounds = histogram.getUpperBounds();
+
+      for (int index = 0; index < upperBounds.length; index++) {
+        writeSample(output, name + "_bucket",
+          withLabel(labels, "le", Double.toString(upperBounds[index])),
+          Long.toString(histogram.getBucketCount(index)));
+      }
+
+      writeSample(output, name + "_bucket", withLabel(labels, "le", "+Inf"),
+        Long.toString(histogram.getCount()));
+      writeSample(output, name + "_sum", labels,
+        Double.toString(histogram.getSumInSeconds()));
+      writeSample(output, name + "_count", labels,
+        Long.toString(histogram.getCount()));
+    }
+    else if (metric instanceof LongAdder) {
+      writeSample(output, name, labels, Long.toString(((LongAdder) metric).sum()));
+    }
+    else if (metric instanceof AtomicLong) {
+      writeSample(output, name, labels, Long.toString(((AtomicLong) metric).get()));
+    }
+    else if (metric instanceof LongSupplier) {
+      writeSample(output, name, labels,
+        Long.toString(((LongSupplier) metric).getAsLong()));
+    }
+  }
+
+  private static void writeSample(StringBuilder output, String name,
+    String labels, String value) {
+
+    output.append(name);
+
+    if (!labels.isEmpty()) {
+      output.append('{').append(labels).append('}');
+    }
+
+    output.append(' ').append(value).append('\n');
+  }
+
+  private static String withLabel(String labels, String name, String value) {
+    final String label = labelsText(name, value);
+
+    return labels.isEmpty() ? label : labels + "," + label;
+  }
+
+  private static String labelsText(String... labels) {
+    if (labels.length % 2 != 0) {
+      throw new IllegalArgumentException(
+        "Labels must be provided as pairs of names and values");
+    }
+
+    final StringBuilder text = new StringBuilder();
+
+    for (int index = 0; index < labels.length; index += 2) {
+      if (text.length() > 0) {
+        text.append(',');
+      }
+
+      text.append(labels[index]).append("=\"")
+        .append(escape(labels[index + 1])).append('"');
+    }
+
+    return text.toString();
+  }
+
+  private static String escape(String value) {
+    if (value == null) {
+      return "";
+    }
+
+    return value.replace("\\", "\\\\")
+      .replace("\"", "\\\"")
+      .replace("\n", "\\n");
+  }
+}
@@ -0,0 +1,73 @@
+package org.folio.circulation.support.metrics;
+
+import static org.folio.circulation.support.metrics.KnownTenants.getKnownTenants;
+import static org.folio.circulation.support.metrics.MetricsRegistry.getMetricsRegistry;
+
+import org.folio.circulation.support.http.OkapiHeader;
+
+import io.vertx.ext.web.Route;
+import io.vertx.ext.web.Router;
+import io.vertx.ext.web.RoutingContext;
+
+/**
+ * Records the number of requests and latency for each route registered by
+ * the module, e.g. /circulation/loans/:id, per method and tenant
+ *
+ * Requests which do not match any route are recorded together, so that
+ * arbitrary paths do not each create a new metric. Likewise, requests for
+ * tenants which are not known are recorded together (see {@link KnownTenants})
+ */
+public class RouteMetrics {
+  private static final String UNMATCHED_ROUTE = "unmatched";
+
+  private RouteMetrics() { }
+
+  /**
+   * Must be registered before any other routes, so that every request is recorded
+   *
+   * @param router router the module's routes are registered with
+   */
+  public static void register(Router router) {
+    router.route().handler(RouteMetrics::recordRequest);
+  }
+
+  private static void recordRequest(RoutingContext context) {
+    final long startTime = System.nanoTime();
+    final String method = context.request().method().name();
+    final String tenantHeader = context.request().getHeader(OkapiHeader.TENANT);
+
+    context.addBodyEndHandler(notUsed -> {
+      final String route = routeOf(context.currentRoute());
+      final int statusCode = context.response().getStatusCode();
+      final String tenant = getKnownTenants().labelFor(tenantHeader, statusCode);
+
+      getMetricsRegistry().histogram("circulation_http_server_request_duration_seconds",
+        "Time taken to respond to requests made to the module, per route",
+        "method", method, "route", route, "tenant", tenant)
+        .recordSince(startTime);
+
+      getMetricsRegistry().counter("circulation_http_server_responses_total",
+        "Responses to requests made to the module, per route and class of status code",
+        "method", method, "route", route, "tenant", tenant,
+        "status", statusClass(statusCode))
+        .increment();
+    });
+
+    context.next();
+  }
+
+  /**
+   * The path of the route which handled the request, as it was registered,
+   * this route does not have a path, so is only current when no other
+   * route matched the request
+   */
+  static String routeOf(Route route) {
+    return route == null || route.getPath() == null
+      ? UNMATCHED_ROUTE
+      : route.getPath();
+  }
+
+  static String statusClass(int statusCode) {
+    return (statusCode / 100) + "xx";
+  }
+}
@@ -130,6 +130,36 @@ public class EndPatronActionSessionTests extends APITests {
       hasEmailNoticeProperties(james.getId(), CHECK_OUT_NOTICE_TEMPLATE_ID, multipleLoansToJamesContextMatcher)));
   }
 
+  @Test
+  public void otherPatronsSessionRecordsAreNotDeletedWhenSessionIsEnded()
+    throws InterruptedException,
+    MalformedURLException,
+    TimeoutException,
+    ExecutionException {
+
+    IndividualResource james = usersFixture.james();
+    IndividualResource jessica = usersFixture.jessica();
+
+    loansFixture.checkOutByBarcode(itemsFixture.basedUponNod(), james);
+    loansFixture.checkOutByBarcode(itemsFixture.basedUponInterestingTimes(), jessica);
+
+    assertThat(patronSessionRecordsClient.getAll(), hasSize(2));
+
+    endPatronSessionClient.endCheckOutSession(james.getId());
+
+    //Wait until james' session record is deleted
+    Awaitility.await()
+      .atMost(1, TimeUnit.SECONDS)
+      .until(patronSessionRecordsClient::getAll, hasSize(1));
+
+    List<JsonObject> remainingRecords = patronSessionRecordsClient.getAll();
+
+    assertThat(remainingRecords.get(0).getString("patronId"),
+      Matchers.is(jessica.getId().toString()));
+
+    assertThat(patronNoticesClient.getAll(), hasSize(1));
+  }
+
   @Test
   public void checkOutSessionIsNotEndedSentWhenSessionEndsForDifferentUser()
     throws InterruptedException,
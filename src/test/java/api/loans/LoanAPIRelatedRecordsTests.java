@@ -1,16 +1,23 @@
 package api.loans;
 
 import static api.support.JsonCollectionAssistant.getRecordById;
+import static api.support.http.InterfaceUrls.loansUrl;
 import static api.support.matchers.UUIDMatcher.is;
+import static java.lang.String.format;
+import static org.folio.circulation.support.http.client.ResponseHandler.any;
 import static org.hamcrest.core.Is.is;
 import static org.hamcrest.junit.MatcherAssert.assertThat;
 
+import java.net.HttpURLConnection;
 import java.net.MalformedURLException;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
+import org.folio.circulation.support.JsonArrayHelper;
 import org.folio.circulation.support.http.client.IndividualResource;
 import org.folio.circulation.support.http.client.Response;
 import org.junit.Test;
@@ -122,4 +129,35 @@ public class LoanAPIRelatedRecordsTests extends APITests {
       secondFetchedLoan.getJsonObject("item").getString("instanceId"),
       is(temeraire.getInstanceId()));
   }
+
+  @Test
+  public void onlyIncludedRecordsAreIncludedForMultipleLoans()
+    throws InterruptedException,
+    MalformedURLException,
+    TimeoutException,
+    ExecutionException {
+
+    loansFixture.checkOutByBarcode(itemsFixture.basedUponSmallAngryPlanet(),
+      usersFixture.jessica());
+
+    CompletableFuture<Response> getCompleted = new CompletableFuture<>();
+
+    client.get(loansUrl() + "?include=borrower", any(getCompleted));
+
+    Response response = getCompleted.get(5, TimeUnit.SECONDS);
+
+    assertThat(format("Failed to get loans: %s", response.getBody()),
+      response.getStatusCode(), is(HttpURLConnection.HTTP_OK));
+
+    List<JsonObject> loans = JsonArrayHelper.toList(
+      response.getJson().getJsonArray("loans"));
+
+    assertThat(loans.size(), is(1));
+
+    JsonObject loan = loans.get(0);
+
+    assertThat("has borrower", loan.containsKey("borrower"), is(true));
+    assertThat("does not have item", loan.containsKey("item"), is(false));
+    assertThat("does not have loan policy", loan.containsKey("loanPolicy"), is(false));
+  }
 }
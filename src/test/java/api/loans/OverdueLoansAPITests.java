@@ -0,0 +1,134 @@
+package api.loans;
+
+import static api.support.http.AdditionalHttpStatusCodes.UNPROCESSABLE_ENTITY;
+import static api.support.http.InterfaceUrls.loansUrl;
+import static api.support.matchers.ValidationErrorMatchers.hasErrorWith;
+import static api.support.matchers.ValidationErrorMatchers.hasMessage;
+import static api.support.matchers.ValidationErrorMatchers.hasParameter;
+import static org.hamcrest.CoreMatchers.allOf;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.junit.MatcherAssert.assertThat;
+
+import java.net.MalformedURLException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.folio.circulation.support.http.client.IndividualResource;
+import org.folio.circulation.support.http.client.Response;
+import org.folio.circulation.support.http.client.ResponseHandler;
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.junit.Test;
+
+import api.support.APITests;
+import io.vertx.core.json.JsonObject;
+
+public class OverdueLoansAPITests extends APITests {
+  private static final String LIMIT_MESSAGE
+    = "limit must be a whole number between 1 and 1000";
+
+  @Test
+  public void canPageThroughOverdueLoans()
+    throws InterruptedException,
+    MalformedURLException,
+    TimeoutException,
+    ExecutionException {
+
+    final IndividualResource steve = usersFixture.steve();
+
+    final IndividualResource firstLoan = loansFixture.checkOutByBarcode(
+      itemsFixture.basedUponNod(), steve,
+      new DateTime(2018, 3, 1, 10, 0, DateTimeZone.UTC));
+
+    final IndividualResource secondLoan = loansFixture.checkOutByBarcode(
+      itemsFixture.basedUponSmallAngryPlanet(), steve,
+      new DateTime(2018, 4, 1, 10, 0, DateTimeZone.UTC));
+
+    final JsonObject firstPage = getOverdueLoans("?limit=1").getJson();
+
+    assertThat(firstPage.getJsonArray("loans").size(), is(1));
+    assertThat(firstPage.getJsonArray("loans").getJsonObject(0).getString("id"),
+      is(firstLoan.getId().toString()));
+    assertThat(firstPage.getInteger("totalRecords"), is(2));
+
+    final JsonObject secondPage = getOverdueLoans(
+      "?limit=1&cursor=" + firstPage.getString("nextCursor")).getJson();
+
+    assertThat(secondPage.getJsonArray("loans").size(), is(1));
+    assertThat(secondPage.getJsonArray("loans").getJsonObject(0).getString("id"),
+      is(secondLoan.getId().toString()));
+    assertThat(secondPage.containsKey("nextCursor"), is(false));
+  }
+
+  @Test
+  public void zeroLimitIsRefused()
+    throws InterruptedException,
+    MalformedURLException,
+    TimeoutException,
+    ExecutionException {
+
+    limitIsRefused("0");
+  }
+
+  @Test
+  public void negativeLimitIsRefused()
+    throws InterruptedException,
+    MalformedURLException,
+    TimeoutException,
+    ExecutionException {
+
+    limitIsRefused("-1");
+  }
+
+  @Test
+  public void limitAboveMaximumIsRefused()
+    throws InterruptedException,
+    MalformedURLException,
+    TimeoutException,
+    ExecutionException {
+
+    limitIsRefused("1001");
+  }
+
+  @Test
+  public void nonNumericLimitIsRefused()
+    throws InterruptedException,
+    MalformedURLException,
+    TimeoutException,
+    ExecutionException {
+
+    limitIsRefused("ten");
+  }
+
+  private void limitIsRefused(String limit)
+    throws InterruptedException,
+    MalformedURLException,
+    TimeoutException,
+    ExecutionException {
+
+    final Response response = getOverdueLoans("?limit=" + limit);
+
+    assertThat(String.format("Should refuse limit: %s", response.getBody()),
+      response.getStatusCode(), is(UNPROCESSABLE_ENTITY));
+
+    assertThat(response.getJson(), hasErrorWith(allOf(
+      hasMessage(LIMIT_MESSAGE),
+      hasParameter("limit", limit))));
+  }
+
+  private Response getOverdueLoans(String queryString)
+    throws InterruptedException,
+    MalformedURLException,
+    TimeoutException,
+    ExecutionException {
+
+    final CompletableFuture<Response> getCompleted = new CompletableFuture<>();
+
+    client.get(loansUrl("/overdue" + queryString),
+      ResponseHandler.any(getCompleted));
+
+    return getCompleted.get(5, TimeUnit.SECONDS);
+  }
+}
@@ -258,6 +258,39 @@ public class RequestsAPIRetrievalTests extends APITests {
     assertThat(deliveryAddress.getString("countryId"), is("Fake country code"));
   }
 
+  @Test
+  public void canGetARequestByIdForAnItemWhichIsNotOnLoan()
+    throws MalformedURLException,
+    InterruptedException,
+    ExecutionException,
+    TimeoutException {
+
+    final InventoryItemResource smallAngryPlanet = itemsFixture.basedUponSmallAngryPlanet();
+
+    final IndividualResource createdRequest = requestsClient.create(
+      new RequestBuilder()
+        .page()
+        .forItem(smallAngryPlanet)
+        .by(usersFixture.rebecca())
+        .fulfilToHoldShelf()
+        .withPickupServicePointId(servicePointsFixture.cd1().getId()));
+
+    Response getResponse = requestsClient.getById(createdRequest.getId());
+
+    assertThat(format("Failed to get request: %s", getResponse.getBody()),
+      getResponse.getStatusCode(), is(HttpURLConnection.HTTP_OK));
+
+    JsonObject representation = getResponse.getJson();
+
+    assertThat(representation.getString("itemId"), is(smallAngryPlanet.getId()));
+
+    assertThat("has information taken from item",
+      representation.containsKey("item"), is(true));
+
+    assertThat("no current loan is present",
+      representation.containsKey("loan"), is(false));
+  }
+
   @Test
   public void requestNotFoundForUnknownId()
     throws MalformedURLException,
@@ -467,6 +500,48 @@ public class RequestsAPIRetrievalTests extends APITests {
       representation.containsKey("deliveryAddress"), is(false));
   }
 
+  @Test
+  public void onlyIncludedRecordsAreIncludedWhenFindingMultipleRequests()
+    throws InterruptedException,
+    MalformedURLException,
+    TimeoutException,
+    ExecutionException {
+
+    final IndividualResource smallAngryPlanet = itemsFixture.basedUponSmallAngryPlanet();
+
+    loansFixture.checkOutByBarcode(smallAngryPlanet, usersFixture.james());
+
+    requestsFixture.place(new RequestBuilder()
+      .recall()
+      .forItem(smallAngryPlanet)
+      .withPickupServicePointId(servicePointsFixture.cd1().getId())
+      .by(usersFixture.charlotte()));
+
+    CompletableFuture<Response> getCompleted = new CompletableFuture<>();
+
+    client.get(requestsUrl() + "?include=pickupServicePoint", any(getCompleted));
+
+    Response response = getCompleted.get(5, TimeUnit.SECONDS);
+
+    assertThat(format("Failed to get requests: %s", response.getBody()),
+      response.getStatusCode(), is(HttpURLConnection.HTTP_OK));
+
+    List<JsonObject> requests = getRequests(response.getJson());
+
+    assertThat(requests.size(), is(1));
+
+    JsonObject representation = requests.get(0);
+
+    assertThat("Request should include the pickup service point",
+      representation.containsKey("pickupServicePoint"), is(true));
+
+    assertThat("Request should not include the loan when not requested",
+      representation.containsKey("loan"), is(false));
+
+    assertThat("Request should include the loan by default",
+      requestsClient.getAll().get(0).containsKey("loan"), is(true));
+  }
+
   @Test
   public void canPageAllRequests()
     throws MalformedURLException,
@@ -23,6 +23,7 @@ import api.support.fakes.FakeOkapi;
 import api.support.fakes.FakeStorageModule;
 import api.support.http.URLHelper;
 import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
 
 public class APITestContext {
   private static final Logger log = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
@@ -99,7 +100,8 @@ public class APITestContext {
 
     final CompletableFuture<String> fakeStorageModuleDeployed = deployFakeStorageModules();
 
-    final CompletableFuture<Void> circulationModuleStarted = launcher.start(port);
+    final CompletableFuture<Void> circulationModuleStarted = launcher.start(port,
+      moduleConfiguration());
 
     fakeStorageModuleDeployed.thenAccept(result -> fakeOkapiDeploymentId = result);
 
@@ -107,6 +109,21 @@ public class APITestContext {
       .get(10, TimeUnit.SECONDS);
   }
 
+  /**
+   * Allows the number of module verticle instances to be chosen,
+   * e.g. -Dinstances=1, otherwise the module default is used
+   */
+  private static JsonObject moduleConfiguration() {
+    final JsonObject configuration = new JsonObject();
+    final Integer instances = Integer.getInteger("instances");
+
+    if (instances != null) {
+      configuration.put("instances", instances);
+    }
+
+    return configuration;
+  }
+
   private static CompletableFuture<String> deployFakeStorageModules() {
     useOkapiForStorage = Boolean.parseBoolean(
       System.getProperty("use.okapi.storage.requests", "false"));
@@ -297,6 +297,7 @@ public class FakeOkapi extends AbstractVerticle {
       .withRecordName("patron action session")
       .withCollectionPropertyName("patronActionSessions")
       .withRootPath("/patron-action-session-storage/patron-action-sessions")
+      .allowDeleteByQuery()
       .create()
       .register(router);
 
@@ -14,6 +14,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.BiFunction;
 import java.util.function.Function;
 import java.util.stream.Collectors;
@@ -44,6 +46,7 @@ import io.vertx.ext.web.handler.BodyHandler;
 
 public class FakeStorageModule extends AbstractVerticle {
   private static final Set<String> queries = Collections.synchronizedSet(new HashSet<>());
+  private static final Map<String, LongAdder> requestCounts = new ConcurrentHashMap<>();
 
   private final String rootPath;
   private final String collectionPropertyName;
@@ -65,6 +68,19 @@ public class FakeStorageModule extends AbstractVerticle {
     return queries.stream();
   }
 
+  /**
+   * Number of requests received by all fake storage modules since the counts
+   * were last reset, keyed by method and root path e.g. GET /item-storage/items
+   */
+  public static Map<String, Long> getRequestCounts() {
+    return requestCounts.entrySet().stream()
+      .collect(Collectors.toMap(Map.Entry::getKey, entry -> entry.getValue().sum()));
+  }
+
+  public static void resetRequestCounts() {
+    requestCounts.clear();
+  }
+
   FakeStorageModule(
     String rootPath,
     String collectionPropertyName,
@@ -102,6 +118,8 @@ public class FakeStorageModule extends AbstractVerticle {
   void register(Router router) {
     String pathTree = rootPath + "/*";
 
+    router.route(pathTree).handler(routingContext ->
+      countRequest(routingContext, rootPath));
     router.route(pathTree).handler(this::checkTokenHeader);
     router.route(pathTree).handler(this::checkRequestIdHeader);
 
@@ -132,6 +150,8 @@ public class FakeStorageModule extends AbstractVerticle {
     router.delete(rootPath + "/:id").handler(this::delete);
 
     if (StringUtils.isNotBlank(batchUpdatePath)) {
+      router.route(batchUpdatePath).handler(routingContext ->
+        countRequest(routingContext, batchUpdatePath));
       router.route(batchUpdatePath).handler(this::checkTokenHeader);
       router.route(batchUpdatePath).handler(this::checkRequestIdHeader);
 
@@ -439,6 +459,15 @@ public class FakeStorageModule extends AbstractVerticle {
     return StringUtils.isNotBlank(routingContext.getBodyAsString());
   }
 
+  private void countRequest(RoutingContext routingContext, String path) {
+    requestCounts.computeIfAbsent(
+      format("%s %s", routingContext.request().method(), path),
+      key -> new LongAdder())
+      .increment();
+
+    routingContext.next();
+  }
+
   private void checkTokenHeader(RoutingContext routingContext) {
     WebContext context = new WebContext(routingContext);
 
@@ -0,0 +1,79 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.folio.circulation.support.http.client.IndividualResource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import api.support.APITests;
+
+/**
+ * Measures checking out and checking in an item via the API, end to end,
+ * with the module deployed against the in-process fake Okapi and storage
+ * modules used by the API tests
+ *
+ * Latencies are sampled, so the results include percentiles
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class CheckOutCheckInBenchmark {
+  private Library library;
+
+  @Setup(Level.Trial)
+  public void setUp() throws Exception {
+    // clients used by the fixtures can only be created once deployed
+    APITests.beforeAll();
+
+    library = new Library();
+    library.setUp();
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws Exception {
+    library.afterEach();
+    APITests.afterAll();
+  }
+
+  @Benchmark
+  public void checkOutAndCheckIn(Blackhole blackhole) throws Exception {
+    library.checkOutAndCheckIn(blackhole);
+  }
+
+  private static class Library extends APITests {
+    private IndividualResource item;
+    private IndividualResource borrower;
+
+    void setUp() throws Exception {
+      beforeEach();
+
+      useFallbackPolicies(loanPoliciesFixture.canCirculateRolling().getId(),
+        requestPoliciesFixture.allowAllRequestPolicy().getId(),
+        noticePoliciesFixture.inactiveNotice().getId(),
+        overdueFinePoliciesFixture.facultyStandard().getId());
+
+      item = itemsFixture.basedUponSmallAngryPlanet();
+      borrower = usersFixture.jessica();
+    }
+
+    void checkOutAndCheckIn(Blackhole blackhole) throws Exception {
+      blackhole.consume(loansFixture.checkOutByBarcode(item, borrower));
+      blackhole.consume(loansFixture.checkInByBarcode(item));
+    }
+  }
+}
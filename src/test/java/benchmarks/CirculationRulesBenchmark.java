@@ -0,0 +1,136 @@
+package benchmarks;
+
+import static org.folio.circulation.resources.AbstractCirculationRulesEngineResource.ITEM_TYPE_ID_NAME;
+import static org.folio.circulation.resources.AbstractCirculationRulesEngineResource.LOAN_TYPE_ID_NAME;
+import static org.folio.circulation.resources.AbstractCirculationRulesEngineResource.LOCATION_ID_NAME;
+import static org.folio.circulation.resources.AbstractCirculationRulesEngineResource.PATRON_TYPE_ID_NAME;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.folio.circulation.domain.Location;
+import org.folio.circulation.rules.Drools;
+import org.folio.circulation.rules.Text2Drools;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import api.support.builders.LocationBuilder;
+import io.vertx.core.MultiMap;
+import io.vertx.core.http.CaseInsensitiveHeaders;
+import io.vertx.core.json.JsonArray;
+
+/**
+ * Measures converting circulation rules to Drools, compiling them
+ * and applying them to find the loan policy (or policies) for an item,
+ * for rules of different sizes
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CirculationRulesBenchmark {
+  @Param({"10", "100", "1000"})
+  public int numberOfRules;
+
+  private String rulesText;
+  private String droolsText;
+  private Drools drools;
+  private MultiMap matchingParameters;
+  private MultiMap fallbackParameters;
+  private Location location;
+
+  @Setup
+  public void setUp() {
+    final List<String> lines = new ArrayList<>();
+
+    lines.add("priority: t, s, c, b, a, m, g");
+    lines.add(String.format("fallback-policy: l %s r %s n %s o %s",
+      UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID(),
+      UUID.randomUUID()));
+
+    String lastMaterialType = null;
+    String lastPatronGroup = null;
+
+    for (int rule = 0; rule < numberOfRules; rule++) {
+      lastMaterialType = UUID.randomUUID().toString();
+      lastPatronGroup = UUID.randomUUID().toString();
+
+      lines.add(String.format("m %s + g %s: l %s r %s n %s o %s",
+        lastMaterialType, lastPatronGroup, UUID.randomUUID(),
+        UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID()));
+    }
+
+    rulesText = String.join("\n", lines);
+    droolsText = Text2Drools.convert(rulesText);
+    drools = new Drools(droolsText);
+
+    final String loanTypeId = UUID.randomUUID().toString();
+    final String locationId = UUID.randomUUID().toString();
+
+    matchingParameters = parameters(lastMaterialType, loanTypeId,
+      lastPatronGroup, locationId);
+
+    fallbackParameters = parameters(UUID.randomUUID().toString(), loanTypeId,
+      UUID.randomUUID().toString(), locationId);
+
+    location = Location.from(new LocationBuilder()
+      .forInstitution(UUID.randomUUID())
+      .forCampus(UUID.randomUUID())
+      .forLibrary(UUID.randomUUID())
+      .create());
+  }
+
+  @Benchmark
+  public String convertRulesToDrools() {
+    return Text2Drools.convert(rulesText);
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.SingleShotTime)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  @Measurement(iterations = 10)
+  public Drools compileDrools() {
+    return new Drools(droolsText);
+  }
+
+  @Benchmark
+  public String applyMatchingLoanRule() {
+    return drools.loanPolicy(matchingParameters, location);
+  }
+
+  @Benchmark
+  public String applyFallbackLoanRule() {
+    return drools.loanPolicy(fallbackParameters, location);
+  }
+
+  @Benchmark
+  public JsonArray applyAllLoanRules() {
+    return drools.loanPolicies(matchingParameters, location);
+  }
+
+  private static MultiMap parameters(String materialTypeId, String loanTypeId,
+    String patronGroupId, String locationId) {
+
+    final MultiMap parameters = new CaseInsensitiveHeaders();
+
+    parameters.add(ITEM_TYPE_ID_NAME, materialTypeId);
+    parameters.add(LOAN_TYPE_ID_NAME, loanTypeId);
+    parameters.add(PATRON_TYPE_ID_NAME, patronGroupId);
+    parameters.add(LOCATION_ID_NAME, locationId);
+
+    return parameters;
+  }
+}
@@ -0,0 +1,80 @@
+package benchmarks;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.concurrent.TimeUnit;
+
+import org.folio.circulation.domain.ConfigurationRepository;
+import org.folio.circulation.domain.LoanRepository;
+import org.folio.circulation.domain.LoanService;
+import org.folio.circulation.domain.PatronGroupRepository;
+import org.folio.circulation.domain.RequestQueueRepository;
+import org.folio.circulation.domain.UpdateItem;
+import org.folio.circulation.domain.UpdateRequestQueue;
+import org.folio.circulation.domain.UserRepository;
+import org.folio.circulation.domain.notice.schedule.ScheduledNoticesRepository;
+import org.folio.circulation.domain.notice.session.PatronActionSessionService;
+import org.folio.circulation.domain.policy.LoanPolicyRepository;
+import org.folio.circulation.domain.policy.PatronNoticePolicyRepository;
+import org.folio.circulation.support.Clients;
+import org.folio.circulation.support.ItemRepository;
+import org.folio.circulation.support.http.client.OkapiHttpClient;
+import org.folio.circulation.support.http.client.OkapiUrls;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the cost (time and, with -prof gc, allocation) of building
+ * the clients and repositories used by a single check out request
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ClientsBenchmark {
+  private static final String OKAPI_LOCATION = "http://localhost:9130";
+
+  private OkapiHttpClient okapiHttpClient;
+
+  @Setup
+  public void setUp() throws MalformedURLException {
+    okapiHttpClient = new OkapiHttpClient(null, new URL(OKAPI_LOCATION),
+      "benchmark_tenant", "token", "user-id", "request-id", exception -> { });
+  }
+
+  @Benchmark
+  public Clients createClients() {
+    return Clients.create(okapiHttpClient, OkapiUrls.forLocation(OKAPI_LOCATION));
+  }
+
+  @Benchmark
+  public void createCheckOutRepositories(Blackhole blackhole) {
+    final Clients clients = Clients.create(okapiHttpClient,
+      OkapiUrls.forLocation(OKAPI_LOCATION));
+
+    blackhole.consume(new UserRepository(clients));
+    blackhole.consume(new ItemRepository(clients, true, true, true));
+    blackhole.consume(RequestQueueRepository.using(clients));
+    blackhole.consume(new LoanRepository(clients));
+    blackhole.consume(new LoanService(clients));
+    blackhole.consume(new LoanPolicyRepository(clients));
+    blackhole.consume(new PatronNoticePolicyRepository(clients));
+    blackhole.consume(new PatronGroupRepository(clients));
+    blackhole.consume(new ConfigurationRepository(clients));
+    blackhole.consume(ScheduledNoticesRepository.using(clients));
+    blackhole.consume(new UpdateItem(clients));
+    blackhole.consume(UpdateRequestQueue.using(clients));
+    blackhole.consume(PatronActionSessionService.using(clients));
+  }
+}
@@ -0,0 +1,110 @@
+package benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.folio.circulation.domain.Loan;
+import org.folio.circulation.domain.Request;
+import org.folio.circulation.domain.RequestQueue;
+import org.folio.circulation.support.JsonPropertyFetcher;
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import api.support.builders.LoanBuilder;
+import api.support.builders.RequestBuilder;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Compares reading date properties from records, which are parsed once,
+ * with parsing them from the representation on every access, and measures
+ * ordering a queue of requests, which compares request dates repeatedly
+ *
+ * Allocation rates are included when run with the GC profiler (as the
+ * benchmarks profile does), showing the garbage produced by repeated parsing
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DateTimePropertiesBenchmark {
+  private static final DateTime LOAN_DATE
+    = new DateTime(2018, 3, 14, 11, 14, 54, DateTimeZone.UTC);
+
+  private static final int QUEUE_LENGTH = 100;
+
+  private JsonObject loanRepresentation;
+  private Loan loan;
+  private List<JsonObject> requestRepresentations;
+
+  @Setup
+  public void setUp() {
+    loanRepresentation = new LoanBuilder()
+      .withLoanDate(LOAN_DATE)
+      .withDueDate(LOAN_DATE.plusWeeks(3))
+      .create();
+
+    loan = Loan.from(loanRepresentation.copy());
+
+    final UUID itemId = UUID.randomUUID();
+
+    requestRepresentations = new ArrayList<>();
+
+    // in reverse order, so that ordering has to move every request
+    for (int position = QUEUE_LENGTH; position >= 1; position--) {
+      requestRepresentations.add(new RequestBuilder()
+        .withId(UUID.randomUUID())
+        .hold()
+        .open()
+        .withItemId(itemId)
+        .withRequestDate(LOAN_DATE.plusMinutes(position))
+        .withPosition(position)
+        .create());
+    }
+  }
+
+  @Benchmark
+  public void parseDueDateOnEveryAccess(Blackhole blackhole) {
+    blackhole.consume(JsonPropertyFetcher.getDateTimeProperty(loanRepresentation, "dueDate"));
+    blackhole.consume(JsonPropertyFetcher.getDateTimeProperty(loanRepresentation, "dueDate"));
+  }
+
+  @Benchmark
+  public void parsedDueDate(Blackhole blackhole) {
+    blackhole.consume(loan.getDueDate());
+    blackhole.consume(loan.getDueDate());
+  }
+
+  /**
+   * Requests are created for each invocation, as they are for each request
+   * to the module, so that dates are parsed as they would be
+   */
+  @Benchmark
+  public Integer orderRequestQueue() {
+    final List<Request> requests = new ArrayList<>();
+
+    for (int index = 1; index < QUEUE_LENGTH; index++) {
+      requests.add(Request.from(requestRepresentations.get(index)));
+    }
+
+    final RequestQueue queue = new RequestQueue(requests);
+
+    queue.add(Request.from(requestRepresentations.get(0)));
+
+    return queue.size();
+  }
+}
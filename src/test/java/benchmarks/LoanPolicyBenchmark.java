@@ -0,0 +1,111 @@
+package benchmarks;
+
+import java.util.Collections;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.folio.circulation.domain.Loan;
+import org.folio.circulation.domain.RequestQueue;
+import org.folio.circulation.domain.policy.LoanPolicy;
+import org.folio.circulation.domain.policy.Period;
+import org.folio.circulation.support.Result;
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import api.support.builders.FixedDueDateSchedule;
+import api.support.builders.FixedDueDateSchedulesBuilder;
+import api.support.builders.LoanBuilder;
+import api.support.builders.LoanPolicyBuilder;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Measures the due date calculations for rolling and fixed loan policies,
+ * both during check out and renewal
+ *
+ * Renewal changes the loan, so the renewal benchmarks include
+ * creating the loan from its representation
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LoanPolicyBenchmark {
+  private static final DateTime LOAN_DATE
+    = new DateTime(2018, 3, 14, 11, 14, 54, DateTimeZone.UTC);
+
+  private static final DateTime RENEWAL_DATE
+    = new DateTime(2018, 3, 21, 9, 32, 11, DateTimeZone.UTC);
+
+  private LoanPolicy rollingPolicy;
+  private LoanPolicy fixedPolicy;
+  private Loan loan;
+  private JsonObject loanRepresentation;
+  private RequestQueue emptyQueue;
+
+  @Setup
+  public void setUp() {
+    rollingPolicy = LoanPolicy.from(new LoanPolicyBuilder()
+      .rolling(Period.weeks(3))
+      .renewFromSystemDate()
+      .unlimitedRenewals()
+      .create());
+
+    final FixedDueDateSchedulesBuilder schedules = new FixedDueDateSchedulesBuilder();
+
+    for (int month = 1; month <= 12; month++) {
+      schedules.addSchedule(FixedDueDateSchedule.wholeMonth(2018, month));
+    }
+
+    final UUID scheduleId = UUID.randomUUID();
+
+    fixedPolicy = LoanPolicy.from(new LoanPolicyBuilder()
+      .fixed(scheduleId)
+      .renewWith(scheduleId)
+      .unlimitedRenewals()
+      .create())
+      .withDueDateSchedules(schedules.create());
+
+    loanRepresentation = new LoanBuilder()
+      .open()
+      .withLoanDate(LOAN_DATE)
+      .withDueDate(LOAN_DATE.plusWeeks(3))
+      .create();
+
+    loan = Loan.from(loanRepresentation);
+    emptyQueue = new RequestQueue(Collections.emptyList());
+  }
+
+  @Benchmark
+  public Result<DateTime> rollingCheckOutDueDate() {
+    return rollingPolicy.calculateInitialDueDate(loan, emptyQueue);
+  }
+
+  @Benchmark
+  public Result<DateTime> fixedCheckOutDueDate() {
+    return fixedPolicy.calculateInitialDueDate(loan, emptyQueue);
+  }
+
+  @Benchmark
+  public Result<Loan> rollingRenewal() {
+    return rollingPolicy.renew(Loan.from(loanRepresentation.copy()),
+      RENEWAL_DATE, emptyQueue);
+  }
+
+  @Benchmark
+  public Result<Loan> fixedRenewal() {
+    return fixedPolicy.renew(Loan.from(loanRepresentation.copy()),
+      RENEWAL_DATE, emptyQueue);
+  }
+}
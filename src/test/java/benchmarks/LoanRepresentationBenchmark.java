@@ -0,0 +1,109 @@
+package benchmarks;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.folio.circulation.domain.Item;
+import org.folio.circulation.domain.Loan;
+import org.folio.circulation.domain.LoanRepresentation;
+import org.folio.circulation.domain.Location;
+import org.folio.circulation.domain.User;
+import org.folio.circulation.domain.policy.LoanPolicy;
+import org.folio.circulation.domain.policy.Period;
+import org.joda.time.DateTime;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import api.support.builders.HoldingBuilder;
+import api.support.builders.InstanceBuilder;
+import api.support.builders.ItemBuilder;
+import api.support.builders.LoanBuilder;
+import api.support.builders.LoanPolicyBuilder;
+import api.support.builders.LocationBuilder;
+import api.support.builders.UserBuilder;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Measures producing the extended representation of a loan
+ * (including item, borrower and loan policy summaries) returned by the API
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LoanRepresentationBenchmark {
+  private final LoanRepresentation loanRepresentation = new LoanRepresentation();
+
+  private Loan loan;
+
+  @Setup
+  public void setUp() {
+    final UUID instanceId = UUID.randomUUID();
+    final UUID holdingsRecordId = UUID.randomUUID();
+    final UUID itemId = UUID.randomUUID();
+    final UUID userId = UUID.randomUUID();
+    final UUID locationId = UUID.randomUUID();
+
+    final Item item = Item.from(new ItemBuilder()
+      .withId(itemId)
+      .withBarcode("036000291452")
+      .forHolding(holdingsRecordId)
+      .withMaterialType(UUID.randomUUID())
+      .withPermanentLoanType(UUID.randomUUID())
+      .withPermanentLocation(locationId)
+      .create())
+      .withHoldingsRecord(new HoldingBuilder()
+        .forInstance(instanceId)
+        .withPermanentLocation(locationId)
+        .withCallNumber("123456")
+        .create())
+      .withInstance(new InstanceBuilder("The Long Way to a Small, Angry Planet",
+        UUID.randomUUID())
+        .withId(instanceId)
+        .withContributor("Chambers, Becky", UUID.randomUUID())
+        .create())
+      .withLocation(Location.from(new LocationBuilder()
+        .withName("3rd Floor")
+        .forInstitution(UUID.randomUUID())
+        .forCampus(UUID.randomUUID())
+        .forLibrary(UUID.randomUUID())
+        .create()))
+      .withMaterialType(new JsonObject().put("name", "Book"));
+
+    final User user = User.from(new UserBuilder()
+      .withName("Jones", "Steven")
+      .withBarcode("5694596854")
+      .create()
+      .put("id", userId.toString()));
+
+    loan = Loan.from(new LoanBuilder()
+      .open()
+      .withId(UUID.randomUUID())
+      .withItemId(itemId)
+      .withUserId(userId)
+      .withLoanDate(DateTime.now())
+      .withDueDate(DateTime.now().plusWeeks(3))
+      .create())
+      .withItem(item)
+      .withUser(user)
+      .withLoanPolicy(LoanPolicy.from(new LoanPolicyBuilder()
+        .withName("Three week loans")
+        .rolling(Period.weeks(3))
+        .create()));
+  }
+
+  @Benchmark
+  public JsonObject extendedLoan() {
+    return loanRepresentation.extendedLoan(loan);
+  }
+}
@@ -0,0 +1,95 @@
+package benchmarks;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.folio.circulation.domain.Item;
+import org.folio.circulation.domain.Loan;
+import org.folio.circulation.domain.MultipleRecords;
+import org.folio.circulation.support.Result;
+import org.folio.circulation.support.http.client.Response;
+import org.joda.time.DateTime;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import api.support.builders.ItemBuilder;
+import api.support.builders.LoanBuilder;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Measures interpreting a page of records received from storage,
+ * from the response body to domain objects, for pages of different sizes
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MultipleRecordsBenchmark {
+  @Param({"10", "100", "1000", "5000"})
+  public int pageSize;
+
+  private Response loansResponse;
+  private Response itemsResponse;
+
+  @Setup
+  public void setUp() {
+    final JsonArray loans = new JsonArray();
+    final JsonArray items = new JsonArray();
+
+    for (int index = 0; index < pageSize; index++) {
+      final UUID itemId = UUID.randomUUID();
+
+      loans.add(new LoanBuilder()
+        .open()
+        .withId(UUID.randomUUID())
+        .withItemId(itemId)
+        .withUserId(UUID.randomUUID())
+        .withLoanDate(DateTime.now().minusDays(index % 20))
+        .withDueDate(DateTime.now().plusDays(index % 20))
+        .create());
+
+      items.add(new ItemBuilder()
+        .withId(itemId)
+        .withBarcode(String.valueOf(100000 + index))
+        .forHolding(UUID.randomUUID())
+        .withMaterialType(UUID.randomUUID())
+        .withPermanentLoanType(UUID.randomUUID())
+        .withPermanentLocation(UUID.randomUUID())
+        .create());
+    }
+
+    loansResponse = page("loans", loans);
+    itemsResponse = page("items", items);
+  }
+
+  @Benchmark
+  public Result<MultipleRecords<Loan>> interpretLoans() {
+    return MultipleRecords.from(loansResponse, Loan::from, "loans");
+  }
+
+  @Benchmark
+  public Result<MultipleRecords<Item>> interpretItems() {
+    return MultipleRecords.from(itemsResponse, Item::from, "items");
+  }
+
+  private Response page(String recordsPropertyName, JsonArray records) {
+    final String body = new JsonObject()
+      .put(recordsPropertyName, records)
+      .put("totalRecords", records.size())
+      .encodePrettily();
+
+    return new Response(200, body, "application/json");
+  }
+}
@@ -0,0 +1,131 @@
+package benchmarks;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.folio.circulation.domain.Loan;
+import org.folio.circulation.domain.MultipleRecords;
+import org.folio.circulation.domain.Request;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import api.support.builders.HoldingBuilder;
+import api.support.builders.LoanBuilder;
+import api.support.builders.RequestBuilder;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Compares matching related records to a page of records by indexing the
+ * related records once, with searching them for each record (as loans were
+ * matched to requests and holdings to items previously)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RecordMatchingBenchmark {
+  @Param({"100", "1000", "5000"})
+  public int pageSize;
+
+  private MultipleRecords<Request> requests;
+  private MultipleRecords<Loan> loans;
+  private List<String> holdingsIds;
+  private MultipleRecords<JsonObject> holdings;
+
+  @Setup
+  public void setUp() {
+    final List<Request> requestList = new ArrayList<>();
+    final List<Loan> loanList = new ArrayList<>();
+    final List<JsonObject> holdingsList = new ArrayList<>();
+
+    holdingsIds = new ArrayList<>();
+
+    for (int index = 0; index < pageSize; index++) {
+      final UUID itemId = UUID.randomUUID();
+      final UUID holdingsId = UUID.randomUUID();
+
+      requestList.add(Request.from(new RequestBuilder()
+        .withId(UUID.randomUUID())
+        .withItemId(itemId)
+        .create()));
+
+      loanList.add(Loan.from(new LoanBuilder()
+        .open()
+        .withId(UUID.randomUUID())
+        .withItemId(itemId)
+        .create()));
+
+      holdingsList.add(new HoldingBuilder()
+        .forInstance(UUID.randomUUID())
+        .create()
+        .put("id", holdingsId.toString()));
+
+      holdingsIds.add(holdingsId.toString());
+    }
+
+    // loans are received from storage in a different order to the requests
+    Collections.reverse(loanList);
+
+    requests = new MultipleRecords<>(requestList, pageSize);
+    loans = new MultipleRecords<>(loanList, pageSize);
+    holdings = new MultipleRecords<>(holdingsList, pageSize);
+  }
+
+  @Benchmark
+  public MultipleRecords<Request> matchLoansToRequestsByIndex() {
+    return requests.combineRecords(loans, Loan::getItemId,
+      Request::getItemId, Request::withLoan);
+  }
+
+  @Benchmark
+  public MultipleRecords<Request> matchLoansToRequestsByIndexingForEachRequest() {
+    return requests.mapRecords(request -> {
+      final Map<String, Loan> loanMap = loans.toMap(Loan::getItemId);
+
+      return request.withLoan(loanMap.getOrDefault(request.getItemId(), null));
+    });
+  }
+
+  @Benchmark
+  public List<JsonObject> findHoldingsByIndex() {
+    final Map<String, JsonObject> holdingsById
+      = holdings.toMap(holding -> holding.getString("id"));
+
+    final List<JsonObject> found = new ArrayList<>();
+
+    for (String holdingsId : holdingsIds) {
+      found.add(holdingsById.get(holdingsId));
+    }
+
+    return found;
+  }
+
+  @Benchmark
+  public List<JsonObject> findHoldingsBySearchingForEachItem() {
+    final List<JsonObject> found = new ArrayList<>();
+
+    for (String holdingsId : holdingsIds) {
+      found.add(holdings.getRecords().stream()
+        .filter(holding -> holding.getString("id").equals(holdingsId))
+        .findFirst()
+        .orElse(null));
+    }
+
+    return found;
+  }
+}
@@ -0,0 +1,83 @@
+package benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.folio.circulation.domain.Request;
+import org.folio.circulation.domain.RequestQueue;
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import api.support.builders.RequestBuilder;
+
+/**
+ * Measures reordering a request queue when a request is added and removed,
+ * for queues of different lengths
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RequestQueueBenchmark {
+  private static final DateTime FIRST_REQUEST_DATE
+    = new DateTime(2018, 3, 14, 11, 14, 54, DateTimeZone.UTC);
+
+  @Param({"10", "100", "1000"})
+  public int queueLength;
+
+  private RequestQueue queue;
+  private Request newRequest;
+
+  @Setup
+  public void setUp() {
+    final UUID itemId = UUID.randomUUID();
+    final List<Request> requests = new ArrayList<>();
+
+    for (int position = 1; position <= queueLength; position++) {
+      final RequestBuilder builder = new RequestBuilder()
+        .withId(UUID.randomUUID())
+        .hold()
+        .withItemId(itemId)
+        .withRequestDate(FIRST_REQUEST_DATE.plusMinutes(position))
+        .withPosition(position);
+
+      // a few requests at the front of the queue cannot be displaced
+      requests.add(Request.from(position <= 2
+        ? builder.withStatus("Open - Awaiting pickup").create()
+        : builder.open().create()));
+    }
+
+    queue = new RequestQueue(requests);
+
+    newRequest = Request.from(new RequestBuilder()
+      .withId(UUID.randomUUID())
+      .hold()
+      .open()
+      .withItemId(itemId)
+      .withRequestDate(FIRST_REQUEST_DATE.plusMinutes(queueLength + 1L))
+      .create());
+  }
+
+  @Benchmark
+  public Integer addAndRemoveRequest() {
+    queue.add(newRequest);
+    queue.remove(newRequest);
+
+    return queue.size();
+  }
+}
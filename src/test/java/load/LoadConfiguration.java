@@ -0,0 +1,81 @@
+package load;
+
+import static java.util.stream.Collectors.toList;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Size of the synthetic library and the workloads to run against it,
+ * read from system properties, e.g. -Dload.items=100000
+ */
+class LoadConfiguration {
+  final int items;
+  final int itemsPerHoldingsRecord;
+  final int patrons;
+  final int requestedItems;
+  final int queueDepth;
+  final int threads;
+  final int operations;
+  final int reportOperations;
+  final List<Integer> instances;
+  final String reportPath;
+
+  private LoadConfiguration() {
+    items = Integer.getInteger("load.items", 100000);
+    itemsPerHoldingsRecord = Integer.getInteger("load.itemsPerHoldingsRecord", 10);
+    patrons = Integer.getInteger("load.patrons", 10000);
+    requestedItems = Integer.getInteger("load.requestedItems", 100);
+    queueDepth = Integer.getInteger("load.queueDepth", 50);
+    threads = Integer.getInteger("load.threads", 16);
+    operations = Integer.getInteger("load.operations", 2000);
+    reportOperations = Integer.getInteger("load.reportOperations", 50);
+    instances = parseInstances(System.getProperty("load.instances", ""));
+    reportPath = System.getProperty("load.report", "target/load-report.json");
+
+    if (patrons <= queueDepth + 1) {
+      throw new IllegalArgumentException(
+        "There must be more patrons than the depth of the request queues");
+    }
+
+    if (items < requestedItems + operations) {
+      throw new IllegalArgumentException(
+        "There must be enough items for the requested items and the operations");
+    }
+  }
+
+  static LoadConfiguration fromSystemProperties() {
+    return new LoadConfiguration();
+  }
+
+  JsonObject asJson() {
+    return new JsonObject()
+      .put("items", items)
+      .put("itemsPerHoldingsRecord", itemsPerHoldingsRecord)
+      .put("patrons", patrons)
+      .put("requestedItems", requestedItems)
+      .put("queueDepth", queueDepth)
+      .put("threads", threads)
+      .put("operations", operations)
+      .put("reportOperations", reportOperations)
+      .put("instances", new JsonArray(instances));
+  }
+
+  /**
+   * An empty list means the module default number of instances is deployed
+   */
+  private static List<Integer> parseInstances(String instances) {
+    if (instances.trim().isEmpty()) {
+      return Collections.emptyList();
+    }
+
+    return Arrays.stream(instances.split(","))
+      .map(String::trim)
+      .map(Integer::valueOf)
+      .collect(toList());
+  }
+}
@@ -0,0 +1,162 @@
+package load;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.stream.Collectors.toList;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.IntFunction;
+import java.util.stream.IntStream;
+
+import org.folio.circulation.support.http.client.IndividualResource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import api.support.APITests;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import load.WorkloadRunner.Operation;
+
+/**
+ * Measures the throughput and latency of check out, renewal, request placement,
+ * check in and the hold shelf clearance report for a synthetic library, with
+ * the module deployed against the fake storage modules used by the API tests
+ *
+ * The workloads can be repeated for different numbers of module verticle
+ * instances (e.g. -Dload.instances=1,2,4) to see how the module scales
+ */
+public class LoadGenerator {
+  private static final Logger log = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+  private LoadGenerator() { }
+
+  public static void main(String[] args) throws Exception {
+    final LoadConfiguration configuration = LoadConfiguration.fromSystemProperties();
+
+    final List<Integer> instanceCounts = configuration.instances.isEmpty()
+      ? Collections.singletonList(null)
+      : configuration.instances;
+
+    final JsonArray runs = new JsonArray();
+
+    for (Integer instances : instanceCounts) {
+      runs.add(run(configuration, instances));
+    }
+
+    writeReport(configuration, new JsonObject()
+      .put("configuration", configuration.asJson())
+      .put("runs", runs));
+  }
+
+  private static JsonObject run(LoadConfiguration configuration,
+    Integer instances) throws Exception {
+
+    if (instances == null) {
+      System.clearProperty("instances");
+    }
+    else {
+      System.setProperty("instances", instances.toString());
+    }
+
+    // clients used by the fixtures can only be created once deployed
+    APITests.beforeAll();
+
+    final WorkloadRunner runner = new WorkloadRunner(configuration.threads);
+
+    try {
+      final SyntheticLibrary library = new SyntheticLibrary();
+
+      library.seed(configuration, runner);
+
+      final JsonArray operations = new JsonArray();
+
+      for (OperationStatistics statistics : runWorkloads(library, configuration, runner)) {
+        final JsonObject representation = statistics.asJson();
+
+        log.info("{}", representation.encode());
+
+        operations.add(representation);
+      }
+
+      return new JsonObject()
+        .put("instances", instances == null ? "default" : instances.toString())
+        .put("operations", operations);
+    }
+    finally {
+      runner.shutdown();
+      APITests.afterAll();
+    }
+  }
+
+  /**
+   * Each workload uses the state left by the previous ones, e.g. the loans
+   * created by the check out workload are renewed and then checked in
+   */
+  private static List<OperationStatistics> runWorkloads(SyntheticLibrary library,
+    LoadConfiguration configuration, WorkloadRunner runner) {
+
+    final List<IndividualResource> items = library.getCirculatingItems();
+    final List<IndividualResource> requestedItems = library.getRequestedItems();
+    final List<IndividualResource> patrons = library.getPatrons();
+
+    // the first patrons borrowed and requested the items with request queues
+    final List<IndividualResource> otherPatrons = patrons.subList(
+      configuration.queueDepth + 1, patrons.size());
+
+    final List<OperationStatistics> statistics = new ArrayList<>();
+
+    statistics.add(runner.run("check-out", operations(items.size(),
+      index -> () -> library.checkOut(items.get(index),
+        otherPatrons.get(index % otherPatrons.size())))));
+
+    statistics.add(runner.run("renewal", operations(items.size(),
+      index -> () -> library.renew(items.get(index),
+        otherPatrons.get(index % otherPatrons.size())))));
+
+    statistics.add(runner.run("request-placement", operations(configuration.operations,
+      index -> () -> library.placeHold(
+        requestedItems.get(index % requestedItems.size()),
+        otherPatrons.get((index / requestedItems.size()) % otherPatrons.size())))));
+
+    final List<IndividualResource> checkedOutItems = new ArrayList<>(requestedItems);
+
+    checkedOutItems.addAll(items);
+
+    statistics.add(runner.run("check-in", operations(checkedOutItems.size(),
+      index -> () -> library.checkIn(checkedOutItems.get(index)))));
+
+    statistics.add(runner.run("hold-shelf-clearance-report",
+      operations(configuration.reportOperations,
+        index -> library::holdShelfClearanceReport)));
+
+    return statistics;
+  }
+
+  private static List<Operation> operations(int count,
+    IntFunction<Operation> operation) {
+
+    return IntStream.range(0, count)
+      .mapToObj(operation)
+      .collect(toList());
+  }
+
+  private static void writeReport(LoadConfiguration configuration,
+    JsonObject report) throws IOException {
+
+    final Path path = Paths.get(configuration.reportPath);
+
+    if (path.getParent() != null) {
+      Files.createDirectories(path.getParent());
+    }
+
+    Files.write(path, report.encodePrettily().getBytes(UTF_8));
+
+    log.info("Load test report written to {}", path.toAbsolutePath());
+  }
+}
@@ -0,0 +1,119 @@
+package load;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Latencies, failures and storage requests made for one kind of operation
+ * during a workload
+ */
+class OperationStatistics {
+  private static final long[] BUCKETS_IN_MILLISECONDS = {
+    5, 10, 25, 50, 100, 250, 500, 1000, 2500, 5000, 10000 };
+
+  private final String name;
+  private final List<Long> latenciesInNanoseconds
+    = Collections.synchronizedList(new ArrayList<>());
+  private final AtomicLong failures = new AtomicLong();
+  private final Map<String, Long> storageRequests = new TreeMap<>();
+  private long durationInNanoseconds;
+
+  OperationStatistics(String name) {
+    this.name = name;
+  }
+
+  String getName() {
+    return name;
+  }
+
+  void succeeded(long latencyInNanoseconds) {
+    latenciesInNanoseconds.add(latencyInNanoseconds);
+  }
+
+  void failed() {
+    failures.incrementAndGet();
+  }
+
+  void finished(long durationInNanoseconds, Map<String, Long> storageRequests) {
+    this.durationInNanoseconds = durationInNanoseconds;
+    this.storageRequests.putAll(storageRequests);
+  }
+
+  JsonObject asJson() {
+    final List<Long> sorted = sortedLatencies();
+    final int operations = sorted.size() + (int) failures.get();
+
+    final JsonObject histogram = new JsonObject();
+
+    for (long upperBound : BUCKETS_IN_MILLISECONDS) {
+      histogram.put(String.valueOf(upperBound), sorted.stream()
+        .filter(latency -> toMilliseconds(latency) <= upperBound)
+        .count());
+    }
+
+    histogram.put("+Inf", sorted.size());
+
+    final JsonObject storageRequestsPerOperation = new JsonObject();
+
+    storageRequests.forEach((path, count) ->
+      storageRequestsPerOperation.put(path, perOperation(count, operations)));
+
+    return new JsonObject()
+      .put("operation", name)
+      .put("succeeded", sorted.size())
+      .put("failed", failures.get())
+      .put("throughputPerSecond", operations == 0 ? 0
+        : operations / (durationInNanoseconds / 1_000_000_000d))
+      .put("latencyInMilliseconds", new JsonObject()
+        .put("mean", toMilliseconds(mean(sorted)))
+        .put("p50", toMilliseconds(percentile(sorted, 50)))
+        .put("p90", toMilliseconds(percentile(sorted, 90)))
+        .put("p99", toMilliseconds(percentile(sorted, 99)))
+        .put("max", toMilliseconds(percentile(sorted, 100)))
+        .put("histogram", histogram))
+      .put("storageRequestsPerOperation", perOperation(
+        storageRequests.values().stream().mapToLong(Long::longValue).sum(),
+        operations))
+      .put("storageRequestsPerOperationByPath", storageRequestsPerOperation);
+  }
+
+  private List<Long> sortedLatencies() {
+    final List<Long> sorted;
+
+    synchronized (latenciesInNanoseconds) {
+      sorted = new ArrayList<>(latenciesInNanoseconds);
+    }
+
+    Collections.sort(sorted);
+
+    return sorted;
+  }
+
+  private static long percentile(List<Long> sorted, int percentile) {
+    if (sorted.isEmpty()) {
+      return 0;
+    }
+
+    final int index = (int) Math.ceil(percentile / 100d * sorted.size()) - 1;
+
+    return sorted.get(Math.max(index, 0));
+  }
+
+  private static long mean(List<Long> sorted) {
+    return (long) sorted.stream().mapToLong(Long::longValue).average().orElse(0);
+  }
+
+  private static double perOperation(long count, int operations) {
+    return operations == 0 ? 0 : (double) count / operations;
+  }
+
+  private static double toMilliseconds(long nanoseconds) {
+    return nanoseconds / 1_000_000d;
+  }
+}
@@ -0,0 +1,211 @@
+package load;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import java.lang.invoke.MethodHandles;
+import java.util.List;
+import java.util.UUID;
+
+import org.folio.circulation.domain.policy.Period;
+import org.folio.circulation.support.http.client.IndividualResource;
+import org.folio.circulation.support.http.client.Response;
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import api.support.APITests;
+import api.support.builders.ItemBuilder;
+import api.support.builders.LoanPolicyBuilder;
+import api.support.builders.RequestBuilder;
+import api.support.builders.UserBuilder;
+import api.support.http.InventoryItemResource;
+import api.support.http.ResourceClient;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Library with a configurable number of items and patrons, some items having
+ * deep request queues, stored in the fake storage modules used by the API tests
+ *
+ * Records are created using the same builders and fixtures as the API tests,
+ * only the items used by the workloads are kept in memory
+ */
+class SyntheticLibrary extends APITests {
+  private static final Logger log = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+  private IndividualResource pickupServicePoint;
+  private List<IndividualResource> patrons;
+  private List<IndividualResource> circulatingItems;
+  private List<IndividualResource> requestedItems;
+
+  SyntheticLibrary() {
+    super(false);
+  }
+
+  void seed(LoadConfiguration configuration, WorkloadRunner runner)
+    throws Exception {
+
+    beforeEach();
+
+    final IndividualResource loanPolicy = loanPoliciesFixture.create(
+      new LoanPolicyBuilder()
+        .withName("Synthetic library loan policy")
+        .rolling(Period.weeks(3))
+        .unlimitedRenewals()
+        .renewFromCurrentDueDate());
+
+    useFallbackPolicies(loanPolicy.getId(),
+      requestPoliciesFixture.allowAllRequestPolicy().getId(),
+      noticePoliciesFixture.inactiveNotice().getId(),
+      overdueFinePoliciesFixture.facultyStandard().getId());
+
+    pickupServicePoint = servicePointsFixture.cd1();
+
+    final IndividualResource patronGroup = patronGroupsFixture.regular();
+
+    log.info("Creating {} patrons", configuration.patrons);
+
+    patrons = runner.create(configuration.patrons, index -> () ->
+      usersClient.create(new UserBuilder()
+        .withName(format("Patron", index), "Synthetic")
+        .withUsername(format("patron", index))
+        .withBarcode(format("P", index))
+        .inGroupFor(patronGroup)));
+
+    final List<IndividualResource> items = createItems(configuration, runner);
+
+    requestedItems = items.subList(0, configuration.requestedItems);
+    circulatingItems = items.subList(configuration.requestedItems, items.size());
+
+    createRequestQueues(configuration, runner);
+  }
+
+  List<IndividualResource> getPatrons() {
+    return patrons;
+  }
+
+  List<IndividualResource> getCirculatingItems() {
+    return circulatingItems;
+  }
+
+  List<IndividualResource> getRequestedItems() {
+    return requestedItems;
+  }
+
+  void checkOut(IndividualResource item, IndividualResource patron)
+    throws Exception {
+
+    loansFixture.checkOutByBarcode(item, patron, DateTime.now(DateTimeZone.UTC));
+  }
+
+  void checkIn(IndividualResource item) {
+    loansFixture.checkInByBarcode(item, DateTime.now(DateTimeZone.UTC),
+      pickupServicePoint.getId());
+  }
+
+  void renew(IndividualResource item, IndividualResource patron) {
+    loansFixture.renewLoan(item, patron);
+  }
+
+  void placeHold(IndividualResource item, IndividualResource patron)
+    throws Exception {
+
+    requestsFixture.place(holdRequest(item, patron));
+  }
+
+  void holdShelfClearanceReport() throws Exception {
+    final Response response = ResourceClient.forRequestReport(client)
+      .getById(pickupServicePoint.getId());
+
+    assertThat(response.getBody(), response.getStatusCode(), is(200));
+  }
+
+  /**
+   * Creates one instance and holdings record for every few items, based upon
+   * the records of an example item from the API tests
+   *
+   * @return the requested items followed by the items used by the workloads
+   */
+  private List<IndividualResource> createItems(
+    LoadConfiguration configuration, WorkloadRunner runner)
+    throws Exception {
+
+    final InventoryItemResource example = itemsFixture.basedUponSmallAngryPlanet();
+    final JsonObject exampleItem = example.getJson();
+
+    final int holdingsRecords = (int) Math.ceil(
+      (double) configuration.items / configuration.itemsPerHoldingsRecord);
+
+    log.info("Creating {} instances and holdings records", holdingsRecords);
+
+    final List<UUID> holdingsRecordIds = runner.create(holdingsRecords, index -> () -> {
+      final JsonObject instance = example.getInstance().copyJson()
+        .put("id", UUID.randomUUID().toString())
+        .put("title", format("Synthetic instance", index));
+
+      instancesClient.create(instance);
+
+      final JsonObject holdingsRecord = example.getHoldingsRecord().copyJson()
+        .put("id", UUID.randomUUID().toString())
+        .put("instanceId", instance.getString("id"));
+
+      return holdingsClient.create(holdingsRecord).getId();
+    });
+
+    final int itemsToKeep = configuration.requestedItems + configuration.operations;
+
+    log.info("Creating {} items", configuration.items);
+
+    final List<IndividualResource> items = runner.create(configuration.items,
+      index -> () -> {
+        final IndividualResource item = itemsClient.create(new ItemBuilder()
+          .forHolding(holdingsRecordIds.get(index / configuration.itemsPerHoldingsRecord))
+          .withBarcode(format("I", index))
+          .withMaterialType(UUID.fromString(exampleItem.getString("materialTypeId")))
+          .withPermanentLoanType(UUID.fromString(exampleItem.getString("permanentLoanTypeId"))));
+
+        return index < itemsToKeep ? item : null;
+      });
+
+    return items.subList(0, itemsToKeep);
+  }
+
+  /**
+   * Checks out each requested item to the first patron and then places
+   * holds on it from the following patrons, in order
+   */
+  private void createRequestQueues(LoadConfiguration configuration,
+    WorkloadRunner runner) {
+
+    log.info("Creating request queues of {} requests for {} items",
+      configuration.queueDepth, configuration.requestedItems);
+
+    runner.create(configuration.requestedItems, index -> () -> {
+      final IndividualResource item = requestedItems.get(index);
+
+      checkOut(item, patrons.get(0));
+
+      for (int position = 1; position <= configuration.queueDepth; position++) {
+        requestsClient.create(holdRequest(item, patrons.get(position)));
+      }
+
+      return item;
+    });
+  }
+
+  private RequestBuilder holdRequest(IndividualResource item,
+    IndividualResource requester) {
+
+    return new RequestBuilder()
+      .hold()
+      .forItem(item)
+      .by(requester)
+      .withRequestDate(DateTime.now(DateTimeZone.UTC))
+      .fulfilToHoldShelf(pickupServicePoint.getId());
+  }
+
+  private static String format(String prefix, int index) {
+    return String.format("%s%08d", prefix, index);
+  }
+}
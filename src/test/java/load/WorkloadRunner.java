@@ -0,0 +1,106 @@
+package load;
+
+import static java.util.stream.Collectors.toList;
+
+import java.lang.invoke.MethodHandles;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.IntFunction;
+import java.util.stream.IntStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import api.support.fakes.FakeStorageModule;
+
+/**
+ * Performs operations concurrently using a fixed number of threads,
+ * each thread making blocking requests to the module
+ */
+class WorkloadRunner {
+  private static final Logger log = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+  @FunctionalInterface
+  interface Operation {
+    void perform() throws Exception;
+  }
+
+  private final ExecutorService executor;
+
+  WorkloadRunner(int threads) {
+    executor = Executors.newFixedThreadPool(threads);
+  }
+
+  /**
+   * Performs the operations, recording the latency of each one and
+   * the requests made to the fake storage modules whilst they were performed
+   */
+  OperationStatistics run(String name, List<Operation> operations) {
+    final OperationStatistics statistics = new OperationStatistics(name);
+
+    log.info("Running {} {} operations", operations.size(), name);
+
+    FakeStorageModule.resetRequestCounts();
+
+    final long start = System.nanoTime();
+
+    CompletableFuture.allOf(operations.stream()
+      .map(operation -> CompletableFuture.runAsync(
+        () -> perform(operation, statistics), executor))
+      .toArray(CompletableFuture[]::new))
+      .join();
+
+    statistics.finished(System.nanoTime() - start,
+      FakeStorageModule.getRequestCounts());
+
+    return statistics;
+  }
+
+  /**
+   * Creates records concurrently, failing if any of them cannot be created
+   *
+   * @return created records, in the same order as the indexes they were made from
+   */
+  <T> List<T> create(int count, IntFunction<Callable<T>> creator) {
+    final List<CompletableFuture<T>> created = IntStream.range(0, count)
+      .mapToObj(creator)
+      .map(creation -> CompletableFuture.supplyAsync(() -> call(creation), executor))
+      .collect(toList());
+
+    return created.stream()
+      .map(CompletableFuture::join)
+      .collect(toList());
+  }
+
+  void shutdown() {
+    executor.shutdownNow();
+  }
+
+  private static void perform(Operation operation, OperationStatistics statistics) {
+    final long start = System.nanoTime();
+
+    try {
+      operation.perform();
+
+      statistics.succeeded(System.nanoTime() - start);
+    }
+    catch (Exception | AssertionError e) {
+      log.warn("{} operation failed: {}", statistics.getName(), e.getMessage());
+
+      statistics.failed();
+    }
+  }
+
+  private static <T> T call(Callable<T> callable) {
+    try {
+      return callable.call();
+    }
+    catch (Exception e) {
+      throw new CompletionException(e);
+    }
+  }
+}
@@ -0,0 +1,91 @@
+package org.folio.circulation.domain;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.junit.Test;
+
+import api.support.builders.LoanBuilder;
+import api.support.builders.RequestBuilder;
+
+public class MultipleRecordsTests {
+  @Test
+  public void recordsAreCombinedWithMatchingRecords() {
+    final UUID firstItemId = UUID.randomUUID();
+    final UUID secondItemId = UUID.randomUUID();
+
+    final MultipleRecords<Request> requests = records(
+      request(firstItemId), request(secondItemId), request(UUID.randomUUID()));
+
+    final Loan firstLoan = loan(firstItemId);
+    final Loan secondLoan = loan(secondItemId);
+
+    final List<Request> combined = new ArrayList<>(requests.combineRecords(
+      records(secondLoan, firstLoan), Loan::getItemId, Request::getItemId,
+      Request::withLoan).getRecords());
+
+    assertThat(combined.get(0).getLoan().getId(), is(firstLoan.getId()));
+    assertThat(combined.get(1).getLoan().getId(), is(secondLoan.getId()));
+    assertThat(combined.get(2).getLoan(), is(nullValue()));
+  }
+
+  @Test
+  public void totalRecordsIsRetainedWhenCombined() {
+    final MultipleRecords<Request> requests = new MultipleRecords<>(
+      Arrays.asList(request(UUID.randomUUID())), 57);
+
+    final MultipleRecords<Request> combined = requests.combineRecords(
+      MultipleRecords.<Loan>empty(), Loan::getItemId, Request::getItemId,
+      Request::withLoan);
+
+    assertThat(combined.getTotalRecords(), is(57));
+  }
+
+  @Test
+  public void firstRecordIsKeptForDuplicateKeys() {
+    final UUID itemId = UUID.randomUUID();
+
+    final Loan firstLoan = loan(itemId);
+
+    final Map<String, Loan> loans = records(firstLoan, loan(itemId))
+      .toMap(Loan::getItemId);
+
+    assertThat(loans.size(), is(1));
+    assertThat(loans.get(itemId.toString()).getId(), is(firstLoan.getId()));
+  }
+
+  @Test
+  public void recordsWithoutKeyAreNotIndexed() {
+    final Map<String, Request> requests = records(
+      Request.from(new RequestBuilder().withItemId(null).create()))
+      .toMap(Request::getItemId);
+
+    assertThat(requests.isEmpty(), is(true));
+  }
+
+  private static Request request(UUID itemId) {
+    return Request.from(new RequestBuilder()
+      .withId(UUID.randomUUID())
+      .withItemId(itemId)
+      .create());
+  }
+
+  private static Loan loan(UUID itemId) {
+    return Loan.from(new LoanBuilder()
+      .withId(UUID.randomUUID())
+      .withItemId(itemId)
+      .create());
+  }
+
+  @SafeVarargs
+  private static <T> MultipleRecords<T> records(T... records) {
+    return new MultipleRecords<>(Arrays.asList(records), records.length);
+  }
+}
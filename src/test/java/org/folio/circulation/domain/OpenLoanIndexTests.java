@@ -0,0 +1,194 @@
+package org.folio.circulation.domain;
+
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static org.folio.circulation.support.Result.succeeded;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.hasItems;
+import static org.junit.Assert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.folio.circulation.support.CollectionResourceClient;
+import org.folio.circulation.support.CqlQuery;
+import org.folio.circulation.support.Result;
+import org.folio.circulation.support.ValidationErrorFailure;
+import org.folio.circulation.support.http.client.Response;
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.junit.Before;
+import org.junit.Test;
+
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
+public class OpenLoanIndexTests {
+  private static final String TENANT = "test_tenant";
+  private static final DateTime NOW = new DateTime(2019, 10, 1, 12, 0, DateTimeZone.UTC);
+
+  private final AtomicLong clock = new AtomicLong();
+  private CollectionResourceClient loansClient;
+  private OpenLoanIndex index;
+
+  @Before
+  @SuppressWarnings("unchecked")
+  public void setUp() {
+    loansClient = mock(CollectionResourceClient.class);
+
+    when(loansClient.reportingFailures(any())).thenAnswer(invocation ->
+      invocation.<Function<CollectionResourceClient, CompletableFuture<Result<Void>>>>
+        getArgument(0).apply(loansClient));
+
+    storageHas(
+      loan("loan-3", NOW.minusDays(1)),
+      loan("loan-1", NOW.minusDays(3)),
+      loan("loan-2", NOW.minusDays(2)),
+      loan("loan-4", NOW.plusDays(1)));
+
+    index = new OpenLoanIndex(300, 1000, clock::get);
+  }
+
+  @Test
+  public void findsLoansDueBeforeDateInOrderOfDueDate() {
+    final OpenLoanIndex.Page page = find(null, 10);
+
+    assertThat(page.getLoanIds(), contains("loan-1", "loan-2", "loan-3"));
+    assertThat(page.getTotalRecords(), is(3));
+    assertThat(page.getNextCursor(), nullValue());
+  }
+
+  @Test
+  public void pagesUsingCursor() {
+    final OpenLoanIndex.Page firstPage = find(null, 2);
+
+    assertThat(firstPage.getLoanIds(), contains("loan-1", "loan-2"));
+
+    final OpenLoanIndex.Page secondPage = find(firstPage.getNextCursor(), 2);
+
+    assertThat(secondPage.getLoanIds(), contains("loan-3"));
+    assertThat(secondPage.getNextCursor(), nullValue());
+  }
+
+  @Test
+  public void includesLoansChangedViaThisModule() {
+    find(null, 10);
+
+    index.loanChanged(TENANT, Loan.from(loan("loan-4", NOW.minusDays(4))));
+    index.loanChanged(TENANT, Loan.from(loan("loan-2", NOW.minusDays(2))
+      .put("status", new JsonObject().put("name", "Closed"))));
+    index.loanRemoved(TENANT, "loan-3");
+
+    assertThat(find(null, 10).getLoanIds(), contains("loan-4", "loan-1"));
+  }
+
+  @Test
+  public void isOnlyBuiltOnceWithinRebuildInterval() {
+    find(null, 10);
+    find(null, 10);
+
+    verify(loansClient, times(1)).getMany(any(CqlQuery.class), anyInt());
+  }
+
+  @Test
+  public void isRebuiltOnceOlderThanRebuildInterval() {
+    find(null, 10);
+
+    storageHas(loan("loan-2", NOW.minusDays(2)));
+
+    clock.addAndGet(TimeUnit.SECONDS.toNanos(301));
+
+    // the rebuild happens in the background, with the previous index used
+    find(null, 10);
+
+    assertThat(find(null, 10).getLoanIds(), contains("loan-2"));
+  }
+
+  @Test
+  public void includesOpenLoansWhenLoanIsClosedDuringBuild() {
+    final NavigableMap<String, JsonObject> openLoans = new TreeMap<>();
+
+    for (int day = 1; day <= 5; day++) {
+      openLoans.put("loan-" + day, loan("loan-" + day, NOW.minusDays(day)));
+    }
+
+    when(loansClient.getMany(any(CqlQuery.class), anyInt()))
+      .thenAnswer(invocation -> {
+        final Matcher afterId = Pattern.compile("id>\"([^\"]+)\"")
+          .matcher(invocation.getArgument(0).toString());
+
+        final JsonArray page = new JsonArray();
+
+        (afterId.find() ? openLoans.tailMap(afterId.group(1), false) : openLoans)
+          .values().stream()
+          .limit(invocation.<Integer>getArgument(1))
+          .forEach(page::add);
+
+        // the first loan is closed once the first page has been fetched
+        openLoans.remove("loan-1");
+
+        return completedFuture(succeeded(new Response(200, new JsonObject()
+          .put("loans", page)
+          .put("totalRecords", openLoans.size()).encode(), "application/json")));
+      });
+
+    index = new OpenLoanIndex(300, 2, clock::get);
+
+    assertThat(find(null, 10).getLoanIds(),
+      hasItems("loan-5", "loan-4", "loan-3", "loan-2"));
+  }
+
+  @Test
+  public void invalidCursorIsRefused() {
+    final Result<OpenLoanIndex.Page> result = index.findDueBefore(TENANT,
+      loansClient, NOW, "not a cursor", 10).join();
+
+    assertThat(result.cause() instanceof ValidationErrorFailure, is(true));
+  }
+
+  @Test
+  public void limitBelowOneIsRefused() {
+    final Result<OpenLoanIndex.Page> result = index.findDueBefore(TENANT,
+      loansClient, NOW, null, 0).join();
+
+    assertThat(result.cause() instanceof ValidationErrorFailure, is(true));
+  }
+
+  private OpenLoanIndex.Page find(String cursor, int limit) {
+    return index.findDueBefore(TENANT, loansClient, NOW, cursor, limit)
+      .join().value();
+  }
+
+  private void storageHas(JsonObject... loans) {
+    final JsonArray loansJson = new JsonArray();
+
+    for (JsonObject loan : loans) {
+      loansJson.add(loan);
+    }
+
+    when(loansClient.getMany(any(CqlQuery.class), anyInt()))
+      .thenReturn(completedFuture(succeeded(new Response(200, new JsonObject()
+        .put("loans", loansJson)
+        .put("totalRecords", loans.length).encode(), "application/json"))));
+  }
+
+  private static JsonObject loan(String id, DateTime dueDate) {
+    return new JsonObject()
+      .put("id", id)
+      .put("status", new JsonObject().put("name", "Open"))
+      .put("dueDate", dueDate.toString());
+  }
+}
@@ -0,0 +1,154 @@
+package org.folio.circulation.domain.notice;
+
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static org.folio.circulation.support.Result.failed;
+import static org.folio.circulation.support.Result.succeeded;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.Matchers.contains;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.folio.circulation.support.Result;
+import org.folio.circulation.support.ServerErrorFailure;
+import org.folio.circulation.support.StorageUnavailableFailure;
+import org.junit.Test;
+
+public class PatronNoticeDispatcherTests {
+  private static final String TENANT = "test_tenant";
+
+  private final AtomicLong clock = new AtomicLong();
+  private final List<Long> delays = new ArrayList<>();
+  private final List<Runnable> scheduled = new ArrayList<>();
+
+  @Test
+  public void noticesAreSentImmediatelyWhenDisabled() {
+    final PatronNoticeDispatcher dispatcher = dispatcher(false, 10, 1);
+    final CompletableFuture<Result<Void>> response = new CompletableFuture<>();
+
+    final CompletableFuture<Result<Void>> dispatched = dispatcher.dispatch(
+      TENANT, () -> response);
+
+    assertThat(dispatched.isDone(), is(false));
+  }
+
+  @Test
+  public void noticesAreAcceptedBeforeBeingSent() {
+    final PatronNoticeDispatcher dispatcher = dispatcher(true, 10, 1);
+
+    final CompletableFuture<Result<Void>> dispatched = dispatcher.dispatch(
+      TENANT, CompletableFuture::new);
+
+    assertThat(dispatched.join().succeeded(), is(true));
+  }
+
+  @Test
+  public void onlyLimitedNumberOfNoticesAreSentAtTheSameTime() {
+    final PatronNoticeDispatcher dispatcher = dispatcher(true, 10, 2);
+    final List<CompletableFuture<Result<Void>>> responses = new ArrayList<>();
+
+    for (int notice = 0; notice < 3; notice++) {
+      dispatcher.dispatch(TENANT, () -> {
+        final CompletableFuture<Result<Void>> response = new CompletableFuture<>();
+        responses.add(response);
+        return response;
+      });
+    }
+
+    assertThat(responses.size(), is(2));
+
+    responses.get(0).complete(succeeded(null));
+
+    assertThat(responses.size(), is(3));
+  }
+
+  @Test
+  public void noticesAreSentDuringRequestWhenQueueIsFull() {
+    final PatronNoticeDispatcher dispatcher = dispatcher(true, 1, 1);
+
+    dispatcher.dispatch(TENANT, CompletableFuture::new);
+    dispatcher.dispatch(TENANT, CompletableFuture::new);
+
+    final CompletableFuture<Result<Void>> overflowed = dispatcher.dispatch(
+      TENANT, CompletableFuture::new);
+
+    assertThat(overflowed.isDone(), is(false));
+  }
+
+  @Test
+  public void failedNoticesAreTriedAgainWithIncreasingDelay() {
+    final PatronNoticeDispatcher dispatcher = dispatcher(true, 10, 1);
+    final AtomicInteger attempts = new AtomicInteger();
+
+    dispatcher.dispatch(TENANT, () -> {
+      attempts.incrementAndGet();
+      return completedFuture(failed(new StorageUnavailableFailure("timed out")));
+    });
+
+    runScheduled();
+    runScheduled();
+    runScheduled();
+
+    assertThat(attempts.get(), is(3));
+    assertThat(delays, contains(1000L, 2000L));
+  }
+
+  @Test
+  public void refusedNoticesAreNotTriedAgain() {
+    final PatronNoticeDispatcher dispatcher = dispatcher(true, 10, 1);
+    final AtomicInteger attempts = new AtomicInteger();
+
+    dispatcher.dispatch(TENANT, () -> {
+      attempts.incrementAndGet();
+      return completedFuture(failed(new ServerErrorFailure(
+        "HTTP request to \"/patron-notice\" failed, status code: 422")));
+    });
+
+    runScheduled();
+
+    assertThat(attempts.get(), is(1));
+    assertThat(scheduled.isEmpty(), is(true));
+  }
+
+  @Test
+  public void queuedNoticesAreSentWhenClosed() {
+    final PatronNoticeDispatcher dispatcher = dispatcher(true, 10, 1);
+    final AtomicInteger attempts = new AtomicInteger();
+
+    dispatcher.dispatch(TENANT, () -> {
+      attempts.incrementAndGet();
+      return completedFuture(failed(new StorageUnavailableFailure("timed out")));
+    });
+
+    dispatcher.dispatch(TENANT, () -> {
+      attempts.incrementAndGet();
+      return completedFuture(succeeded(null));
+    });
+
+    assertThat(dispatcher.close().join().succeeded(), is(true));
+
+    // the failed notice is tried once more, rather than waiting for the delay
+    assertThat(attempts.get(), is(3));
+  }
+
+  private PatronNoticeDispatcher dispatcher(boolean enabled, int capacity,
+    int maximumInFlight) {
+
+    return new PatronNoticeDispatcher(enabled, capacity, maximumInFlight, 3,
+      1000, (delay, task) -> {
+        delays.add(delay);
+        scheduled.add(task);
+      }, clock::get);
+  }
+
+  private void runScheduled() {
+    final List<Runnable> tasks = new ArrayList<>(scheduled);
+
+    scheduled.clear();
+    tasks.forEach(Runnable::run);
+  }
+}
@@ -0,0 +1,90 @@
+package org.folio.circulation.domain.notice.schedule;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+public class AdaptiveNoticeBatchingTests {
+  private static final String TENANT = "test_tenant";
+  private static final String PROCESSOR = "/due-date";
+
+  @Test
+  public void configuredLimitIsUsedWhenDisabled() {
+    final AdaptiveNoticeBatching batching = new AdaptiveNoticeBatching(
+      false, 10, 1000, 2000, 20000);
+
+    batching.batchProcessed(TENANT, PROCESSOR, 100, 100, milliseconds(10));
+
+    assertThat(batching.batchSize(TENANT, PROCESSOR, 100), is(100));
+    assertThat(batching.shouldContinue(System.nanoTime(), 50), is(false));
+  }
+
+  @Test
+  public void configuredLimitIsUsedForFirstBatch() {
+    assertThat(enabled().batchSize(TENANT, PROCESSOR, 100), is(100));
+  }
+
+  @Test
+  public void batchGrowsWhenFullBatchIsFasterThanTarget() {
+    final AdaptiveNoticeBatching batching = enabled();
+
+    // 10 milliseconds per notice allows 200 notices in 2 seconds
+    batching.batchProcessed(TENANT, PROCESSOR, 100, 100, milliseconds(1000));
+
+    assertThat(batching.batchSize(TENANT, PROCESSOR, 100), is(150));
+  }
+
+  @Test
+  public void batchDoesNotGrowWhenNotFull() {
+    final AdaptiveNoticeBatching batching = enabled();
+
+    batching.batchProcessed(TENANT, PROCESSOR, 100, 40, milliseconds(40));
+
+    assertThat(batching.batchSize(TENANT, PROCESSOR, 100), is(100));
+  }
+
+  @Test
+  public void batchShrinksWhenSlowerThanTarget() {
+    final AdaptiveNoticeBatching batching = enabled();
+
+    // 100 milliseconds per notice allows 20 notices in 2 seconds
+    batching.batchProcessed(TENANT, PROCESSOR, 100, 100, milliseconds(10000));
+
+    assertThat(batching.batchSize(TENANT, PROCESSOR, 100), is(60));
+  }
+
+  @Test
+  public void batchSizeIsWithinBounds() {
+    final AdaptiveNoticeBatching batching = enabled();
+
+    for (int batch = 0; batch < 10; batch++) {
+      final int size = batching.batchSize(TENANT, PROCESSOR, 100);
+
+      batching.batchProcessed(TENANT, PROCESSOR, size, size, milliseconds(100000));
+    }
+
+    assertThat(batching.batchSize(TENANT, PROCESSOR, 100), is(10));
+    assertThat(batching.batchSize(TENANT, "/other", 5000), is(1000));
+  }
+
+  @Test
+  public void continuesWhilstNoticesRemainWithinTimeBudget() {
+    final AdaptiveNoticeBatching batching = enabled();
+
+    assertThat(batching.shouldContinue(System.nanoTime(), 50), is(true));
+    assertThat(batching.shouldContinue(System.nanoTime(), 0), is(false));
+    assertThat(batching.shouldContinue(
+      System.nanoTime() - milliseconds(30000), 50), is(false));
+  }
+
+  private static AdaptiveNoticeBatching enabled() {
+    return new AdaptiveNoticeBatching(true, 10, 1000, 2000, 20000);
+  }
+
+  private static long milliseconds(long milliseconds) {
+    return TimeUnit.MILLISECONDS.toNanos(milliseconds);
+  }
+}
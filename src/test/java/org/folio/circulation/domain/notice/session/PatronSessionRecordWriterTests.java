@@ -0,0 +1,104 @@
+package org.folio.circulation.domain.notice.session;
+
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static org.folio.circulation.support.Result.failed;
+import static org.folio.circulation.support.Result.succeeded;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.UUID;
+
+import org.folio.circulation.support.ServerErrorFailure;
+import org.junit.Before;
+import org.junit.Test;
+
+public class PatronSessionRecordWriterTests {
+  private static final String TENANT = "test_tenant";
+
+  private PatronActionSessionRepository repository;
+
+  @Before
+  public void setUp() {
+    repository = mock(PatronActionSessionRepository.class);
+
+    when(repository.create(any()))
+      .thenAnswer(invocation -> completedFuture(succeeded(invocation.getArgument(0))));
+  }
+
+  @Test
+  public void recordsAreWrittenImmediatelyWhenDisabled() {
+    final PatronSessionRecordWriter writer = new PatronSessionRecordWriter(
+      false, null, 1000, 20);
+
+    writer.write(TENANT, record(), repository, () -> repository).join();
+
+    verify(repository, times(1)).create(any());
+  }
+
+  @Test
+  public void recordsAreBufferedUntilFlushed() {
+    final PatronSessionRecordWriter writer = new PatronSessionRecordWriter(
+      true, null, 1000, 20);
+
+    writer.write(TENANT, record(), repository, () -> repository).join();
+    writer.write(TENANT, record(), repository, () -> repository).join();
+
+    verify(repository, never()).create(any());
+
+    writer.flush(TENANT).join();
+
+    verify(repository, times(2)).create(any());
+  }
+
+  @Test
+  public void recordsAreWrittenOnceBatchIsFull() {
+    final PatronSessionRecordWriter writer = new PatronSessionRecordWriter(
+      true, null, 1000, 2);
+
+    writer.write(TENANT, record(), repository, () -> repository).join();
+    writer.write(TENANT, record(), repository, () -> repository).join();
+
+    verify(repository, times(2)).create(any());
+  }
+
+  @Test
+  public void recordsAreWrittenWhenClosed() {
+    final PatronSessionRecordWriter writer = new PatronSessionRecordWriter(
+      true, null, 1000, 20);
+
+    writer.write(TENANT, record(), repository, () -> repository).join();
+    writer.write("another_tenant", record(), repository, () -> repository).join();
+
+    writer.close().join();
+
+    verify(repository, times(2)).create(any());
+  }
+
+  @Test
+  public void failedRecordsAreTriedAgainUpToLimit() {
+    when(repository.create(any()))
+      .thenReturn(completedFuture(failed(new ServerErrorFailure("timed out"))));
+
+    final PatronSessionRecordWriter writer = new PatronSessionRecordWriter(
+      true, null, 1000, 20);
+
+    writer.write(TENANT, record(), repository, () -> repository).join();
+
+    for (int flush = 0; flush < 5; flush++) {
+      assertThat(writer.flush(TENANT).join().succeeded(), is(true));
+    }
+
+    verify(repository, times(3)).create(any());
+  }
+
+  private static PatronSessionRecord record() {
+    return new PatronSessionRecord(UUID.randomUUID(), UUID.randomUUID(),
+      UUID.randomUUID(), PatronActionType.CHECK_OUT);
+  }
+}
@@ -0,0 +1,121 @@
+package org.folio.circulation.rules;
+
+import static org.folio.circulation.resources.AbstractCirculationRulesEngineResource.ITEM_TYPE_ID_NAME;
+import static org.folio.circulation.resources.AbstractCirculationRulesEngineResource.LOAN_TYPE_ID_NAME;
+import static org.folio.circulation.resources.AbstractCirculationRulesEngineResource.LOCATION_ID_NAME;
+import static org.folio.circulation.resources.AbstractCirculationRulesEngineResource.PATRON_TYPE_ID_NAME;
+import static org.folio.circulation.rules.CompiledRulesStore.getCompiledRulesStore;
+import static org.folio.circulation.rules.DroolsCompiler.getDroolsCompiler;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+
+import java.nio.file.Files;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.folio.circulation.domain.Location;
+import org.folio.circulation.rules.CompiledRulesStore.SavedRules;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import api.support.builders.LocationBuilder;
+import io.vertx.core.MultiMap;
+import io.vertx.core.http.CaseInsensitiveHeaders;
+import io.vertx.core.json.JsonObject;
+
+public class CompiledRulesStoreTests {
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  @Before
+  public void useTemporaryFolder() {
+    CompiledRulesStore.configure(new JsonObject()
+      .put("rulesCompilation", new JsonObject()
+        .put("directory", folder.getRoot().getAbsolutePath())));
+  }
+
+  @After
+  public void stopUsingTemporaryFolder() {
+    CompiledRulesStore.configure(new JsonObject());
+  }
+
+  @Test
+  public void canLoadSavedRules() throws Exception {
+    final String rulesAsText = rules("policy-" + UUID.randomUUID());
+
+    final Drools compiled = getDroolsCompiler().compile(rulesAsText)
+      .get(30, TimeUnit.SECONDS);
+
+    getCompiledRulesStore().save("test_tenant", rulesAsText, compiled);
+
+    final List<SavedRules> allSavedRules = getCompiledRulesStore().loadAll()
+      .get(30, TimeUnit.SECONDS);
+
+    assertThat(allSavedRules, hasSize(1));
+
+    final SavedRules savedRules = allSavedRules.get(0);
+
+    assertThat(savedRules.getTenantId(), is("test_tenant"));
+    assertThat(savedRules.getRulesAsText(), is(rulesAsText));
+
+    final Drools loaded = Drools.fromCompiledRules(savedRules.getCompiledRules());
+
+    assertThat(loaded.loanPolicy(params("book"), location()),
+      is(compiled.loanPolicy(params("book"), location())));
+  }
+
+  @Test
+  public void ignoresSavedRulesThatDoNotMatchHash() throws Exception {
+    Files.write(folder.getRoot().toPath().resolve("test_tenant.rules.json"),
+      new JsonObject()
+        .put("tenantId", "test_tenant")
+        .put("hash", "not-the-hash")
+        .put("rulesAsText", rules("policy-a"))
+        .put("compiledRules", "")
+        .encode().getBytes());
+
+    assertThat(getCompiledRulesStore().loadAll().get(30, TimeUnit.SECONDS),
+      hasSize(0));
+  }
+
+  @Test
+  public void compilesRulesWhenCompiledRulesCannotBeLoaded() throws Exception {
+    final String policyId = "policy-" + UUID.randomUUID();
+
+    final Drools drools = getDroolsCompiler().load(rules(policyId), new byte[] { 1, 2, 3 })
+      .get(30, TimeUnit.SECONDS);
+
+    assertThat(drools.loanPolicy(params("book"), location()), is(policyId));
+  }
+
+  private static String rules(String loanPolicyId) {
+    return String.join("\n",
+      "priority: t, s, c, b, a, m, g",
+      "fallback-policy: l no-loan r no-hold n basic-notice o overdue",
+      "m book: l " + loanPolicyId + " r request-1 n notice-1 o overdue-1");
+  }
+
+  private static MultiMap params(String materialType) {
+    final MultiMap params = new CaseInsensitiveHeaders();
+
+    params.add(ITEM_TYPE_ID_NAME, materialType);
+    params.add(LOAN_TYPE_ID_NAME, "regular");
+    params.add(PATRON_TYPE_ID_NAME, "undergrad");
+    params.add(LOCATION_ID_NAME, "shelf");
+
+    return params;
+  }
+
+  private static Location location() {
+    return Location.from(new LocationBuilder()
+      .forInstitution(UUID.randomUUID())
+      .forCampus(UUID.randomUUID())
+      .forLibrary(UUID.randomUUID())
+      .create());
+  }
+}
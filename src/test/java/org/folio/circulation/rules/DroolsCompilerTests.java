@@ -0,0 +1,105 @@
+package org.folio.circulation.rules;
+
+import static org.folio.circulation.resources.AbstractCirculationRulesEngineResource.ITEM_TYPE_ID_NAME;
+import static org.folio.circulation.resources.AbstractCirculationRulesEngineResource.LOAN_TYPE_ID_NAME;
+import static org.folio.circulation.resources.AbstractCirculationRulesEngineResource.LOCATION_ID_NAME;
+import static org.folio.circulation.resources.AbstractCirculationRulesEngineResource.PATRON_TYPE_ID_NAME;
+import static org.folio.circulation.rules.DroolsCompiler.getDroolsCompiler;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.fail;
+
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.folio.circulation.domain.Location;
+import org.junit.Test;
+
+import api.support.builders.LocationBuilder;
+import io.vertx.core.MultiMap;
+import io.vertx.core.http.CaseInsensitiveHeaders;
+
+public class DroolsCompilerTests {
+  private static final String RULES = String.join("\n",
+    "priority: t, s, c, b, a, m, g",
+    "fallback-policy: l no-loan r no-hold n basic-notice o overdue",
+    "m book: l policy-a r request-1 n notice-1 o overdue-1");
+
+  @Test
+  public void canCompileRules() throws Exception {
+    final Drools drools = getDroolsCompiler().compile(RULES)
+      .get(30, TimeUnit.SECONDS);
+
+    assertThat(drools.loanPolicy(params("book"), location()), is("policy-a"));
+    assertThat(drools.loanPolicy(params("dvd"), location()), is("no-loan"));
+  }
+
+  @Test
+  public void failsToCompileInvalidRules() throws Exception {
+    try {
+      getDroolsCompiler().compile(String.join("\n",
+        "priority: first-line",
+        "fallback-policy: l no-loan r no-hold n basic-notice o overdue",
+        "m book: l policy-a r no-hold n basic-notice o overdue"))
+        .get(30, TimeUnit.SECONDS);
+
+      fail("Expected invalid rules to fail to compile");
+    }
+    catch (ExecutionException e) {
+      assertThat(e.getCause(), instanceOf(CirculationRulesException.class));
+    }
+  }
+
+  @Test
+  public void sameRulesAreOnlyCompiledOnce() throws Exception {
+    final Drools first = getDroolsCompiler().compile(RULES)
+      .get(30, TimeUnit.SECONDS);
+
+    final Drools second = getDroolsCompiler().compile(RULES)
+      .get(30, TimeUnit.SECONDS);
+
+    assertThat(second, sameInstance(first));
+  }
+
+  @Test
+  public void differentRulesAreCompiledSeparately() throws Exception {
+    final Drools original = getDroolsCompiler().compile(RULES)
+      .get(30, TimeUnit.SECONDS);
+
+    final Drools changed = getDroolsCompiler()
+      .compile(RULES.replace("policy-a", "policy-b"))
+      .get(30, TimeUnit.SECONDS);
+
+    assertThat(changed, not(sameInstance(original)));
+    assertThat(changed.loanPolicy(params("book"), location()), is("policy-b"));
+  }
+
+  @Test
+  public void hashIsBasedUponContentOfRules() {
+    assertThat(DroolsCompiler.hash(RULES), is(DroolsCompiler.hash(new String(RULES))));
+    assertThat(DroolsCompiler.hash(RULES), not(DroolsCompiler.hash(RULES + " ")));
+  }
+
+  private static MultiMap params(String materialType) {
+    final MultiMap params = new CaseInsensitiveHeaders();
+
+    params.add(ITEM_TYPE_ID_NAME, materialType);
+    params.add(LOAN_TYPE_ID_NAME, "regular");
+    params.add(PATRON_TYPE_ID_NAME, "undergrad");
+    params.add(LOCATION_ID_NAME, "shelf");
+
+    return params;
+  }
+
+  private static Location location() {
+    return Location.from(new LocationBuilder()
+      .forInstitution(UUID.randomUUID())
+      .forCampus(UUID.randomUUID())
+      .forLibrary(UUID.randomUUID())
+      .create());
+  }
+}
@@ -0,0 +1,48 @@
+package org.folio.circulation.support;
+
+import static java.util.Arrays.asList;
+import static org.folio.circulation.support.AsyncCoordinationUtil.allOf;
+import static org.folio.circulation.support.Result.succeeded;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.Test;
+
+public class AsyncCoordinationUtilTests {
+  @Test
+  public void onlyALimitedNumberOfActionsAreInProgressAtTheSameTime() {
+    final List<CompletableFuture<Result<Integer>>> inProgress = new ArrayList<>();
+
+    final CompletableFuture<Result<List<Integer>>> all = allOf(
+      asList(1, 2, 3, 4), number -> {
+        final CompletableFuture<Result<Integer>> future = new CompletableFuture<>();
+        inProgress.add(future);
+        return future;
+      }, 2);
+
+    assertThat(inProgress.size(), is(2));
+
+    inProgress.get(1).complete(succeeded(20));
+
+    assertThat(inProgress.size(), is(3));
+
+    inProgress.get(0).complete(succeeded(10));
+    inProgress.get(2).complete(succeeded(30));
+    inProgress.get(3).complete(succeeded(40));
+
+    assertThat(all.join().value(), is(asList(10, 20, 30, 40)));
+  }
+
+  @Test
+  public void resultsAreInTheOrderOfTheCollection() {
+    final Result<List<Integer>> result = allOf(asList(3, 1, 2),
+      number -> CompletableFuture.completedFuture(succeeded(number * 2)), 5)
+      .join();
+
+    assertThat(result.value(), is(asList(6, 2, 4)));
+  }
+}
@@ -0,0 +1,49 @@
+package org.folio.circulation.support;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.junit.Test;
+
+import io.vertx.core.json.JsonObject;
+
+public class DateTimePropertyTests {
+  private static final DateTime DUE_DATE
+    = new DateTime(2019, 3, 14, 11, 14, 54, DateTimeZone.UTC);
+
+  @Test
+  public void isOnlyParsedOnce() {
+    final DateTimeProperty property = new DateTimeProperty(
+      new JsonObject().put("dueDate", DUE_DATE.toString()), "dueDate");
+
+    final DateTime first = property.get();
+
+    assertThat(first.isEqual(DUE_DATE), is(true));
+    assertThat(property.get(), sameInstance(first));
+  }
+
+  @Test
+  public void reflectsChangesToRepresentation() {
+    final JsonObject representation = new JsonObject()
+      .put("dueDate", DUE_DATE.toString());
+
+    final DateTimeProperty property = new DateTimeProperty(representation, "dueDate");
+
+    property.get();
+
+    representation.put("dueDate", DUE_DATE.plusDays(7).toString());
+
+    assertThat(property.get().isEqual(DUE_DATE.plusDays(7)), is(true));
+  }
+
+  @Test
+  public void isNullWhenPropertyIsMissing() {
+    final DateTimeProperty property = new DateTimeProperty(new JsonObject(), "dueDate");
+
+    assertThat(property.get(), is(nullValue()));
+  }
+}
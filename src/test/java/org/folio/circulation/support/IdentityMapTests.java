@@ -0,0 +1,99 @@
+package org.folio.circulation.support;
+
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.Matchers.hasEntry;
+import static org.junit.Assert.assertThat;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.folio.circulation.support.http.client.Response;
+import org.junit.Test;
+
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
+public class IdentityMapTests {
+  private static final String USERS = "/users";
+  private static final String USER_ID = "2f7d6a6c-6c8d-4b0e-9f4c-7a0f0c5a2f11";
+
+  @Test
+  public void recordIsOnlyFetchedOnce() {
+    final IdentityMap identityMap = new IdentityMap();
+    final AtomicInteger fetches = new AtomicInteger();
+
+    identityMap.fetch(USERS, USER_ID, () -> fetch(fetches, 200));
+    final Response response = identityMap.fetch(USERS, USER_ID,
+      () -> fetch(fetches, 200)).join();
+
+    assertThat(fetches.get(), is(1));
+    assertThat(response.getJson().getString("id"), is(USER_ID));
+    assertThat(identityMap.getDeduplicatedFetches(), hasEntry(USERS, 1L));
+  }
+
+  @Test
+  public void recordIsFetchedAgainWhenNotFound() {
+    final IdentityMap identityMap = new IdentityMap();
+    final AtomicInteger fetches = new AtomicInteger();
+
+    identityMap.fetch(USERS, USER_ID, () -> fetch(fetches, 404));
+    identityMap.fetch(USERS, USER_ID, () -> fetch(fetches, 404));
+
+    assertThat(fetches.get(), is(2));
+  }
+
+  @Test
+  public void recordIsFetchedAgainWhenForgotten() {
+    final IdentityMap identityMap = new IdentityMap();
+    final AtomicInteger fetches = new AtomicInteger();
+
+    identityMap.fetch(USERS, USER_ID, () -> fetch(fetches, 200));
+    identityMap.forget(USERS, USER_ID);
+    identityMap.fetch(USERS, USER_ID, () -> fetch(fetches, 200));
+
+    assertThat(fetches.get(), is(2));
+  }
+
+  @Test
+  public void recordsFoundByQueryAreIncluded() {
+    final IdentityMap identityMap = new IdentityMap();
+    final AtomicInteger fetches = new AtomicInteger();
+
+    identityMap.include(USERS, new Response(200, new JsonObject()
+      .put("users", new JsonArray().add(user()))
+      .put("totalRecords", 1)
+      .encode(), "application/json"));
+
+    final Response response = identityMap.fetch(USERS, USER_ID,
+      () -> fetch(fetches, 200)).join();
+
+    assertThat(fetches.get(), is(0));
+    assertThat(response.getJson().getString("id"), is(USER_ID));
+  }
+
+  @Test
+  public void recordsOfOtherTypesAreNotForgotten() {
+    final IdentityMap identityMap = new IdentityMap();
+    final AtomicInteger fetches = new AtomicInteger();
+
+    identityMap.fetch(USERS, USER_ID, () -> fetch(fetches, 200));
+    identityMap.forgetAll("/groups");
+    identityMap.fetch(USERS, USER_ID, () -> fetch(fetches, 200));
+
+    assertThat(fetches.get(), is(1));
+  }
+
+  private static CompletableFuture<Response> fetch(AtomicInteger fetches,
+    int statusCode) {
+
+    fetches.incrementAndGet();
+
+    return completedFuture(new Response(statusCode, user().encode(),
+      "application/json"));
+  }
+
+  private static JsonObject user() {
+    return new JsonObject().put("id", USER_ID).put("username", "jessica");
+  }
+}
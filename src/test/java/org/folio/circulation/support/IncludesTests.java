@@ -0,0 +1,67 @@
+package org.folio.circulation.support;
+
+import static java.util.Arrays.asList;
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static org.folio.circulation.support.Result.succeeded;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import org.junit.Test;
+
+public class IncludesTests {
+  @Test
+  public void everythingIsIncludedWhenParameterIsNotProvided() {
+    final Includes includes = Includes.fromParameter(null);
+
+    assertThat(includes.includesAll(), is(true));
+    assertThat(includes.includes("item"), is(true));
+  }
+
+  @Test
+  public void onlyNamedRecordsAreIncluded() {
+    final Includes includes = Includes.fromParameter("item, requester");
+
+    assertThat(includes.includesAll(), is(false));
+    assertThat(includes.includes("item"), is(true));
+    assertThat(includes.includes("requester"), is(true));
+    assertThat(includes.includes("loan"), is(false));
+  }
+
+  @Test
+  public void nothingIsIncludedWhenParameterIsEmpty() {
+    final Includes includes = Includes.fromParameter("");
+
+    assertThat(includes.includes("item"), is(false));
+  }
+
+  @Test
+  public void includeParameterIsRemovedFromQueryString() {
+    assertThat(Includes.removeParameter("query=status%3DOpen&include=item&limit=10"),
+      is("query=status%3DOpen&limit=10"));
+
+    assertThat(Includes.removeParameter("include=item,loan"), is(""));
+    assertThat(Includes.removeParameter("fields=item&limit=10"), is("limit=10"));
+    assertThat(Includes.removeParameter("limit=10&offset=5"), is("limit=10&offset=5"));
+  }
+
+  @Test
+  public void recordsAreLeftUnchangedWhenNotIncluded() {
+    final Includes includes = Includes.only("item");
+
+    final Result<String> result = includes.<String>whenIncluded("loan",
+      record -> completedFuture(succeeded("fetched"))).apply("record").join();
+
+    assertThat(result.value(), is("record"));
+  }
+
+  @Test
+  public void recordsAreFetchedWhenAnyIsIncluded() {
+    final Includes includes = Includes.only("checkoutServicePoint");
+
+    final Result<String> result = includes.<String>whenAnyIncluded(
+      asList("checkinServicePoint", "checkoutServicePoint"),
+      record -> completedFuture(succeeded("fetched"))).apply("record").join();
+
+    assertThat(result.value(), is("fetched"));
+  }
+}
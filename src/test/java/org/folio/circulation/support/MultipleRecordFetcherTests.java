@@ -0,0 +1,166 @@
+package org.folio.circulation.support;
+
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static org.folio.circulation.support.Result.succeeded;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.folio.circulation.domain.MultipleRecords;
+import org.folio.circulation.support.http.client.Response;
+import org.junit.After;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
+public class MultipleRecordFetcherTests {
+  @After
+  public void resetConfiguration() {
+    MultipleRecordFetcher.configure(new JsonObject());
+  }
+
+  @Test
+  public void idsAreSplitIntoBatchesLimitedBySize() {
+    MultipleRecordFetcher.configure(configuration(10, 4000, 5, 1000));
+
+    final CollectionResourceClient client = mock(CollectionResourceClient.class);
+
+    when(client.getMany(any(CqlQuery.class), anyInt()))
+      .thenAnswer(invocation -> completedFuture(succeeded(
+        recordsResponse(2))));
+
+    final MultipleRecords<JsonObject> found = new MultipleRecordFetcher<>(
+      client, "records", record -> record)
+      .findByIds(ids(25)).join().value();
+
+    verify(client, times(3)).getMany(any(CqlQuery.class), eq(10));
+
+    assertThat(found.getRecords().size(), is(6));
+    assertThat(found.getTotalRecords(), is(6));
+  }
+
+  @Test
+  public void idsAreSplitIntoBatchesLimitedByQueryLength() {
+    // Each encoded ID takes at least 40 characters of the query
+    MultipleRecordFetcher.configure(configuration(50, 200, 5, 1000));
+
+    final CollectionResourceClient client = mock(CollectionResourceClient.class);
+
+    when(client.getMany(any(CqlQuery.class), anyInt()))
+      .thenAnswer(invocation -> completedFuture(succeeded(
+        recordsResponse(0))));
+
+    new MultipleRecordFetcher<>(client, "records", record -> record)
+      .findByIds(ids(20)).join();
+
+    final ArgumentCaptor<CqlQuery> queries = ArgumentCaptor.forClass(CqlQuery.class);
+
+    verify(client, atLeastOnce()).getMany(queries.capture(), anyInt());
+
+    assertThat(queries.getAllValues().size() > 4, is(true));
+
+    queries.getAllValues().forEach(query ->
+      assertThat(query.encode().value().length() <= 200, is(true)));
+  }
+
+  @Test
+  public void onlyALimitedNumberOfQueriesAreMadeAtTheSameTime() {
+    MultipleRecordFetcher.configure(configuration(1, 4000, 2, 1000));
+
+    final CollectionResourceClient client = mock(CollectionResourceClient.class);
+
+    final List<CompletableFuture<Result<Response>>> pending = new ArrayList<>();
+
+    when(client.getMany(any(CqlQuery.class), anyInt()))
+      .thenAnswer(invocation -> {
+        final CompletableFuture<Result<Response>> future = new CompletableFuture<>();
+        pending.add(future);
+        return future;
+      });
+
+    final CompletableFuture<Result<MultipleRecords<JsonObject>>> fetched
+      = new MultipleRecordFetcher<>(client, "records", record -> record)
+        .findByIds(ids(5));
+
+    assertThat(pending.size(), is(2));
+
+    pending.get(0).complete(succeeded(recordsResponse(1)));
+
+    assertThat(pending.size(), is(3));
+
+    for (int index = 1; index < 5; index++) {
+      pending.get(index).complete(succeeded(recordsResponse(1)));
+    }
+
+    assertThat(fetched.join().value().getRecords().size(), is(5));
+  }
+
+  @Test
+  public void allPagesAreFetchedForOtherIndexes() {
+    MultipleRecordFetcher.configure(configuration(50, 4000, 5, 10));
+
+    final CollectionResourceClient client = mock(CollectionResourceClient.class);
+
+    when(client.getMany(any(CqlQuery.class), eq(10), eq(0)))
+      .thenReturn(completedFuture(succeeded(recordsResponse(10))));
+
+    when(client.getMany(any(CqlQuery.class), eq(10), eq(10)))
+      .thenReturn(completedFuture(succeeded(recordsResponse(3))));
+
+    final MultipleRecords<JsonObject> found = new MultipleRecordFetcher<>(
+      client, "records", record -> record)
+      .findByIndexName(ids(2), "loanId").join().value();
+
+    assertThat(found.getRecords().size(), is(13));
+
+    final ArgumentCaptor<CqlQuery> queries = ArgumentCaptor.forClass(CqlQuery.class);
+
+    verify(client, times(2)).getMany(queries.capture(), eq(10), anyInt());
+
+    queries.getAllValues().forEach(query ->
+      assertThat(query.asText().endsWith(" sortBy id/sort.ascending"), is(true)));
+  }
+
+  private static JsonObject configuration(int batchSize,
+    int maximumQueryLength, int maximumQueriesInFlight, int pageLimit) {
+
+    return new JsonObject().put("multipleRecordFetching", new JsonObject()
+      .put("batchSize", batchSize)
+      .put("maximumQueryLength", maximumQueryLength)
+      .put("maximumQueriesInFlight", maximumQueriesInFlight)
+      .put("pageLimit", pageLimit));
+  }
+
+  private static List<String> ids(int count) {
+    return IntStream.range(0, count)
+      .mapToObj(index -> UUID.randomUUID().toString())
+      .collect(Collectors.toList());
+  }
+
+  private static Response recordsResponse(int count) {
+    final JsonArray records = new JsonArray();
+
+    IntStream.range(0, count).forEach(index -> records.add(
+      new JsonObject().put("id", UUID.randomUUID().toString())));
+
+    return new Response(200, new JsonObject()
+      .put("records", records)
+      .put("totalRecords", count).encode(), "application/json");
+  }
+}
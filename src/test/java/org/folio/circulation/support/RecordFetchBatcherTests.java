@@ -0,0 +1,192 @@
+package org.folio.circulation.support;
+
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static org.folio.circulation.support.Result.failed;
+import static org.folio.circulation.support.Result.succeeded;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.folio.circulation.support.http.client.Response;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
+public class RecordFetchBatcherTests {
+  private static final String KEY = "diku http://localhost:9130/service-points";
+
+  private Vertx vertx;
+  private RecordFetchBatcher batcher;
+  private List<Collection<String>> batches;
+  private AtomicInteger individualFetches;
+
+  @Before
+  public void setUp() {
+    vertx = Vertx.vertx();
+    batcher = new RecordFetchBatcher(vertx, 20, 3,
+      Collections.singleton("/service-points"));
+    batches = Collections.synchronizedList(new ArrayList<>());
+    individualFetches = new AtomicInteger();
+  }
+
+  @After
+  public void tearDown() {
+    vertx.close();
+  }
+
+  @Test
+  public void fetchesWithinWindowAreCombined() throws Exception {
+    final String firstId = UUID.randomUUID().toString();
+    final String secondId = UUID.randomUUID().toString();
+
+    final CompletableFuture<Response> first = fetch(firstId);
+    final CompletableFuture<Response> second = fetch(secondId);
+
+    assertThat(first.get(5, TimeUnit.SECONDS).getJson().getString("id"), is(firstId));
+    assertThat(second.get(5, TimeUnit.SECONDS).getJson().getString("id"), is(secondId));
+
+    assertThat(batches.size(), is(1));
+    assertThat(batches.get(0).size(), is(2));
+    assertThat(individualFetches.get(), is(0));
+  }
+
+  @Test
+  public void fetchesForSameRecordShareResponse() throws Exception {
+    final String id = UUID.randomUUID().toString();
+
+    final CompletableFuture<Response> first = fetch(id);
+    final CompletableFuture<Response> second = fetch(id);
+
+    fetch(UUID.randomUUID().toString());
+
+    assertThat(first.get(5, TimeUnit.SECONDS).getStatusCode(), is(200));
+    assertThat(second.get(5, TimeUnit.SECONDS).getStatusCode(), is(200));
+
+    assertThat(batches.size(), is(1));
+    assertThat(batches.get(0).size(), is(2));
+    assertThat(individualFetches.get(), is(0));
+  }
+
+  @Test
+  public void recordMissingFromBatchIsNotFound() throws Exception {
+    final String foundId = UUID.randomUUID().toString();
+
+    // the query for the batch is made by the first fetch
+    final CompletableFuture<Response> found = fetch(foundId,
+      ids -> completedFuture(succeeded(page(Collections.singletonList(
+        record(foundId))))));
+
+    final CompletableFuture<Response> missing = fetch(UUID.randomUUID().toString());
+
+    assertThat(missing.get(5, TimeUnit.SECONDS).getStatusCode(), is(404));
+    assertThat(found.get(5, TimeUnit.SECONDS).getStatusCode(), is(200));
+  }
+
+  @Test
+  public void fullBatchIsSentImmediately() throws Exception {
+    fetch(UUID.randomUUID().toString());
+    fetch(UUID.randomUUID().toString());
+    fetch(UUID.randomUUID().toString()).get(5, TimeUnit.SECONDS);
+
+    assertThat(batches.size(), is(1));
+    assertThat(batches.get(0).size(), is(3));
+  }
+
+  @Test
+  public void recordsAreFetchedIndividuallyWhenBatchFails() throws Exception {
+    final CompletableFuture<Response> first = fetch(UUID.randomUUID().toString(),
+      ids -> completedFuture(succeeded(new Response(500, "failed", "text/plain"))));
+    final CompletableFuture<Response> second = fetch(UUID.randomUUID().toString());
+
+    assertThat(first.get(5, TimeUnit.SECONDS).getStatusCode(), is(200));
+    assertThat(second.get(5, TimeUnit.SECONDS).getStatusCode(), is(200));
+    assertThat(individualFetches.get(), is(2));
+  }
+
+  @Test
+  public void eachFetchForSameRecordIsMadeIndividuallyWhenBatchFails()
+    throws Exception {
+
+    final String id = UUID.randomUUID().toString();
+
+    fetch(id, ids -> completedFuture(failed(
+      new StorageUnavailableFailure("Connection refused"))));
+
+    final CompletableFuture<Response> refused = batcher.fetch(KEY, id,
+      ids -> completedFuture(succeeded(page(Collections.emptyList()))),
+      () -> completedFuture(new Response(403, "Access denied", "text/plain")));
+
+    fetch(UUID.randomUUID().toString());
+
+    // the failure of one fetch is not shared with the other
+    assertThat(refused.get(5, TimeUnit.SECONDS).getStatusCode(), is(403));
+    assertThat(individualFetches.get(), is(2));
+  }
+
+  @Test
+  public void collectionsWhichNotEveryUserCanReadAreNeverBatched() {
+    final RecordFetchBatcher configuredForUsers = new RecordFetchBatcher(vertx,
+      20, 3, new HashSet<>(Arrays.asList("/users", "/groups")));
+
+    assertThat(configuredForUsers.batches("/users", UUID.randomUUID().toString()),
+      is(false));
+    assertThat(configuredForUsers.batches("/groups", UUID.randomUUID().toString()),
+      is(true));
+  }
+
+  @Test
+  public void onlyRecordsIdentifiedByUUIDFromConfiguredPathsAreBatched() {
+    assertThat(batcher.batches("/service-points", UUID.randomUUID().toString()), is(true));
+    assertThat(batcher.batches("/service-points", "\" or id=*"), is(false));
+    assertThat(batcher.batches("/users", UUID.randomUUID().toString()), is(false));
+  }
+
+  private CompletableFuture<Response> fetch(String id) {
+    return fetch(id, ids -> {
+      batches.add(ids);
+
+      final List<JsonObject> records = new ArrayList<>();
+
+      ids.forEach(batchId -> records.add(record(batchId)));
+
+      return completedFuture(succeeded(page(records)));
+    });
+  }
+
+  private CompletableFuture<Response> fetch(String id,
+    Function<Collection<String>, CompletableFuture<Result<Response>>> fetchMany) {
+
+    return batcher.fetch(KEY, id, fetchMany, () -> {
+      individualFetches.incrementAndGet();
+
+      return completedFuture(new Response(200, record(id).encode(),
+        "application/json"));
+    });
+  }
+
+  private static JsonObject record(String id) {
+    return new JsonObject().put("id", id).put("name", "Circ Desk");
+  }
+
+  private static Response page(List<JsonObject> records) {
+    return new Response(200, new JsonObject()
+      .put("servicepoints", new JsonArray(records))
+      .put("totalRecords", records.size())
+      .encode(), "application/json");
+  }
+}
@@ -0,0 +1,156 @@
+package org.folio.circulation.support;
+
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static org.folio.circulation.support.Result.failed;
+import static org.folio.circulation.support.Result.succeeded;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import io.vertx.core.json.JsonObject;
+
+public class StaleOnErrorCacheTests {
+  private final AtomicLong clock = new AtomicLong();
+  private CollectionResourceClient client;
+
+  @Before
+  @SuppressWarnings("unchecked")
+  public void setUp() {
+    client = mock(CollectionResourceClient.class);
+
+    when(client.getTenantId()).thenReturn("test_tenant");
+
+    when(client.reportingFailures(any())).thenAnswer(invocation ->
+      invocation.<Function<CollectionResourceClient, CompletableFuture<Result<String>>>>
+        getArgument(0).apply(client));
+  }
+
+  @Test
+  public void usesPreviousValueWhenStorageFails() {
+    final StaleOnErrorCache cache = enabledCache(60);
+    final StaleReferenceData stale = new StaleReferenceData();
+
+    cache.fetch("calendar", "key", client, c -> completedFuture(succeeded("fetched")), stale).join();
+
+    final Result<String> result = cache.fetch("calendar", "key", client,
+      c -> completedFuture(failed(new StorageUnavailableFailure("timed out"))), stale).join();
+
+    assertThat(result.value(), is("fetched"));
+    assertThat(stale.addTo(new JsonObject()).getJsonArray("staleReferenceData").getString(0),
+      is("calendar"));
+  }
+
+  @Test
+  public void failsWhenPreviousValueIsTooStale() {
+    final StaleOnErrorCache cache = enabledCache(60);
+    final StaleReferenceData stale = new StaleReferenceData();
+
+    cache.fetch("calendar", "key", client, c -> completedFuture(succeeded("fetched")), stale).join();
+
+    clock.addAndGet(TimeUnit.SECONDS.toNanos(61));
+
+    final Result<String> result = cache.fetch("calendar", "key", client,
+      c -> completedFuture(failed(new StorageUnavailableFailure("timed out"))), stale).join();
+
+    assertThat(result.failed(), is(true));
+    assertThat(stale.isEmpty(), is(true));
+  }
+
+  @Test
+  public void failsWhenNoValueWasPreviouslyFetched() {
+    final StaleOnErrorCache cache = enabledCache(60);
+
+    final Result<String> result = cache.fetch("calendar", "other key", client,
+      c -> completedFuture(failed(new StorageUnavailableFailure("timed out"))),
+      new StaleReferenceData()).join();
+
+    assertThat(result.failed(), is(true));
+  }
+
+  @Test
+  public void doesNotUsePreviousValueForValidationFailures() {
+    final StaleOnErrorCache cache = enabledCache(60);
+    final StaleReferenceData stale = new StaleReferenceData();
+
+    cache.fetch("calendar", "key", client, c -> completedFuture(succeeded("fetched")), stale).join();
+
+    final Result<String> result = cache.fetch("calendar", "key", client,
+      c -> completedFuture(ValidationErrorFailure.failedValidation(
+        "Calendar open periods are not found", "key", "value")), stale).join();
+
+    assertThat(result.cause(), instanceOf(ValidationErrorFailure.class));
+    assertThat(stale.isEmpty(), is(true));
+  }
+
+  @Test
+  public void doesNotUsePreviousValueForFailuresWithinModule() {
+    final StaleOnErrorCache cache = enabledCache(60);
+    final StaleReferenceData stale = new StaleReferenceData();
+
+    cache.fetch("calendar", "key", client, c -> completedFuture(succeeded("fetched")), stale).join();
+
+    final Result<String> result = cache.fetch("calendar", "key", client,
+      c -> completedFuture(failed(new ServerErrorFailure(new NullPointerException()))),
+      stale).join();
+
+    assertThat(result.failed(), is(true));
+    assertThat(stale.isEmpty(), is(true));
+  }
+
+  @Test
+  public void evictsLeastRecentlyUsedValueWhenFull() {
+    final StaleOnErrorCache cache = new StaleOnErrorCache(true, 60, 2, clock::get);
+
+    fetchSuccessfully(cache, "first");
+    fetchSuccessfully(cache, "second");
+
+    // using the first value makes the second the least recently used
+    fetchUnsuccessfully(cache, "first");
+
+    fetchSuccessfully(cache, "third");
+
+    assertThat(fetchUnsuccessfully(cache, "first").succeeded(), is(true));
+    assertThat(fetchUnsuccessfully(cache, "second").failed(), is(true));
+    assertThat(fetchUnsuccessfully(cache, "third").succeeded(), is(true));
+  }
+
+  @Test
+  public void fetchesAsUsualWhenDisabled() {
+    final StaleOnErrorCache cache = new StaleOnErrorCache(false, 60, 10,
+      clock::get);
+
+    final Result<String> result = cache.fetch("calendar", "key", client,
+      c -> completedFuture(succeeded("fetched")), new StaleReferenceData()).join();
+
+    assertThat(result.value(), is("fetched"));
+    verify(client, never()).reportingFailures(any());
+  }
+
+  private void fetchSuccessfully(StaleOnErrorCache cache, String key) {
+    cache.fetch("calendar", key, client, c -> completedFuture(succeeded(key)),
+      new StaleReferenceData()).join();
+  }
+
+  private Result<String> fetchUnsuccessfully(StaleOnErrorCache cache, String key) {
+    return cache.fetch("calendar", key, client,
+      c -> completedFuture(failed(new StorageUnavailableFailure("timed out"))),
+      new StaleReferenceData()).join();
+  }
+
+  private StaleOnErrorCache enabledCache(long maximumStalenessSeconds) {
+    return new StaleOnErrorCache(true, maximumStalenessSeconds, 10, clock::get);
+  }
+}
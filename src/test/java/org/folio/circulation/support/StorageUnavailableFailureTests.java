@@ -0,0 +1,35 @@
+package org.folio.circulation.support;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+import java.util.concurrent.TimeoutException;
+
+import org.folio.circulation.support.http.client.StorageUnavailableException;
+import org.junit.Test;
+
+import io.vertx.core.http.HttpServerResponse;
+
+public class StorageUnavailableFailureTests {
+  @Test
+  public void requestRejectedByCircuitBreakerIsServiceUnavailable() {
+    final HttpServerResponse response = mock(HttpServerResponse.class);
+
+    new StorageUnavailableFailure(new StorageUnavailableException(
+      "Circuit for item-storage is open")).writeTo(response);
+
+    verify(response).setStatusCode(503);
+    verify(response).end(anyString());
+  }
+
+  @Test
+  public void otherFailureToContactStorageIsInternalServerError() {
+    final HttpServerResponse response = mock(HttpServerResponse.class);
+
+    new StorageUnavailableFailure(new TimeoutException("timed out"))
+      .writeTo(response);
+
+    verify(response).setStatusCode(500);
+  }
+}
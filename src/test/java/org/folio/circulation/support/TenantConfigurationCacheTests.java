@@ -0,0 +1,112 @@
+package org.folio.circulation.support;
+
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static org.folio.circulation.support.Result.failed;
+import static org.folio.circulation.support.Result.succeeded;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class TenantConfigurationCacheTests {
+  private final AtomicLong clock = new AtomicLong();
+  private final AtomicInteger lookups = new AtomicInteger();
+  private CollectionResourceClient client;
+  private TenantConfigurationCache cache;
+
+  @Before
+  @SuppressWarnings("unchecked")
+  public void setUp() {
+    client = mock(CollectionResourceClient.class);
+
+    when(client.getTenantId()).thenReturn("test_tenant");
+
+    when(client.reportingFailures(any())).thenAnswer(invocation ->
+      invocation.<Function<CollectionResourceClient, CompletableFuture<Result<String>>>>
+        getArgument(0).apply(client));
+
+    cache = new TenantConfigurationCache(true, 60, clock::get);
+  }
+
+  @Test
+  public void configurationIsOnlyLookedUpOnceWithinTimeToLive() {
+    assertThat(get().join().value(), is("value 1"));
+    assertThat(get().join().value(), is("value 1"));
+
+    assertThat(lookups.get(), is(1));
+  }
+
+  @Test
+  public void configurationIsLookedUpAgainOnceExpired() {
+    get().join();
+
+    clock.addAndGet(TimeUnit.SECONDS.toNanos(61));
+
+    assertThat(get().join().value(), is("value 2"));
+  }
+
+  @Test
+  public void concurrentLookupsShareTheSameFetch() {
+    final CompletableFuture<Result<String>> response = new CompletableFuture<>();
+
+    final CompletableFuture<Result<String>> first = cache.get("timeZone", client,
+      c -> lookedUp(response));
+
+    final CompletableFuture<Result<String>> second = cache.get("timeZone", client,
+      c -> lookedUp(response));
+
+    response.complete(succeeded("Europe/London"));
+
+    assertThat(first.join().value(), is("Europe/London"));
+    assertThat(second.join().value(), is("Europe/London"));
+    assertThat(lookups.get(), is(1));
+  }
+
+  @Test
+  public void failuresAreNotKept() {
+    cache.get("timeZone", client,
+      c -> lookedUp(completedFuture(failed(new ServerErrorFailure("timed out")))))
+      .join();
+
+    assertThat(get().join().value(), is("value 2"));
+  }
+
+  @Test
+  public void configurationIsLookedUpAgainAfterInvalidation() {
+    get().join();
+
+    cache.invalidate("test_tenant");
+
+    assertThat(get().join().value(), is("value 2"));
+  }
+
+  @Test
+  public void configurationIsLookedUpEveryTimeWhenDisabled() {
+    cache = new TenantConfigurationCache(false, 60, clock::get);
+
+    get().join();
+
+    assertThat(get().join().value(), is("value 2"));
+  }
+
+  private CompletableFuture<Result<String>> get() {
+    return cache.get("timeZone", client, c -> completedFuture(
+      succeeded("value " + lookups.incrementAndGet())));
+  }
+
+  private <T> CompletableFuture<T> lookedUp(CompletableFuture<T> response) {
+    lookups.incrementAndGet();
+
+    return response;
+  }
+}
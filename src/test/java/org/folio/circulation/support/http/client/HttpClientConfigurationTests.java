@@ -0,0 +1,103 @@
+package org.folio.circulation.support.http.client;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import org.junit.Test;
+
+import io.vertx.core.http.HttpClientOptions;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.http.HttpVersion;
+import io.vertx.core.json.JsonObject;
+
+public class HttpClientConfigurationTests {
+  @Test
+  public void defaultsToPreviousFixedOptionsWithTimeoutForEveryMethod() {
+    final HttpClientConfiguration configuration = HttpClientConfiguration.defaults();
+
+    assertThat(configuration.toHttpClientOptions().getMaxPoolSize(), is(100));
+    assertThat(configuration.getTimeout(HttpMethod.POST), is(5000));
+    assertThat(configuration.getTimeout(HttpMethod.GET), is(30000));
+    assertThat(configuration.getTimeout(HttpMethod.PUT), is(30000));
+    assertThat(configuration.getTimeout(HttpMethod.DELETE), is(30000));
+    assertThat(configuration.hasTimeoutForEveryRequest(), is(true));
+  }
+
+  @Test
+  public void requestsMayNeverTimeOutWhenTimeoutIsZero() {
+    assertThat(HttpClientConfiguration.from(new JsonObject()
+      .put("httpClient", new JsonObject()
+        .put("timeouts", new JsonObject().put("PUT", 0))))
+      .hasTimeoutForEveryRequest(), is(false));
+
+    assertThat(HttpClientConfiguration.from(new JsonObject()
+      .put("httpClient", new JsonObject()
+        .put("interfaceTimeouts", new JsonObject().put("/calendar", 0))))
+      .hasTimeoutForEveryRequest(), is(false));
+  }
+
+  @Test
+  public void canConfigureOptionsAndTimeouts() {
+    final JsonObject verticleConfiguration = new JsonObject()
+      .put("httpClient", new JsonObject()
+        .put("maxPoolSize", 20)
+        .put("pipelining", true)
+        .put("keepAlive", false)
+        .put("timeouts", new JsonObject()
+          .put("get", 2000)
+          .put("DELETE", 3000)));
+
+    final HttpClientConfiguration configuration
+      = HttpClientConfiguration.from(verticleConfiguration);
+
+    final HttpClientOptions options = configuration.toHttpClientOptions();
+
+    assertThat(options.getMaxPoolSize(), is(20));
+    assertThat(options.isPipelining(), is(true));
+    assertThat(options.isKeepAlive(), is(false));
+    assertThat(configuration.getTimeout(HttpMethod.GET), is(2000));
+    assertThat(configuration.getTimeout(HttpMethod.DELETE), is(3000));
+    assertThat(configuration.getTimeout(HttpMethod.POST), is(5000));
+  }
+
+  @Test
+  public void canConfigureTimeoutsForInterfaces() {
+    final JsonObject verticleConfiguration = new JsonObject()
+      .put("httpClient", new JsonObject()
+        .put("interfaceTimeouts", new JsonObject()
+          .put("/calendar", 3000)));
+
+    final HttpClientConfiguration configuration
+      = HttpClientConfiguration.from(verticleConfiguration);
+
+    assertThat(configuration.getTimeout(HttpMethod.GET, "/calendar"), is(3000));
+    assertThat(configuration.getTimeout(HttpMethod.POST, "/calendar"), is(3000));
+    assertThat(configuration.getTimeout(HttpMethod.POST, "/users"), is(5000));
+  }
+
+  @Test
+  public void canUseHttp2() {
+    final JsonObject verticleConfiguration = new JsonObject()
+      .put("httpClient", new JsonObject()
+        .put("http2", true)
+        .put("http2MaxPoolSize", 4));
+
+    final HttpClientConfiguration configuration
+      = HttpClientConfiguration.from(verticleConfiguration);
+
+    assertThat(configuration.toHttpClientOptions().getProtocolVersion(),
+      is(HttpVersion.HTTP_2));
+    assertThat(configuration.getMaxPoolSize(), is(4));
+  }
+
+  @Test
+  public void replacesIdsInPathsForMetrics() {
+    assertThat(StorageRequestMetrics.normalizePath(
+      "/item-storage/items/1d4b7b50-3a4b-4f5f-9c4f-0b5e2ff5c3a9"),
+      is("/item-storage/items/{id}"));
+
+    assertThat(StorageRequestMetrics.normalizePath(
+      "/loan-storage/loans?query=itemId%3D%3D1234&limit=1"),
+      is("/loan-storage/loans"));
+  }
+}
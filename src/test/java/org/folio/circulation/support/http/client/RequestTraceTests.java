@@ -0,0 +1,45 @@
+package org.folio.circulation.support.http.client;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import org.junit.Test;
+
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.json.JsonObject;
+
+public class RequestTraceTests {
+  @Test
+  public void recordsEachCallWithNormalisedPath() {
+    final RequestTrace trace = new RequestTrace("request-id", "diku", "POST",
+      "/circulation/check-out-by-barcode");
+
+    final RequestTrace.Call itemCall = trace.start(HttpMethod.GET,
+      "http://okapi:9130/item-storage/items/1d4b7b50-3a4b-4f5f-9c4f-0b5e2ff5c3a9");
+
+    final RequestTrace.Call userCall = trace.start(HttpMethod.GET,
+      "http://okapi:9130/users?query=barcode%3D%3D1234");
+
+    itemCall.responded(200, "1510");
+    userCall.failed();
+
+    assertThat(trace.describe(), containsString(
+      "GET /item-storage/items/{id} 200 1510B"));
+    assertThat(trace.describe(), containsString("GET /users failed ?B"));
+
+    final JsonObject json = trace.toJson(201, 1500);
+
+    assertThat(json.getString("requestId"), is("request-id"));
+    assertThat(json.getInteger("storageCalls"), is(2));
+    assertThat(json.getJsonArray("calls").getJsonObject(0).getLong("bytes"), is(1510L));
+    assertThat(json.getJsonArray("calls").getJsonObject(1).getInteger("concurrent"), is(2));
+  }
+
+  @Test
+  public void callsAreNotRecordedWhenNotTraced() {
+    assertThat(RequestTrace.notTraced().start(HttpMethod.GET,
+      "http://okapi:9130/users"), is(nullValue()));
+  }
+}
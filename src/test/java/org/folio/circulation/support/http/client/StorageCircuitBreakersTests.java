@@ -0,0 +1,148 @@
+package org.folio.circulation.support.http.client;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+
+import io.vertx.core.json.JsonObject;
+
+public class StorageCircuitBreakersTests {
+  private static final String USERS_URL = "http://okapi:9130/users?query=barcode%3D%3D123";
+  private static final int TIMEOUT = 5000;
+
+  private final AtomicLong now = new AtomicLong();
+
+  @Test
+  public void requestsAreNotLimitedWhenDisabled() {
+    final StorageCircuitBreakers breakers = new StorageCircuitBreakers(
+      false, 1, 1, 1000, now::get);
+
+    breakers.acquire("diku", USERS_URL, TIMEOUT);
+
+    assertThat(breakers.acquire("diku", USERS_URL, TIMEOUT).isRejected(), is(false));
+  }
+
+  @Test
+  public void requestsBeyondBulkheadAreRejected() {
+    final StorageCircuitBreakers breakers = new StorageCircuitBreakers(
+      true, 2, 5, 1000, now::get);
+
+    final StorageCircuitBreakers.Permit first = breakers.acquire("diku", USERS_URL, TIMEOUT);
+    breakers.acquire("diku", USERS_URL, TIMEOUT);
+
+    assertThat(breakers.acquire("diku", USERS_URL, TIMEOUT).isRejected(), is(true));
+
+    // other tenants and interfaces have their own bulkheads
+    assertThat(breakers.acquire("other", USERS_URL, TIMEOUT).isRejected(), is(false));
+    assertThat(breakers.acquire("diku", "http://okapi:9130/item-storage/items", TIMEOUT)
+      .isRejected(), is(false));
+
+    first.responded(200);
+
+    assertThat(breakers.acquire("diku", USERS_URL, TIMEOUT).isRejected(), is(false));
+  }
+
+  @Test
+  public void circuitOpensAfterConsecutiveFailuresAndClosesAfterSuccessfulProbe() {
+    final StorageCircuitBreakers breakers = new StorageCircuitBreakers(
+      true, 0, 2, 1000, now::get);
+
+    breakers.acquire("diku", USERS_URL, TIMEOUT).failed();
+    breakers.acquire("diku", USERS_URL, TIMEOUT).responded(504);
+
+    assertThat(breakers.acquire("diku", USERS_URL, TIMEOUT).isRejected(), is(true));
+
+    now.addAndGet(TimeUnit.MILLISECONDS.toNanos(1000));
+
+    final StorageCircuitBreakers.Permit probe = breakers.acquire("diku", USERS_URL, TIMEOUT);
+
+    assertThat(probe.isRejected(), is(false));
+    assertThat(breakers.acquire("diku", USERS_URL, TIMEOUT).isRejected(), is(true));
+
+    probe.responded(404);
+
+    assertThat(breakers.acquire("diku", USERS_URL, TIMEOUT).isRejected(), is(false));
+  }
+
+  @Test
+  public void circuitOpensAgainWhenProbeFails() {
+    final StorageCircuitBreakers breakers = new StorageCircuitBreakers(
+      true, 0, 1, 1000, now::get);
+
+    breakers.acquire("diku", USERS_URL, TIMEOUT).failed();
+
+    now.addAndGet(TimeUnit.MILLISECONDS.toNanos(1000));
+
+    breakers.acquire("diku", USERS_URL, TIMEOUT).failed();
+
+    assertThat(breakers.acquire("diku", USERS_URL, TIMEOUT).isRejected(), is(true));
+  }
+
+  @Test
+  public void circuitOpensAgainWhenProbeNeverReceivesResponse() {
+    final StorageCircuitBreakers breakers = new StorageCircuitBreakers(
+      true, 0, 1, 1000, now::get);
+
+    breakers.acquire("diku", USERS_URL, TIMEOUT).failed();
+
+    now.addAndGet(TimeUnit.MILLISECONDS.toNanos(1000));
+
+    final StorageCircuitBreakers.Permit probe = breakers.acquire("diku", USERS_URL, TIMEOUT);
+
+    assertThat(probe.isRejected(), is(false));
+
+    now.addAndGet(TimeUnit.MILLISECONDS.toNanos(TIMEOUT));
+
+    // the probe is abandoned, which opens the circuit again
+    assertThat(breakers.acquire("diku", USERS_URL, TIMEOUT).isRejected(), is(true));
+
+    now.addAndGet(TimeUnit.MILLISECONDS.toNanos(1000));
+
+    final StorageCircuitBreakers.Permit nextProbe = breakers.acquire("diku", USERS_URL, TIMEOUT);
+
+    assertThat(nextProbe.isRejected(), is(false));
+
+    // releasing the abandoned probe has no effect
+    probe.responded(200);
+
+    assertThat(breakers.acquire("diku", USERS_URL, TIMEOUT).isRejected(), is(true));
+
+    nextProbe.responded(200);
+
+    assertThat(breakers.acquire("diku", USERS_URL, TIMEOUT).isRejected(), is(false));
+  }
+
+  @Test
+  public void areNotEnabledWhenRequestsMayNeverTimeOut() {
+    StorageCircuitBreakers.configure(new JsonObject()
+      .put("storageCircuitBreakers", new JsonObject()
+        .put("enabled", true)
+        .put("maximumConcurrentRequests", 1))
+      .put("httpClient", new JsonObject()
+        .put("timeouts", new JsonObject().put("GET", 0))));
+
+    try {
+      final StorageCircuitBreakers breakers
+        = StorageCircuitBreakers.getStorageCircuitBreakers();
+
+      breakers.acquire("diku", USERS_URL, 0);
+
+      assertThat(breakers.acquire("diku", USERS_URL, 0).isRejected(), is(false));
+    }
+    finally {
+      StorageCircuitBreakers.configure(new JsonObject());
+    }
+  }
+
+  @Test
+  public void interfaceIsFirstSegmentOfPath() {
+    assertThat(StorageCircuitBreakers.interfaceOf(
+      "http://okapi:9130/item-storage/items/1d4b7b50-3a4b-4f5f-9c4f-0b5e2ff5c3a9"),
+      is("/item-storage"));
+    assertThat(StorageCircuitBreakers.interfaceOf(USERS_URL), is("/users"));
+  }
+}
@@ -0,0 +1,54 @@
+package org.folio.circulation.support.metrics;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import org.junit.Test;
+
+public class KnownTenantsTests {
+  @Test
+  public void tenantIsUnknownWhenNotProvided() {
+    final KnownTenants knownTenants = new KnownTenants(10);
+
+    assertThat(knownTenants.labelFor(null, 200), is("unknown"));
+    assertThat(knownTenants.labelFor(" ", 200), is("unknown"));
+    assertThat(knownTenants.labelFor("diku", 200), is("diku"));
+  }
+
+  @Test
+  public void tenantIsUnknownUntilARequestForItSucceeds() {
+    final KnownTenants knownTenants = new KnownTenants(10);
+
+    assertThat(knownTenants.labelFor("diku", 500), is("unknown"));
+    assertThat(knownTenants.labelFor("diku", 201), is("diku"));
+    assertThat(knownTenants.labelFor("diku", 500), is("diku"));
+  }
+
+  @Test
+  public void tenantsWhichAreNotValidIdentifiersAreUnknown() {
+    final KnownTenants knownTenants = new KnownTenants(10);
+
+    assertThat(knownTenants.labelFor("diku\"} 1", 200), is("unknown"));
+  }
+
+  @Test
+  public void onlyALimitedNumberOfTenantsBecomeKnown() {
+    final KnownTenants knownTenants = new KnownTenants(2);
+
+    assertThat(knownTenants.labelFor("first", 200), is("first"));
+    assertThat(knownTenants.labelFor("second", 200), is("second"));
+    assertThat(knownTenants.labelFor("third", 200), is("unknown"));
+    assertThat(knownTenants.labelFor("first", 200), is("first"));
+  }
+
+  @Test
+  public void tenantIsOnlyKnownOnceARequestToTheModuleForItSucceeds() {
+    final KnownTenants knownTenants = new KnownTenants(10);
+
+    assertThat(knownTenants.labelFor("diku"), is("unknown"));
+
+    knownTenants.labelFor("diku", 200);
+
+    assertThat(knownTenants.labelFor("diku"), is("diku"));
+  }
+}
@@ -0,0 +1,53 @@
+package org.folio.circulation.support.metrics;
+
+import static org.folio.circulation.support.metrics.MetricsRegistry.getMetricsRegistry;
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.junit.Assert.assertThat;
+
+import org.junit.After;
+import org.junit.Test;
+
+public class MetricsRegistryTests {
+  @After
+  public void clearMetrics() {
+    getMetricsRegistry().clear();
+  }
+
+  @Test
+  public void rendersHistogramInPrometheusFormat() {
+    final Histogram histogram = getMetricsRegistry().histogram(
+      "test_duration_seconds", "Test duration", "path", "/items");
+
+    histogram.recordNanoseconds(20_000_000);
+    histogram.recordNanoseconds(2_000_000_000);
+
+    final String text = getMetricsRegistry().toPrometheusText();
+
+    assertThat(text, containsString("# TYPE test_duration_seconds histogram"));
+    assertThat(text, containsString(
+      "test_duration_seconds_bucket{path=\"/items\",le=\"0.025\"} 1"));
+    assertThat(text, containsString(
+      "test_duration_seconds_bucket{path=\"/items\",le=\"+Inf\"} 2"));
+    assertThat(text, containsString("test_duration_seconds_count{path=\"/items\"} 2"));
+    assertThat(text, containsString("test_duration_seconds_sum{path=\"/items\"} 2.02"));
+  }
+
+  @Test
+  public void rendersCountersAndGauges() {
+    getMetricsRegistry().counter("test_total", "Test count").add(3);
+    getMetricsRegistry().gauge("test_in_flight", "Test gauge", "tenant", "a").set(5);
+    getMetricsRegistry().computedGauge("test_computed", "Computed", () -> 7);
+
+    final String text = getMetricsRegistry().toPrometheusText();
+
+    assertThat(text, containsString("test_total 3"));
+    assertThat(text, containsString("test_in_flight{tenant=\"a\"} 5"));
+    assertThat(text, containsString("test_computed 7"));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void cannotRegisterSameNameWithDifferentType() {
+    getMetricsRegistry().counter("test_metric", "Counter");
+    getMetricsRegistry().gauge("test_metric", "Gauge");
+  }
+}
@@ -0,0 +1,33 @@
+package org.folio.circulation.support.metrics;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import org.junit.Test;
+
+import io.vertx.ext.web.Route;
+
+public class RouteMetricsTests {
+  @Test
+  public void usesPathOfRouteAsRegistered() {
+    final Route route = mock(Route.class);
+
+    when(route.getPath()).thenReturn("/circulation/loans/:id");
+
+    assertThat(RouteMetrics.routeOf(route), is("/circulation/loans/:id"));
+  }
+
+  @Test
+  public void requestsWhichDoNotMatchARouteAreRecordedTogether() {
+    assertThat(RouteMetrics.routeOf(mock(Route.class)), is("unmatched"));
+    assertThat(RouteMetrics.routeOf(null), is("unmatched"));
+  }
+
+  @Test
+  public void statusCodesAreRecordedByClass() {
+    assertThat(RouteMetrics.statusClass(201), is("2xx"));
+    assertThat(RouteMetrics.statusClass(422), is("4xx"));
+  }
+}